@@ -0,0 +1,46 @@
+package com.quadexercise.quad.dto;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures QuestionDTO construction, which is dominated by generating its ID.
+ * The UUID variant replaces the compact ID with a random UUID string, as the
+ * DTO originally did, to show how much of the cost the ID accounts for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QuestionDtoBenchmark {
+
+    @Benchmark
+    public QuestionDTO construct() {
+        return new QuestionDTO();
+    }
+
+    @Benchmark
+    public QuestionDTO constructWithUuid() {
+        QuestionDTO question = new QuestionDTO();
+        question.setId(UUID.randomUUID().toString());
+        return question;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public QuestionDTO constructAllCores() {
+        return new QuestionDTO();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public QuestionDTO constructWithUuidAllCores() {
+        QuestionDTO question = new QuestionDTO();
+        question.setId(UUID.randomUUID().toString());
+        return question;
+    }
+}
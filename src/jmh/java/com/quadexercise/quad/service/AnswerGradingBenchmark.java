@@ -0,0 +1,60 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures grading a submitted batch of answers through TriviaAnswerService,
+ * for each answer store mode. Half of the answers in a batch are correct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnswerGradingBenchmark {
+
+    private static final String CORRECT_ANSWER = "The Lord of the Rings";
+    private static final String WRONG_ANSWER = "The Hobbit";
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int answers;
+
+    @Param({"store", "index", "token"})
+    public String mode;
+
+    private TriviaAnswerService _answerService;
+    private List<AnswerDTO> _submission;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Headroom so uneven segment fill in index mode never evicts a submitted question
+        _answerService = new TriviaAnswerService(
+                mode, answers * 2, TimeUnit.HOURS.toMillis(1L), "benchmark-secret");
+        _submission = new ArrayList<>(answers);
+        for (int i = 0; i < answers; i++) {
+            QuestionDTO question = new QuestionDTO();
+            question.setAnswers(List.of(WRONG_ANSWER, CORRECT_ANSWER));
+            _answerService.registerQuestion(question, CORRECT_ANSWER);
+
+            boolean correct = i % 2 == 0;
+            AnswerDTO answer = new AnswerDTO();
+            answer.setQuestionId(question.getId());
+            answer.setSelectedAnswer(correct ? CORRECT_ANSWER : WRONG_ANSWER);
+            answer.setSelectedIndex(correct ? 1 : 0);
+            _submission.add(answer);
+        }
+    }
+
+    @Benchmark
+    public List<AnswerResultDTO> checkAnswers() {
+        return _answerService.checkAnswers(_submission);
+    }
+}
@@ -0,0 +1,49 @@
+package com.quadexercise.quad.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Copy of the original monitor-based rate limiter, kept as a benchmark baseline.
+ * Holds one monitor while waiting and while running the operation.
+ */
+class MonitorRateLimiter {
+
+    private final long _intervalMs;
+    private long _lastRequestTime;
+
+    MonitorRateLimiter(long intervalMs) {
+        _intervalMs = intervalMs;
+        _lastRequestTime = 0L;
+    }
+
+    <T> T rateLimit(Supplier<T> operation) {
+        synchronized (this) {
+            long elapsed = System.currentTimeMillis() - _lastRequestTime;
+            long millisecondsToWait = _intervalMs - elapsed;
+
+            if (millisecondsToWait > 0L) {
+                waitForRateLimit(millisecondsToWait);
+            }
+            try {
+                return operation.get();
+            } finally {
+                _lastRequestTime = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private synchronized void waitForRateLimit(long millisecondsToWait) {
+        long waitEnd = System.currentTimeMillis() + millisecondsToWait;
+        long remainingWait = millisecondsToWait;
+
+        while (remainingWait > 0L) {
+            try {
+                wait(remainingWait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Rate limit wait interrupted", e);
+            }
+            remainingWait = waitEnd - System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.quadexercise.quad.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the metrics recorded for one /questions request and the grading of its answers:
+ * rate-limit wait, upstream latency, parse time and question count, and one counter
+ * update per graded answer. Compared against the no-op metrics used outside Spring,
+ * this is the instrumentation overhead per request, which should stay under a microsecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineMetricsBenchmark {
+
+    private static final int QUESTIONS_PER_REQUEST = 10;
+    private static final long UPSTREAM_NANOS = 80_000_000L;
+    private static final long PARSE_NANOS = 40_000L;
+
+    @Param({"registry", "noop"})
+    public String metrics;
+
+    private TriviaPipelineMetrics _metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _metrics = "noop".equals(metrics)
+                ? TriviaPipelineMetrics.noop()
+                : new TriviaPipelineMetrics(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void perRequest() {
+        record();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void perRequestAllCores() {
+        record();
+    }
+
+    private void record() {
+        _metrics.recordRateLimitWait(0L);
+        _metrics.recordUpstream(UPSTREAM_NANOS, null);
+        _metrics.recordParse(PARSE_NANOS, QUESTIONS_PER_REQUEST);
+        for (int i = 0; i < QUESTIONS_PER_REQUEST; i++) {
+            _metrics.recordAnswer((i & 1) == 0);
+        }
+    }
+}
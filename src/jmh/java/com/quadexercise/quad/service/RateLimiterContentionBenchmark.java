@@ -0,0 +1,78 @@
+package com.quadexercise.quad.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the reservation-based limiter with the original monitor-based one.
+ * Each invocation releases a burst of concurrent callers that each pass through
+ * the limiter once and measures how long the whole burst takes to drain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int callers;
+
+    @Param({"0", "1"})
+    public long intervalMs;
+
+    @Param({"reservation", "monitor"})
+    public String implementation;
+
+    private ExecutorService _executor;
+    private Supplier<Integer> _operation;
+    private TriviaRateLimitService _reservationLimiter;
+    private MonitorRateLimiter _monitorLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _executor = Executors.newFixedThreadPool(callers);
+        _operation = () -> 1;
+        _reservationLimiter = new TriviaRateLimitService(
+                new MessageService(new StaticMessageSource()), intervalMs);
+        _monitorLimiter = new MonitorRateLimiter(intervalMs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        _executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(callers);
+        boolean reservation = "reservation".equals(implementation);
+
+        for (int i = 0; i < callers; i++) {
+            _executor.execute(() -> {
+                try {
+                    start.await();
+                    if (reservation) {
+                        _reservationLimiter.rateLimit(_operation);
+                    } else {
+                        _monitorLimiter.rateLimit(_operation);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+    }
+}
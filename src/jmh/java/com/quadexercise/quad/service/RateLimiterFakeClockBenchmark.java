@@ -0,0 +1,74 @@
+package com.quadexercise.quad.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the limiter's own overhead under thread contention, without real waiting.
+ * The clock is frozen and waits are skipped, so every call reserves a slot with the
+ * compare-and-set and returns; with a non-zero interval every caller also computes
+ * a wait, as it would when the limiter is saturated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RateLimiterFakeClockBenchmark {
+
+    private static final long FAKE_NOW_MS = 1_000_000L;
+
+    @Param({"0", "5000"})
+    public long intervalMs;
+
+    private TriviaRateLimitService _limiter;
+    private Supplier<Integer> _operation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _limiter = new FakeClockRateLimitService(intervalMs);
+        _operation = () -> 1;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer singleThread() {
+        return _limiter.rateLimit(_operation);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer fourThreads() {
+        return _limiter.rateLimit(_operation);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer allCores() {
+        return _limiter.rateLimit(_operation);
+    }
+
+    /**
+     * Limiter with a frozen clock whose waits return immediately.
+     */
+    private static final class FakeClockRateLimitService extends TriviaRateLimitService {
+
+        private FakeClockRateLimitService(long intervalMs) {
+            super(new MessageService(new StaticMessageSource()), intervalMs);
+        }
+
+        @Override
+        public long getCurrentTimeMillis() {
+            return FAKE_NOW_MS;
+        }
+
+        @Override
+        void waitForRateLimit(long millisecondsToWait, Thread currentThread) {
+            // Skipped so only the reservation itself is measured
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.utils.ApiConstants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a new process takes to take over the answers of the process it replaces.
+ * Registers the given number of answers (1 million by default) with one handoff service, then
+ * times a second one taking them over through the Unix domain socket, as a new process would.
+ * Run with ./gradlew stateHandoff [-PstateHandoff.entries=N]
+ */
+public final class StateHandoff {
+
+    private static final int DEFAULT_ENTRIES = 1_000_000;
+    private static final int DISTINCT_ANSWERS = 20_000;
+    private static final long TTL_MS = TimeUnit.HOURS.toMillis(1L);
+    private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1L);
+
+    private StateHandoff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+        Path directory = Files.createTempDirectory("state-handoff");
+        String socket = directory.resolve("handoff.sock").toString();
+        TriviaStateHandoffService previous = null;
+        TriviaStateHandoffService next = null;
+        try {
+            TriviaAnswerService answers = new TriviaAnswerService(
+                    TriviaAnswerService.MODE_STORE, entries, TTL_MS, "");
+            for (int i = 0; i < entries; i++) {
+                QuestionDTO question = new QuestionDTO();
+                String answer = "Answer " + i % DISTINCT_ANSWERS;
+                question.setAnswers(List.of(answer));
+                answers.registerQuestion(question, answer);
+            }
+            previous = new TriviaStateHandoffService(
+                    new TriviaRateLimitService(null, ApiConstants.RATE_LIMIT_MS), answers, true, socket, TIMEOUT_MS);
+            previous.ready();
+
+            TriviaAnswerService takenOver = new TriviaAnswerService(
+                    TriviaAnswerService.MODE_STORE, entries, TTL_MS, "");
+            next = new TriviaStateHandoffService(
+                    new TriviaRateLimitService(null, ApiConstants.RATE_LIMIT_MS), takenOver, true, socket, TIMEOUT_MS);
+            long start = System.nanoTime();
+            next.start();
+            System.out.printf("Took over %,d answers in %d ms%n", takenOver.getStats().getSize(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            if (previous != null) {
+                previous.stop();
+            }
+            if (next != null) {
+                next.stop();
+            }
+            Files.deleteIfExists(Path.of(socket));
+            Files.delete(directory);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.quadexercise.quad.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.utils.JsonValidator;
+import com.quadexercise.quad.utils.TriviaDtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original tree-based response parsing with the streaming parser.
+ * The tree path reads the full response into a JsonNode, validates it and maps
+ * each result node; the streaming paths parse the same payload in one pass.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TriviaParsingBenchmark {
+
+    private static final String RESULT = "{\"category\":\"Science &amp; Nature\",\"type\":\"multiple\"," +
+            "\"difficulty\":\"medium\",\"question\":\"What is the chemical symbol for %d?\"," +
+            "\"correct_answer\":\"Answer %d\"," +
+            "\"incorrect_answers\":[\"Wrong A\",\"Wrong B\",\"Wrong C\"]}";
+
+    @Param({"5", "50"})
+    public int questions;
+
+    private ObjectMapper _objectMapper;
+    private TriviaParsingService _parsingService;
+    private String _response;
+    private byte[] _responseBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _objectMapper = new ObjectMapper();
+        _parsingService = new TriviaParsingService(_objectMapper);
+
+        StringBuilder response = new StringBuilder("{\"response_code\":0,\"results\":[");
+        for (int i = 0; i < questions; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            response.append(String.format(RESULT, i, i));
+        }
+        response.append("]}");
+        _response = response.toString();
+        _responseBytes = _response.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<QuestionDTO> tree() throws IOException {
+        Map<String, String> questionAnswers = new HashMap<>(questions);
+        JsonNode root = _objectMapper.readTree(_response);
+        JsonValidator.validateTriviaResponse(root);
+
+        JsonNode results = root.get("results");
+        List<QuestionDTO> parsed = new ArrayList<>(results.size());
+        for (JsonNode result : results) {
+            parsed.add(TriviaDtoMapper.createQuestionDtoFromNode(result, questionAnswers));
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public List<QuestionDTO> streamingString() {
+        return _parsingService.parseQuestionsFromResponse(_response, new HashMap<>(questions));
+    }
+
+    @Benchmark
+    public List<QuestionDTO> streamingInputStream() {
+        return _parsingService.parseQuestionsFromStream(
+                new ByteArrayInputStream(_responseBytes), new HashMap<>(questions));
+    }
+}
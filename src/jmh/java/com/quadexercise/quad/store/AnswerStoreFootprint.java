@@ -0,0 +1,65 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.utils.QuestionIds;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures retained heap per stored answer for the original UUID-keyed map
+ * and for the long-keyed bounded store. Answers share one String instance
+ * so only the per-entry overhead is counted.
+ * Run with ./gradlew answerStoreFootprint
+ */
+public final class AnswerStoreFootprint {
+
+    private static final int ENTRIES = 200_000;
+    private static final String ANSWER = "The Lord of the Rings";
+
+    private AnswerStoreFootprint() {
+    }
+
+    public static void main(String[] args) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        report("UUID String keys, HashMap", measureUuidMap(memory));
+        report("long keys, BoundedAnswerStore", measureBoundedStore(memory));
+    }
+
+    private static long measureUuidMap(MemoryMXBean memory) {
+        long before = usedHeap(memory);
+        Map<String, String> answers = new HashMap<>(0);
+        for (int i = 0; i < ENTRIES; i++) {
+            answers.put(UUID.randomUUID().toString(), ANSWER);
+        }
+        long used = usedHeap(memory) - before;
+        Reference.reachabilityFence(answers);
+        return used;
+    }
+
+    private static long measureBoundedStore(MemoryMXBean memory) {
+        long before = usedHeap(memory);
+        BoundedAnswerStore answers = new BoundedAnswerStore(ENTRIES, TimeUnit.HOURS.toMillis(1L));
+        for (int i = 0; i < ENTRIES; i++) {
+            answers.put(QuestionIds.next(), ANSWER);
+        }
+        long used = usedHeap(memory) - before;
+        Reference.reachabilityFence(answers);
+        return used;
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void report(String label, long bytes) {
+        System.out.printf("%-32s %8.1f bytes/entry%n", label, (double) bytes / ENTRIES);
+    }
+}
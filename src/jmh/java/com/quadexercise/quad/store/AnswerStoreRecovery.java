@@ -0,0 +1,57 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.utils.QuestionIds;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long the durable answer store takes to recover from a snapshot.
+ * Writes a snapshot of the given number of answers (10 million by default) to a
+ * temporary directory, then times opening a store on it.
+ * Run with ./gradlew answerStoreRecovery [-PanswerStoreRecovery.entries=N]
+ */
+public final class AnswerStoreRecovery {
+
+    private static final int DEFAULT_ENTRIES = 10_000_000;
+    private static final int DISTINCT_ANSWERS = 20_000;
+    private static final long TTL_MS = TimeUnit.HOURS.toMillis(1L);
+
+    private AnswerStoreRecovery() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+        Path directory = Files.createTempDirectory("answer-store-recovery");
+        try {
+            BoundedAnswerStore answers = new BoundedAnswerStore(entries, TTL_MS);
+            for (int i = 0; i < entries; i++) {
+                answers.put(QuestionIds.next(), "Answer " + i % DISTINCT_ANSWERS);
+            }
+            long start = System.nanoTime();
+            AnswerSnapshot.write(directory.resolve("answers-1.snap"), answers);
+            System.out.printf("Wrote %,d answers in %d ms%n", entries, elapsedMs(start));
+            answers = null;
+            System.gc();
+
+            start = System.nanoTime();
+            DurableAnswerStore recovered = new DurableAnswerStore(entries, TTL_MS, directory, 0L);
+            System.out.printf("Recovered %,d answers in %d ms%n", recovered.getStats().getSize(), elapsedMs(start));
+            recovered.close();
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,64 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.utils.QuestionIds;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of looking up a correct answer in the in-memory store
+ * with verifying and decrypting a self-contained answer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnswerVerificationBenchmark {
+
+    private static final String CORRECT_ANSWER = "The Lord of the Rings";
+    private static final int STORED_ANSWERS = 10_000;
+
+    private BoundedAnswerStore _store;
+    private AnswerTokenCodec _codec;
+    private long _storedId;
+    private String _token;
+    private String _forgedToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _store = new BoundedAnswerStore(STORED_ANSWERS, TimeUnit.HOURS.toMillis(1L));
+        for (int i = 0; i < STORED_ANSWERS; i++) {
+            _storedId = QuestionIds.next();
+            _store.put(_storedId, CORRECT_ANSWER);
+        }
+
+        _codec = new AnswerTokenCodec("benchmark-secret".getBytes(StandardCharsets.UTF_8),
+                TimeUnit.HOURS.toMillis(1L));
+        _token = _codec.encode(CORRECT_ANSWER);
+        _forgedToken = new AnswerTokenCodec("other-secret".getBytes(StandardCharsets.UTF_8),
+                TimeUnit.HOURS.toMillis(1L)).encode(CORRECT_ANSWER);
+    }
+
+    @Benchmark
+    public String storeLookup() {
+        return _store.get(_storedId);
+    }
+
+    @Benchmark
+    public String tokenVerify() {
+        return _codec.decode(_token);
+    }
+
+    @Benchmark
+    public String tokenReject() {
+        return _codec.decode(_forgedToken);
+    }
+
+    @Benchmark
+    public String tokenIssue() {
+        return _codec.encode(CORRECT_ANSWER);
+    }
+}
@@ -0,0 +1,49 @@
+package com.quadexercise.quad.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares question ID generation throughput of random UUID strings with
+ * compact 64-bit IDs, on one thread and on every available core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QuestionIdBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public String uuidSingleThread() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String uuidAllCores() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String compactSingleThread() {
+        return QuestionIds.nextString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String compactAllCores() {
+        return QuestionIds.nextString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long compactRawAllCores() {
+        return QuestionIds.next();
+    }
+}
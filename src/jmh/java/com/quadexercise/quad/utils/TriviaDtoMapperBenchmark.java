@@ -0,0 +1,47 @@
+package com.quadexercise.quad.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadexercise.quad.dto.QuestionDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping one already parsed result to a QuestionDTO, from a JsonNode
+ * and from extracted field values, to separate mapping cost from parsing cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TriviaDtoMapperBenchmark {
+
+    private static final String RESULT = "{\"category\":\"Science &amp; Nature\",\"type\":\"multiple\"," +
+            "\"difficulty\":\"medium\",\"question\":\"What is the chemical symbol for gold?\"," +
+            "\"correct_answer\":\"Au\",\"incorrect_answers\":[\"Ag\",\"Gd\",\"Go\"]}";
+    private static final List<String> INCORRECT_ANSWERS = List.of("Ag", "Gd", "Go");
+
+    private JsonNode _resultNode;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _resultNode = new ObjectMapper().readTree(RESULT);
+    }
+
+    @Benchmark
+    public QuestionDTO fromNode() {
+        return TriviaDtoMapper.createQuestionDtoFromNode(_resultNode, new HashMap<>(2));
+    }
+
+    @Benchmark
+    public QuestionDTO fromFields() {
+        return TriviaDtoMapper.createQuestionDto("Science &amp; Nature", "multiple", "medium",
+                "What is the chemical symbol for gold?", "Au", INCORRECT_ANSWERS, new HashMap<>(2));
+    }
+}
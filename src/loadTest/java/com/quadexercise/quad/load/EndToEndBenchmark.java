@@ -0,0 +1,77 @@
+package com.quadexercise.quad.load;
+
+import com.quadexercise.quad.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Drives /questions, /checkanswers and /play with the closed-loop load generator and
+ * reports throughput and p50/p99/p99.9 latency per endpoint.
+ * By default the application is started in-process against a {@link StubTriviaServer},
+ * so the whole run stays on the loopback interface; with e2e.target set, an already
+ * running application is used instead and no stub is started.
+ * Run with ./gradlew endToEndBenchmark [-Pe2e.workers=64] [-Pe2e.durationSeconds=30]
+ * [-Pe2e.latency=lognormal:50:0.5] [-Pe2e.errorRate=0.01] [-Pe2e.responseCodes=0:98,5:2].
+ */
+public final class EndToEndBenchmark {
+
+    private static final int DEFAULT_WORKERS = 32;
+    private static final int DEFAULT_AMOUNT = 5;
+    private static final long DEFAULT_WARMUP_SECONDS = 10L;
+    private static final long DEFAULT_DURATION_SECONDS = 30L;
+
+    private EndToEndBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int workers = Integer.getInteger("e2e.workers", DEFAULT_WORKERS);
+        int amount = Integer.getInteger("e2e.amount", DEFAULT_AMOUNT);
+        Duration warmup = Duration.ofSeconds(Long.getLong("e2e.warmupSeconds", DEFAULT_WARMUP_SECONDS));
+        Duration duration = Duration.ofSeconds(Long.getLong("e2e.durationSeconds", DEFAULT_DURATION_SECONDS));
+        String target = System.getProperty("e2e.target", "");
+
+        if (!target.isEmpty()) {
+            run(URI.create(target), workers, amount, warmup, duration);
+            return;
+        }
+
+        LatencyDistribution latency = LatencyDistribution.parse(
+                System.getProperty("e2e.latency", StubTriviaServer.DEFAULT_LATENCY));
+        double errorRate = Double.parseDouble(System.getProperty("e2e.errorRate", "0"));
+        String responseCodes = System.getProperty("e2e.responseCodes", "0");
+
+        try (StubTriviaServer stub = StubTriviaServer.start(0, latency, errorRate, responseCodes)) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .properties(
+                            "server.port=0",
+                            "trivia.upstream.base-url=" + stub.baseUrl(),
+                            "trivia.rate-limit.interval-ms=" + System.getProperty("e2e.rateLimitMs", "0"),
+                            "trivia.pool.enabled=" + System.getProperty("e2e.pool", "false"),
+                            "logging.level.root=WARN")
+                    .run();
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                System.out.printf("Stub upstream latency %s, error rate %.3f, response codes %s%n",
+                        latency, errorRate, responseCodes);
+                run(URI.create("http://127.0.0.1:" + port), workers, amount, warmup, duration);
+                System.out.printf("Upstream requests served by the stub: %d%n", stub.requestCount());
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(URI target, int workers, int amount, Duration warmup, Duration duration)
+            throws InterruptedException {
+        System.out.printf("%d workers, %d questions per session against %s, %d s warmup, %d s measured%n",
+                workers, amount, target, warmup.toSeconds(), duration.toSeconds());
+        Map<String, LatencySamples> results = new LoadGenerator(target, workers, amount).run(warmup, duration);
+        LoadGenerator.report(results, duration);
+    }
+}
@@ -0,0 +1,78 @@
+package com.quadexercise.quad.load;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated upstream response delay.
+ * Parsed from a spec of the form {@code fixed:<ms>}, {@code uniform:<min ms>:<max ms>}
+ * or {@code lognormal:<median ms>:<sigma>}; the last gives the long tail real APIs show.
+ */
+final class LatencyDistribution {
+
+    private final String _spec;
+    private final Kind _kind;
+    private final double _first;
+    private final double _second;
+
+    private LatencyDistribution(String spec, Kind kind, double first, double second) {
+        _spec = spec;
+        _kind = kind;
+        _first = first;
+        _second = second;
+    }
+
+    /**
+     * Parses a latency spec.
+     *
+     * @param spec The spec, e.g. "fixed:50", "uniform:20:80" or "lognormal:50:0.6"
+     * @return The distribution
+     * @throws IllegalArgumentException if the spec is not recognised
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            Kind kind = Kind.valueOf(parts[0].toUpperCase(Locale.ROOT));
+            if (parts.length != kind._arguments + 1) {
+                throw new IllegalArgumentException("Invalid latency spec: " + spec);
+            }
+            double first = Double.parseDouble(parts[1]);
+            double second = kind._arguments > 1 ? Double.parseDouble(parts[2]) : 0.0;
+            return new LatencyDistribution(spec, kind, first, second);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid latency spec: " + spec, e);
+        }
+    }
+
+    /**
+     * Draws one delay.
+     *
+     * @return The delay in milliseconds, never negative
+     */
+    long sampleMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double delay = switch (_kind) {
+            case FIXED -> _first;
+            case UNIFORM -> _first + random.nextDouble() * (_second - _first);
+            case LOGNORMAL -> _first * Math.exp(_second * random.nextGaussian());
+        };
+        return Math.max(Math.round(delay), 0L);
+    }
+
+    @Override
+    public String toString() {
+        return _spec;
+    }
+
+    private enum Kind {
+        FIXED(1),
+        UNIFORM(2),
+        LOGNORMAL(2);
+
+        private final int _arguments;
+
+        Kind(int arguments) {
+            _arguments = arguments;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.quadexercise.quad.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies and error count recorded for one endpoint by one load worker.
+ * Not thread-safe; each worker keeps its own and they are merged at the end.
+ */
+final class LatencySamples {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private long[] _nanos = new long[INITIAL_CAPACITY];
+    private int _size;
+    private int _errors;
+
+    void record(long nanos) {
+        if (_size == _nanos.length) {
+            _nanos = Arrays.copyOf(_nanos, _size * 2);
+        }
+        _nanos[_size++] = nanos;
+    }
+
+    void recordError() {
+        _errors++;
+    }
+
+    void addAll(LatencySamples other) {
+        for (int i = 0; i < other._size; i++) {
+            record(other._nanos[i]);
+        }
+        _errors += other._errors;
+    }
+
+    int size() {
+        return _size;
+    }
+
+    int errors() {
+        return _errors;
+    }
+
+    /**
+     * Returns the given percentile of the recorded latencies.
+     * Sorts the samples, so call it only once recording has finished.
+     *
+     * @param percentile Between 0 and 1, e.g. 0.999 for p99.9
+     * @return The latency in microseconds, or 0 if nothing was recorded
+     */
+    long percentileMicros(double percentile) {
+        if (_size == 0) {
+            return 0L;
+        }
+        Arrays.sort(_nanos, 0, _size);
+        int index = (int) Math.ceil(percentile * _size) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(_nanos[Math.max(index, 0)]);
+    }
+}
@@ -0,0 +1,177 @@
+package com.quadexercise.quad.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closed-loop load generator: a fixed number of workers each repeat a play session
+ * (GET /questions, POST /checkanswers for those questions, GET /play) as fast as the
+ * application answers, so offered load tracks what the server can sustain.
+ * Latencies recorded during the warmup are discarded.
+ */
+final class LoadGenerator {
+
+    static final String QUESTIONS = "GET /questions";
+    static final String CHECK_ANSWERS = "POST /checkanswers";
+    static final String PLAY = "GET /play";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI _target;
+    private final int _workers;
+    private final int _amount;
+    private final HttpClient _client;
+
+    /**
+     * @param target  The application's base URL, e.g. http://127.0.0.1:8080
+     * @param workers The number of concurrent sessions
+     * @param amount  The number of questions per session
+     */
+    LoadGenerator(URI target, int workers, int amount) {
+        _target = target;
+        _workers = workers;
+        _amount = amount;
+        _client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Runs the workers for the warmup and then the measured duration.
+     *
+     * @param warmup   Time to run before recording
+     * @param duration Time to record for
+     * @return The merged samples, keyed by endpoint
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    Map<String, LatencySamples> run(Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Worker> workers = new ArrayList<>(_workers);
+        for (int i = 0; i < _workers; i++) {
+            Worker worker = new Worker(measureFrom, stopAt);
+            worker.setName("load-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        LatencySamples questions = new LatencySamples();
+        LatencySamples checkAnswers = new LatencySamples();
+        LatencySamples play = new LatencySamples();
+        for (Worker worker : workers) {
+            worker.join();
+            questions.addAll(worker._questions);
+            checkAnswers.addAll(worker._checkAnswers);
+            play.addAll(worker._play);
+        }
+        return Map.of(QUESTIONS, questions, CHECK_ANSWERS, checkAnswers, PLAY, play);
+    }
+
+    /**
+     * Prints throughput, latency percentiles and error count for each endpoint.
+     *
+     * @param results  The samples returned by {@link #run}
+     * @param duration The measured duration
+     */
+    static void report(Map<String, LatencySamples> results, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%-20s %10s %10s %10s %10s %8s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        for (String endpoint : List.of(QUESTIONS, CHECK_ANSWERS, PLAY)) {
+            LatencySamples samples = results.get(endpoint);
+            System.out.printf("%-20s %10.1f %10.2f %10.2f %10.2f %8d%n",
+                    endpoint,
+                    samples.size() / seconds,
+                    samples.percentileMicros(0.50) / 1000.0,
+                    samples.percentileMicros(0.99) / 1000.0,
+                    samples.percentileMicros(0.999) / 1000.0,
+                    samples.errors());
+        }
+    }
+
+    private final class Worker extends Thread {
+
+        private final long _measureFrom;
+        private final long _stopAt;
+        private final LatencySamples _questions = new LatencySamples();
+        private final LatencySamples _checkAnswers = new LatencySamples();
+        private final LatencySamples _play = new LatencySamples();
+
+        private Worker(long measureFrom, long stopAt) {
+            _measureFrom = measureFrom;
+            _stopAt = stopAt;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < _stopAt && !isInterrupted()) {
+                HttpResponse<String> questions = send(_questions,
+                        HttpRequest.newBuilder(_target.resolve("/questions?amount=" + _amount)).GET());
+                if (questions != null) {
+                    send(_checkAnswers, HttpRequest.newBuilder(_target.resolve("/checkanswers"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(createAnswers(questions.body()))));
+                }
+                send(_play, HttpRequest.newBuilder(_target.resolve("/play?amount=" + _amount)).GET());
+            }
+        }
+
+        private HttpResponse<String> send(LatencySamples samples, HttpRequest.Builder request) {
+            long sent = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = _client.send(request.timeout(REQUEST_TIMEOUT).build(),
+                        HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                response = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            long received = System.nanoTime();
+            boolean ok = response != null && response.statusCode() == 200;
+            if (sent >= _measureFrom && received <= _stopAt) {
+                if (ok) {
+                    samples.record(received - sent);
+                } else {
+                    samples.recordError();
+                }
+            }
+            return ok ? response : null;
+        }
+    }
+
+    /**
+     * Answers every question with its first option, which is right about a quarter of the time.
+     */
+    private static String createAnswers(String questionsJson) {
+        try {
+            ArrayNode answers = MAPPER.createArrayNode();
+            for (JsonNode question : MAPPER.readTree(questionsJson)) {
+                ObjectNode answer = answers.addObject();
+                answer.put("questionId", question.path("id").asText());
+                answer.put("selectedAnswer", question.path("answers").path(0).asText());
+                answer.put("selectedIndex", 0);
+            }
+            return MAPPER.writeValueAsString(answers);
+        } catch (IOException e) {
+            return "[]";
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.quadexercise.quad.load;
+
+import com.quadexercise.quad.Application;
+import com.quadexercise.quad.interfaces.ITriviaUpstreamClient;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the application with a stubbed upstream and fires concurrent GET /questions
+ * calls at it, then reports peak platform thread count and latency percentiles.
+ * The stub answers after a fixed delay and the rate limit is disabled, so the
+ * numbers reflect how the web tier copes with many callers waiting at once.
+ * Run with ./gradlew loadTest, optionally with -PloadTest.callers=N and, on a
+ * Java 21 toolchain (-PjavaVersion=21), -PloadTest.virtual=true.
+ */
+public final class QuestionsLoadTest {
+
+    private static final int DEFAULT_CALLERS = 5_000;
+    private static final long UPSTREAM_LATENCY_MS = 200L;
+    private static final long TIMEOUT_SECONDS = 120L;
+
+    private QuestionsLoadTest() {
+    }
+
+    public static void main(String[] args) {
+        int callers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CALLERS;
+        boolean virtualThreads = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                Application.class, StubUpstreamConfiguration.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.accept-count=" + callers,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "trivia.rate-limit.interval-ms=0",
+                        "trivia.pool.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            run(URI.create("http://localhost:" + port + "/questions?amount=5"), callers, virtualThreads);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(URI uri, int callers, boolean virtualThreads) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long[] latencies = new long[callers];
+        AtomicInteger failures = new AtomicInteger();
+        AtomicLong peakThreads = new AtomicLong(threads.getThreadCount());
+        threads.resetPeakThreadCount();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[callers];
+        for (int i = 0; i < callers; i++) {
+            int caller = i;
+            long sent = System.nanoTime();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[caller] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(calls).orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Arrays.sort(latencies);
+        System.out.printf("%s threads, %d concurrent callers, upstream latency %d ms%n",
+                virtualThreads ? "Virtual" : "Platform", callers, UPSTREAM_LATENCY_MS);
+        System.out.printf("  completed in %d ms, %d failed%n", elapsedMs, failures.get());
+        System.out.printf("  peak platform threads: %d%n",
+                Math.max(peakThreads.get(), threads.getPeakThreadCount()));
+        System.out.printf("  latency p50 %d ms, p99 %d ms, max %d ms%n",
+                percentileMs(latencies, 0.50), percentileMs(latencies, 0.99), percentileMs(latencies, 1.0));
+    }
+
+    private static long percentileMs(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(index, 0)]);
+    }
+
+    /**
+     * Replaces the upstream client with one that answers every request with
+     * the requested number of questions after a fixed delay.
+     * Not a component, so the application's package scan does not pick it up.
+     */
+    static class StubUpstreamConfiguration {
+
+        @Bean
+        @Primary
+        ITriviaUpstreamClient stubUpstreamClient() {
+            return url -> CompletableFuture.supplyAsync(
+                    () -> createResponse(amountOf(url)),
+                    CompletableFuture.delayedExecutor(UPSTREAM_LATENCY_MS, TimeUnit.MILLISECONDS));
+        }
+
+        private static int amountOf(String url) {
+            int start = url.indexOf("amount=") + "amount=".length();
+            int end = url.indexOf('&', start);
+            return Integer.parseInt(end < 0 ? url.substring(start) : url.substring(start, end));
+        }
+
+        private static String createResponse(int amount) {
+            StringBuilder json = new StringBuilder("{\"response_code\":0,\"results\":[");
+            for (int i = 0; i < amount; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"type\":\"multiple\",\"difficulty\":\"easy\",\"category\":\"General Knowledge\",")
+                        .append("\"question\":\"Question ").append(i).append("\",")
+                        .append("\"correct_answer\":\"Right\",")
+                        .append("\"incorrect_answers\":[\"Wrong 1\",\"Wrong 2\",\"Wrong 3\"]}");
+            }
+            return json.append("]}").toString();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.quadexercise.quad.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Open Trivia Database, serving /api.php?amount=N on the loopback
+ * interface so the application can be benchmarked without network access.
+ * Each response is delayed by a draw from the configured latency distribution; a share
+ * of requests can fail with HTTP 500 or carry a non-zero response_code, as the real API
+ * does when it is rate limiting (5) or has too few questions (1).
+ * Delays are scheduled rather than slept, so a handful of threads can hold thousands
+ * of slow responses open.
+ * Run standalone with ./gradlew stubUpstream [-Pstub.port=8089] [-Pstub.latency=lognormal:50:0.5]
+ * [-Pstub.errorRate=0.01] [-Pstub.responseCodes=0:98,5:2].
+ */
+public final class StubTriviaServer implements AutoCloseable {
+
+    static final int DEFAULT_PORT = 8089;
+    static final String DEFAULT_LATENCY = "fixed:50";
+
+    private static final String API_PATH = "/api.php";
+    private static final String AMOUNT_PARAM = "amount=";
+    private static final int DEFAULT_AMOUNT = 10;
+    private static final int SCHEDULER_THREADS = 4;
+
+    private final HttpServer _server;
+    private final ScheduledExecutorService _scheduler;
+    private final LatencyDistribution _latency;
+    private final double _errorRate;
+    private final int[] _responseCodes;
+    private final int[] _cumulativeWeights;
+    private final AtomicLong _requests = new AtomicLong();
+
+    private StubTriviaServer(HttpServer server, ScheduledExecutorService scheduler, LatencyDistribution latency,
+                             double errorRate, int[] responseCodes, int[] cumulativeWeights) {
+        _server = server;
+        _scheduler = scheduler;
+        _latency = latency;
+        _errorRate = errorRate;
+        _responseCodes = responseCodes.clone();
+        _cumulativeWeights = cumulativeWeights.clone();
+    }
+
+    /**
+     * Starts a stub server on the loopback interface.
+     *
+     * @param port          The port to listen on, or 0 for any free port
+     * @param latency       The response delay distribution
+     * @param errorRate     The share of requests answered with HTTP 500, between 0 and 1
+     * @param responseCodes Weighted response codes such as "0:98,5:2"
+     * @return The running server
+     * @throws IOException if the port cannot be bound
+     */
+    static StubTriviaServer start(int port, LatencyDistribution latency, double errorRate, String responseCodes)
+            throws IOException {
+        String[] entries = responseCodes.split(",");
+        int[] codes = new int[entries.length];
+        int[] cumulative = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split(":");
+            codes[i] = Integer.parseInt(parts[0]);
+            total += parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            cumulative[i] = total;
+        }
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(SCHEDULER_THREADS);
+        StubTriviaServer stub = new StubTriviaServer(server, scheduler, latency, errorRate, codes, cumulative);
+        server.createContext(API_PATH, stub::handle);
+        server.setExecutor(scheduler);
+        server.start();
+        return stub;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("stub.port", DEFAULT_PORT);
+        LatencyDistribution latency = LatencyDistribution.parse(System.getProperty("stub.latency", DEFAULT_LATENCY));
+        double errorRate = Double.parseDouble(System.getProperty("stub.errorRate", "0"));
+        String responseCodes = System.getProperty("stub.responseCodes", "0");
+
+        StubTriviaServer stub = start(port, latency, errorRate, responseCodes);
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.printf("Stub trivia API on %s (latency %s, error rate %.3f, response codes %s)%n",
+                stub.baseUrl(), latency, errorRate, responseCodes);
+    }
+
+    /**
+     * @return The URL to use as trivia.upstream.base-url
+     */
+    String baseUrl() {
+        return "http://127.0.0.1:" + _server.getAddress().getPort();
+    }
+
+    long requestCount() {
+        return _requests.get();
+    }
+
+    @Override
+    public void close() {
+        _server.stop(0);
+        _scheduler.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        _requests.incrementAndGet();
+        int amount = amountOf(exchange.getRequestURI().getRawQuery());
+        _scheduler.schedule(() -> respond(exchange, amount), _latency.sampleMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void respond(HttpExchange exchange, int amount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (random.nextDouble() < _errorRate) {
+                send(exchange, 500, "{\"error\":\"stub failure\"}");
+                return;
+            }
+            int responseCode = pickResponseCode(random);
+            send(exchange, 200, responseCode == 0
+                    ? createResponse(amount)
+                    : "{\"response_code\":" + responseCode + ",\"results\":[]}");
+        } catch (IOException e) {
+            // The client went away; nothing to report back
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private int pickResponseCode(ThreadLocalRandom random) {
+        int draw = random.nextInt(_cumulativeWeights[_cumulativeWeights.length - 1]);
+        for (int i = 0; i < _cumulativeWeights.length; i++) {
+            if (draw < _cumulativeWeights[i]) {
+                return _responseCodes[i];
+            }
+        }
+        return _responseCodes[_responseCodes.length - 1];
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static int amountOf(String query) {
+        if (query == null) {
+            return DEFAULT_AMOUNT;
+        }
+        int start = query.indexOf(AMOUNT_PARAM);
+        if (start < 0) {
+            return DEFAULT_AMOUNT;
+        }
+        start += AMOUNT_PARAM.length();
+        int end = query.indexOf('&', start);
+        return Integer.parseInt(end < 0 ? query.substring(start) : query.substring(start, end));
+    }
+
+    private static String createResponse(int amount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder json = new StringBuilder(128 + amount * 256).append("{\"response_code\":0,\"results\":[");
+        for (int i = 0; i < amount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"multiple\",\"difficulty\":\"")
+                    .append(random.nextBoolean() ? "easy" : "medium")
+                    .append("\",\"category\":\"General Knowledge\",")
+                    .append("\"question\":\"Stub question ").append(random.nextInt(1_000_000)).append("?\",")
+                    .append("\"correct_answer\":\"Right\",")
+                    .append("\"incorrect_answers\":[\"Wrong 1\",\"Wrong 2\",\"Wrong 3\"]}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,210 @@
+package com.quadexercise.quad.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body handed to the caller as a stream as soon as the headers arrive, like
+ * {@link HttpResponse.BodySubscribers#ofInputStream()}, but whose reads fail once the request's
+ * total deadline has passed, so an upstream stalling mid-body can't hold a reader forever.
+ * The body read time and bytes received are recorded when the body ends or the stream is closed.
+ */
+final class DeadlineBodyStream extends InputStream implements HttpResponse.BodySubscriber<InputStream> {
+
+    private static final Object END = new Object();
+
+    private final UpstreamClientMetrics _metrics;
+    private final long _start;
+    private final long _headersNanos;
+    private final long _deadlineNanos;
+    // Lists of buffers, END, or the Throwable the body failed with
+    private final BlockingQueue<Object> _items = new LinkedBlockingQueue<>();
+    private final CompletableFuture<InputStream> _body = CompletableFuture.completedFuture(this);
+
+    private volatile Flow.Subscription _subscription;
+    // Only touched by the reading thread
+    private Iterator<ByteBuffer> _buffers = List.<ByteBuffer>of().iterator();
+    private ByteBuffer _current = ByteBuffer.allocate(0);
+    private long _bytes;
+    private volatile boolean _done;
+    private IOException _failure;
+
+    /**
+     * Creates the body of a response whose headers just arrived.
+     *
+     * @param metrics       Receives the outcome of the request once the body is read
+     * @param start         Time the request started, from {@link System#nanoTime()}
+     * @param headersNanos  Time from the start until the headers arrived
+     * @param deadlineNanos Time by which the body must be read, from {@link System#nanoTime()}
+     */
+    DeadlineBodyStream(UpstreamClientMetrics metrics, long start, long headersNanos, long deadlineNanos) {
+        _metrics = metrics;
+        _start = start;
+        _headersNanos = headersNanos;
+        _deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public CompletionStage<InputStream> getBody() {
+        return _body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        _subscription = subscription;
+        subscription.request(1L);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        _items.offer(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        _items.offer(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        _items.offer(END);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextBuffer()) {
+            return -1;
+        }
+        int count = Math.min(length, _current.remaining());
+        _current.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return _current.remaining();
+    }
+
+    @Override
+    public void close() {
+        if (!_done) {
+            // The caller read what it needed; the rest of the body isn't wanted
+            finish(null);
+            Flow.Subscription subscription = _subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    /**
+     * Makes the current buffer one with bytes left, waiting for the next part of the body if needed.
+     *
+     * @return False at the end of the body
+     * @throws IOException if the body failed, or did not arrive before the deadline
+     */
+    private boolean nextBuffer() throws IOException {
+        while (!_current.hasRemaining()) {
+            if (_buffers.hasNext()) {
+                _current = _buffers.next();
+                continue;
+            }
+            if (_done) {
+                if (_failure != null) {
+                    throw _failure;
+                }
+                return false;
+            }
+            Object item = takeItem();
+            if (item == END) {
+                finish(null);
+                return false;
+            }
+            if (item instanceof Throwable failure) {
+                IOException error = failure instanceof IOException io ? io : new IOException(failure);
+                _failure = error;
+                finish(error);
+                throw error;
+            }
+            @SuppressWarnings("unchecked")
+            List<ByteBuffer> buffers = (List<ByteBuffer>) item;
+            for (ByteBuffer buffer : buffers) {
+                _bytes += buffer.remaining();
+            }
+            _buffers = buffers.iterator();
+            _subscription.request(1L);
+        }
+        return true;
+    }
+
+    private Object takeItem() throws IOException {
+        Object item;
+        try {
+            item = _items.poll(_deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IOException error = new IOException("Interrupted while reading the trivia API response", e);
+            fail(error);
+            throw error;
+        }
+        if (item == null) {
+            HttpTimeoutException error = new HttpTimeoutException(
+                    "Trivia API response body not received before the deadline");
+            fail(error);
+            throw error;
+        }
+        return item;
+    }
+
+    private void fail(IOException error) {
+        _failure = error;
+        finish(error);
+        _subscription.cancel();
+    }
+
+    /**
+     * Gives up on the body when the response can't be handed to the caller,
+     * recording the request as failed unless its outcome was recorded already.
+     *
+     * @param error Why the response is given up
+     */
+    void abort(Throwable error) {
+        if (!_done) {
+            finish(error);
+            Flow.Subscription subscription = _subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    private void finish(Throwable error) {
+        _done = true;
+        long totalNanos = System.nanoTime() - _start;
+        if (error == null) {
+            _metrics.recordSuccess(_headersNanos, totalNanos, _bytes);
+        } else {
+            _metrics.recordFailure(error, totalNanos);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.quadexercise.quad.client;
+
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import com.quadexercise.quad.interfaces.ITriviaUpstreamClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking upstream client built on the JDK HTTP client.
+ * Negotiates HTTP/2 where the server supports it, reuses pooled keep-alive
+ * connections, requests gzip compression, and enforces connect, read and
+ * total deadlines. A caller with less time left shortens the read and total
+ * deadlines of its own request. A streamed body must be read before the total deadline as well.
+ */
+public class JdkHttpTriviaUpstreamClient implements ITriviaUpstreamClient {
+
+    private static final String GZIP = "gzip";
+
+    private final HttpClient _httpClient;
+    private final Duration _readTimeout;
+    private final Duration _totalTimeout;
+    private final UpstreamClientMetrics _metrics;
+
+    public JdkHttpTriviaUpstreamClient(
+            Duration connectTimeout,
+            Duration readTimeout,
+            Duration totalTimeout,
+            UpstreamClientMetrics metrics) {
+        this(connectTimeout, readTimeout, totalTimeout, null, metrics);
+    }
+
+    /**
+     * Creates a client whose response handling runs on the given executor.
+     *
+     * @param executor Executor for the client's asynchronous tasks, or null for the JDK default
+     */
+    public JdkHttpTriviaUpstreamClient(
+            Duration connectTimeout,
+            Duration readTimeout,
+            Duration totalTimeout,
+            Executor executor,
+            UpstreamClientMetrics metrics) {
+        this(buildHttpClient(connectTimeout, executor), readTimeout, totalTimeout, metrics);
+    }
+
+    JdkHttpTriviaUpstreamClient(
+            HttpClient httpClient,
+            Duration readTimeout,
+            Duration totalTimeout,
+            UpstreamClientMetrics metrics) {
+        _httpClient = httpClient;
+        _readTimeout = readTimeout;
+        _totalTimeout = totalTimeout;
+        _metrics = metrics;
+    }
+
+    private static HttpClient buildHttpClient(Duration connectTimeout, Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public CompletableFuture<String> fetch(String url) {
+        return fetch(url, _totalTimeout);
+    }
+
+    @Override
+    public CompletableFuture<String> fetch(String url, Duration timeout) {
+        long start = System.nanoTime();
+        long[] headersNanos = new long[1];
+
+        return send(url, timeout, start, headersNanos, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    byte[] body = response.body();
+                    _metrics.recordSuccess(headersNanos[0], System.nanoTime() - start, body.length);
+                    return new String(decode(response, body), StandardCharsets.UTF_8);
+                })
+                .whenComplete((body, error) -> {
+                    if (error != null) {
+                        _metrics.recordFailure(error, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<InputStream> fetchStream(String url) {
+        return fetchStream(url, _totalTimeout);
+    }
+
+    @Override
+    public CompletableFuture<InputStream> fetchStream(String url, Duration timeout) {
+        long start = System.nanoTime();
+        long[] headersNanos = new long[1];
+        // The caller reads the body, so its stream records the outcome once the body is read
+        long deadline = start + effectiveTimeout(timeout).toNanos();
+        DeadlineBodyStream[] body = new DeadlineBodyStream[1];
+
+        return send(url, timeout, start, headersNanos, responseInfo ->
+                body[0] = new DeadlineBodyStream(_metrics, start, headersNanos[0], deadline))
+                .thenApply(JdkHttpTriviaUpstreamClient::decodeStream)
+                .whenComplete((stream, error) -> {
+                    if (error == null) {
+                        return;
+                    }
+                    if (body[0] != null) {
+                        body[0].abort(error);
+                    } else {
+                        _metrics.recordFailure(error, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(
+            String url,
+            Duration timeout,
+            long start,
+            long[] headersNanos,
+            HttpResponse.BodyHandler<T> bodyHandler) {
+        Duration totalTimeout = effectiveTimeout(timeout);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(totalTimeout.compareTo(_readTimeout) < 0 ? totalTimeout : _readTimeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", GZIP)
+                .GET()
+                .build();
+
+        HttpResponse.BodyHandler<T> timedHandler = responseInfo -> {
+            headersNanos[0] = System.nanoTime() - start;
+            return bodyHandler.apply(responseInfo);
+        };
+
+        return _httpClient.sendAsync(request, timedHandler)
+                .orTimeout(totalTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(JdkHttpTriviaUpstreamClient::checkStatus);
+    }
+
+    private Duration effectiveTimeout(Duration timeout) {
+        return timeout.compareTo(_totalTimeout) < 0 ? timeout : _totalTimeout;
+    }
+
+    private static <T> HttpResponse<T> checkStatus(HttpResponse<T> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new TriviaUpstreamException(
+                    String.format("Trivia API returned HTTP %d", response.statusCode()),
+                    response.statusCode());
+        }
+        return response;
+    }
+
+    private static boolean isGzip(HttpResponse<?> response) {
+        return response.headers()
+                .firstValue("Content-Encoding")
+                .map(GZIP::equalsIgnoreCase)
+                .orElse(false);
+    }
+
+    private static byte[] decode(HttpResponse<?> response, byte[] body) {
+        if (!isGzip(response)) {
+            return body;
+        }
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream decodeStream(HttpResponse<InputStream> response) {
+        if (!isGzip(response)) {
+            return response.body();
+        }
+        try {
+            return new GZIPInputStream(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.quadexercise.quad.client;
+
+import com.quadexercise.quad.interfaces.ITriviaUpstreamClient;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Upstream client backed by a blocking RestTemplate.
+ * Kept as a fallback; the request runs on the calling thread and the returned
+ * future is already complete.
+ */
+public class RestTemplateTriviaUpstreamClient implements ITriviaUpstreamClient {
+
+    private final RestTemplate _restTemplate;
+    private final UpstreamClientMetrics _metrics;
+
+    public RestTemplateTriviaUpstreamClient(RestTemplate restTemplate, UpstreamClientMetrics metrics) {
+        _restTemplate = restTemplate;
+        _metrics = metrics;
+    }
+
+    @Override
+    public CompletableFuture<String> fetch(String url) {
+        long start = System.nanoTime();
+        try {
+            String body = _restTemplate.getForObject(url, String.class);
+            _metrics.recordSuccess(0L, System.nanoTime() - start, body == null ? 0L : body.length());
+            return CompletableFuture.completedFuture(body);
+        } catch (RuntimeException e) {
+            _metrics.recordFailure(e, System.nanoTime() - start);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
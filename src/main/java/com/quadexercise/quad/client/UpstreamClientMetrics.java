@@ -0,0 +1,116 @@
+package com.quadexercise.quad.client;
+
+import com.quadexercise.quad.dto.UpstreamMetricsDTO;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-phase timings and outcome counts for upstream requests.
+ * Phases are time to response headers (connect, TLS and server time),
+ * body read, and total request time.
+ */
+public class UpstreamClientMetrics {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final String _client;
+    private final LongAdder _requests = new LongAdder();
+    private final LongAdder _failures = new LongAdder();
+    private final LongAdder _timeouts = new LongAdder();
+    private final LongAdder _bytesReceived = new LongAdder();
+    private final PhaseStats _timeToHeaders = new PhaseStats();
+    private final PhaseStats _bodyRead = new PhaseStats();
+    private final PhaseStats _total = new PhaseStats();
+
+    public UpstreamClientMetrics(String client) {
+        _client = client;
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param headersNanos Time until response headers arrived, or 0 if unknown
+     * @param totalNanos   Total request time
+     * @param bytes        Number of body bytes received on the wire
+     */
+    void recordSuccess(long headersNanos, long totalNanos, long bytes) {
+        _requests.increment();
+        _bytesReceived.add(bytes);
+        if (headersNanos > 0L) {
+            _timeToHeaders.record(headersNanos);
+            _bodyRead.record(totalNanos - headersNanos);
+        }
+        _total.record(totalNanos);
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param error      The failure cause
+     * @param totalNanos Time spent before the request failed
+     */
+    void recordFailure(Throwable error, long totalNanos) {
+        _requests.increment();
+        _failures.increment();
+        if (isTimeout(error)) {
+            _timeouts.increment();
+        }
+        _total.record(totalNanos);
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        return cause instanceof TimeoutException || cause instanceof HttpTimeoutException;
+    }
+
+    /**
+     * Gets a snapshot of the collected metrics.
+     *
+     * @return Counts and per-phase mean and max timings in milliseconds
+     */
+    public UpstreamMetricsDTO getSnapshot() {
+        UpstreamMetricsDTO snapshot = new UpstreamMetricsDTO();
+        snapshot.setClient(_client);
+        snapshot.setRequests(_requests.sum());
+        snapshot.setFailures(_failures.sum());
+        snapshot.setTimeouts(_timeouts.sum());
+        snapshot.setBytesReceived(_bytesReceived.sum());
+        snapshot.setMeanTimeToHeadersMs(_timeToHeaders.meanMs());
+        snapshot.setMaxTimeToHeadersMs(_timeToHeaders.maxMs());
+        snapshot.setMeanBodyReadMs(_bodyRead.meanMs());
+        snapshot.setMaxBodyReadMs(_bodyRead.maxMs());
+        snapshot.setMeanTotalMs(_total.meanMs());
+        snapshot.setMaxTotalMs(_total.maxMs());
+        return snapshot;
+    }
+
+    /**
+     * Lock-free count, sum and max for one request phase.
+     */
+    private static final class PhaseStats {
+        private final LongAdder _count = new LongAdder();
+        private final LongAdder _totalNanos = new LongAdder();
+        private final LongAccumulator _maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private void record(long nanos) {
+            _count.increment();
+            _totalNanos.add(nanos);
+            _maxNanos.accumulate(nanos);
+        }
+
+        private double meanMs() {
+            long count = _count.sum();
+            return count == 0L ? 0.0 : _totalNanos.sum() / NANOS_PER_MS / count;
+        }
+
+        private double maxMs() {
+            return _maxNanos.get() / NANOS_PER_MS;
+        }
+    }
+}
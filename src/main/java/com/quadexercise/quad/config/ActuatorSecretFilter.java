@@ -0,0 +1,61 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.controller.AdminController;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Puts the actuator endpoints, such as the Prometheus scrape at /admin/prometheus, behind
+ * the admin secret. Like {@link AdminController}, they answer 404 unless a secret is
+ * configured and 403 unless it is sent in the {@value AdminController#SECRET_HEADER} header.
+ */
+@Component
+public class ActuatorSecretFilter extends OncePerRequestFilter {
+
+    private final String _basePath;
+    // Empty when the endpoints are disabled
+    private final byte[] _secret;
+
+    /**
+     * Creates the filter.
+     *
+     * @param basePath Path the actuator endpoints are served under
+     * @param secret   Secret operators send with each request, none to disable the endpoints
+     */
+    public ActuatorSecretFilter(
+            @Value("${management.endpoints.web.base-path:/actuator}") String basePath,
+            @Value("${trivia.admin.secret:}") String secret) {
+        _basePath = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+        _secret = secret.isBlank() ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals(_basePath) && !path.startsWith(_basePath + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (_secret.length == 0) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String secret = request.getHeader(AdminController.SECRET_HEADER);
+        if (secret == null || !MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), _secret)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,113 @@
+package com.quadexercise.quad.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes the bytes allocated per request as a histogram per trivia and page endpoint.
+ * The handling thread's allocation counter is sampled before and after each dispatch;
+ * for async handlers the initial and the async dispatch are added up and recorded once.
+ * Work done off the request thread, such as a coalesced upstream fetch and parse shared
+ * by several requests, is not attributed to any of them.
+ * Disabled by default; set trivia.allocation-metrics.enabled=true to turn it on.
+ */
+@Component
+public class AllocationMetricsFilter extends OncePerRequestFilter {
+
+    static final String ALLOCATED_BYTES = "trivia.request.allocated";
+
+    private static final String ALLOCATED_ATTRIBUTE = AllocationMetricsFilter.class.getName() + ".allocated";
+    // Paths served by TriviaController and ViewController
+    private static final Set<String> MEASURED_PATHS = Set.of("/", "/play", "/results", "/questions", "/checkanswers");
+    private static final double MIN_EXPECTED_BYTES = 1024.0;
+    private static final double MAX_EXPECTED_BYTES = 256.0 * 1024.0 * 1024.0;
+
+    private final com.sun.management.ThreadMXBean _threads;
+    // Registered up front so recording needs no registry lookup
+    private final Map<String, DistributionSummary> _summaries;
+
+    public AllocationMetricsFilter(
+            @Value("${trivia.allocation-metrics.enabled:false}") boolean enabled,
+            MeterRegistry registry) {
+        _threads = enabled ? allocationCounter() : null;
+        _summaries = new HashMap<>();
+        if (_threads != null) {
+            for (String path : MEASURED_PATHS) {
+                _summaries.put(path, DistributionSummary.builder(ALLOCATED_BYTES)
+                        .description("Bytes allocated by the request thread while handling a request")
+                        .baseUnit("bytes")
+                        .tag("uri", path)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(MIN_EXPECTED_BYTES)
+                        .maximumExpectedValue(MAX_EXPECTED_BYTES)
+                        .register(registry));
+            }
+        }
+    }
+
+    /**
+     * Gets the JVM's per-thread allocation counter, switching it on if needed.
+     *
+     * @return The thread bean, or null if this JVM can't count allocations per thread
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threads;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !_summaries.containsKey(pathOf(request));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Unsupported on some threads, e.g. virtual threads on older runtimes, which report -1
+        long before = _threads.getCurrentThreadAllocatedBytes();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long after = _threads.getCurrentThreadAllocatedBytes();
+            long allocated = before >= 0L && after >= before ? after - before : -1L;
+            Long earlier = (Long) request.getAttribute(ALLOCATED_ATTRIBUTE);
+            if (earlier != null) {
+                allocated = earlier >= 0L && allocated >= 0L ? earlier + allocated : -1L;
+            }
+
+            if (isAsyncStarted(request)) {
+                request.setAttribute(ALLOCATED_ATTRIBUTE, allocated);
+            } else if (allocated >= 0L) {
+                _summaries.get(pathOf(request)).record(allocated);
+            }
+        }
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
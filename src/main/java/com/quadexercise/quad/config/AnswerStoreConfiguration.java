@@ -0,0 +1,82 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.service.TriviaAnswerService;
+import com.quadexercise.quad.store.AnswerIndexStore;
+import com.quadexercise.quad.store.BoundedAnswerStore;
+import com.quadexercise.quad.store.DurableAnswerStore;
+import com.quadexercise.quad.store.ReplicatedAnswerStore;
+import com.quadexercise.quad.store.SharedAnswerStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration for the store holding the correct answers of handed-out questions.
+ * The store is picked by trivia.answers.mode; token mode keeps no answers and has no store.
+ * Stores that hold files or threads are closed with the application context.
+ */
+@Configuration
+public class AnswerStoreConfiguration {
+
+    /**
+     * Creates the answer store for the configured mode.
+     *
+     * @param mode                  store, index, durable, shared or replicated
+     * @param maxEntries            Maximum number of answers kept
+     * @param ttlMs                 Time after which a question can no longer be graded
+     * @param durableDirectory      Directory for the answer log and snapshots in durable mode
+     * @param snapshotIntervalMs    Time between answer snapshots in durable mode
+     * @param sharedPath            Table file shared by the processes on this host in shared mode
+     * @param peers                 Comma-separated base URLs of the other nodes in replicated mode
+     * @param replicationSecret     Secret shared by the nodes in replicated mode
+     * @param replicationBatchSize  Maximum number of answers sent to a peer in one request
+     * @param replicationIntervalMs Time between pushes to peers while less than a batch is queued
+     * @param replicationMaxBacklog Answers queued per peer before the oldest are dropped
+     * @param registry              The application's meter registry, for the replication meters
+     * @return The answer store
+     */
+    @Bean
+    @ConditionalOnExpression("!'${trivia.answers.mode:store}'.equalsIgnoreCase('token')")
+    public IAnswerStore answerStore(
+            @Value("${trivia.answers.mode:store}") String mode,
+            @Value("${trivia.answers.max-entries:100000}") int maxEntries,
+            @Value("${trivia.answers.ttl-ms:3600000}") long ttlMs,
+            @Value("${trivia.answers.durable.directory:data/answers}") String durableDirectory,
+            @Value("${trivia.answers.durable.snapshot-interval-ms:300000}") long snapshotIntervalMs,
+            @Value("${trivia.answers.shared.path:data/answers.table}") String sharedPath,
+            @Value("${trivia.answers.replication.peers:}") String peers,
+            @Value("${trivia.answers.replication.secret:}") String replicationSecret,
+            @Value("${trivia.answers.replication.batch-size:500}") int replicationBatchSize,
+            @Value("${trivia.answers.replication.interval-ms:50}") long replicationIntervalMs,
+            @Value("${trivia.answers.replication.max-backlog:100000}") int replicationMaxBacklog,
+            MeterRegistry registry) {
+        if (TriviaAnswerService.MODE_INDEX.equalsIgnoreCase(mode)) {
+            return new AnswerIndexStore(maxEntries, ttlMs);
+        }
+        if (TriviaAnswerService.MODE_DURABLE.equalsIgnoreCase(mode)) {
+            return new DurableAnswerStore(maxEntries, ttlMs, Path.of(durableDirectory), snapshotIntervalMs);
+        }
+        if (TriviaAnswerService.MODE_SHARED.equalsIgnoreCase(mode)) {
+            return new SharedAnswerStore(maxEntries, ttlMs, Path.of(sharedPath));
+        }
+        if (TriviaAnswerService.MODE_REPLICATED.equalsIgnoreCase(mode)) {
+            return new ReplicatedAnswerStore(maxEntries, ttlMs, splitPeers(peers), replicationSecret,
+                    replicationBatchSize, replicationIntervalMs, replicationMaxBacklog, registry);
+        }
+        return new BoundedAnswerStore(maxEntries, ttlMs);
+    }
+
+    private static List<String> splitPeers(String peers) {
+        return Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .toList();
+    }
+}
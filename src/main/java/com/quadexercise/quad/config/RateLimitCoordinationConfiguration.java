@@ -0,0 +1,56 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+import com.quadexercise.quad.ratelimit.FileRateLimitCoordinator;
+import com.quadexercise.quad.ratelimit.HttpRateLimitCoordinator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for sharing the trivia API rate limit with other instances.
+ * Picked by trivia.rate-limit.cluster.mode: file for the processes on one host,
+ * coordinator for instances on several hosts, or none for a rate limit of our own.
+ */
+@Configuration
+public class RateLimitCoordinationConfiguration {
+
+    private static final String FILE_MODE = "file";
+    private static final String COORDINATOR_MODE = "coordinator";
+
+    /**
+     * Creates the coordinator of the shared rate-limit schedule.
+     *
+     * @param mode           file or coordinator
+     * @param leaseFile      Lease file shared by the processes on this host in file mode
+     * @param coordinatorUrl Base URL of the coordinating instance in coordinator mode
+     * @param secret         Secret shared with the coordinating instance
+     * @param timeoutMs      Time allowed per coordinator request before falling back to the local schedule
+     * @return The coordinator
+     * @throws IllegalArgumentException if the mode is unknown or coordinator mode has no URL
+     */
+    @Bean
+    @ConditionalOnExpression("!'${trivia.rate-limit.cluster.mode:none}'.equalsIgnoreCase('none')")
+    public IRateLimitCoordinator rateLimitCoordinator(
+            @Value("${trivia.rate-limit.cluster.mode:none}") String mode,
+            @Value("${trivia.rate-limit.cluster.lease-file:data/ratelimit.lease}") String leaseFile,
+            @Value("${trivia.rate-limit.cluster.coordinator-url:}") String coordinatorUrl,
+            @Value("${trivia.rate-limit.cluster.secret:}") String secret,
+            @Value("${trivia.rate-limit.cluster.timeout-ms:1000}") long timeoutMs) {
+        if (FILE_MODE.equalsIgnoreCase(mode)) {
+            return new FileRateLimitCoordinator(Path.of(leaseFile));
+        }
+        if (COORDINATOR_MODE.equalsIgnoreCase(mode)) {
+            if (coordinatorUrl.isBlank()) {
+                throw new IllegalArgumentException(
+                        "trivia.rate-limit.cluster.coordinator-url is required in coordinator mode");
+            }
+            return new HttpRateLimitCoordinator(coordinatorUrl, secret, Duration.ofMillis(timeoutMs));
+        }
+        throw new IllegalArgumentException("Unknown trivia.rate-limit.cluster.mode: " + mode);
+    }
+}
@@ -0,0 +1,33 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.utils.ServerTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration for the Server-Timing render stage of page responses.
+ * View rendering starts after the handler returns, so the start is marked from a
+ * handler interceptor; JSON responses are marked by {@link ServerTimingBodyAdvice}.
+ */
+@Configuration
+public class ServerTimingConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void postHandle(
+                    HttpServletRequest request,
+                    HttpServletResponse response,
+                    Object handler,
+                    ModelAndView modelAndView) {
+                ServerTiming.current().markRenderStart();
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.utils.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Adds a Server-Timing header with per-stage durations to trivia and page responses.
+ * The request's {@link ServerTiming} is bound to the thread for each dispatch and kept
+ * as a request attribute across async dispatches. The body is buffered until the last
+ * dispatch finishes, so the header can still be set once rendering has been timed.
+ * Disabled by default; set trivia.server-timing.enabled=true to turn it on.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final String TIMING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".timing";
+    // Paths served by TriviaController and ViewController
+    private static final Set<String> TIMED_PATHS = Set.of("/", "/play", "/results", "/questions", "/checkanswers");
+
+    private final boolean _enabled;
+
+    public ServerTimingFilter(@Value("${trivia.server-timing.enabled:false}") boolean enabled) {
+        _enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!_enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !TIMED_PATHS.contains(path);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = (ServerTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = new ServerTiming();
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+        }
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
+            responseToUse = new ContentCachingResponseWrapper(response);
+        }
+
+        ServerTiming.bind(timing);
+        try {
+            filterChain.doFilter(request, responseToUse);
+        } finally {
+            ServerTiming.unbind();
+        }
+
+        // An async handler finishes in a later dispatch, which writes the header instead
+        if (!isAsyncStarted(request)) {
+            timing.endRender();
+            ContentCachingResponseWrapper wrapper =
+                    WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+            if (wrapper != null) {
+                if (!wrapper.isCommitted()) {
+                    wrapper.setHeader(HEADER, timing.toHeaderValue());
+                }
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.quadexercise.quad.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadexercise.quad.client.JdkHttpTriviaUpstreamClient;
+import com.quadexercise.quad.client.RestTemplateTriviaUpstreamClient;
+import com.quadexercise.quad.client.UpstreamClientMetrics;
+import com.quadexercise.quad.interfaces.ITriviaUpstreamClient;
+import com.quadexercise.quad.service.TriviaPipelineMetrics;
+import com.quadexercise.quad.utils.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 /**
  * Configuration for trivia service components.
  * Provides beans needed by the trivia services.
@@ -12,14 +24,23 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class TriviaServiceConfiguration {
 
+    private static final String RESTTEMPLATE_CLIENT = "resttemplate";
+
     /**
      * Creates a RestTemplate bean for HTTP requests.
      *
+     * @param connectTimeoutMs Connect timeout in milliseconds
+     * @param readTimeoutMs    Read timeout in milliseconds
      * @return Configured RestTemplate
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${trivia.upstream.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${trivia.upstream.read-timeout-ms:5000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requestFactory);
     }
 
     /**
@@ -31,4 +52,74 @@ public class TriviaServiceConfiguration {
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
     }
+
+    /**
+     * Creates the metrics collector for upstream requests.
+     *
+     * @param client The configured upstream client name
+     * @return Metrics collector shared by the upstream client
+     */
+    @Bean
+    public UpstreamClientMetrics upstreamClientMetrics(
+            @Value("${trivia.upstream.client:jdk}") String client) {
+        return new UpstreamClientMetrics(client);
+    }
+
+    /**
+     * Creates the Micrometer meters for the question and grading pipeline.
+     *
+     * @param registry The application's meter registry, scraped at /admin/prometheus
+     * @return Meters shared by the trivia services
+     */
+    @Bean
+    public TriviaPipelineMetrics triviaPipelineMetrics(MeterRegistry registry) {
+        return new TriviaPipelineMetrics(registry);
+    }
+
+    /**
+     * Creates the upstream client used to call the trivia API.
+     * Uses the non-blocking JDK HTTP client unless the RestTemplate fallback is configured.
+     *
+     * @param client           The upstream client to use, either "jdk" or "resttemplate"
+     * @param connectTimeoutMs Connect timeout in milliseconds
+     * @param readTimeoutMs    Time allowed until response headers arrive, in milliseconds
+     * @param totalTimeoutMs   Deadline for the whole request, in milliseconds
+     * @param virtualThreads   Whether to handle responses on virtual threads, as the web tier does
+     * @param restTemplate     RestTemplate used by the fallback client
+     * @param metrics          Metrics collector for upstream requests
+     * @return Configured upstream client
+     */
+    @Bean
+    public ITriviaUpstreamClient triviaUpstreamClient(
+            @Value("${trivia.upstream.client:jdk}") String client,
+            @Value("${trivia.upstream.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${trivia.upstream.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${trivia.upstream.total-timeout-ms:8000}") long totalTimeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            RestTemplate restTemplate,
+            UpstreamClientMetrics metrics) {
+        if (RESTTEMPLATE_CLIENT.equalsIgnoreCase(client)) {
+            return new RestTemplateTriviaUpstreamClient(restTemplate, metrics);
+        }
+        return new JdkHttpTriviaUpstreamClient(
+                Duration.ofMillis(connectTimeoutMs),
+                Duration.ofMillis(readTimeoutMs),
+                Duration.ofMillis(totalTimeoutMs),
+                upstreamExecutor(virtualThreads),
+                metrics);
+    }
+
+    /**
+     * Picks the executor for upstream response handling.
+     * Virtual threads are only used when enabled and the runtime supports them,
+     * mirroring how Spring Boot decides for the web tier.
+     *
+     * @return A virtual-thread executor, or null for the HTTP client's default
+     */
+    private static Executor upstreamExecutor(boolean virtualThreads) {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return VirtualThreads.newThreadPerTaskExecutor();
+        }
+        return null;
+    }
 }
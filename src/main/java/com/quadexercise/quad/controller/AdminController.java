@@ -0,0 +1,153 @@
+package com.quadexercise.quad.controller;
+
+import com.quadexercise.quad.client.UpstreamClientMetrics;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionPoolStatsDTO;
+import com.quadexercise.quad.dto.UpstreamMetricsDTO;
+import com.quadexercise.quad.service.JfrRecordingService;
+import com.quadexercise.quad.service.TriviaAnswerService;
+import com.quadexercise.quad.service.TriviaQuestionPoolService;
+import com.quadexercise.quad.utils.ResponseUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operator endpoints for pool, upstream and answer store statistics and JFR captures.
+ * They answer 404 unless an admin secret is configured, and 403 without it, since a JFR
+ * capture includes the process's system properties and environment, secrets among them.
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+    public static final String SECRET_HEADER = "X-Trivia-Admin-Secret";
+
+    private static final long JFR_DUMP_ALLOWANCE_SECONDS = 30L;
+
+    private final TriviaQuestionPoolService _questionPool;
+    private final UpstreamClientMetrics _upstreamMetrics;
+    private final TriviaAnswerService _answerService;
+    private final JfrRecordingService _jfrRecordingService;
+    // Empty when the endpoints are disabled
+    private final byte[] _secret;
+
+    /**
+     * Creates the admin endpoints.
+     *
+     * @param secret Secret operators send in the {@value #SECRET_HEADER} header, none to disable the endpoints
+     */
+    @Autowired
+    public AdminController(
+            TriviaQuestionPoolService questionPool,
+            UpstreamClientMetrics upstreamMetrics,
+            TriviaAnswerService answerService,
+            JfrRecordingService jfrRecordingService,
+            @Value("${trivia.admin.secret:}") String secret) {
+        _questionPool = questionPool;
+        _upstreamMetrics = upstreamMetrics;
+        _answerService = answerService;
+        _jfrRecordingService = jfrRecordingService;
+        _secret = secret.isBlank() ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @GetMapping("/pool")
+    public ResponseEntity<QuestionPoolStatsDTO> getPoolStats(
+            @RequestHeader(name = SECRET_HEADER, required = false) String secret) {
+        HttpStatus refused = refuse(secret);
+        if (refused != null) {
+            return ResponseEntity.status(refused).build();
+        }
+        return ResponseEntity.ok(_questionPool.getStats());
+    }
+
+    @GetMapping("/upstream")
+    public ResponseEntity<UpstreamMetricsDTO> getUpstreamMetrics(
+            @RequestHeader(name = SECRET_HEADER, required = false) String secret) {
+        HttpStatus refused = refuse(secret);
+        if (refused != null) {
+            return ResponseEntity.status(refused).build();
+        }
+        return ResponseEntity.ok(_upstreamMetrics.getSnapshot());
+    }
+
+    @GetMapping("/answers")
+    public ResponseEntity<AnswerStoreStatsDTO> getAnswerStoreStats(
+            @RequestHeader(name = SECRET_HEADER, required = false) String secret) {
+        HttpStatus refused = refuse(secret);
+        if (refused != null) {
+            return ResponseEntity.status(refused).build();
+        }
+        return ResponseEntity.ok(_answerService.getStats());
+    }
+
+    /**
+     * Records a JFR capture for the given time and returns the .jfr file.
+     * The request is held open asynchronously until the recording ends.
+     */
+    @PostMapping("/jfr")
+    public DeferredResult<ResponseEntity<Object>> captureJfr(
+            @RequestHeader(name = SECRET_HEADER, required = false) String secret,
+            @RequestParam(defaultValue = "30") long seconds,
+            @RequestParam(defaultValue = "default") String settings) {
+        HttpStatus refused = refuse(secret);
+        if (refused != null) {
+            DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>();
+            result.setResult(ResponseEntity.status(refused).build());
+            return result;
+        }
+        long maxSeconds = _jfrRecordingService.getMaxDurationSeconds();
+        // Leave room past the recording itself for stopping and dumping it
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(Math.min(seconds, maxSeconds) + JFR_DUMP_ALLOWANCE_SECONDS));
+
+        CompletableFuture<byte[]> capture;
+        try {
+            capture = _jfrRecordingService.capture(seconds, settings);
+        } catch (IllegalStateException e) {
+            result.setResult(ResponseUtils.createConflictResponse(e.getMessage()));
+            return result;
+        } catch (IllegalArgumentException e) {
+            result.setResult(ResponseUtils.createBadRequestResponse(e.getMessage()));
+            return result;
+        }
+
+        capture.whenComplete((recording, failure) -> result.setResult(failure == null
+                ? ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"quad-" + System.currentTimeMillis() + ".jfr\"")
+                        .body(recording)
+                : ResponseUtils.createServiceErrorResponse("Failed to capture JFR recording")));
+        return result;
+    }
+
+    /**
+     * Checks the secret sent with a request, in constant time.
+     *
+     * @return The status to refuse the request with, or null if it may proceed
+     */
+    private HttpStatus refuse(String secret) {
+        if (_secret.length == 0) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (secret == null || !MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), _secret)) {
+            return HttpStatus.FORBIDDEN;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.quadexercise.quad.controller;
+
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.store.ReplicatedAnswerStore;
+import com.quadexercise.quad.utils.ResponseUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Receives the answers other nodes push in replicated answer mode.
+ * Answers 404 unless this node runs in replicated mode, and 403 without the shared secret.
+ */
+@RestController
+public class AnswerReplicationController {
+
+    // Null unless the answer store is replicated
+    private final ReplicatedAnswerStore _replicatedStore;
+
+    public AnswerReplicationController(Optional<IAnswerStore> answerStore) {
+        _replicatedStore = answerStore
+                .filter(ReplicatedAnswerStore.class::isInstance)
+                .map(ReplicatedAnswerStore.class::cast)
+                .orElse(null);
+    }
+
+    /**
+     * Stores a batch of answers registered on another node.
+     *
+     * @param secret The secret shared by the nodes
+     * @param batch  Answer records as encoded by the sending node
+     * @return 204 once the answers are stored
+     */
+    @PostMapping(path = ReplicatedAnswerStore.REPLICATION_PATH, consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Object> replicateAnswers(
+            @RequestHeader(name = ReplicatedAnswerStore.SECRET_HEADER, required = false) String secret,
+            @RequestBody byte[] batch) {
+        if (_replicatedStore == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (!_replicatedStore.isAuthorized(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            _replicatedStore.apply(batch);
+        } catch (IOException e) {
+            return ResponseUtils.createBadRequestResponse(e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.quadexercise.quad.controller;
+
+import com.quadexercise.quad.ratelimit.HttpRateLimitCoordinator;
+import com.quadexercise.quad.ratelimit.InMemoryRateLimitCoordinator;
+import com.quadexercise.quad.utils.ResponseUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Keeps the rate-limit schedule that instances on several hosts reserve their slots from,
+ * when this instance is the coordinator. Answers 404 on other instances and 403 without the shared secret.
+ */
+@RestController
+public class RateLimitCoordinatorController {
+
+    private static final int MAX_SLOTS_PER_RESERVATION = 100;
+
+    // Null unless this instance coordinates
+    private final InMemoryRateLimitCoordinator _schedule;
+    private final byte[] _secret;
+
+    /**
+     * Creates the coordinator endpoints.
+     *
+     * @param coordinate Whether this instance keeps the shared schedule
+     * @param secret     Secret the other instances send along
+     * @throws IllegalArgumentException if this instance coordinates without a secret
+     */
+    @Autowired
+    public RateLimitCoordinatorController(
+            @Value("${trivia.rate-limit.cluster.coordinate:false}") boolean coordinate,
+            @Value("${trivia.rate-limit.cluster.secret:}") String secret) {
+        if (coordinate && secret.isBlank()) {
+            throw new IllegalArgumentException("trivia.rate-limit.cluster.secret is required to coordinate");
+        }
+        _schedule = coordinate ? new InMemoryRateLimitCoordinator() : null;
+        _secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reserves consecutive slots for an instance.
+     *
+     * @param secret     The secret shared by the instances
+     * @param intervalMs Time between the slots
+     * @param count      Number of slots wanted
+     * @return Milliseconds from now until the first slot
+     */
+    @PostMapping(HttpRateLimitCoordinator.RESERVE_PATH)
+    public ResponseEntity<Object> reserve(
+            @RequestHeader(name = HttpRateLimitCoordinator.SECRET_HEADER, required = false) String secret,
+            @RequestParam long intervalMs,
+            @RequestParam int count) {
+        ResponseEntity<Object> refused = refuse(secret);
+        if (refused != null) {
+            return refused;
+        }
+        if (intervalMs < 0L || count < 1 || count > MAX_SLOTS_PER_RESERVATION) {
+            return ResponseUtils.createBadRequestResponse("Invalid interval or slot count");
+        }
+        long now = System.currentTimeMillis();
+        return ResponseEntity.ok(Long.toString(_schedule.reserve(now, intervalMs, count) - now));
+    }
+
+    /**
+     * Moves the schedule out after an instance was told by the API that it is rate limiting.
+     *
+     * @param secret  The secret shared by the instances
+     * @param delayMs Time from now before which no slot may start
+     * @return 200 once the schedule is moved
+     */
+    @PostMapping(HttpRateLimitCoordinator.PUSH_BACK_PATH)
+    public ResponseEntity<Object> pushBack(
+            @RequestHeader(name = HttpRateLimitCoordinator.SECRET_HEADER, required = false) String secret,
+            @RequestParam long delayMs) {
+        ResponseEntity<Object> refused = refuse(secret);
+        if (refused != null) {
+            return refused;
+        }
+        _schedule.pushBack(System.currentTimeMillis(), Math.max(delayMs, 0L));
+        return ResponseEntity.ok("0");
+    }
+
+    private ResponseEntity<Object> refuse(String secret) {
+        if (_schedule == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (secret == null || !MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), _secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return null;
+    }
+}
@@ -4,14 +4,19 @@ import com.quadexercise.quad.dto.AnswerDTO;
 import com.quadexercise.quad.dto.AnswerResultDTO;
 import com.quadexercise.quad.dto.QuestionDTO;
 import com.quadexercise.quad.exceptions.QuestionNotFoundException;
-import com.quadexercise.quad.exceptions.TriviaParseException;
 import com.quadexercise.quad.exceptions.TriviaServiceException;
+import com.quadexercise.quad.exceptions.UnsupportedAnswerException;
 import com.quadexercise.quad.interfaces.ITriviaService;
 import com.quadexercise.quad.utils.ApiConstants;
+import com.quadexercise.quad.utils.Deadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.quadexercise.quad.utils.ResponseUtils.*;
 
@@ -19,25 +24,56 @@ import static com.quadexercise.quad.utils.ResponseUtils.*;
 @RestController
 public class TriviaController {
     private final ITriviaService _triviaService;
+    private final long _questionsDeadlineMs;
 
     public TriviaController(ITriviaService triviaService) {
+        this(triviaService, ApiConstants.DEFAULT_DEADLINE_MS);
+    }
+
+    /**
+     * Creates the trivia REST controller.
+     *
+     * @param triviaService       Provides questions and grades answers
+     * @param questionsDeadlineMs Deadline for question requests without a timeout header; 0 means none
+     */
+    @Autowired
+    public TriviaController(
+            ITriviaService triviaService,
+            @Value("${trivia.deadline.questions-ms:15000}") long questionsDeadlineMs) {
         _triviaService = triviaService;
+        _questionsDeadlineMs = questionsDeadlineMs;
     }
 
+    /**
+     * Gets questions, answering 504 when they can't arrive before the request's deadline.
+     * Giving up on the request, when it times out or the client goes away, gives up on the questions.
+     *
+     * @param amount    The number of questions wanted
+     * @param timeoutMs Milliseconds the client is willing to wait, or null for the endpoint default
+     * @return Result set once the questions or an error response are ready
+     */
     @GetMapping("/questions")
-    public ResponseEntity<Object> getQuestions(
-            @RequestParam(name = ApiConstants.PARAM_AMOUNT, defaultValue = "5") int amount) {
+    public DeferredResult<ResponseEntity<Object>> getQuestions(
+            @RequestParam(name = ApiConstants.PARAM_AMOUNT, defaultValue = "5") int amount,
+            @RequestHeader(name = ApiConstants.HEADER_REQUEST_TIMEOUT, required = false) Long timeoutMs) {
+        CompletableFuture<List<QuestionDTO>> questions;
         try {
-            List<QuestionDTO> questions = _triviaService.getQuestions(amount);
-            return ResponseEntity.ok(questions);
-        } catch (IllegalStateException e) {
-            Thread.currentThread().interrupt();
-            return createUnavailableResponse();
-        } catch (TriviaParseException e) {
-            return createBadGatewayResponse();
+            questions = _triviaService.getQuestionsAsync(amount, Deadline.fromRequest(timeoutMs, _questionsDeadlineMs));
         } catch (RuntimeException e) {
-            return createErrorResponse();
+            questions = CompletableFuture.failedFuture(e);
         }
+        DeferredResult<ResponseEntity<Object>> response = new DeferredResult<>();
+        // Neither the request timing out nor the client going away stops the questions by itself;
+        // cancelling hands back a rate-limit slot that is still being waited for
+        CompletableFuture<List<QuestionDTO>> pending = questions;
+        response.onTimeout(() -> pending.cancel(false));
+        response.onError(failure -> pending.cancel(false));
+        // The servlet thread is released here; the response is written once the questions arrive
+        questions.handle((result, failure) -> failure == null
+                        ? ResponseEntity.<Object>ok(result)
+                        : createQuestionsErrorResponse(failure))
+                .thenAccept(response::setResult);
+        return response;
     }
 
     @PostMapping("/checkanswers")
@@ -48,6 +84,8 @@ public class TriviaController {
         } catch (QuestionNotFoundException e) {
             return createBadRequestResponse
                     (String.format("Invalid question ID: %s", e.getQuestionId()));
+        } catch (UnsupportedAnswerException e) {
+            return createBadRequestResponse(e.getMessage());
         } catch (IllegalStateException e) {
             Thread.currentThread().interrupt();
             return createUnavailableResponse();
@@ -1,19 +1,45 @@
 package com.quadexercise.quad.controller;
 
+import com.quadexercise.quad.dto.QuestionDTO;
 import com.quadexercise.quad.interfaces.ITriviaService;
+import com.quadexercise.quad.utils.ApiConstants;
+import com.quadexercise.quad.utils.Deadline;
+import com.quadexercise.quad.utils.ResponseUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @SuppressWarnings("DuplicateStringLiteralInspection")
 @Controller
 public class ViewController {
 
     private final ITriviaService _triviaService;
+    private final long _playDeadlineMs;
 
     public ViewController(ITriviaService triviaService) {
+        this(triviaService, ApiConstants.DEFAULT_DEADLINE_MS);
+    }
+
+    /**
+     * Creates the page controller.
+     *
+     * @param triviaService  Provides the questions for the play page
+     * @param playDeadlineMs Deadline for play page requests without a timeout header; 0 means none
+     */
+    @Autowired
+    public ViewController(
+            ITriviaService triviaService,
+            @Value("${trivia.deadline.play-ms:15000}") long playDeadlineMs) {
         _triviaService = triviaService;
+        _playDeadlineMs = playDeadlineMs;
     }
 
     @GetMapping("/")
@@ -21,10 +47,31 @@ public class ViewController {
         return "homeTemplate";
     }
 
+    /**
+     * Renders the play page once its questions arrive. When they can't be served the page gets the
+     * same status as a question request, e.g. 503 with Retry-After when admission control turns it away.
+     * Giving up on the request, when it times out or the client goes away, gives up on the questions.
+     */
     @GetMapping("/play")
-    public String playTrivia(@RequestParam(defaultValue = "5") int amount, Model model) {
-        model.addAttribute("questions", _triviaService.getQuestions(amount));
-        return "triviaTemplate";
+    public DeferredResult<Object> playTrivia(
+            @RequestParam(defaultValue = "5") int amount,
+            @RequestHeader(name = ApiConstants.HEADER_REQUEST_TIMEOUT, required = false) Long timeoutMs,
+            Model model) {
+        Deadline deadline = Deadline.fromRequest(timeoutMs, _playDeadlineMs);
+        CompletableFuture<List<QuestionDTO>> questions = _triviaService.getQuestionsAsync(amount, deadline);
+        DeferredResult<Object> page = new DeferredResult<>();
+        // Cancelling hands back a rate-limit slot that is still being waited for
+        page.onTimeout(() -> questions.cancel(false));
+        page.onError(failure -> questions.cancel(false));
+        questions.whenComplete((result, failure) -> {
+            if (failure != null) {
+                page.setResult(ResponseUtils.createQuestionsErrorResponse(failure));
+                return;
+            }
+            model.addAttribute("questions", result);
+            page.setResult("triviaTemplate");
+        });
+        return page;
     }
 
     @GetMapping("/results")
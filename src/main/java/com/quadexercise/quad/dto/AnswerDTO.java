@@ -3,6 +3,8 @@ package com.quadexercise.quad.dto;
 public class AnswerDTO {
     private String _questionId;
     private String _selectedAnswer;
+    // Position of the selected answer in the question's answers, if the client sent it
+    private Integer _selectedIndex;
 
     public AnswerDTO() {
         // Default constructor
@@ -24,4 +26,12 @@ public class AnswerDTO {
     public void setSelectedAnswer(String selectedAnswer) {
         _selectedAnswer = selectedAnswer;
     }
+
+    public Integer getSelectedIndex() {
+        return _selectedIndex;
+    }
+
+    public void setSelectedIndex(Integer selectedIndex) {
+        _selectedIndex = selectedIndex;
+    }
 }
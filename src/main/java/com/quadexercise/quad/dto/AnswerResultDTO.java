@@ -4,6 +4,8 @@ public class AnswerResultDTO {
     private String _questionId;
     private boolean _correct;
     private String _correctAnswer;
+    // Position of the correct answer in the question's answers, if the store knows it
+    private Integer _correctIndex;
 
     public AnswerResultDTO() {
         // Default constructor
@@ -33,4 +35,12 @@ public class AnswerResultDTO {
     public void setCorrectAnswer(String correctAnswer) {
         _correctAnswer = correctAnswer;
     }
+
+    public Integer getCorrectIndex() {
+        return _correctIndex;
+    }
+
+    public void setCorrectIndex(Integer correctIndex) {
+        _correctIndex = correctIndex;
+    }
 }
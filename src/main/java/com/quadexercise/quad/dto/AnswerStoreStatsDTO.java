@@ -0,0 +1,81 @@
+package com.quadexercise.quad.dto;
+
+public class AnswerStoreStatsDTO {
+    private String _mode;
+    private int _size;
+    private int _maxEntries;
+    private long _ttlMs;
+    private long _evictions;
+    private long _expirations;
+    private long _tokensIssued;
+    private long _tokensRejected;
+
+    public AnswerStoreStatsDTO() {
+        // Default constructor
+    }
+
+    // Getters and setters
+    public String getMode() {
+        return _mode;
+    }
+
+    public void setMode(String mode) {
+        _mode = mode;
+    }
+
+    public int getSize() {
+        return _size;
+    }
+
+    public void setSize(int size) {
+        _size = size;
+    }
+
+    public int getMaxEntries() {
+        return _maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        _maxEntries = maxEntries;
+    }
+
+    public long getTtlMs() {
+        return _ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        _ttlMs = ttlMs;
+    }
+
+    public long getEvictions() {
+        return _evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        _evictions = evictions;
+    }
+
+    public long getExpirations() {
+        return _expirations;
+    }
+
+    public void setExpirations(long expirations) {
+        _expirations = expirations;
+    }
+
+    public long getTokensIssued() {
+        return _tokensIssued;
+    }
+
+    public void setTokensIssued(long tokensIssued) {
+        _tokensIssued = tokensIssued;
+    }
+
+    public long getTokensRejected() {
+        return _tokensRejected;
+    }
+
+    public void setTokensRejected(long tokensRejected) {
+        _tokensRejected = tokensRejected;
+    }
+}
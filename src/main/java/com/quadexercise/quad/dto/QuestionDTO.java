@@ -1,9 +1,10 @@
 package com.quadexercise.quad.dto;
 
+import com.quadexercise.quad.utils.QuestionIds;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 
 public class QuestionDTO {
     private String _id;
@@ -15,7 +16,7 @@ public class QuestionDTO {
     private List<String> _answers;
 
     public QuestionDTO() {
-        _id = UUID.randomUUID().toString();
+        _id = QuestionIds.nextString();
     }
 
     // Getters and setters
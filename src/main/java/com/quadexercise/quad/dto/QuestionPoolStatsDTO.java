@@ -0,0 +1,90 @@
+package com.quadexercise.quad.dto;
+
+public class QuestionPoolStatsDTO {
+    private boolean _enabled;
+    private int _depth;
+    private int _capacity;
+    private long _hits;
+    private long _misses;
+    private long _refilledQuestions;
+    private long _refillBatches;
+    private long _refillFailures;
+    private double _refillRatePerMinute;
+
+    public QuestionPoolStatsDTO() {
+        // Default constructor
+    }
+
+    // Getters and setters
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        _enabled = enabled;
+    }
+
+    public int getDepth() {
+        return _depth;
+    }
+
+    public void setDepth(int depth) {
+        _depth = depth;
+    }
+
+    public int getCapacity() {
+        return _capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        _capacity = capacity;
+    }
+
+    public long getHits() {
+        return _hits;
+    }
+
+    public void setHits(long hits) {
+        _hits = hits;
+    }
+
+    public long getMisses() {
+        return _misses;
+    }
+
+    public void setMisses(long misses) {
+        _misses = misses;
+    }
+
+    public long getRefilledQuestions() {
+        return _refilledQuestions;
+    }
+
+    public void setRefilledQuestions(long refilledQuestions) {
+        _refilledQuestions = refilledQuestions;
+    }
+
+    public long getRefillBatches() {
+        return _refillBatches;
+    }
+
+    public void setRefillBatches(long refillBatches) {
+        _refillBatches = refillBatches;
+    }
+
+    public long getRefillFailures() {
+        return _refillFailures;
+    }
+
+    public void setRefillFailures(long refillFailures) {
+        _refillFailures = refillFailures;
+    }
+
+    public double getRefillRatePerMinute() {
+        return _refillRatePerMinute;
+    }
+
+    public void setRefillRatePerMinute(double refillRatePerMinute) {
+        _refillRatePerMinute = refillRatePerMinute;
+    }
+}
@@ -0,0 +1,108 @@
+package com.quadexercise.quad.dto;
+
+public class UpstreamMetricsDTO {
+    private String _client;
+    private long _requests;
+    private long _failures;
+    private long _timeouts;
+    private long _bytesReceived;
+    private double _meanTimeToHeadersMs;
+    private double _maxTimeToHeadersMs;
+    private double _meanBodyReadMs;
+    private double _maxBodyReadMs;
+    private double _meanTotalMs;
+    private double _maxTotalMs;
+
+    public UpstreamMetricsDTO() {
+        // Default constructor
+    }
+
+    // Getters and setters
+    public String getClient() {
+        return _client;
+    }
+
+    public void setClient(String client) {
+        _client = client;
+    }
+
+    public long getRequests() {
+        return _requests;
+    }
+
+    public void setRequests(long requests) {
+        _requests = requests;
+    }
+
+    public long getFailures() {
+        return _failures;
+    }
+
+    public void setFailures(long failures) {
+        _failures = failures;
+    }
+
+    public long getTimeouts() {
+        return _timeouts;
+    }
+
+    public void setTimeouts(long timeouts) {
+        _timeouts = timeouts;
+    }
+
+    public long getBytesReceived() {
+        return _bytesReceived;
+    }
+
+    public void setBytesReceived(long bytesReceived) {
+        _bytesReceived = bytesReceived;
+    }
+
+    public double getMeanTimeToHeadersMs() {
+        return _meanTimeToHeadersMs;
+    }
+
+    public void setMeanTimeToHeadersMs(double meanTimeToHeadersMs) {
+        _meanTimeToHeadersMs = meanTimeToHeadersMs;
+    }
+
+    public double getMaxTimeToHeadersMs() {
+        return _maxTimeToHeadersMs;
+    }
+
+    public void setMaxTimeToHeadersMs(double maxTimeToHeadersMs) {
+        _maxTimeToHeadersMs = maxTimeToHeadersMs;
+    }
+
+    public double getMeanBodyReadMs() {
+        return _meanBodyReadMs;
+    }
+
+    public void setMeanBodyReadMs(double meanBodyReadMs) {
+        _meanBodyReadMs = meanBodyReadMs;
+    }
+
+    public double getMaxBodyReadMs() {
+        return _maxBodyReadMs;
+    }
+
+    public void setMaxBodyReadMs(double maxBodyReadMs) {
+        _maxBodyReadMs = maxBodyReadMs;
+    }
+
+    public double getMeanTotalMs() {
+        return _meanTotalMs;
+    }
+
+    public void setMeanTotalMs(double meanTotalMs) {
+        _meanTotalMs = meanTotalMs;
+    }
+
+    public double getMaxTotalMs() {
+        return _maxTotalMs;
+    }
+
+    public void setMaxTotalMs(double maxTotalMs) {
+        _maxTotalMs = maxTotalMs;
+    }
+}
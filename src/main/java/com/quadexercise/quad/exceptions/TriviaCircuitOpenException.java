@@ -0,0 +1,11 @@
+package com.quadexercise.quad.exceptions;
+
+/**
+ * Exception thrown when a trivia API call is refused because the circuit breaker is open.
+ */
+public class TriviaCircuitOpenException extends TriviaServiceException {
+
+    public TriviaCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.quadexercise.quad.exceptions;
+
+/**
+ * Exception thrown when a question request can't be answered before its deadline, either
+ * because its rate-limit slot comes too late or because the upstream call ran out of time.
+ */
+public class TriviaDeadlineExceededException extends TriviaServiceException {
+
+    public TriviaDeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public TriviaDeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
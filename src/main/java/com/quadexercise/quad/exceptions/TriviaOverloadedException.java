@@ -0,0 +1,20 @@
+package com.quadexercise.quad.exceptions;
+
+/**
+ * Exception thrown when a question request is turned away because it would wait too long
+ * for the trivia API, or too many requests are already waiting.
+ */
+public class TriviaOverloadedException extends TriviaServiceException {
+
+    // Suggested delay before retrying, for the Retry-After header
+    private final long _retryAfterSeconds;
+
+    public TriviaOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        _retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return _retryAfterSeconds;
+    }
+}
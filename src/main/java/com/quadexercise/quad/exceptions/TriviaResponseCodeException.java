@@ -0,0 +1,25 @@
+package com.quadexercise.quad.exceptions;
+
+import com.quadexercise.quad.utils.ApiConstants;
+
+/**
+ * Exception thrown when the trivia API answers with a non-zero response_code,
+ * e.g. 1 when it has too few questions or 5 when it is rate limiting us.
+ */
+public class TriviaResponseCodeException extends TriviaUpstreamException {
+
+    private final int _responseCode;
+
+    public TriviaResponseCodeException(int responseCode) {
+        super(String.format("Trivia API returned response code %d", responseCode));
+        _responseCode = responseCode;
+    }
+
+    public int getResponseCode() {
+        return _responseCode;
+    }
+
+    public boolean isRateLimited() {
+        return _responseCode == ApiConstants.RESPONSE_CODE_RATE_LIMIT;
+    }
+}
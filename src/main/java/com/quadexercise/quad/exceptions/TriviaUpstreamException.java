@@ -0,0 +1,28 @@
+package com.quadexercise.quad.exceptions;
+
+/**
+ * Exception thrown when the upstream trivia API can't be reached or returns an error.
+ */
+public class TriviaUpstreamException extends TriviaServiceException {
+
+    // HTTP status returned by the API, or 0 if no response was received
+    private final int _statusCode;
+
+    public TriviaUpstreamException(String message) {
+        this(message, 0);
+    }
+
+    public TriviaUpstreamException(String message, int statusCode) {
+        super(message);
+        _statusCode = statusCode;
+    }
+
+    public TriviaUpstreamException(String message, Throwable cause) {
+        super(message, cause);
+        _statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return _statusCode;
+    }
+}
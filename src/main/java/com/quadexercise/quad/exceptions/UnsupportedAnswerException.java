@@ -0,0 +1,12 @@
+package com.quadexercise.quad.exceptions;
+
+/**
+ * Exception thrown when an answer is sent in a form the answer store can't grade,
+ * such as answer text to a store that only keeps the index of the correct answer.
+ */
+public class UnsupportedAnswerException extends TriviaServiceException {
+
+    public UnsupportedAnswerException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.quadexercise.quad.interfaces;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+
+/**
+ * Store interface for the correct answers of questions that have been handed out.
+ * Implementations decide what they keep per question and therefore how answers are graded.
+ */
+public interface IAnswerStore {
+
+    /**
+     * Remembers the correct answer of a question.
+     *
+     * @param questionId    The numeric ID of the question
+     * @param question      The question as handed out, with its shuffled answers
+     * @param correctAnswer The correct answer for the question
+     */
+    void put(long questionId, QuestionDTO question, String correctAnswer);
+
+    /**
+     * Grades an answer against the stored correct answer.
+     *
+     * @param questionId The numeric ID of the question
+     * @param answer     The player's answer
+     * @return The graded result, or null if the question is unknown or expired
+     * @throws com.quadexercise.quad.exceptions.UnsupportedAnswerException if the store can't grade answers sent this way
+     */
+    AnswerResultDTO check(long questionId, AnswerDTO answer);
+
+    /**
+     * Gets a snapshot of the store statistics.
+     *
+     * @return Current size, limits and eviction/expiry counts
+     */
+    AnswerStoreStatsDTO getStats();
+}
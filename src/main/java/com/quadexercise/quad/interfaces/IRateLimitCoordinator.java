@@ -0,0 +1,32 @@
+package com.quadexercise.quad.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Coordinator of one rate-limit schedule shared by several application instances,
+ * for when the trivia API counts their calls together, such as behind one NAT address.
+ * Times are in the caller's clock, so implementations across hosts exchange relative delays.
+ */
+public interface IRateLimitCoordinator {
+
+    /**
+     * Reserves consecutive slots on the shared schedule, the first as early as possible.
+     *
+     * @param now        The caller's current time in milliseconds
+     * @param intervalMs Time between the slots
+     * @param count      Number of slots wanted
+     * @return Start time of the first slot; the others follow at the given interval
+     * @throws IOException if the shared schedule can't be reached
+     */
+    long reserve(long now, long intervalMs, int count) throws IOException;
+
+    /**
+     * Moves the shared schedule out, so that no further slot starts within the given delay.
+     * Used when the API reports that it is rate limiting, which applies to every instance.
+     *
+     * @param now     The caller's current time in milliseconds
+     * @param delayMs Time from now before which no slot may start
+     * @throws IOException if the shared schedule can't be reached
+     */
+    void pushBack(long now, long delayMs) throws IOException;
+}
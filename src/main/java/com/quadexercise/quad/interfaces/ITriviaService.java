@@ -3,9 +3,11 @@ package com.quadexercise.quad.interfaces;
 import com.quadexercise.quad.dto.AnswerDTO;
 import com.quadexercise.quad.dto.AnswerResultDTO;
 import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.utils.Deadline;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for trivia-related operations.
@@ -31,6 +33,39 @@ public interface ITriviaService {
      */
     List<QuestionDTO> getQuestions(int amount);
 
+    /**
+     * Gets parsed trivia questions, giving up when they can't arrive before the deadline.
+     *
+     * @param amount   The number of trivia questions to retrieve
+     * @param deadline The time by which the caller wants its questions
+     * @return List of QuestionDTO objects
+     * @throws IllegalArgumentException if amount is <= 0
+     */
+    List<QuestionDTO> getQuestions(int amount, Deadline deadline);
+
+    /**
+     * Gets parsed trivia questions without blocking the calling thread.
+     * Rate-limit waits and upstream calls complete the returned future later,
+     * so request threads are free while questions are fetched.
+     *
+     * @param amount The number of trivia questions to retrieve
+     * @return Future completing with a list of QuestionDTO objects
+     * @throws IllegalArgumentException if amount is <= 0
+     */
+    CompletableFuture<List<QuestionDTO>> getQuestionsAsync(int amount);
+
+    /**
+     * Gets parsed trivia questions without blocking the calling thread, within the caller's deadline.
+     * Callers whose rate-limit slot comes too late are turned away instead of waiting,
+     * and upstream calls only get the time left before the deadline.
+     *
+     * @param amount   The number of trivia questions to retrieve
+     * @param deadline The time by which the caller wants its questions
+     * @return Future completing with a list of QuestionDTO objects
+     * @throws IllegalArgumentException if amount is <= 0
+     */
+    CompletableFuture<List<QuestionDTO>> getQuestionsAsync(int amount, Deadline deadline);
+
     /**
      * Checks a collection of user answers against stored correct answers.
      *
@@ -0,0 +1,63 @@
+package com.quadexercise.quad.interfaces;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client interface for calling the upstream trivia API.
+ * Implementations decide how connections, timeouts and compression are handled.
+ */
+public interface ITriviaUpstreamClient {
+
+    /**
+     * Fetches the body of the given URL.
+     *
+     * @param url The full URL to request
+     * @return Future completing with the response body as a string
+     */
+    CompletableFuture<String> fetch(String url);
+
+    /**
+     * Fetches the body of the given URL as a stream.
+     * The default implementation buffers the full body first; a missing body yields an empty stream.
+     *
+     * @param url The full URL to request
+     * @return Future completing with a stream over the response body
+     */
+    default CompletableFuture<InputStream> fetchStream(String url) {
+        return fetch(url).thenApply(ITriviaUpstreamClient::toStream);
+    }
+
+    /**
+     * Fetches the body of the given URL, giving up once the timeout has passed.
+     * The default implementation can't shorten a single request and relies on the client's own timeouts.
+     *
+     * @param url     The full URL to request
+     * @param timeout Time the caller has left, e.g. until its request deadline
+     * @return Future completing with the response body as a string
+     */
+    default CompletableFuture<String> fetch(String url, Duration timeout) {
+        return fetch(url);
+    }
+
+    /**
+     * Fetches the body of the given URL as a stream, giving up once the timeout has passed.
+     * The default implementation buffers the full body first.
+     *
+     * @param url     The full URL to request
+     * @param timeout Time the caller has left, e.g. until its request deadline
+     * @return Future completing with a stream over the response body
+     */
+    default CompletableFuture<InputStream> fetchStream(String url, Duration timeout) {
+        return fetch(url, timeout).thenApply(ITriviaUpstreamClient::toStream);
+    }
+
+    private static InputStream toStream(String body) {
+        return body == null
+                ? InputStream.nullInputStream()
+                : new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package com.quadexercise.quad.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Answers removed from an answer store to make room for new ones.
+ * The event duration is the time spent finding and removing them.
+ */
+@Name("com.quadexercise.quad.AnswerEviction")
+@Label("Answer Eviction")
+@Category({"Quad", "Answers"})
+@Description("Expired or evicted answers dropped from the answer store")
+@StackTrace(false)
+public class AnswerEvictionEvent extends jdk.jfr.Event {
+
+    @Label("Store")
+    @Description("The answer store mode, store or index")
+    public String store;
+
+    @Label("Expired")
+    @Description("Entries dropped because their time to live had passed")
+    public int expired;
+
+    @Label("Evicted")
+    @Description("Live entries dropped because the store was full")
+    public int evicted;
+}
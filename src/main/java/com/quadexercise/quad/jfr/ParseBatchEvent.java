@@ -0,0 +1,29 @@
+package com.quadexercise.quad.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of one trivia API response into questions.
+ */
+@Name("com.quadexercise.quad.ParseBatch")
+@Label("Parse Batch")
+@Category({"Quad", "Trivia"})
+@Description("Streaming parse of a trivia API response")
+@StackTrace(false)
+public class ParseBatchEvent extends jdk.jfr.Event {
+
+    @Label("Questions")
+    @Description("Number of questions parsed, 0 if parsing failed")
+    public int questions;
+
+    @Label("Streamed")
+    @Description("Whether the body was parsed straight from the response stream")
+    public boolean streamed;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,29 @@
+package com.quadexercise.quad.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A caller waiting for its rate-limit slot.
+ * The event duration is the actual wait, from reservation until the operation started.
+ */
+@Name("com.quadexercise.quad.RateLimitWait")
+@Label("Rate Limit Wait")
+@Category({"Quad", "Trivia"})
+@Description("Time between reserving a rate-limit slot and starting the upstream call")
+@StackTrace(false)
+public class RateLimitWaitEvent extends jdk.jfr.Event {
+
+    @Label("Requested Wait")
+    @Description("Wait computed from the reserved slot at reservation time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long requestedWait;
+
+    @Label("Asynchronous")
+    @Description("Whether the wait was a scheduled completion rather than a sleeping thread")
+    public boolean async;
+}
@@ -0,0 +1,32 @@
+package com.quadexercise.quad.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to the trivia API, from sending the request until the body arrived or the call failed.
+ */
+@Name("com.quadexercise.quad.UpstreamFetch")
+@Label("Upstream Fetch")
+@Category({"Quad", "Trivia"})
+@Description("Request to the Open Trivia Database API")
+@StackTrace(false)
+public class UpstreamFetchEvent extends jdk.jfr.Event {
+
+    @Label("Amount")
+    @Description("Number of questions requested")
+    public int amount;
+
+    @Label("Body Size")
+    @Description("Decoded response body size, or -1 when the body was streamed to the parser")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Outcome")
+    @Description("2xx, the HTTP status of a failed response, timeout or error")
+    public String outcome;
+}
@@ -0,0 +1,40 @@
+package com.quadexercise.quad.model;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+
+/**
+ * A parsed trivia question together with its correct answer.
+ * Holds questions that have been fetched from the API but not yet served to a player.
+ */
+public class ParsedQuestion {
+    private final QuestionDTO _question;
+    private final String _correctAnswer;
+
+    public ParsedQuestion(QuestionDTO question, String correctAnswer) {
+        _question = question;
+        _correctAnswer = correctAnswer;
+    }
+
+    public QuestionDTO getQuestion() {
+        return _question;
+    }
+
+    public String getCorrectAnswer() {
+        return _correctAnswer;
+    }
+
+    /**
+     * Creates a copy of this question with a fresh ID, for serving it again to another player.
+     *
+     * @return A copy that can be registered and graded independently of this one
+     */
+    public ParsedQuestion reissue() {
+        QuestionDTO copy = new QuestionDTO();
+        copy.setCategory(_question.getCategory());
+        copy.setType(_question.getType());
+        copy.setDifficulty(_question.getDifficulty());
+        copy.setQuestion(_question.getQuestion());
+        copy.setAnswers(_question.getAnswers());
+        return new ParsedQuestion(copy, _correctAnswer);
+    }
+}
@@ -0,0 +1,101 @@
+package com.quadexercise.quad.ratelimit;
+
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rate-limit schedule shared by the processes on one host through a lease file.
+ * The file holds the next free slot; a process reserves slots by taking an exclusive lock
+ * on the file, reading the slot and writing it back moved past the ones it took.
+ * The file is not forced to disk: every process on the host reads it through the same page cache,
+ * and a schedule lost in a crash only lets the next call start early once.
+ */
+public class FileRateLimitCoordinator implements IRateLimitCoordinator, Closeable {
+
+    // A file lock is held by the whole process, so threads of this process take turns before locking
+    private static final Lock PROCESS_LOCK = new ReentrantLock();
+
+    private final FileChannel _channel;
+    private final ByteBuffer _buffer = ByteBuffer.allocate(Long.BYTES);
+
+    /**
+     * Opens the lease file, creating it if this is the first process to use it.
+     *
+     * @param path The lease file, the same for every process on the host
+     * @throws UncheckedIOException if the file can't be opened
+     */
+    public FileRateLimitCoordinator(Path path) {
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            _channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open rate-limit lease file " + path, e);
+        }
+    }
+
+    @Override
+    public long reserve(long now, long intervalMs, int count) throws IOException {
+        PROCESS_LOCK.lock();
+        try (FileLock ignored = _channel.lock()) {
+            long first = Math.max(readNextFreeSlot(), now);
+            writeNextFreeSlot(first + Math.max(intervalMs, 0L) * Math.max(count, 1));
+            return first;
+        } finally {
+            PROCESS_LOCK.unlock();
+        }
+    }
+
+    @Override
+    public void pushBack(long now, long delayMs) throws IOException {
+        PROCESS_LOCK.lock();
+        try (FileLock ignored = _channel.lock()) {
+            long nextFreeSlot = readNextFreeSlot();
+            if (nextFreeSlot < now + delayMs) {
+                writeNextFreeSlot(now + delayMs);
+            }
+        } finally {
+            PROCESS_LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return The next free slot, or 0 while the file is new
+     */
+    private long readNextFreeSlot() throws IOException {
+        _buffer.clear();
+        while (_buffer.hasRemaining()) {
+            if (_channel.read(_buffer, _buffer.position()) < 0) {
+                return 0L;
+            }
+        }
+        return _buffer.getLong(0);
+    }
+
+    private void writeNextFreeSlot(long nextFreeSlot) throws IOException {
+        _buffer.clear();
+        _buffer.putLong(0, nextFreeSlot);
+        while (_buffer.hasRemaining()) {
+            _channel.write(_buffer, _buffer.position());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        _channel.close();
+    }
+}
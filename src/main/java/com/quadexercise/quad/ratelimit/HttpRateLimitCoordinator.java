@@ -0,0 +1,82 @@
+package com.quadexercise.quad.ratelimit;
+
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of the rate-limit schedule kept by a coordinating instance, for instances on several hosts.
+ * The coordinator answers with the delay until the first reserved slot rather than a time,
+ * so host clocks don't need to agree. The delay is counted from when the answer arrives,
+ * which errs on the side of starting late.
+ */
+public class HttpRateLimitCoordinator implements IRateLimitCoordinator {
+
+    public static final String RESERVE_PATH = "/internal/ratelimit/reserve";
+    public static final String PUSH_BACK_PATH = "/internal/ratelimit/pushback";
+    public static final String SECRET_HEADER = "X-Trivia-Coordinator-Secret";
+
+    private final String _baseUrl;
+    private final String _secret;
+    private final Duration _timeout;
+    private final HttpClient _client;
+
+    /**
+     * Creates a client of the coordinator at the given URL.
+     *
+     * @param coordinatorUrl Base URL of the coordinating instance, such as http://host:8080
+     * @param secret         Secret shared with the coordinator
+     * @param timeout        Time allowed per request before coordination counts as failed
+     */
+    public HttpRateLimitCoordinator(String coordinatorUrl, String secret, Duration timeout) {
+        String trimmed = coordinatorUrl.trim();
+        _baseUrl = trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+        _secret = secret;
+        _timeout = timeout;
+        _client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public long reserve(long now, long intervalMs, int count) throws IOException {
+        long start = System.nanoTime();
+        String delay = post(RESERVE_PATH + "?intervalMs=" + intervalMs + "&count=" + count);
+        try {
+            return now + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + Long.parseLong(delay.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Rate-limit coordinator sent an invalid delay: " + delay, e);
+        }
+    }
+
+    @Override
+    public void pushBack(long now, long delayMs) throws IOException {
+        post(PUSH_BACK_PATH + "?delayMs=" + delayMs);
+    }
+
+    private String post(String pathAndQuery) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(_baseUrl + pathAndQuery))
+                .timeout(_timeout)
+                .header(SECRET_HEADER, _secret)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = _client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling the rate-limit coordinator");
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Rate-limit coordinator answered HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
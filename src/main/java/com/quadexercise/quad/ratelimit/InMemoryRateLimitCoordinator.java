@@ -0,0 +1,26 @@
+package com.quadexercise.quad.ratelimit;
+
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+
+/**
+ * Shared rate-limit schedule held in this process.
+ * Backs the coordinator endpoint that instances on other hosts reserve their slots from,
+ * and stands in for a remote coordinator when several limiters run in one process.
+ */
+public class InMemoryRateLimitCoordinator implements IRateLimitCoordinator {
+
+    // Guarded by this
+    private long _nextFreeSlot;
+
+    @Override
+    public synchronized long reserve(long now, long intervalMs, int count) {
+        long first = Math.max(_nextFreeSlot, now);
+        _nextFreeSlot = first + Math.max(intervalMs, 0L) * Math.max(count, 1);
+        return first;
+    }
+
+    @Override
+    public synchronized void pushBack(long now, long delayMs) {
+        _nextFreeSlot = Math.max(_nextFreeSlot, now + delayMs);
+    }
+}
@@ -0,0 +1,127 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.jfr.AnswerEvictionEvent;
+import com.quadexercise.quad.jfr.ParseBatchEvent;
+import com.quadexercise.quad.jfr.RateLimitWaitEvent;
+import com.quadexercise.quad.jfr.UpstreamFetchEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service responsible for on-demand JDK Flight Recorder captures.
+ * Starts a time-boxed recording of the trivia events, on top of one of the JDK's
+ * predefined settings, and hands back the finished .jfr file. Only one capture runs
+ * at a time, so a busy node can't be made to record more than once.
+ */
+@Service
+public class JfrRecordingService {
+
+    static final String SETTINGS_NONE = "none";
+
+    private static final List<Class<? extends Event>> TRIVIA_EVENTS = List.of(
+            RateLimitWaitEvent.class,
+            UpstreamFetchEvent.class,
+            ParseBatchEvent.class,
+            AnswerEvictionEvent.class);
+
+    private final long _maxDurationSeconds;
+    private final AtomicBoolean _capturing = new AtomicBoolean();
+
+    @Autowired
+    public JfrRecordingService(
+            @Value("${trivia.jfr.max-duration-seconds:300}") long maxDurationSeconds) {
+        _maxDurationSeconds = Math.max(maxDurationSeconds, 1L);
+    }
+
+    public long getMaxDurationSeconds() {
+        return _maxDurationSeconds;
+    }
+
+    /**
+     * Records for the given time and returns the recording.
+     *
+     * @param durationSeconds How long to record, capped at the configured maximum
+     * @param settings        JDK settings to record alongside the trivia events:
+     *                        "default", "profile" or "none" for the trivia events only
+     * @return Future completing with the contents of the .jfr file
+     * @throws IllegalStateException    if a capture is already running
+     * @throws IllegalArgumentException if the settings are unknown
+     */
+    public CompletableFuture<byte[]> capture(long durationSeconds, String settings) {
+        if (!_capturing.compareAndSet(false, true)) {
+            throw new IllegalStateException("A JFR capture is already running");
+        }
+        Recording recording;
+        try {
+            recording = createRecording(settings);
+            recording.start();
+        } catch (RuntimeException e) {
+            _capturing.set(false);
+            throw e;
+        }
+
+        long seconds = Math.min(Math.max(durationSeconds, 1L), _maxDurationSeconds);
+        return CompletableFuture
+                .supplyAsync(() -> stopAndRead(recording),
+                        CompletableFuture.delayedExecutor(seconds, TimeUnit.SECONDS))
+                .whenComplete((contents, failure) -> _capturing.set(false));
+    }
+
+    private static Recording createRecording(String settings) {
+        Recording recording;
+        if (SETTINGS_NONE.equalsIgnoreCase(settings)) {
+            recording = new Recording();
+        } else {
+            try {
+                recording = new Recording(Configuration.getConfiguration(settings));
+            } catch (IOException | ParseException e) {
+                throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+            }
+        }
+        recording.setName("quad-capture");
+        for (Class<? extends Event> eventType : TRIVIA_EVENTS) {
+            recording.enable(eventType).withThreshold(Duration.ZERO);
+        }
+        return recording;
+    }
+
+    private static byte[] stopAndRead(Recording recording) {
+        Path file = null;
+        try (recording) {
+            recording.stop();
+            file = Files.createTempFile("quad-", ".jfr");
+            recording.dump(file);
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left in the temp directory; the recording itself was already read
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service responsible for admission control of question requests bound for the trivia API.
+ * A request is turned away up front when the rate limiter's reservations put its wait past
+ * the wait budget, or when the concurrency limit is reached, with a hint when to retry.
+ * The limit adapts gradient-style: it is scaled by the ratio of the long-term average latency
+ * to the latest latency, so it shrinks as latency rises, and grows by its square root while
+ * latency is stable and requests are actually using it.
+ */
+@Service
+public class TriviaAdmissionService {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_WINDOW = 100.0;
+    private static final double MIN_GRADIENT = 0.5;
+    // Past this ratio latency has dropped a lot, so the long-term average is pulled down faster
+    private static final double LONG_RTT_DECAY_RATIO = 2.0;
+    private static final double LONG_RTT_DECAY = 0.95;
+
+    private final TriviaRateLimitService _rateLimitService;
+    private final boolean _enabled;
+    private final long _maxWaitMs;
+    private final int _minLimit;
+    private final int _maxLimit;
+    private final TriviaPipelineMetrics _metrics;
+    private final AtomicInteger _inFlight = new AtomicInteger();
+    private volatile int _limit;
+
+    // Guarded by this; updated once per completed request, off the admission path
+    private double _estimatedLimit;
+    private double _longRttNanos;
+
+    /**
+     * Creates an admission controller for upstream-bound question requests.
+     *
+     * @param rateLimitService Reports how long a new reservation would wait
+     * @param enabled          Whether requests can be turned away
+     * @param maxWaitMs        Longest estimated rate-limit wait a request is admitted with
+     * @param initialLimit     Concurrency limit to start from
+     * @param minLimit         Lowest the limit adapts to
+     * @param maxLimit         Highest the limit adapts to
+     * @param metrics          Exposes the limit and counts rejections
+     */
+    @Autowired
+    public TriviaAdmissionService(
+            TriviaRateLimitService rateLimitService,
+            @Value("${trivia.admission.enabled:true}") boolean enabled,
+            @Value("${trivia.admission.max-wait-ms:15000}") long maxWaitMs,
+            @Value("${trivia.admission.initial-limit:20}") int initialLimit,
+            @Value("${trivia.admission.min-limit:4}") int minLimit,
+            @Value("${trivia.admission.max-limit:200}") int maxLimit,
+            TriviaPipelineMetrics metrics) {
+        _rateLimitService = rateLimitService;
+        _enabled = enabled;
+        _maxWaitMs = Math.max(maxWaitMs, 0L);
+        _minLimit = Math.max(minLimit, 1);
+        _maxLimit = Math.max(maxLimit, _minLimit);
+        _estimatedLimit = Math.min(Math.max(initialLimit, _minLimit), _maxLimit);
+        _limit = (int) _estimatedLimit;
+        _metrics = metrics;
+        metrics.registerAdmission(this::getLimit, _inFlight::get);
+    }
+
+    /**
+     * Creates an admission controller that admits every request.
+     * Used by services constructed outside Spring.
+     *
+     * @return A disabled admission controller
+     */
+    static TriviaAdmissionService disabled() {
+        return new TriviaAdmissionService(null, false, 0L, 1, 1, 1, TriviaPipelineMetrics.noop());
+    }
+
+    int getLimit() {
+        return _limit;
+    }
+
+    int getInFlight() {
+        return _inFlight.get();
+    }
+
+    /**
+     * Admits a request bound for the trivia API, or turns it away.
+     * Every admitted request must be released with {@link #release(long, boolean)}.
+     *
+     * @return The admission time, to pass to release
+     * @throws TriviaOverloadedException if the estimated wait exceeds the budget or the limit is reached
+     */
+    long admit() {
+        if (!_enabled) {
+            return 0L;
+        }
+        long waitMs = _rateLimitService.estimateWaitMs();
+        if (waitMs > _maxWaitMs) {
+            _metrics.recordAdmissionRejected(true);
+            // Without new reservations the wait is back within budget once the excess has passed
+            throw new TriviaOverloadedException(
+                    String.format("Estimated wait of %d ms exceeds %d ms", waitMs, _maxWaitMs),
+                    toRetryAfterSeconds(waitMs - _maxWaitMs));
+        }
+        while (true) {
+            int inFlight = _inFlight.get();
+            if (inFlight >= _limit) {
+                _metrics.recordAdmissionRejected(false);
+                throw new TriviaOverloadedException(
+                        String.format("Concurrency limit of %d reached", inFlight),
+                        toRetryAfterSeconds(_rateLimitService.getCurrentIntervalMs()));
+            }
+            if (_inFlight.compareAndSet(inFlight, inFlight + 1)) {
+                return System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and, if it succeeded, adapts the limit to its latency.
+     *
+     * @param admittedNanos The time returned by {@link #admit()}
+     * @param succeeded     Whether the request got its questions; failures don't say much about latency
+     */
+    void release(long admittedNanos, boolean succeeded) {
+        if (!_enabled) {
+            return;
+        }
+        int inFlight = _inFlight.getAndDecrement();
+        if (succeeded) {
+            sample(System.nanoTime() - admittedNanos, inFlight);
+        }
+    }
+
+    private synchronized void sample(long rttNanos, int inFlight) {
+        double rtt = Math.max(rttNanos, 1L);
+        _longRttNanos = _longRttNanos == 0.0 ? rtt : _longRttNanos + (rtt - _longRttNanos) / LONG_WINDOW;
+        if (_longRttNanos / rtt > LONG_RTT_DECAY_RATIO) {
+            _longRttNanos *= LONG_RTT_DECAY;
+        }
+
+        // A limit the requests don't come near tells nothing about how far it could go
+        if (inFlight < _estimatedLimit / 2.0) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, _longRttNanos / rtt));
+        double newLimit = _estimatedLimit * gradient + Math.sqrt(_estimatedLimit);
+        _estimatedLimit = Math.min(Math.max(
+                _estimatedLimit * (1.0 - SMOOTHING) + newLimit * SMOOTHING, _minLimit), _maxLimit);
+        _limit = (int) _estimatedLimit;
+    }
+
+    private static long toRetryAfterSeconds(long millis) {
+        return Math.max(TimeUnit.MILLISECONDS.toSeconds(millis + 999L), 1L);
+    }
+}
@@ -2,30 +2,199 @@ package com.quadexercise.quad.service;
 
 import com.quadexercise.quad.dto.AnswerDTO;
 import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
 import com.quadexercise.quad.exceptions.QuestionNotFoundException;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.store.AnswerHandoffWriter;
+import com.quadexercise.quad.store.AnswerIndexStore;
+import com.quadexercise.quad.store.AnswerTokenCodec;
+import com.quadexercise.quad.store.BoundedAnswerStore;
+import com.quadexercise.quad.utils.QuestionIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Service responsible for checking trivia answers.
- * Manages the mapping between question IDs and their correct answers.
+ * Answers are kept by an {@link IAnswerStore} picked by configuration: store mode keeps them in
+ * memory, at most a configured number for a limited time; index mode does the same but keeps only
+ * the position of the correct answer. Durable mode is store mode with every answer also logged to disk,
+ * so players can finish their quiz across a restart. Shared mode keeps the answers in a
+ * memory-mapped table that every process on the host grades against, and replicated mode pushes
+ * them to the other nodes of a cluster. In token mode there is no store: the correct answer
+ * travels inside the question ID itself, so answers can be graded by any node that
+ * shares the token secret.
  */
 @Service
 public class TriviaAnswerService {
 
-    // In-memory store of question IDs to correct answers
-    private final Map<String, String> _questionAnswers = new HashMap<>(0);
+    public static final String MODE_STORE = "store";
+    public static final String MODE_INDEX = "index";
+    public static final String MODE_TOKEN = "token";
+    public static final String MODE_DURABLE = "durable";
+    public static final String MODE_SHARED = "shared";
+    public static final String MODE_REPLICATED = "replicated";
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriviaAnswerService.class);
+    private static final List<String> STORE_MODES = List.of(MODE_INDEX, MODE_DURABLE, MODE_SHARED, MODE_REPLICATED);
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final long DEFAULT_TTL_MS = 3_600_000L;
+    private static final int GENERATED_SECRET_BYTES = 32;
+
+    private final String _mode;
+    // Store of question IDs to correct answers, null in token mode
+    private final IAnswerStore _questionAnswers;
+    // Codec for self-contained question IDs, null unless in token mode
+    private final AnswerTokenCodec _tokenCodec;
+    private final TriviaPipelineMetrics _metrics;
+    // Process taking over from this one, passed every answer registered after its handoff began
+    private volatile AnswerHandoffWriter _forwardTo;
+
+    public TriviaAnswerService() {
+        this(MODE_STORE, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS, "");
+    }
+
+    public TriviaAnswerService(String mode, int maxEntries, long ttlMs, String tokenSecret) {
+        this(mode, maxEntries, ttlMs, tokenSecret, TriviaPipelineMetrics.noop());
+    }
+
+    /**
+     * Creates an answer service outside Spring, with a store that lives in this process only.
+     *
+     * @param mode        token, index, or store for any other value
+     * @param maxEntries  Maximum number of answers kept, except in token mode
+     * @param ttlMs       Time after which a question can no longer be graded
+     * @param tokenSecret Secret sealing answer tokens; empty for a random one
+     * @param metrics     Counts graded answers and exposes the store size
+     */
+    public TriviaAnswerService(
+            String mode, int maxEntries, long ttlMs, String tokenSecret, TriviaPipelineMetrics metrics) {
+        this(mode, ttlMs, tokenSecret, localStore(mode, maxEntries, ttlMs), metrics);
+    }
+
+    /**
+     * Creates an answer service grading against the given store.
+     *
+     * @param mode        The mode the store was created for, reported in the statistics
+     * @param answerStore The store keeping the correct answers
+     * @param metrics     Counts graded answers and exposes the store size
+     */
+    public TriviaAnswerService(String mode, IAnswerStore answerStore, TriviaPipelineMetrics metrics) {
+        this(mode, 0L, "", Optional.of(answerStore), metrics);
+    }
 
     /**
-     * Adds a mapping from question ID to correct answer.
+     * Creates the answer service for the configured mode.
      *
-     * @param questionId    The ID of the question
+     * @param mode        store, index, durable, shared, replicated or token
+     * @param ttlMs       Time after which a question can no longer be graded in token mode
+     * @param tokenSecret Secret sealing answer tokens; empty for a random one
+     * @param answerStore The configured answer store, absent in token mode
+     * @param metrics     Counts graded answers and exposes the store size
+     */
+    @Autowired
+    public TriviaAnswerService(
+            @Value("${trivia.answers.mode:store}") String mode,
+            @Value("${trivia.answers.ttl-ms:3600000}") long ttlMs,
+            @Value("${trivia.answers.token-secret:}") String tokenSecret,
+            Optional<IAnswerStore> answerStore,
+            TriviaPipelineMetrics metrics) {
+        if (MODE_TOKEN.equalsIgnoreCase(mode)) {
+            _mode = MODE_TOKEN;
+            _questionAnswers = null;
+            _tokenCodec = new AnswerTokenCodec(resolveSecret(tokenSecret), ttlMs);
+        } else {
+            _mode = STORE_MODES.stream()
+                    .filter(storeMode -> storeMode.equalsIgnoreCase(mode))
+                    .findFirst()
+                    .orElse(MODE_STORE);
+            _questionAnswers = answerStore.orElseThrow(
+                    () -> new IllegalStateException("No answer store configured for mode " + mode));
+            _tokenCodec = null;
+        }
+        _metrics = metrics;
+        _metrics.registerAnswerStoreSize(() -> _questionAnswers == null ? 0 : _questionAnswers.getStats().getSize());
+    }
+
+    private static Optional<IAnswerStore> localStore(String mode, int maxEntries, long ttlMs) {
+        if (MODE_TOKEN.equalsIgnoreCase(mode)) {
+            return Optional.empty();
+        }
+        return Optional.of(MODE_INDEX.equalsIgnoreCase(mode)
+                ? new AnswerIndexStore(maxEntries, ttlMs)
+                : new BoundedAnswerStore(maxEntries, ttlMs));
+    }
+
+    private static byte[] resolveSecret(String tokenSecret) {
+        if (tokenSecret != null && !tokenSecret.isBlank()) {
+            return tokenSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        LOGGER.warn("No trivia.answers.token-secret configured, "
+                + "answer tokens will only be accepted by this instance");
+        byte[] secret = new byte[GENERATED_SECRET_BYTES];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * Registers a question so its answer can be checked later.
+     * In token mode this replaces the question ID with a token carrying the answer.
+     *
+     * @param question      The question being handed out
      * @param correctAnswer The correct answer for the question
      */
-    void addQuestionAnswer(String questionId, String correctAnswer) {
-        _questionAnswers.put(questionId, correctAnswer);
+    void registerQuestion(QuestionDTO question, String correctAnswer) {
+        if (_tokenCodec != null) {
+            question.setId(_tokenCodec.encode(correctAnswer));
+        } else {
+            long questionId = parseQuestionId(question.getId());
+            if (questionId < 0L) {
+                // Question was created with a foreign ID, give it one the store can key on
+                questionId = QuestionIds.next();
+                question.setId(QuestionIds.encode(questionId));
+            }
+            _questionAnswers.put(questionId, question, correctAnswer);
+            AnswerHandoffWriter forwardTo = _forwardTo;
+            if (forwardTo != null) {
+                forwardTo.writeRegistered(questionId, question, correctAnswer);
+            }
+        }
+    }
+
+    /**
+     * Gets the store keeping the correct answers.
+     *
+     * @return The store, or null in token mode
+     */
+    IAnswerStore getAnswerStore() {
+        return _questionAnswers;
+    }
+
+    /**
+     * Passes every answer registered from now on to a process taking over from this one, or stops doing so.
+     *
+     * @param writer The handoff to the other process, or null to stop
+     */
+    void forwardRegisteredAnswers(AnswerHandoffWriter writer) {
+        _forwardTo = writer;
+    }
+
+    private static long parseQuestionId(String questionId) {
+        try {
+            return QuestionIds.decode(questionId);
+        } catch (IllegalArgumentException e) {
+            return -1L;
+        }
     }
 
     /**
@@ -50,18 +219,52 @@ public class TriviaAnswerService {
     AnswerResultDTO checkAnswer(AnswerDTO answerDTO) {
         String questionId = answerDTO.getQuestionId();
 
-        // Get the correct answer
-        String correctAnswer = _questionAnswers.get(questionId);
-        if (correctAnswer == null) {
+        AnswerResultDTO result = _tokenCodec != null
+                ? checkTokenAnswer(questionId, answerDTO)
+                : checkStoredAnswer(questionId, answerDTO);
+        if (result == null) {
+            _metrics.recordAnswerNotFound();
             throw new QuestionNotFoundException(questionId);
         }
+        _metrics.recordAnswer(result.isCorrect());
 
-        // Create and populate the result
-        AnswerResultDTO result = new AnswerResultDTO();
         result.setQuestionId(questionId);
+        return result;
+    }
+
+    private AnswerResultDTO checkTokenAnswer(String questionId, AnswerDTO answerDTO) {
+        String correctAnswer = _tokenCodec.decode(questionId);
+        if (correctAnswer == null) {
+            return null;
+        }
+        AnswerResultDTO result = new AnswerResultDTO();
         result.setCorrect(Objects.equals(correctAnswer, answerDTO.getSelectedAnswer()));
         result.setCorrectAnswer(correctAnswer);
-
         return result;
     }
+
+    private AnswerResultDTO checkStoredAnswer(String questionId, AnswerDTO answerDTO) {
+        long id = parseQuestionId(questionId);
+        return id < 0L ? null : _questionAnswers.check(id, answerDTO);
+    }
+
+    /**
+     * Gets a snapshot of the answer store statistics.
+     *
+     * @return Current size, limits and eviction/expiry counts
+     */
+    public AnswerStoreStatsDTO getStats() {
+        if (_tokenCodec != null) {
+            AnswerStoreStatsDTO stats = new AnswerStoreStatsDTO();
+            stats.setMode(_mode);
+            stats.setTtlMs(_tokenCodec.getTtlMs());
+            stats.setTokensIssued(_tokenCodec.getIssued());
+            stats.setTokensRejected(_tokenCodec.getRejected());
+            stats.setExpirations(_tokenCodec.getExpired());
+            return stats;
+        }
+        AnswerStoreStatsDTO stats = _questionAnswers.getStats();
+        stats.setMode(_mode);
+        return stats;
+    }
 }
@@ -0,0 +1,491 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaServiceException;
+import com.quadexercise.quad.utils.ApiConstants;
+import com.quadexercise.quad.utils.Deadline;
+import com.quadexercise.quad.utils.ServerTiming;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Merges concurrent question requests into shared upstream batches.
+ * The first caller opens a batch and waits for its rate-limit slot. Callers that
+ * arrive before the slot begins join that batch as long as the combined amount
+ * fits in one upstream call, and each receives its own disjoint slice of the result.
+ * When the API returns fewer questions than the batch asked for, a joiner whose slice came up short
+ * fetches the missing questions once more; the leader keeps what it got, like a caller fetching alone.
+ * Stage timings are recorded once per batch and copied to each caller's Server-Timing,
+ * with the rate-limit wait measured from when that caller joined.
+ * Each upstream call goes through the circuit breaker once its slot begins, and every
+ * question it returns is also kept for stale serving.
+ * A batch's slot must come in time for its leader's deadline, and its upstream call gets
+ * the time left until the latest deadline among its callers. A joiner stops waiting at its own deadline.
+ * An asynchronous caller also gives up when its future is cancelled; once every caller of a batch
+ * has given up before its slot begins, the slot is handed back to the rate limiter.
+ */
+class TriviaBatchCoalescer {
+
+    private final TriviaFetchService _fetchService;
+    private final TriviaParsingService _parsingService;
+    private final TriviaAnswerService _answerService;
+    private final TriviaRateLimitService _rateLimitService;
+    private final MessageService _messageService;
+    private final TriviaCircuitBreaker _circuitBreaker;
+    private final TriviaStaleQuestionCache _staleQuestions;
+    private final AtomicReference<PendingBatch> _openBatch = new AtomicReference<>();
+
+    TriviaBatchCoalescer(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaAnswerService answerService,
+            TriviaRateLimitService rateLimitService,
+            MessageService messageService) {
+        this(fetchService, parsingService, answerService, rateLimitService, messageService,
+                TriviaCircuitBreaker.disabled(rateLimitService), TriviaStaleQuestionCache.disabled());
+    }
+
+    TriviaBatchCoalescer(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaAnswerService answerService,
+            TriviaRateLimitService rateLimitService,
+            MessageService messageService,
+            TriviaCircuitBreaker circuitBreaker,
+            TriviaStaleQuestionCache staleQuestions) {
+        _fetchService = fetchService;
+        _parsingService = parsingService;
+        _answerService = answerService;
+        _rateLimitService = rateLimitService;
+        _messageService = messageService;
+        _circuitBreaker = circuitBreaker;
+        _staleQuestions = staleQuestions;
+    }
+
+    /**
+     * Gets questions from the API, sharing an upstream call with other waiting callers.
+     *
+     * @param amount The number of questions wanted
+     * @return This caller's slice of the fetched questions
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    List<QuestionDTO> getQuestions(int amount) {
+        return getQuestions(amount, Deadline.none());
+    }
+
+    /**
+     * Gets questions from the API within the caller's deadline.
+     *
+     * @param amount   The number of questions wanted
+     * @param deadline The caller's deadline
+     * @return This caller's slice of the fetched questions
+     * @throws TriviaDeadlineExceededException if the questions can't arrive in time
+     * @throws IllegalStateException           if the thread is interrupted while waiting
+     */
+    List<QuestionDTO> getQuestions(int amount, Deadline deadline) {
+        return getQuestions(amount, deadline, ServerTiming.current(), true);
+    }
+
+    private List<QuestionDTO> getQuestions(
+            int amount, Deadline deadline, ServerTiming timing, boolean refetchShortfall) {
+        if (amount >= ApiConstants.MAX_BATCH_SIZE) {
+            long requested = System.nanoTime();
+            return _rateLimitService.rateLimit(deadline, () -> {
+                timing.add(ServerTiming.Stage.RATE_LIMIT, System.nanoTime() - requested);
+                return _circuitBreaker.call(() -> fetchAndRegister(amount, timing, deadline));
+            });
+        }
+
+        Membership membership = joinOrOpen(amount, deadline);
+        if (membership.isLeader()) {
+            lead(membership.batch());
+        }
+        PendingBatch batch = membership.batch();
+        List<QuestionDTO> slice;
+        try {
+            slice = batch.awaitSlice(membership.offset(), amount, deadline, _messageService);
+        } catch (TriviaDeadlineExceededException e) {
+            leave(batch);
+            throw e;
+        }
+        batch.copyTiming(timing, membership.joinedNanos());
+        if (refetchShortfall && !membership.isLeader() && slice.size() < amount) {
+            slice.addAll(getQuestions(amount - slice.size(), deadline, timing, false));
+        }
+        return slice;
+    }
+
+    /**
+     * Gets questions from the API without blocking the calling thread.
+     * Shares batches with synchronous callers; the leader's rate-limit wait is a scheduled
+     * completion, so no thread is held while the slot comes up.
+     *
+     * @param amount The number of questions wanted
+     * @return Future completing with this caller's slice of the fetched questions
+     */
+    CompletableFuture<List<QuestionDTO>> getQuestionsAsync(int amount) {
+        return getQuestionsAsync(amount, Deadline.none());
+    }
+
+    /**
+     * Gets questions from the API without blocking, within the caller's deadline.
+     *
+     * @param amount   The number of questions wanted
+     * @param deadline The caller's deadline
+     * @return Future completing with this caller's slice of the fetched questions
+     */
+    CompletableFuture<List<QuestionDTO>> getQuestionsAsync(int amount, Deadline deadline) {
+        return getQuestionsAsync(amount, deadline, ServerTiming.current(), true);
+    }
+
+    private CompletableFuture<List<QuestionDTO>> getQuestionsAsync(
+            int amount, Deadline deadline, ServerTiming timing, boolean refetchShortfall) {
+        if (amount >= ApiConstants.MAX_BATCH_SIZE) {
+            long requested = System.nanoTime();
+            // Failing or cancelling this future before the slot begins hands the slot back
+            CompletableFuture<List<QuestionDTO>> questions = _rateLimitService.rateLimitAsync(deadline, () -> {
+                timing.add(ServerTiming.Stage.RATE_LIMIT, System.nanoTime() - requested);
+                return _circuitBreaker.callAsync(() -> fetchAndRegisterAsync(amount, timing, deadline));
+            });
+            expireAt(questions, deadline);
+            return questions;
+        }
+
+        Membership membership = joinOrOpen(amount, deadline);
+        if (membership.isLeader()) {
+            leadAsync(membership.batch());
+        }
+        PendingBatch batch = membership.batch();
+        CompletableFuture<List<QuestionDTO>> questions = batch.slice(membership.offset(), amount).thenCompose(slice -> {
+            batch.copyTiming(timing, membership.joinedNanos());
+            if (!refetchShortfall || membership.isLeader() || slice.size() >= amount) {
+                return CompletableFuture.completedFuture(slice);
+            }
+            return getQuestionsAsync(amount - slice.size(), deadline, timing, false).thenApply(missing -> {
+                slice.addAll(missing);
+                return slice;
+            });
+        });
+        questions.whenComplete((slice, failure) -> {
+            if (failure != null) {
+                leave(batch);
+            }
+        });
+        expireAt(questions, deadline);
+        return questions;
+    }
+
+    /**
+     * Fails a caller's future once its deadline has passed.
+     */
+    private static void expireAt(CompletableFuture<List<QuestionDTO>> questions, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return;
+        }
+        CompletableFuture<Void> expiry = CompletableFuture.runAsync(
+                () -> questions.completeExceptionally(new TriviaDeadlineExceededException(
+                        "Trivia questions did not arrive before the request deadline")),
+                CompletableFuture.delayedExecutor(
+                        deadline.remainingMillis(System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+        questions.whenComplete((slice, failure) -> expiry.cancel(false));
+    }
+
+    /**
+     * Gives up a caller's place in a batch that has no result yet. The last caller to give up
+     * before the slot begins closes the batch and hands back its rate-limit reservation.
+     */
+    private void leave(PendingBatch batch) {
+        if (batch._result.isDone() || !batch.leave()) {
+            return;
+        }
+        _openBatch.compareAndSet(batch, null);
+        CompletableFuture<?> reservation = batch._reservation;
+        if (reservation != null) {
+            reservation.cancel(false);
+        }
+    }
+
+    /**
+     * Joins the open batch if the amount still fits, otherwise opens a new batch.
+     *
+     * @return The batch joined and the offset of this caller's slice; offset 0 means leader
+     */
+    private Membership joinOrOpen(int amount, Deadline deadline) {
+        long joinedNanos = System.nanoTime();
+        while (true) {
+            PendingBatch batch = _openBatch.get();
+            if (batch != null) {
+                int offset = batch.tryJoin(amount, deadline);
+                if (offset >= 0) {
+                    return new Membership(batch, offset, joinedNanos);
+                }
+                // Batch is full or already running, retire it so a new one can open
+                _openBatch.compareAndSet(batch, null);
+                continue;
+            }
+
+            PendingBatch newBatch = new PendingBatch(amount, deadline);
+            if (_openBatch.compareAndSet(null, newBatch)) {
+                return new Membership(newBatch, 0, joinedNanos);
+            }
+        }
+    }
+
+    /**
+     * Runs a batch as its leader: waits for the slot, closes the batch to new
+     * joiners, fetches the combined amount and hands the result to every joiner.
+     */
+    private void lead(PendingBatch batch) {
+        try {
+            List<QuestionDTO> questions = _rateLimitService.rateLimit(batch.deadline(), () -> {
+                batch.startSlot();
+                int total = close(batch);
+                Deadline deadline = batch.deadline();
+                return _circuitBreaker.call(() -> fetchAndRegister(total, batch._timing, deadline));
+            });
+            batch.complete(questions);
+        } catch (RuntimeException e) {
+            close(batch);
+            batch.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a batch as its leader without blocking; the batch result is completed
+     * when the upstream call finishes.
+     */
+    private void leadAsync(PendingBatch batch) {
+        CompletableFuture<List<QuestionDTO>> reservation = _rateLimitService.rateLimitAsync(batch.deadline(), () -> {
+            batch.startSlot();
+            int total = close(batch);
+            if (total == PendingBatch.CLOSED) {
+                // Every caller gave up just as the slot began
+                return CompletableFuture.failedFuture(new CancellationException("Trivia batch was abandoned"));
+            }
+            Deadline deadline = batch.deadline();
+            return _circuitBreaker.callAsync(() -> fetchAndRegisterAsync(total, batch._timing, deadline));
+        });
+        // Set before the leader's own future exists, so before any caller can give up on the batch
+        batch._reservation = reservation;
+        reservation.whenComplete((questions, failure) -> {
+            if (failure == null) {
+                batch.complete(questions);
+                return;
+            }
+            close(batch);
+            batch.fail(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure);
+        });
+    }
+
+    /**
+     * Closes a batch to new joiners and retires it as the open batch.
+     *
+     * @return The total amount requested by the leader and all joiners
+     */
+    private int close(PendingBatch batch) {
+        int total = batch.close();
+        _openBatch.compareAndSet(batch, null);
+        return total;
+    }
+
+    /**
+     * Fetches and parses one upstream batch, registering each question exactly once.
+     */
+    private List<QuestionDTO> fetchAndRegister(int amount, ServerTiming timing, Deadline deadline) {
+        long start = System.nanoTime();
+        InputStream response = _fetchService.fetchTriviaStream(amount, deadline);
+        long fetched = System.nanoTime();
+        timing.add(ServerTiming.Stage.FETCH, fetched - start);
+
+        Map<String, String> questionAnswersMap = new LinkedHashMap<>(amount);
+        List<QuestionDTO> questions = _parsingService
+                .parseQuestionsFromStream(response, questionAnswersMap);
+        timing.add(ServerTiming.Stage.PARSE, System.nanoTime() - fetched);
+        return register(questions, questionAnswersMap, timing);
+    }
+
+    /**
+     * Fetches and parses one upstream batch without blocking.
+     * The body is buffered by the HTTP client and parsed on its completion, so no
+     * thread blocks reading the response stream.
+     */
+    private CompletableFuture<List<QuestionDTO>> fetchAndRegisterAsync(
+            int amount,
+            ServerTiming timing,
+            Deadline deadline) {
+        long start = System.nanoTime();
+        return _fetchService.fetchTriviaAsync(amount, deadline).thenApply(response -> {
+            long fetched = System.nanoTime();
+            timing.add(ServerTiming.Stage.FETCH, fetched - start);
+
+            Map<String, String> questionAnswersMap = new LinkedHashMap<>(amount);
+            List<QuestionDTO> questions = _parsingService
+                    .parseQuestionsFromResponse(response, questionAnswersMap);
+            timing.add(ServerTiming.Stage.PARSE, System.nanoTime() - fetched);
+            return register(questions, questionAnswersMap, timing);
+        });
+    }
+
+    private List<QuestionDTO> register(
+            List<QuestionDTO> questions,
+            Map<String, String> questionAnswersMap,
+            ServerTiming timing) {
+        long start = System.nanoTime();
+        for (QuestionDTO question : questions) {
+            // Looked up before registering, which may replace the ID
+            String correctAnswer = questionAnswersMap.get(question.getId());
+            _answerService.registerQuestion(question, correctAnswer);
+            _staleQuestions.offer(question, correctAnswer);
+        }
+        timing.add(ServerTiming.Stage.REGISTER, System.nanoTime() - start);
+        return questions;
+    }
+
+    /**
+     * A caller's place in a batch.
+     */
+    private record Membership(PendingBatch batch, int offset, long joinedNanos) {
+        private boolean isLeader() {
+            return offset == 0;
+        }
+    }
+
+    /**
+     * A batch that collects demand until its leader's slot begins.
+     */
+    private static final class PendingBatch {
+        private static final int CLOSED = -1;
+
+        // Guarded by this, so a caller that joined has extended the deadline before the leader closes
+        private int _requested;
+        // Callers still waiting for the result, the leader included; guarded by this
+        private int _members = 1;
+        // Latest deadline among the leader and joiners, in epoch milliseconds; guarded by this
+        private long _deadline;
+        private final CompletableFuture<List<QuestionDTO>> _result = new CompletableFuture<>();
+        // Written by the leader before the result completes, read by members after
+        private final ServerTiming _timing = new ServerTiming();
+        private long _slotStartNanos;
+        // The asynchronous leader's wait for its slot; none for a synchronous leader, which never gives up
+        private volatile CompletableFuture<?> _reservation;
+
+        private PendingBatch(int leaderAmount, Deadline leaderDeadline) {
+            _requested = leaderAmount;
+            _deadline = leaderDeadline.getEpochMillis();
+        }
+
+        /**
+         * Reserves a slice of this batch, extending the batch's deadline to the caller's.
+         *
+         * @return The offset of the slice, or -1 if the batch is closed or full
+         */
+        private synchronized int tryJoin(int amount, Deadline deadline) {
+            if (_requested == CLOSED || _requested + amount > ApiConstants.MAX_BATCH_SIZE) {
+                return -1;
+            }
+            int offset = _requested;
+            _requested += amount;
+            _members++;
+            _deadline = Math.max(_deadline, deadline.getEpochMillis());
+            return offset;
+        }
+
+        /**
+         * Gives up a caller's place, closing the batch if it was the last caller waiting before the slot.
+         *
+         * @return Whether the batch was abandoned by this caller
+         */
+        private synchronized boolean leave() {
+            _members--;
+            if (_members > 0 || _requested == CLOSED) {
+                return false;
+            }
+            _requested = CLOSED;
+            return true;
+        }
+
+        /**
+         * Closes the batch to new joiners.
+         *
+         * @return The total amount requested by the leader and all joiners
+         */
+        private synchronized int close() {
+            int total = _requested;
+            _requested = CLOSED;
+            return total;
+        }
+
+        private synchronized Deadline deadline() {
+            return Deadline.at(_deadline);
+        }
+
+        private void startSlot() {
+            _slotStartNanos = System.nanoTime();
+        }
+
+        /**
+         * Copies the batch's stage timings to a member's timing.
+         * Only called once the result is complete, which publishes the leader's writes.
+         */
+        private void copyTiming(ServerTiming memberTiming, long joinedNanos) {
+            memberTiming.add(ServerTiming.Stage.RATE_LIMIT, _slotStartNanos - joinedNanos);
+            memberTiming.addAll(_timing);
+        }
+
+        private void complete(List<QuestionDTO> questions) {
+            _result.complete(questions);
+        }
+
+        private void fail(Throwable cause) {
+            _result.completeExceptionally(cause);
+        }
+
+        private CompletableFuture<List<QuestionDTO>> slice(int offset, int amount) {
+            return _result.thenApply(questions -> sliceOf(questions, offset, amount));
+        }
+
+        private List<QuestionDTO> awaitSlice(int offset, int amount, Deadline deadline, MessageService messageService) {
+            List<QuestionDTO> questions;
+            try {
+                questions = deadline.isBounded()
+                        ? _result.get(deadline.remainingMillis(System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+                        : _result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                        messageService.getMessage(ApiConstants.RATE_LIMIT_INTERRUPTED), e);
+            } catch (TimeoutException e) {
+                throw new TriviaDeadlineExceededException(
+                        "Trivia batch did not arrive before the request deadline", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new TriviaServiceException("Failed to fetch trivia batch", e.getCause());
+            }
+
+            return sliceOf(questions, offset, amount);
+        }
+
+        private static List<QuestionDTO> sliceOf(List<QuestionDTO> questions, int offset, int amount) {
+            int from = Math.min(offset, questions.size());
+            int to = Math.min(offset + amount, questions.size());
+            return new ArrayList<>(questions.subList(from, to));
+        }
+    }
+}
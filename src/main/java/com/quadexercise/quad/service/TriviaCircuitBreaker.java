@@ -0,0 +1,283 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.exceptions.TriviaCircuitOpenException;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaResponseCodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around trivia API calls, each covering one fetch and parse.
+ * Consecutive failures open the circuit: HTTP errors, timeouts, connection failures,
+ * unreadable bodies, response code 5 (rate limited) and calls slower than the slow-call threshold.
+ * Other response codes mean the API is up and answering, so they count as successes.
+ * While open, calls are refused without touching the API; once the open time has
+ * passed, a single probe call is let through and its outcome closes or reopens the circuit.
+ * Every outcome also drives the rate limiter's backoff, even when the breaker is disabled.
+ */
+@Service
+public class TriviaCircuitBreaker {
+
+    /**
+     * Circuit states, in gauge order.
+     */
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * Immutable state snapshot, replaced with a compare-and-set on every transition.
+     *
+     * @param failures Consecutive failures while closed
+     * @param openedAt Time in milliseconds at which the circuit opened
+     */
+    private record Status(State state, int failures, long openedAt) {
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriviaCircuitBreaker.class);
+    private static final Status CLOSED = new Status(State.CLOSED, 0, 0L);
+
+    private final TriviaRateLimitService _rateLimitService;
+    private final boolean _enabled;
+    private final int _failureThreshold;
+    private final long _slowCallNanos;
+    private final long _openMs;
+    private final LongSupplier _clock;
+    private final AtomicReference<Status> _status = new AtomicReference<>(CLOSED);
+
+    /**
+     * Creates a circuit breaker for the trivia API.
+     *
+     * @param rateLimitService Backs off when the API reports that it is rate limiting us
+     * @param enabled          Whether failures open the circuit
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param slowCallMs       Calls taking longer than this count as failures; 0 disables the check
+     * @param openMs           Time the circuit stays open before a probe call is let through
+     * @param metrics          Exposes the circuit state
+     */
+    @Autowired
+    public TriviaCircuitBreaker(
+            TriviaRateLimitService rateLimitService,
+            @Value("${trivia.circuit.enabled:true}") boolean enabled,
+            @Value("${trivia.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${trivia.circuit.slow-call-ms:4000}") long slowCallMs,
+            @Value("${trivia.circuit.open-ms:30000}") long openMs,
+            TriviaPipelineMetrics metrics) {
+        this(rateLimitService, enabled, failureThreshold, slowCallMs, openMs, metrics, System::currentTimeMillis);
+    }
+
+    TriviaCircuitBreaker(
+            TriviaRateLimitService rateLimitService,
+            boolean enabled,
+            int failureThreshold,
+            long slowCallMs,
+            long openMs,
+            TriviaPipelineMetrics metrics,
+            LongSupplier clock) {
+        _rateLimitService = rateLimitService;
+        _enabled = enabled;
+        _failureThreshold = Math.max(failureThreshold, 1);
+        _slowCallNanos = slowCallMs > 0L ? TimeUnit.MILLISECONDS.toNanos(slowCallMs) : Long.MAX_VALUE;
+        _openMs = Math.max(openMs, 0L);
+        _clock = clock;
+        metrics.registerCircuitState(() -> getState().ordinal());
+    }
+
+    /**
+     * Creates a breaker that never opens but still drives the rate limiter's backoff.
+     * Used by services constructed outside Spring.
+     *
+     * @param rateLimitService The rate limiter to back off
+     * @return A breaker that lets every call through
+     */
+    static TriviaCircuitBreaker disabled(TriviaRateLimitService rateLimitService) {
+        return new TriviaCircuitBreaker(
+                rateLimitService, false, 1, 0L, 0L, TriviaPipelineMetrics.noop(), System::currentTimeMillis);
+    }
+
+    State getState() {
+        return _status.get().state();
+    }
+
+    /**
+     * Checks whether a call would currently be let through, without claiming the probe.
+     * Lets callers skip the rate-limit wait entirely while the circuit is open.
+     *
+     * @return False while open, or while a probe call is in flight
+     */
+    boolean allowsRequest() {
+        Status status = _status.get();
+        return switch (status.state()) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false;
+            case OPEN -> _clock.getAsLong() - status.openedAt() >= _openMs;
+        };
+    }
+
+    /**
+     * Runs a call through the breaker.
+     *
+     * @param operation Fetches and parses one upstream batch
+     * @param <T>       The result type
+     * @return The result of the call
+     * @throws TriviaCircuitOpenException if the circuit is open
+     */
+    <T> T call(Supplier<T> operation) {
+        acquire();
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            record(e, System.nanoTime() - start);
+            throw e;
+        }
+        record(null, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Runs an asynchronous call through the breaker.
+     *
+     * @param operation Starts fetching and parsing one upstream batch
+     * @param <T>       The result type
+     * @return Future completing with the result, or failing with
+     * {@link TriviaCircuitOpenException} if the circuit is open
+     */
+    <T> CompletableFuture<T> callAsync(Supplier<? extends CompletableFuture<T>> operation) {
+        try {
+            acquire();
+        } catch (TriviaCircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            record(e, System.nanoTime() - start);
+            return CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((ignored, failure) -> record(failure, System.nanoTime() - start));
+    }
+
+    /**
+     * Lets a call through if the circuit is closed, or claims the probe once the open time is over.
+     */
+    private void acquire() {
+        while (true) {
+            Status status = _status.get();
+            if (status.state() == State.CLOSED) {
+                return;
+            }
+            if (status.state() == State.HALF_OPEN || _clock.getAsLong() - status.openedAt() < _openMs) {
+                throw new TriviaCircuitOpenException("Trivia API circuit is open");
+            }
+            if (_status.compareAndSet(status, new Status(State.HALF_OPEN, 0, status.openedAt()))) {
+                LOGGER.info("Trivia API circuit half-open, probing");
+                return;
+            }
+        }
+    }
+
+    private void record(Throwable failure, long nanos) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause == null) {
+            _rateLimitService.recoverInterval();
+            if (nanos > _slowCallNanos) {
+                failed("slow call");
+            } else {
+                succeeded();
+            }
+        } else if (cause instanceof TriviaResponseCodeException responseCode && !responseCode.isRateLimited()) {
+            succeeded();
+        } else if (isUpstreamFailure(cause)) {
+            if (cause instanceof TriviaResponseCodeException) {
+                _rateLimitService.backOff();
+            }
+            failed(cause.toString());
+        } else {
+            abandoned();
+        }
+    }
+
+    /**
+     * Tells whether a failed call means the API is unavailable: HTTP errors, timeouts, connection
+     * failures, unreadable bodies and rate limiting all do, while an interrupted wait, a call cut
+     * short by the caller's deadline or a response code other than 5 does not.
+     *
+     * @param cause The failure, unwrapped from any CompletionException
+     * @return True if the failure is the API's
+     */
+    static boolean isUpstreamFailure(Throwable cause) {
+        if (cause instanceof TriviaResponseCodeException responseCode) {
+            return responseCode.isRateLimited();
+        }
+        return !(cause instanceof IllegalStateException
+                || cause instanceof IllegalArgumentException
+                || cause instanceof TriviaDeadlineExceededException);
+    }
+
+    private void succeeded() {
+        while (true) {
+            Status status = _status.get();
+            // An open circuit is only closed by its probe, not by a call that started before it opened
+            if (status == CLOSED || status.state() == State.OPEN) {
+                return;
+            }
+            if (_status.compareAndSet(status, CLOSED)) {
+                if (status.state() == State.HALF_OPEN) {
+                    LOGGER.info("Trivia API circuit closed");
+                }
+                return;
+            }
+        }
+    }
+
+    private void failed(String reason) {
+        if (!_enabled) {
+            return;
+        }
+        while (true) {
+            Status status = _status.get();
+            if (status.state() == State.OPEN) {
+                return;
+            }
+            int failures = status.failures() + 1;
+            Status next = status.state() == State.HALF_OPEN || failures >= _failureThreshold
+                    ? new Status(State.OPEN, 0, _clock.getAsLong())
+                    : new Status(State.CLOSED, failures, 0L);
+            if (_status.compareAndSet(status, next)) {
+                if (next.state() == State.OPEN) {
+                    LOGGER.warn("Trivia API circuit opened for {} ms: {}", _openMs, reason);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handles a call that ended without saying anything about the API, e.g. an interrupt.
+     * A probe that ends this way hands the probe on to the next caller.
+     */
+    private void abandoned() {
+        Status status = _status.get();
+        if (status.state() == State.HALF_OPEN) {
+            _status.compareAndSet(status, new Status(State.OPEN, 0, status.openedAt()));
+        }
+    }
+}
@@ -1,23 +1,67 @@
 package com.quadexercise.quad.service;
 
+import com.quadexercise.quad.client.RestTemplateTriviaUpstreamClient;
+import com.quadexercise.quad.client.UpstreamClientMetrics;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.interfaces.ITriviaUpstreamClient;
+import com.quadexercise.quad.jfr.UpstreamFetchEvent;
 import com.quadexercise.quad.utils.ApiConstants;
+import com.quadexercise.quad.utils.Deadline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
 /**
  * Service responsible for fetching trivia data from the API.
- * Handles constructing API URLs and making HTTP requests.
+ * Handles constructing API URLs and making HTTP requests through the configured upstream client.
+ * A caller with a deadline only gives the upstream request the time it has left, and a request
+ * that times out at the deadline fails with {@link TriviaDeadlineExceededException}.
  */
 @Service
 public class TriviaFetchService {
 
-    private final RestTemplate _restTemplate;
+    private final ITriviaUpstreamClient _upstreamClient;
+    private final String _baseUrl;
+    private final TriviaPipelineMetrics _metrics;
+
+    public TriviaFetchService(ITriviaUpstreamClient upstreamClient) {
+        this(upstreamClient, ApiConstants.TRIVIA_API_BASE_URL);
+    }
+
+    public TriviaFetchService(ITriviaUpstreamClient upstreamClient, String baseUrl) {
+        this(upstreamClient, baseUrl, TriviaPipelineMetrics.noop());
+    }
 
+    /**
+     * Creates a fetch service for the trivia API at the given location.
+     *
+     * @param upstreamClient The client used to call the API
+     * @param baseUrl        Scheme, host and optional port of the API, e.g. a local stand-in server
+     * @param metrics        Records upstream latency by HTTP status
+     */
     @Autowired
+    public TriviaFetchService(
+            ITriviaUpstreamClient upstreamClient,
+            @Value("${trivia.upstream.base-url:" + ApiConstants.TRIVIA_API_BASE_URL + "}") String baseUrl,
+            TriviaPipelineMetrics metrics) {
+        _upstreamClient = upstreamClient;
+        _baseUrl = baseUrl;
+        _metrics = metrics;
+    }
+
     public TriviaFetchService(RestTemplate restTemplate) {
-        _restTemplate = restTemplate;
+        this(new RestTemplateTriviaUpstreamClient(restTemplate, new UpstreamClientMetrics("resttemplate")));
     }
 
     /**
@@ -27,16 +71,122 @@ public class TriviaFetchService {
      * @return JSON response as a string
      */
     public String fetchTrivia(int amount) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .newInstance()
-                .scheme("https")
-                .host(ApiConstants.TRIVIA_API_HOST)
-                .path(ApiConstants.TRIVIA_API_PATH)
-                .queryParam(ApiConstants.PARAM_AMOUNT, amount);
+        return await(fetchTriviaAsync(amount));
+    }
 
-        return _restTemplate.getForObject(
-                builder.toUriString(),
-                String.class
-        );
+    /**
+     * Fetches trivia data from the API without blocking the calling thread.
+     *
+     * @param amount The number of trivia questions to retrieve
+     * @return Future completing with the JSON response as a string
+     */
+    public CompletableFuture<String> fetchTriviaAsync(int amount) {
+        return timed(amount, () -> _upstreamClient.fetch(buildUrl(amount)));
+    }
+
+    /**
+     * Fetches trivia data from the API without blocking, within the caller's deadline.
+     *
+     * @param amount   The number of trivia questions to retrieve
+     * @param deadline The caller's deadline
+     * @return Future completing with the JSON response as a string
+     */
+    public CompletableFuture<String> fetchTriviaAsync(int amount, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return fetchTriviaAsync(amount);
+        }
+        return withinDeadline(deadline,
+                timed(amount, () -> _upstreamClient.fetch(buildUrl(amount), remainingTime(deadline))));
+    }
+
+    /**
+     * Fetches trivia data from the API as a stream.
+     * Lets the caller parse the body incrementally without buffering it as a string.
+     *
+     * @param amount The number of trivia questions to retrieve
+     * @return Stream over the JSON response, to be closed by the caller
+     */
+    public InputStream fetchTriviaStream(int amount) {
+        return await(timed(amount, () -> _upstreamClient.fetchStream(buildUrl(amount))));
+    }
+
+    /**
+     * Fetches trivia data from the API as a stream, within the caller's deadline.
+     *
+     * @param amount   The number of trivia questions to retrieve
+     * @param deadline The caller's deadline
+     * @return Stream over the JSON response, to be closed by the caller
+     */
+    public InputStream fetchTriviaStream(int amount, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return fetchTriviaStream(amount);
+        }
+        return await(withinDeadline(deadline,
+                timed(amount, () -> _upstreamClient.fetchStream(buildUrl(amount), remainingTime(deadline)))));
+    }
+
+    private static Duration remainingTime(Deadline deadline) {
+        return Duration.ofMillis(Math.max(deadline.remainingMillis(System.currentTimeMillis()), 1L));
+    }
+
+    /**
+     * Reports a timeout that left no useful time before the deadline as the deadline being exceeded,
+     * since the upstream request was cut short by the caller's budget rather than the client's timeouts.
+     * Timers don't fire to the millisecond, so the deadline may not quite have passed yet.
+     */
+    private static <T> CompletableFuture<T> withinDeadline(Deadline deadline, CompletableFuture<T> request) {
+        return request.handle((result, failure) -> {
+            if (failure == null) {
+                return result;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            if ((cause instanceof TimeoutException || cause instanceof HttpTimeoutException)
+                    && deadline.remainingMillis(System.currentTimeMillis()) < ApiConstants.MIN_UPSTREAM_BUDGET_MS) {
+                throw new TriviaDeadlineExceededException("Trivia API did not answer before the request deadline", cause);
+            }
+            throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+        });
+    }
+
+    private <T> CompletableFuture<T> timed(int amount, Supplier<CompletableFuture<T>> request) {
+        UpstreamFetchEvent event = new UpstreamFetchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        return request.get().whenComplete((result, failure) -> {
+            _metrics.recordUpstream(System.nanoTime() - start, failure);
+            commitFetchEvent(event, amount, result, failure);
+        });
+    }
+
+    private static void commitFetchEvent(UpstreamFetchEvent event, int amount, Object body, Throwable failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.amount = amount;
+            // Only measured while a recording wants the event
+            event.bytes = body instanceof String text ? text.getBytes(StandardCharsets.UTF_8).length : -1L;
+            event.outcome = TriviaPipelineMetrics.upstreamStatusOf(failure);
+            event.commit();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String buildUrl(int amount) {
+        return UriComponentsBuilder
+                .fromUriString(_baseUrl)
+                .path(ApiConstants.TRIVIA_API_PATH)
+                .queryParam(ApiConstants.PARAM_AMOUNT, amount)
+                .toUriString();
     }
 }
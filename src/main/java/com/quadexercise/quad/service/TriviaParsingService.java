@@ -1,32 +1,40 @@
 package com.quadexercise.quad.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quadexercise.quad.dto.QuestionDTO;
 import com.quadexercise.quad.exceptions.TriviaParseException;
-import com.quadexercise.quad.utils.JsonValidator;
-import com.quadexercise.quad.utils.TriviaDtoMapper;
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import com.quadexercise.quad.jfr.ParseBatchEvent;
+import com.quadexercise.quad.utils.TriviaJsonStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.StreamSupport;
 
 /**
  * Service responsible for parsing trivia JSON responses into data objects.
- * Handles validation and conversion of API responses.
+ * Handles validation and conversion of API responses in a single streaming pass.
  */
 @Service
 public class TriviaParsingService {
 
-    private final ObjectMapper _objectMapper;
+    private final JsonFactory _jsonFactory;
+    private final TriviaPipelineMetrics _metrics;
 
-    @Autowired
     public TriviaParsingService(ObjectMapper objectMapper) {
-        _objectMapper = objectMapper;
+        this(objectMapper, TriviaPipelineMetrics.noop());
+    }
+
+    @Autowired
+    public TriviaParsingService(ObjectMapper objectMapper, TriviaPipelineMetrics metrics) {
+        _jsonFactory = objectMapper.getFactory();
+        _metrics = metrics;
     }
 
     /**
@@ -40,18 +48,80 @@ public class TriviaParsingService {
     List<QuestionDTO> parseQuestionsFromResponse(
             String response,
             Map<? super String, ? super String> questionAnswers) {
-        try {
-            JsonNode root = _objectMapper.readTree(response);
-            JsonValidator.validateTriviaResponse(root);
-            JsonNode results = root.get("results");
-            return StreamSupport.stream(results.spliterator(), false)
-                    .map(jsonNode -> TriviaDtoMapper
-                            .createQuestionDtoFromNode(jsonNode, questionAnswers))
-                    .toList();
-        } catch (JsonMappingException e) {
-            throw new TriviaParseException("Error mapping trivia JSON", e);
+        if (response == null) {
+            throw new TriviaParseException("Failed to parse trivia response: empty body");
+        }
+        ParseBatchEvent event = new ParseBatchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try (JsonParser parser = _jsonFactory.createParser(response)) {
+            return recordParsed(TriviaJsonStreamReader.readQuestions(parser, questionAnswers), start, event, false);
+        } catch (JsonProcessingException e) {
+            throw recordFailure(new TriviaParseException("Failed to parse trivia response", e), start, event, false);
+        } catch (IOException e) {
+            throw readFailure(e, event, false);
+        } catch (TriviaParseException e) {
+            throw recordFailure(e, start, event, false);
+        }
+    }
+
+    /**
+     * Parses a JSON response stream into a list of QuestionDTO objects.
+     * The stream is read incrementally and closed when parsing finishes.
+     *
+     * @param response        Stream over the JSON response from the trivia API
+     * @param questionAnswers Map to store question ID to correct answer mappings
+     * @return List of parsed QuestionDTO objects
+     * @throws TriviaParseException    if parsing fails or the response is invalid
+     * @throws TriviaUpstreamException if the stream can't be read to the end
+     */
+    List<QuestionDTO> parseQuestionsFromStream(
+            InputStream response,
+            Map<? super String, ? super String> questionAnswers) {
+        ParseBatchEvent event = new ParseBatchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try (JsonParser parser = _jsonFactory.createParser(response)) {
+            return recordParsed(TriviaJsonStreamReader.readQuestions(parser, questionAnswers), start, event, true);
         } catch (JsonProcessingException e) {
-            throw new TriviaParseException("Failed to parse trivia response", e);
+            throw recordFailure(new TriviaParseException("Failed to parse trivia response", e), start, event, true);
+        } catch (IOException e) {
+            throw readFailure(e, event, true);
+        } catch (TriviaParseException e) {
+            throw recordFailure(e, start, event, true);
+        }
+    }
+
+    private List<QuestionDTO> recordParsed(
+            List<QuestionDTO> questions, long start, ParseBatchEvent event, boolean streamed) {
+        _metrics.recordParse(System.nanoTime() - start, questions.size());
+        commitParseEvent(event, questions.size(), streamed, true);
+        return questions;
+    }
+
+    private TriviaParseException recordFailure(
+            TriviaParseException failure, long start, ParseBatchEvent event, boolean streamed) {
+        _metrics.recordParseFailure(System.nanoTime() - start);
+        commitParseEvent(event, 0, streamed, false);
+        return failure;
+    }
+
+    /**
+     * Reports a response that could not be read, e.g. because the upstream stalled or dropped the connection,
+     * as an upstream failure rather than as a response that could not be parsed.
+     */
+    private static TriviaUpstreamException readFailure(IOException failure, ParseBatchEvent event, boolean streamed) {
+        commitParseEvent(event, 0, streamed, false);
+        return new TriviaUpstreamException("Failed to read trivia response", failure);
+    }
+
+    private static void commitParseEvent(ParseBatchEvent event, int questions, boolean streamed, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.questions = questions;
+            event.streamed = streamed;
+            event.succeeded = succeeded;
+            event.commit();
         }
     }
 }
@@ -0,0 +1,234 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for each stage of the question and grading pipeline.
+ * Meters on the request path are registered up front, so recording is a single
+ * timer or counter update without a registry lookup; gauges are sampled only
+ * when the registry is scraped.
+ */
+public class TriviaPipelineMetrics {
+
+    static final String RATE_LIMIT_WAIT = "trivia.ratelimit.wait";
+    static final String RATE_LIMIT_QUEUE = "trivia.ratelimit.queue.depth";
+    static final String RATE_LIMIT_INTERVAL = "trivia.ratelimit.interval";
+    static final String CIRCUIT_STATE = "trivia.circuit.state";
+    static final String STALE_QUESTIONS = "trivia.questions.stale";
+    static final String ADMISSION_LIMIT = "trivia.admission.limit";
+    static final String ADMISSION_IN_FLIGHT = "trivia.admission.inflight";
+    static final String ADMISSION_REJECTED = "trivia.admission.rejected";
+    static final String UPSTREAM_REQUESTS = "trivia.upstream.requests";
+    static final String PARSE_TIME = "trivia.parse";
+    static final String PARSED_QUESTIONS = "trivia.parse.questions";
+    static final String ANSWER_CHECKS = "trivia.answers.checks";
+    static final String ANSWER_STORE_SIZE = "trivia.answers.store.size";
+
+    private static final String TAG_STATUS = "status";
+    private static final String SUCCESS_STATUS = "2xx";
+    private static final String TAG_OUTCOME = "outcome";
+    private static final String TAG_RESULT = "result";
+
+    private final MeterRegistry _registry;
+    private final Timer _rateLimitWait;
+    private final Timer _upstreamSuccess;
+    private final Timer _parseSuccess;
+    private final Timer _parseFailure;
+    private final Counter _parsedQuestions;
+    private final Counter _answersCorrect;
+    private final Counter _answersIncorrect;
+    private final Counter _answersNotFound;
+    private final Counter _staleQuestions;
+    private final Counter _rejectedWait;
+    private final Counter _rejectedLimit;
+
+    public TriviaPipelineMetrics(MeterRegistry registry) {
+        _registry = registry;
+        _rateLimitWait = Timer.builder(RATE_LIMIT_WAIT)
+                .description("Time callers wait for their rate-limit slot")
+                .register(registry);
+        _upstreamSuccess = upstreamTimer(SUCCESS_STATUS);
+        _parseSuccess = Timer.builder(PARSE_TIME)
+                .description("Time to parse a trivia API response")
+                .tag(TAG_OUTCOME, "success")
+                .register(registry);
+        _parseFailure = Timer.builder(PARSE_TIME)
+                .description("Time to parse a trivia API response")
+                .tag(TAG_OUTCOME, "failure")
+                .register(registry);
+        _parsedQuestions = Counter.builder(PARSED_QUESTIONS)
+                .description("Questions parsed from trivia API responses")
+                .register(registry);
+        _answersCorrect = answerCounter("correct");
+        _answersIncorrect = answerCounter("incorrect");
+        _answersNotFound = answerCounter("not_found");
+        _staleQuestions = Counter.builder(STALE_QUESTIONS)
+                .description("Questions served from recently fetched ones because the trivia API was unavailable")
+                .register(registry);
+        _rejectedWait = rejectedCounter("wait");
+        _rejectedLimit = rejectedCounter("limit");
+    }
+
+    /**
+     * Creates metrics backed by an empty composite registry, whose meters discard everything.
+     * Used by services constructed outside Spring.
+     *
+     * @return Metrics that record nothing
+     */
+    static TriviaPipelineMetrics noop() {
+        return new TriviaPipelineMetrics(new CompositeMeterRegistry());
+    }
+
+    private Timer upstreamTimer(String status) {
+        return Timer.builder(UPSTREAM_REQUESTS)
+                .description("Trivia API request latency by HTTP status")
+                .tag(TAG_STATUS, status)
+                .register(_registry);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder(ADMISSION_REJECTED)
+                .description("Question requests turned away; wait means over the wait budget, limit means at the concurrency limit")
+                .tag("reason", reason)
+                .register(_registry);
+    }
+
+    private Counter answerCounter(String result) {
+        return Counter.builder(ANSWER_CHECKS)
+                .description("Graded answers by result; not_found means the question ID was unknown or expired")
+                .tag(TAG_RESULT, result)
+                .register(_registry);
+    }
+
+    /**
+     * Registers a gauge for the number of callers holding a future rate-limit slot.
+     *
+     * @param queueDepth Computes the current depth when the registry is scraped
+     */
+    void registerRateLimitQueue(Supplier<Number> queueDepth) {
+        Gauge.builder(RATE_LIMIT_QUEUE, queueDepth)
+                .description("Callers holding a rate-limit slot that has not started yet")
+                .register(_registry);
+    }
+
+    /**
+     * Registers a gauge for the rate-limit interval, which grows while backing off.
+     *
+     * @param intervalMs Reads the current interval in milliseconds when the registry is scraped
+     */
+    void registerRateLimitInterval(Supplier<Number> intervalMs) {
+        Gauge.builder(RATE_LIMIT_INTERVAL, intervalMs)
+                .description("Current time between trivia API calls in milliseconds")
+                .register(_registry);
+    }
+
+    /**
+     * Registers a gauge for the circuit breaker state.
+     *
+     * @param state Reads the state as 0 (closed), 1 (half-open) or 2 (open) when the registry is scraped
+     */
+    void registerCircuitState(Supplier<Number> state) {
+        Gauge.builder(CIRCUIT_STATE, state)
+                .description("Trivia API circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(_registry);
+    }
+
+    /**
+     * Registers gauges for the admission concurrency limit and the requests it currently admits.
+     *
+     * @param limit    Reads the current limit when the registry is scraped
+     * @param inFlight Reads the admitted requests when the registry is scraped
+     */
+    void registerAdmission(Supplier<Number> limit, Supplier<Number> inFlight) {
+        Gauge.builder(ADMISSION_LIMIT, limit)
+                .description("Adaptive limit on concurrent question requests waiting for the trivia API")
+                .register(_registry);
+        Gauge.builder(ADMISSION_IN_FLIGHT, inFlight)
+                .description("Question requests currently admitted and waiting for the trivia API")
+                .register(_registry);
+    }
+
+    /**
+     * Registers a gauge for the number of answers held by the answer store.
+     *
+     * @param size Computes the current size when the registry is scraped
+     */
+    void registerAnswerStoreSize(Supplier<Number> size) {
+        Gauge.builder(ANSWER_STORE_SIZE, size)
+                .description("Answers currently held for grading")
+                .register(_registry);
+    }
+
+    void recordRateLimitWait(long millisecondsToWait) {
+        _rateLimitWait.record(Math.max(millisecondsToWait, 0L), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a finished upstream request under the HTTP status it ended with.
+     *
+     * @param nanos   Total request time
+     * @param failure The failure, or null if the request succeeded
+     */
+    void recordUpstream(long nanos, Throwable failure) {
+        Timer timer = failure == null ? _upstreamSuccess : upstreamTimer(upstreamStatusOf(failure));
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Classifies how an upstream request ended.
+     *
+     * @param failure The failure, or null if the request succeeded
+     * @return "2xx", the HTTP status of a failed response, "timeout" or "error"
+     */
+    static String upstreamStatusOf(Throwable failure) {
+        if (failure == null) {
+            return SUCCESS_STATUS;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof TriviaUpstreamException upstream && upstream.getStatusCode() > 0) {
+            return Integer.toString(upstream.getStatusCode());
+        }
+        if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+
+    void recordParse(long nanos, int questions) {
+        _parseSuccess.record(nanos, TimeUnit.NANOSECONDS);
+        _parsedQuestions.increment(questions);
+    }
+
+    void recordParseFailure(long nanos) {
+        _parseFailure.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordAnswer(boolean correct) {
+        (correct ? _answersCorrect : _answersIncorrect).increment();
+    }
+
+    void recordAnswerNotFound() {
+        _answersNotFound.increment();
+    }
+
+    void recordStaleQuestions(int questions) {
+        _staleQuestions.increment(questions);
+    }
+
+    void recordAdmissionRejected(boolean overWaitBudget) {
+        (overWaitBudget ? _rejectedWait : _rejectedLimit).increment();
+    }
+}
@@ -0,0 +1,264 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.dto.QuestionPoolStatsDTO;
+import com.quadexercise.quad.model.ParsedQuestion;
+import com.quadexercise.quad.utils.ApiConstants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service responsible for keeping a buffer of parsed trivia questions.
+ * The buffer is refilled in the background at the maximum upstream batch size,
+ * so player requests can be served without waiting on the rate limit.
+ * Refills go through the circuit breaker and pause while it is open.
+ * When a new process takes over from this one, the pooled questions move to the new pool.
+ */
+@Service
+public class TriviaQuestionPoolService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriviaQuestionPoolService.class);
+
+    private final TriviaFetchService _fetchService;
+    private final TriviaParsingService _parsingService;
+    private final TriviaRateLimitService _rateLimitService;
+    private final TriviaCircuitBreaker _circuitBreaker;
+    private final TriviaStaleQuestionCache _staleQuestions;
+    private final boolean _enabled;
+    private final int _capacity;
+    private final long _refillDelayMs;
+    private final BlockingQueue<ParsedQuestion> _pool;
+    private final TriviaStateHandoffService _handoff;
+
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _refilledQuestions = new LongAdder();
+    private final LongAdder _refillBatches = new LongAdder();
+    private final LongAdder _refillFailures = new LongAdder();
+    private final long _createdAt;
+
+    private ScheduledExecutorService _refillExecutor;
+    private volatile boolean _handedOver;
+
+    public TriviaQuestionPoolService(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaRateLimitService rateLimitService,
+            boolean enabled,
+            int capacity,
+            long refillDelayMs) {
+        this(fetchService, parsingService, rateLimitService,
+                TriviaCircuitBreaker.disabled(rateLimitService), TriviaStaleQuestionCache.disabled(),
+                enabled, capacity, refillDelayMs);
+    }
+
+    public TriviaQuestionPoolService(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaRateLimitService rateLimitService,
+            TriviaCircuitBreaker circuitBreaker,
+            TriviaStaleQuestionCache staleQuestions,
+            boolean enabled,
+            int capacity,
+            long refillDelayMs) {
+        this(fetchService, parsingService, rateLimitService, circuitBreaker, staleQuestions,
+                TriviaStateHandoffService.disabled(), enabled, capacity, refillDelayMs);
+    }
+
+    @Autowired
+    public TriviaQuestionPoolService(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaRateLimitService rateLimitService,
+            TriviaCircuitBreaker circuitBreaker,
+            TriviaStaleQuestionCache staleQuestions,
+            TriviaStateHandoffService handoff,
+            @Value("${trivia.pool.enabled:false}") boolean enabled,
+            @Value("${trivia.pool.capacity:200}") int capacity,
+            @Value("${trivia.pool.refill-delay-ms:1000}") long refillDelayMs) {
+        _fetchService = fetchService;
+        _parsingService = parsingService;
+        _rateLimitService = rateLimitService;
+        _circuitBreaker = circuitBreaker;
+        _staleQuestions = staleQuestions;
+        _handoff = handoff;
+        _enabled = enabled && 0 < capacity;
+        _capacity = Math.max(capacity, 1);
+        _refillDelayMs = Math.max(refillDelayMs, 1L);
+        _pool = new ArrayBlockingQueue<>(_capacity);
+        _createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a pool that never holds questions.
+     * Every request made against it falls through to a direct fetch.
+     *
+     * @return A disabled question pool
+     */
+    static TriviaQuestionPoolService disabled() {
+        return new TriviaQuestionPoolService(null, null, null, null, null, null, false, 0, 0L);
+    }
+
+    /**
+     * Starts the background refill task if the pool is enabled, after taking over
+     * the questions pooled by the process this one takes over from.
+     */
+    @PostConstruct
+    public void start() {
+        if (!_enabled || _refillExecutor != null) {
+            return;
+        }
+        for (ParsedQuestion question : _handoff.takeOverQuestions()) {
+            _pool.offer(question);
+        }
+        _handoff.registerQuestionPool(this);
+        _refillExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trivia-pool-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _refillExecutor.scheduleWithFixedDelay(this::refill, 0L, _refillDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background refill task.
+     */
+    @PreDestroy
+    public void stop() {
+        if (_refillExecutor != null) {
+            _refillExecutor.shutdownNow();
+            _refillExecutor = null;
+        }
+    }
+
+    /**
+     * Stops refilling and gives up the pooled questions to a process taking over from this one.
+     * The pool serves no questions after this until {@link #resume(List)}.
+     *
+     * @return The questions that were pooled
+     */
+    List<ParsedQuestion> handOver() {
+        _handedOver = true;
+        stop();
+        List<ParsedQuestion> questions = new ArrayList<>(_pool.size());
+        _pool.drainTo(questions);
+        return questions;
+    }
+
+    /**
+     * Takes the pooled questions back and refills again after handing them over failed.
+     *
+     * @param questions The questions returned by {@link #handOver()}
+     */
+    void resume(List<ParsedQuestion> questions) {
+        giveBack(questions);
+        _handedOver = false;
+        start();
+    }
+
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    /**
+     * Takes up to the requested number of questions from the pool.
+     * A request that is fully served counts as a hit, anything less as a miss.
+     *
+     * @param amount The number of questions wanted
+     * @return The questions taken, possibly fewer than requested
+     */
+    public List<ParsedQuestion> take(int amount) {
+        if (!_enabled || _handedOver) {
+            return new ArrayList<>(0);
+        }
+        List<ParsedQuestion> taken = new ArrayList<>(Math.min(amount, _capacity));
+        _pool.drainTo(taken, amount);
+        if (taken.size() == amount) {
+            _hits.increment();
+        } else {
+            _misses.increment();
+        }
+        return taken;
+    }
+
+    /**
+     * Puts back questions taken for a request that could not be served.
+     * Questions that no longer fit because the pool refilled meanwhile are dropped.
+     *
+     * @param questions The questions returned by {@link #take(int)}
+     */
+    public void giveBack(List<ParsedQuestion> questions) {
+        for (ParsedQuestion question : questions) {
+            _pool.offer(question);
+        }
+    }
+
+    /**
+     * Fetches one full batch from the API if the pool has room for it.
+     * Runs within the shared rate limit, so it competes fairly with direct fetches.
+     */
+    void refill() {
+        int batchSize = Math.min(ApiConstants.MAX_BATCH_SIZE, _capacity);
+        // Don't hold a rate-limit slot for a call the breaker would refuse
+        if (_pool.remainingCapacity() < batchSize || !_circuitBreaker.allowsRequest()) {
+            return;
+        }
+        try {
+            Map<String, String> questionAnswers = new LinkedHashMap<>(batchSize);
+            List<QuestionDTO> questions = _rateLimitService.rateLimit(() -> _circuitBreaker.call(() -> {
+                InputStream response = _fetchService.fetchTriviaStream(batchSize);
+                return _parsingService.parseQuestionsFromStream(response, questionAnswers);
+            }));
+
+            for (QuestionDTO question : questions) {
+                String correctAnswer = questionAnswers.get(question.getId());
+                _staleQuestions.offer(question, correctAnswer);
+                if (_pool.offer(new ParsedQuestion(question, correctAnswer))) {
+                    _refilledQuestions.increment();
+                }
+            }
+            _refillBatches.increment();
+        } catch (RuntimeException e) {
+            _refillFailures.increment();
+            LOGGER.warn("Failed to refill trivia question pool: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets a snapshot of the pool statistics.
+     *
+     * @return Current depth, refill rate and hit/miss counts
+     */
+    public QuestionPoolStatsDTO getStats() {
+        QuestionPoolStatsDTO stats = new QuestionPoolStatsDTO();
+        stats.setEnabled(_enabled);
+        stats.setDepth(_pool.size());
+        stats.setCapacity(_enabled ? _capacity : 0);
+        stats.setHits(_hits.sum());
+        stats.setMisses(_misses.sum());
+        stats.setRefilledQuestions(_refilledQuestions.sum());
+        stats.setRefillBatches(_refillBatches.sum());
+        stats.setRefillFailures(_refillFailures.sum());
+
+        long elapsedMs = Math.max(System.currentTimeMillis() - _createdAt, 1L);
+        stats.setRefillRatePerMinute(_refilledQuestions.sum() * 60_000.0 / elapsedMs);
+        return stats;
+    }
+}
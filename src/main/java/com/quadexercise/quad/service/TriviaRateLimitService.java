@@ -1,25 +1,105 @@
 package com.quadexercise.quad.service;
 
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+import com.quadexercise.quad.jfr.RateLimitWaitEvent;
 import com.quadexercise.quad.utils.ApiConstants;
+import com.quadexercise.quad.utils.Deadline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
  * Service responsible for implementing rate limiting for API requests.
- * Ensures that requests are not made too frequently.
+ * Hands out time slots with a compare-and-set on the next free slot, so callers
+ * learn their slot immediately, are served in reservation order, and wait
+ * without holding any lock. A call that ends moves the next free slot out to an interval after its end,
+ * so like the calls before it, the next call starts an interval after the previous one ended.
+ * When the API reports that it is rate limiting us, the interval backs off
+ * exponentially, and it returns step by step to the configured interval as
+ * calls succeed again.
+ * Callers with a deadline are refused a slot that would leave the upstream call too little
+ * time, and callers that give up before their slot begins hand it back for the next caller.
+ * With a rate-limit coordinator, slots are leased from a schedule shared with the other instances
+ * calling the API from the same address, and the local schedule is only used while coordination fails.
+ * A process taking over from this one takes over the schedule as well, after which no more slots are handed out here.
  */
 @Service
 public class TriviaRateLimitService {
 
+    // Next free slot once the schedule was handed over to another process
+    private static final long HANDED_OVER = Long.MAX_VALUE;
+    private static final long HANDED_OVER_RETRY_AFTER_SECONDS = 1L;
+
     private final MessageService _messageService;
-    private long _lastRequestTime;
+    private final long _intervalMs;
+    private final long _maxBackoffMs;
+    private final AtomicLong _currentIntervalMs;
+    private final AtomicLong _nextFreeSlot;
+    // Slots handed back by callers that gave up, reused by later callers until they begin
+    private final ConcurrentSkipListSet<Long> _returnedSlots = new ConcurrentSkipListSet<>();
+    private final TriviaPipelineMetrics _metrics;
+    // Slots of the schedule shared with other instances, null without a coordinator
+    private final TriviaSlotLeases _leases;
 
-    @Autowired
     public TriviaRateLimitService(MessageService messageService) {
+        this(messageService, ApiConstants.RATE_LIMIT_MS);
+    }
+
+    public TriviaRateLimitService(MessageService messageService, long intervalMs) {
+        this(messageService, intervalMs, TriviaPipelineMetrics.noop());
+    }
+
+    public TriviaRateLimitService(MessageService messageService, long intervalMs, TriviaPipelineMetrics metrics) {
+        this(messageService, intervalMs, ApiConstants.MAX_BACKOFF_MS, metrics);
+    }
+
+    public TriviaRateLimitService(
+            MessageService messageService, long intervalMs, long maxBackoffMs, TriviaPipelineMetrics metrics) {
+        this(messageService, intervalMs, maxBackoffMs, Optional.empty(), 1, 0L, metrics);
+    }
+
+    /**
+     * Creates a rate limiter with adaptive backoff.
+     *
+     * @param messageService Resolves error messages
+     * @param intervalMs     Minimum time from the start and from the end of a call to the start of the next one
+     * @param maxBackoffMs   Longest interval used while the API is rate limiting us
+     * @param coordinator    Schedule shared with other instances, absent for a schedule of our own
+     * @param leaseBatchSize Most slots leased from the shared schedule at once
+     * @param leaseRetryMs   Time the local schedule is used after coordination failed
+     * @param metrics        Records rate-limit waits and queue depth
+     */
+    @Autowired
+    public TriviaRateLimitService(
+            MessageService messageService,
+            @Value("${trivia.rate-limit.interval-ms:5000}") long intervalMs,
+            @Value("${trivia.rate-limit.max-backoff-ms:60000}") long maxBackoffMs,
+            Optional<IRateLimitCoordinator> coordinator,
+            @Value("${trivia.rate-limit.cluster.batch-size:4}") int leaseBatchSize,
+            @Value("${trivia.rate-limit.cluster.retry-ms:30000}") long leaseRetryMs,
+            TriviaPipelineMetrics metrics) {
         _messageService = messageService;
-        _lastRequestTime = 0L;
+        _intervalMs = Math.max(intervalMs, 0L);
+        _maxBackoffMs = Math.max(maxBackoffMs, _intervalMs);
+        _currentIntervalMs = new AtomicLong(_intervalMs);
+        _nextFreeSlot = new AtomicLong(0L);
+        _leases = coordinator
+                .map(shared -> new TriviaSlotLeases(shared, leaseBatchSize, leaseRetryMs))
+                .orElse(null);
+        _metrics = metrics;
+        _metrics.registerRateLimitQueue(this::getQueueDepth);
+        _metrics.registerRateLimitInterval(this::getCurrentIntervalMs);
     }
 
     /**
@@ -33,9 +113,117 @@ public class TriviaRateLimitService {
         return System.currentTimeMillis();
     }
 
+    public long getIntervalMs() {
+        return _intervalMs;
+    }
+
+    /**
+     * Gets the interval currently in use, which is longer than the configured one while backing off.
+     *
+     * @return The current interval in milliseconds
+     */
+    public long getCurrentIntervalMs() {
+        return _currentIntervalMs.get();
+    }
+
+    /**
+     * Gets the number of callers holding a slot that has not started yet.
+     * Derived from how far the next free slot lies ahead, so waiting callers
+     * need no bookkeeping of their own.
+     *
+     * @return The number of slots reserved ahead of the current time
+     */
+    long getQueueDepth() {
+        long intervalMs = _currentIntervalMs.get();
+        if (intervalMs == 0L) {
+            return 0L;
+        }
+        long nextFreeSlot = _nextFreeSlot.get();
+        if (nextFreeSlot == HANDED_OVER) {
+            return 0L;
+        }
+        long reservedAhead = nextFreeSlot - getCurrentTimeMillis();
+        return reservedAhead <= 0L ? 0L : (reservedAhead + intervalMs - 1L) / intervalMs;
+    }
+
+    /**
+     * Estimates how long a caller reserving a slot now would wait for it.
+     *
+     * @return Milliseconds until the next free slot, 0 if it is free now
+     */
+    long estimateWaitMs() {
+        long nextFreeSlot = _nextFreeSlot.get();
+        // Callers are turned away right after admission, with a short Retry-After
+        return nextFreeSlot == HANDED_OVER ? 0L : Math.max(nextFreeSlot - getCurrentTimeMillis(), 0L);
+    }
+
+    /**
+     * Hands the schedule over to a process taking over from this one. Slots already handed out
+     * keep their time, and no slot is handed out here after this until {@link #resume(long)}.
+     *
+     * @return The next free slot, from which the other process goes on
+     */
+    long handOver() {
+        return _nextFreeSlot.getAndSet(HANDED_OVER);
+    }
+
+    /**
+     * Takes the schedule back after handing it over failed.
+     *
+     * @param nextFreeSlot The next free slot returned by {@link #handOver()}
+     */
+    void resume(long nextFreeSlot) {
+        _nextFreeSlot.compareAndSet(HANDED_OVER, nextFreeSlot);
+    }
+
+    /**
+     * Goes on with the schedule of the process this one takes over from, so calls of both
+     * processes together keep to the interval. Its backed-off interval is kept as well.
+     *
+     * @param nextFreeSlot The next free slot of the other process
+     * @param intervalMs   The interval the other process was using
+     */
+    void takeOver(long nextFreeSlot, long intervalMs) {
+        if (nextFreeSlot == HANDED_OVER) {
+            return;
+        }
+        _currentIntervalMs.accumulateAndGet(Math.min(intervalMs, _maxBackoffMs), Math::max);
+        _nextFreeSlot.accumulateAndGet(nextFreeSlot, Math::max);
+    }
+
+    /**
+     * Doubles the interval after the API reported that it is rate limiting us, up to the
+     * maximum backoff, and moves the next free slot out by the new interval. Slots already
+     * handed out keep their time. A shared schedule is moved out as well, since the API
+     * limits every instance calling from our address. An interval of 0 turns rate limiting off, backoff included.
+     */
+    void backOff() {
+        long intervalMs = _currentIntervalMs.updateAndGet(current ->
+                Math.min(Math.max(current * 2L, _intervalMs), _maxBackoffMs));
+        long currentTime = getCurrentTimeMillis();
+        _nextFreeSlot.accumulateAndGet(currentTime + intervalMs, Math::max);
+        // Returned slots were spaced by the old interval
+        _returnedSlots.clear();
+        if (_leases != null) {
+            _leases.backOff(currentTime, intervalMs);
+        }
+    }
+
+    /**
+     * Halves a backed-off interval after a successful call, until it is back at the configured interval.
+     */
+    void recoverInterval() {
+        if (_currentIntervalMs.get() == _intervalMs) {
+            return;
+        }
+        _currentIntervalMs.updateAndGet(current -> Math.max(current / 2L, _intervalMs));
+    }
+
     /**
      * Executes an operation with rate limiting applied.
-     * Ensures that operations are spaced at least RATE_LIMIT_MS milliseconds apart.
+     * Ensures that operations start at least the configured interval apart, and an interval after the end
+     * of the previous operation if that ended before the next slot was reserved.
+     * The operation itself runs outside any critical section.
      *
      * @param operation The operation to execute
      * @param <T>       The return type of the operation
@@ -43,38 +231,257 @@ public class TriviaRateLimitService {
      * @throws IllegalStateException if the thread is interrupted while waiting
      */
     <T> T rateLimit(Supplier<T> operation) {
-        Thread currentThread = Thread.currentThread();
+        return rateLimit(Deadline.none(), operation);
+    }
+
+    /**
+     * Executes an operation with rate limiting applied, if its slot comes in time for the deadline.
+     * A caller interrupted while waiting hands its slot back.
+     *
+     * @param deadline  The caller's deadline
+     * @param operation The operation to execute
+     * @param <T>       The return type of the operation
+     * @return The result of the operation
+     * @throws TriviaDeadlineExceededException if the next free slot is too close to the deadline
+     * @throws TriviaOverloadedException       if the schedule was handed over to another process
+     * @throws IllegalStateException           if the thread is interrupted while waiting
+     */
+    <T> T rateLimit(Deadline deadline, Supplier<T> operation) {
+        long currentTime = getCurrentTimeMillis();
+        long slot = reserveSlot(currentTime, deadline);
+        long millisecondsToWait = slot - currentTime;
+        _metrics.recordRateLimitWait(millisecondsToWait);
+
+        if (millisecondsToWait > 0L) {
+            RateLimitWaitEvent event = new RateLimitWaitEvent();
+            event.begin();
+            try {
+                waitForRateLimit(millisecondsToWait, Thread.currentThread());
+            } catch (IllegalStateException e) {
+                returnSlot(slot);
+                throw e;
+            }
+            commitWaitEvent(event, millisecondsToWait, false);
+        }
+        try {
+            return operation.get();
+        } finally {
+            completeCall();
+        }
+    }
+
+    /**
+     * Starts an asynchronous operation with rate limiting applied, without blocking the caller.
+     * The slot is reserved immediately; if it lies in the future, the operation is started
+     * by a scheduled completion when the slot begins instead of by a sleeping thread.
+     *
+     * @param operation Starts the operation and returns its future
+     * @param <T>       The result type of the operation
+     * @return Future completing with the result of the operation
+     */
+    <T> CompletableFuture<T> rateLimitAsync(Supplier<? extends CompletableFuture<T>> operation) {
+        return rateLimitAsync(Deadline.none(), operation);
+    }
 
-        synchronized (this) {
-            long currentTime = getCurrentTimeMillis();
-            long elapsed = currentTime - _lastRequestTime;
-            long millisecondsToWait = ApiConstants.RATE_LIMIT_MS - elapsed;
+    /**
+     * Starts an asynchronous operation with rate limiting applied, if its slot comes in time
+     * for the deadline. Completing or cancelling the returned future before the slot begins
+     * abandons the reservation: the operation is never started and the slot is handed back.
+     *
+     * @param deadline  The caller's deadline
+     * @param operation Starts the operation and returns its future
+     * @param <T>       The result type of the operation
+     * @return Future completing with the result of the operation, or failing with
+     * {@link TriviaDeadlineExceededException} if the next free slot is too close to the deadline,
+     * or with {@link TriviaOverloadedException} if the schedule was handed over to another process
+     */
+    <T> CompletableFuture<T> rateLimitAsync(Deadline deadline, Supplier<? extends CompletableFuture<T>> operation) {
+        long currentTime = getCurrentTimeMillis();
+        long slot;
+        try {
+            slot = reserveSlot(currentTime, deadline);
+        } catch (TriviaDeadlineExceededException | TriviaOverloadedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long millisecondsToWait = slot - currentTime;
+        _metrics.recordRateLimitWait(millisecondsToWait);
 
-            if (millisecondsToWait > 0L) {
-                waitForRateLimit(millisecondsToWait, currentThread);
+        if (millisecondsToWait <= 0L) {
+            return CompletableFuture.completedFuture(null)
+                    .thenCompose(ignored -> operation.get())
+                    .whenComplete((value, failure) -> completeCall());
+        }
+        RateLimitWaitEvent event = new RateLimitWaitEvent();
+        event.begin();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Claimed by whichever comes first: the slot beginning, or the caller giving up
+        AtomicBoolean claimed = new AtomicBoolean();
+        Executor atSlot = CompletableFuture.delayedExecutor(millisecondsToWait, TimeUnit.MILLISECONDS);
+        CompletableFuture.runAsync(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
             }
-            try {
-                return operation.get();
-            } finally {
-                _lastRequestTime = getCurrentTimeMillis();
+            commitWaitEvent(event, millisecondsToWait, true);
+            CompletableFuture.completedFuture(null)
+                    .thenCompose(ignored -> operation.get())
+                    .whenComplete((value, failure) -> {
+                        completeCall();
+                        if (failure == null) {
+                            result.complete(value);
+                        } else {
+                            result.completeExceptionally(failure);
+                        }
+                    });
+        }, atSlot);
+        result.whenComplete((value, failure) -> {
+            if (claimed.compareAndSet(false, true)) {
+                returnSlot(slot);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Moves the next free slot out to an interval after a call that just ended.
+     * Slots already handed out keep their time; returned slots that would start sooner are dropped.
+     */
+    private void completeCall() {
+        long nextStart = getCurrentTimeMillis() + _currentIntervalMs.get();
+        _nextFreeSlot.accumulateAndGet(nextStart, Math::max);
+        _returnedSlots.headSet(nextStart).clear();
+    }
+
+    private static void commitWaitEvent(RateLimitWaitEvent event, long requestedWaitMs, boolean async) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestedWait = requestedWaitMs;
+            event.async = async;
+            event.commit();
+        }
+    }
+
+    /**
+     * Reserves the next free time slot.
+     * Slots are handed out in the order the compare-and-set succeeds, which makes
+     * callers first-come, first-served.
+     *
+     * @param currentTime The current time in milliseconds
+     * @return The time in milliseconds at which the caller may start
+     */
+    long reserveSlot(long currentTime) {
+        return reserveSlot(currentTime, Deadline.none());
+    }
+
+    /**
+     * Reserves the earliest slot, either one handed back by another caller or the next free one,
+     * provided it leaves the upstream call enough time before the deadline.
+     * The next free slot comes from the shared schedule when there is one and it can be reached.
+     *
+     * @param currentTime The current time in milliseconds
+     * @param deadline    The caller's deadline
+     * @return The time in milliseconds at which the caller may start
+     * @throws TriviaDeadlineExceededException if no slot starts early enough; nothing is reserved
+     * @throws TriviaOverloadedException       if the schedule was handed over to another process
+     */
+    long reserveSlot(long currentTime, Deadline deadline) {
+        if (_nextFreeSlot.get() == HANDED_OVER) {
+            throw handedOver();
+        }
+        Long returned = takeReturnedSlot(currentTime, deadline);
+        if (returned != null) {
+            return returned;
+        }
+        if (_leases != null) {
+            Long leased = _leases.take(currentTime, _currentIntervalMs.get(), getQueueDepth());
+            if (leased != null) {
+                if (!startsInTime(leased, deadline)) {
+                    _leases.giveBack(leased);
+                    throw slotTooLate(leased - currentTime);
+                }
+                // The local schedule follows the slots held here, for the queue depth and a fallback
+                _nextFreeSlot.accumulateAndGet(leased + _currentIntervalMs.get(), Math::max);
+                return leased;
+            }
+        }
+        while (true) {
+            long nextFreeSlot = _nextFreeSlot.get();
+            if (nextFreeSlot == HANDED_OVER) {
+                throw handedOver();
+            }
+            long slot = Math.max(nextFreeSlot, currentTime);
+            if (!startsInTime(slot, deadline)) {
+                throw slotTooLate(slot - currentTime);
+            }
+            if (_nextFreeSlot.compareAndSet(nextFreeSlot, slot + _currentIntervalMs.get())) {
+                return slot;
+            }
+        }
+    }
+
+    private static TriviaDeadlineExceededException slotTooLate(long millisecondsToSlot) {
+        return new TriviaDeadlineExceededException(String.format(
+                "Next rate-limit slot in %d ms leaves too little time before the deadline", millisecondsToSlot));
+    }
+
+    private static TriviaOverloadedException handedOver() {
+        return new TriviaOverloadedException(
+                "Rate-limit schedule was handed over to a new process", HANDED_OVER_RETRY_AFTER_SECONDS);
+    }
+
+    private Long takeReturnedSlot(long currentTime, Deadline deadline) {
+        while (true) {
+            Long slot = _returnedSlots.pollFirst();
+            if (slot == null) {
+                return null;
+            }
+            // A slot that has begun can't be used without crowding the one after it
+            if (slot < currentTime) {
+                continue;
             }
+            if (!startsInTime(slot, deadline)) {
+                // Later returned slots are even further out
+                _returnedSlots.add(slot);
+                return null;
+            }
+            return slot;
+        }
+    }
+
+    private static boolean startsInTime(long slot, Deadline deadline) {
+        return deadline.remainingMillis(slot) >= ApiConstants.MIN_UPSTREAM_BUDGET_MS;
+    }
+
+    /**
+     * Hands back a slot whose caller gave up before it began.
+     * The latest slot is taken off the end of the local schedule; an earlier one, or any slot of
+     * a shared schedule, is kept for the next caller that can use it.
+     *
+     * @param slot The slot returned by {@link #reserveSlot(long, Deadline)}
+     */
+    void returnSlot(long slot) {
+        if (_leases == null && _nextFreeSlot.compareAndSet(slot + _currentIntervalMs.get(), slot)) {
+            return;
+        }
+        if (slot >= getCurrentTimeMillis()) {
+            _returnedSlots.add(slot);
         }
     }
 
     /**
-     * Waits for the rate limit period to expire.
+     * Waits for the reserved slot to arrive.
+     * Sleeps without holding any monitor, so waiting callers never block each other.
      *
      * @param millisecondsToWait The number of milliseconds to wait
      * @param currentThread      The current thread
      * @throws IllegalStateException if the thread is interrupted while waiting
      */
-    synchronized void waitForRateLimit(long millisecondsToWait, Thread currentThread) {
+    void waitForRateLimit(long millisecondsToWait, Thread currentThread) {
         long waitEnd = System.currentTimeMillis() + millisecondsToWait;
         long remainingWait = millisecondsToWait;
 
         while (remainingWait > 0L) {
             try {
-                wait(remainingWait);
+                TimeUnit.MILLISECONDS.sleep(remainingWait);
             } catch (InterruptedException e) {
                 boolean wasInterrupted = Thread.interrupted();
                 currentThread.interrupt();
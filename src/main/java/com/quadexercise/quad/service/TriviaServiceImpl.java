@@ -3,21 +3,32 @@ package com.quadexercise.quad.service;
 import com.quadexercise.quad.dto.AnswerDTO;
 import com.quadexercise.quad.dto.AnswerResultDTO;
 import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaCircuitOpenException;
 import com.quadexercise.quad.interfaces.ITriviaService;
+import com.quadexercise.quad.model.ParsedQuestion;
+import com.quadexercise.quad.utils.Deadline;
+import com.quadexercise.quad.utils.ServerTiming;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Primary implementation of the TriviaService interface.
  * Coordinates the specialized services to provide the complete trivia functionality.
+ * Questions come from the pool first, then from the API; when the API is unavailable
+ * or its circuit is open, recently fetched questions are served instead. Requests that
+ * need the API pass admission control first, so they are turned away early rather than
+ * queueing for a rate-limit slot far in the future.
  */
 @Service
 @Primary
@@ -27,9 +38,54 @@ public class TriviaServiceImpl implements ITriviaService {
     private final TriviaParsingService _parsingService;
     private final TriviaAnswerService _answerService;
     private final TriviaRateLimitService _rateLimitService;
+    private final TriviaQuestionPoolService _questionPool;
+    private final TriviaBatchCoalescer _batchCoalescer;
+    private final TriviaCircuitBreaker _circuitBreaker;
+    private final TriviaStaleQuestionCache _staleQuestions;
+    private final TriviaAdmissionService _admission;
     private final MessageService _messageService;
 
+    public TriviaServiceImpl(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaAnswerService answerService,
+            TriviaRateLimitService rateLimitService,
+            TriviaQuestionPoolService questionPool,
+            MessageService messageService) {
+        this(fetchService, parsingService, answerService, rateLimitService, questionPool,
+                TriviaCircuitBreaker.disabled(rateLimitService), TriviaStaleQuestionCache.disabled(),
+                TriviaAdmissionService.disabled(), messageService);
+    }
+
     @Autowired
+    public TriviaServiceImpl(
+            TriviaFetchService fetchService,
+            TriviaParsingService parsingService,
+            TriviaAnswerService answerService,
+            TriviaRateLimitService rateLimitService,
+            TriviaQuestionPoolService questionPool,
+            TriviaCircuitBreaker circuitBreaker,
+            TriviaStaleQuestionCache staleQuestions,
+            TriviaAdmissionService admission,
+            MessageService messageService) {
+
+        _fetchService = fetchService;
+        _parsingService = parsingService;
+        _answerService = answerService;
+        _rateLimitService = rateLimitService;
+        _questionPool = questionPool;
+        _circuitBreaker = circuitBreaker;
+        _staleQuestions = staleQuestions;
+        _admission = admission;
+        _messageService = messageService;
+        _batchCoalescer = new TriviaBatchCoalescer(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _messageService,
+                _circuitBreaker, _staleQuestions);
+    }
+
+    /**
+     * Creates a standalone service with its own collaborators and no question pool.
+     */
     public TriviaServiceImpl(
             RestTemplateBuilder restTemplateBuilder,
             MessageService messageService) {
@@ -43,7 +99,13 @@ public class TriviaServiceImpl implements ITriviaService {
                 new com.fasterxml.jackson.databind.ObjectMapper());
         _answerService = new TriviaAnswerService();
         _rateLimitService = new TriviaRateLimitService(messageService);
+        _questionPool = TriviaQuestionPoolService.disabled();
+        _circuitBreaker = TriviaCircuitBreaker.disabled(_rateLimitService);
+        _staleQuestions = TriviaStaleQuestionCache.disabled();
+        _admission = TriviaAdmissionService.disabled();
         _messageService = messageService;
+        _batchCoalescer = new TriviaBatchCoalescer(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _messageService);
     }
 
     /**
@@ -60,7 +122,13 @@ public class TriviaServiceImpl implements ITriviaService {
         _parsingService = parsingService;
         _answerService = answerService;
         _rateLimitService = rateLimitService;
+        _questionPool = TriviaQuestionPoolService.disabled();
+        _circuitBreaker = TriviaCircuitBreaker.disabled(_rateLimitService);
+        _staleQuestions = TriviaStaleQuestionCache.disabled();
+        _admission = TriviaAdmissionService.disabled();
         _messageService = messageService;
+        _batchCoalescer = new TriviaBatchCoalescer(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _messageService);
     }
 
     @Override
@@ -71,24 +139,110 @@ public class TriviaServiceImpl implements ITriviaService {
 
     @Override
     public List<QuestionDTO> getQuestions(int amount) {
+        return getQuestions(amount, Deadline.none());
+    }
+
+    @Override
+    public List<QuestionDTO> getQuestions(int amount, Deadline deadline) {
         validateAmount(amount);
-        String response = _rateLimitService.rateLimit(() ->
-                _fetchService.fetchTrivia(amount));
 
-        // Use an internal map for parsing that will be synchronized with the answer service
-        Map<String, String> questionAnswersMap = new HashMap<>(0);
-        List<QuestionDTO> questions = _parsingService
-                .parseQuestionsFromResponse(response, questionAnswersMap);
+        // Serve from the pool first and only fetch directly for what it could not cover;
+        // pooled questions are registered once the request can be served and go back otherwise
+        ServerTiming timing = ServerTiming.current();
+        List<ParsedQuestion> pooled = _questionPool.take(amount);
+        int missing = amount - pooled.size();
+        if (missing == 0) {
+            return registerPooled(pooled, amount, timing);
+        }
+        List<QuestionDTO> fetched;
+        try {
+            fetched = fetchMissing(missing, deadline);
+        } catch (RuntimeException e) {
+            _questionPool.giveBack(pooled);
+            throw e;
+        }
+        List<QuestionDTO> questions = registerPooled(pooled, amount, timing);
+        questions.addAll(fetched);
+        return questions;
+    }
+
+    private List<QuestionDTO> fetchMissing(int missing, Deadline deadline) {
+        if (!_circuitBreaker.allowsRequest()) {
+            return takeStaleQuestions(missing, circuitOpen());
+        }
+        long admitted = _admission.admit();
+        boolean succeeded = false;
+        try {
+            List<QuestionDTO> fetched = fetchQuestions(missing, deadline);
+            succeeded = true;
+            return fetched;
+        } catch (RuntimeException e) {
+            return takeStaleQuestions(missing, e);
+        } finally {
+            _admission.release(admitted, succeeded);
+        }
+    }
 
-        // Update the answer service with the new questions
-        questionAnswersMap.forEach(_answerService::addQuestionAnswer);
+    @Override
+    public CompletableFuture<List<QuestionDTO>> getQuestionsAsync(int amount) {
+        return getQuestionsAsync(amount, Deadline.none());
+    }
 
-        return questions;
+    @Override
+    public CompletableFuture<List<QuestionDTO>> getQuestionsAsync(int amount, Deadline deadline) {
+        validateAmount(amount);
+
+        ServerTiming timing = ServerTiming.current();
+        List<ParsedQuestion> pooled = _questionPool.take(amount);
+        int missing = amount - pooled.size();
+        if (missing == 0) {
+            return CompletableFuture.completedFuture(registerPooled(pooled, amount, timing));
+        }
+        long admitted;
+        try {
+            // Answer straight away instead of queueing for a rate-limit slot the breaker would refuse
+            if (!_circuitBreaker.allowsRequest()) {
+                List<QuestionDTO> stale = takeStaleQuestions(missing, circuitOpen());
+                List<QuestionDTO> questions = registerPooled(pooled, amount, timing);
+                questions.addAll(stale);
+                return CompletableFuture.completedFuture(questions);
+            }
+            admitted = _admission.admit();
+        } catch (RuntimeException e) {
+            _questionPool.giveBack(pooled);
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<List<QuestionDTO>> fetch = _batchCoalescer.getQuestionsAsync(missing, deadline);
+        fetch.whenComplete((fetched, failure) -> _admission.release(admitted, failure == null));
+        // Claimed either to serve the pooled questions or to give them back, whichever comes first
+        AtomicBoolean pooledClaimed = new AtomicBoolean();
+        CompletableFuture<List<QuestionDTO>> result = fetch.handle((fetched, failure) -> {
+            List<QuestionDTO> missingQuestions = failure == null ? fetched : takeStaleQuestions(missing, failure);
+            if (!pooledClaimed.compareAndSet(false, true)) {
+                throw new CancellationException("Trivia questions were given up");
+            }
+            List<QuestionDTO> questions = registerPooled(pooled, amount, timing);
+            questions.addAll(missingQuestions);
+            return questions;
+        });
+        result.whenComplete((ignored, failure) -> {
+            if (failure != null && pooledClaimed.compareAndSet(false, true)) {
+                _questionPool.giveBack(pooled);
+            }
+            // A caller giving up on the questions gives up on the fetch, and the rate-limit slot it waits for
+            if (result.isCancelled()) {
+                fetch.cancel(false);
+            }
+        });
+        return result;
     }
 
     @Override
     public List<AnswerResultDTO> checkAnswers(Collection<? extends AnswerDTO> answers) {
-        return _answerService.checkAnswers(answers);
+        long start = System.nanoTime();
+        List<AnswerResultDTO> results = _answerService.checkAnswers(answers);
+        ServerTiming.current().add(ServerTiming.Stage.GRADE, System.nanoTime() - start);
+        return results;
     }
 
     @Override
@@ -96,6 +250,75 @@ public class TriviaServiceImpl implements ITriviaService {
         return _answerService.checkAnswer(answerDTO);
     }
 
+    /**
+     * Registers the answers of questions taken from the pool, once the request they were taken for is served.
+     *
+     * @param pooled The questions taken from the pool
+     * @param amount The number of questions wanted
+     * @param timing The request's timing
+     * @return The pooled questions, with room for the rest of the requested amount
+     */
+    private List<QuestionDTO> registerPooled(List<ParsedQuestion> pooled, int amount, ServerTiming timing) {
+        List<QuestionDTO> questions = new ArrayList<>(amount);
+        if (pooled.isEmpty()) {
+            return questions;
+        }
+        long start = System.nanoTime();
+        for (ParsedQuestion parsedQuestion : pooled) {
+            QuestionDTO question = parsedQuestion.getQuestion();
+            _answerService.registerQuestion(question, parsedQuestion.getCorrectAnswer());
+            questions.add(question);
+        }
+        timing.add(ServerTiming.Stage.REGISTER, System.nanoTime() - start);
+        return questions;
+    }
+
+    /**
+     * Serves recently fetched questions in place of ones the API could not provide.
+     *
+     * @param missing The number of questions still wanted
+     * @param failure Why the API could not provide them
+     * @return The stale questions, registered with the answer service
+     * @throws RuntimeException the original failure if the API is not to blame
+     *                          or too few recent questions are cached
+     */
+    private List<QuestionDTO> takeStaleQuestions(int missing, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (TriviaCircuitBreaker.isUpstreamFailure(cause)) {
+            List<ParsedQuestion> stale = _staleQuestions.take(missing);
+            if (stale.size() == missing) {
+                List<QuestionDTO> questions = new ArrayList<>(missing);
+                for (ParsedQuestion parsedQuestion : stale) {
+                    _answerService.registerQuestion(parsedQuestion.getQuestion(), parsedQuestion.getCorrectAnswer());
+                    questions.add(parsedQuestion.getQuestion());
+                }
+                return questions;
+            }
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new CompletionException(cause);
+    }
+
+    private static TriviaCircuitOpenException circuitOpen() {
+        return new TriviaCircuitOpenException("Trivia API circuit is open");
+    }
+
+    /**
+     * Fetches and parses questions directly from the API, bypassing the pool.
+     * Concurrent callers are merged into shared upstream batches.
+     *
+     * @param amount   The number of questions to fetch
+     * @param deadline The caller's deadline
+     * @return List of parsed questions, registered with the answer service
+     */
+    private List<QuestionDTO> fetchQuestions(int amount, Deadline deadline) {
+        return _batchCoalescer.getQuestions(amount, deadline);
+    }
+
     private void validateAmount(int amount) {
         if (amount <= 0) {
             throw new IllegalArgumentException(
@@ -0,0 +1,166 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rate-limit slots leased from a schedule shared with other instances.
+ * Slots are leased in batches, so most reservations are served from the lease without
+ * coordinating; the batch grows with the callers already waiting here, so an idle instance
+ * leases one slot at a time and holds back no slots another instance could use.
+ * A leased slot that begins unused is lost, like an idle slot of a local schedule.
+ * When coordination fails the rate limiter uses its local schedule for a while before trying again.
+ * The coordinator is only called outside the lock and by one caller at a time; callers that find
+ * the leased slots used up while a batch is being leased use the local schedule instead of waiting.
+ */
+class TriviaSlotLeases {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriviaSlotLeases.class);
+
+    private final IRateLimitCoordinator _coordinator;
+    private final int _batchSize;
+    private final long _retryMs;
+    private final Lock _lock = new ReentrantLock();
+    // Guarded by _lock
+    private final Deque<Long> _leased = new ArrayDeque<>();
+    private long _localUntil;
+    private boolean _failed;
+    private boolean _leasing;
+    // Counts backoffs, so a batch leased meanwhile at the old interval is dropped
+    private long _backOffs;
+
+    /**
+     * Creates the leases for a shared schedule.
+     *
+     * @param coordinator The shared schedule
+     * @param batchSize   Most slots leased at once
+     * @param retryMs     Time the local schedule is used after coordination failed
+     */
+    TriviaSlotLeases(IRateLimitCoordinator coordinator, int batchSize, long retryMs) {
+        _coordinator = coordinator;
+        _batchSize = Math.max(batchSize, 1);
+        _retryMs = Math.max(retryMs, 0L);
+    }
+
+    /**
+     * Takes the earliest leased slot that has not begun, leasing a new batch if there is none.
+     *
+     * @param currentTime The current time in milliseconds
+     * @param intervalMs  The current interval between slots
+     * @param waiting     Callers already holding a slot that has not begun
+     * @return The slot, or null while coordination has failed or another caller is leasing,
+     * and the local schedule applies
+     */
+    Long take(long currentTime, long intervalMs, long waiting) {
+        long backOffs;
+        _lock.lock();
+        try {
+            while (!_leased.isEmpty() && _leased.peekFirst() < currentTime) {
+                _leased.pollFirst();
+            }
+            if (!_leased.isEmpty()) {
+                return _leased.pollFirst();
+            }
+            if (_leasing || _failed && currentTime < _localUntil) {
+                return null;
+            }
+            _leasing = true;
+            backOffs = _backOffs;
+        } finally {
+            _lock.unlock();
+        }
+        return lease(currentTime, intervalMs, (int) Math.min(waiting + 1L, _batchSize), backOffs);
+    }
+
+    private Long lease(long currentTime, long intervalMs, int count, long backOffs) {
+        long first;
+        try {
+            first = _coordinator.reserve(currentTime, intervalMs, count);
+        } catch (IOException | RuntimeException e) {
+            _lock.lock();
+            try {
+                _leasing = false;
+                fail(currentTime, e);
+            } finally {
+                _lock.unlock();
+            }
+            return null;
+        }
+        _lock.lock();
+        try {
+            _leasing = false;
+            if (_failed) {
+                _failed = false;
+                LOGGER.info("Rate-limit coordination restored, using the shared schedule again");
+            }
+            if (_backOffs != backOffs) {
+                return null;
+            }
+            for (int i = 0; i < count; i++) {
+                _leased.addLast(first + i * intervalMs);
+            }
+            return _leased.pollFirst();
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void fail(long currentTime, Exception e) {
+        _failed = true;
+        _localUntil = currentTime + _retryMs;
+        LOGGER.warn("Rate-limit coordination failed, using the local schedule for {} ms: {}", _retryMs, e.toString());
+    }
+
+    /**
+     * Puts back a slot taken by a caller that could not use it, ahead of the other leased slots.
+     *
+     * @param slot A slot returned by {@link #take(long, long, long)}
+     */
+    void giveBack(long slot) {
+        _lock.lock();
+        try {
+            _leased.addFirst(slot);
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the shared schedule out after the API reported that it is rate limiting,
+     * and drops the leased slots, which were spaced by the old interval.
+     * Slots other instances have leased already keep their time.
+     *
+     * @param currentTime The current time in milliseconds
+     * @param delayMs     Time from now before which no slot of any instance may start
+     */
+    void backOff(long currentTime, long delayMs) {
+        _lock.lock();
+        try {
+            _leased.clear();
+            _backOffs++;
+            if (_failed && currentTime < _localUntil) {
+                return;
+            }
+        } finally {
+            _lock.unlock();
+        }
+        try {
+            _coordinator.pushBack(currentTime, delayMs);
+        } catch (IOException | RuntimeException e) {
+            _lock.lock();
+            try {
+                fail(currentTime, e);
+            } finally {
+                _lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.model.ParsedQuestion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the most recently fetched questions for serving while the trivia API is unavailable.
+ * Questions are written to a fixed ring, overwriting the oldest, so keeping them costs one
+ * array store per question and no eviction work. Served questions are copies with fresh IDs,
+ * so the same question can go to several players and be graded independently.
+ */
+@Service
+public class TriviaStaleQuestionCache {
+
+    /**
+     * A cached question and the time it was fetched.
+     */
+    private record Entry(ParsedQuestion question, long fetchedAt) {
+    }
+
+    private final AtomicReferenceArray<Entry> _entries;
+    private final AtomicLong _writes = new AtomicLong();
+    private final long _maxAgeMs;
+    private final TriviaPipelineMetrics _metrics;
+    private final LongSupplier _clock;
+
+    /**
+     * Creates a cache of recently fetched questions.
+     *
+     * @param capacity Number of questions kept; 0 disables stale serving
+     * @param maxAgeMs Questions older than this are no longer served
+     * @param metrics  Counts questions served from the cache
+     */
+    @Autowired
+    public TriviaStaleQuestionCache(
+            @Value("${trivia.circuit.stale-capacity:500}") int capacity,
+            @Value("${trivia.circuit.stale-max-age-ms:900000}") long maxAgeMs,
+            TriviaPipelineMetrics metrics) {
+        this(capacity, maxAgeMs, metrics, System::currentTimeMillis);
+    }
+
+    TriviaStaleQuestionCache(int capacity, long maxAgeMs, TriviaPipelineMetrics metrics, LongSupplier clock) {
+        _entries = new AtomicReferenceArray<>(Math.max(capacity, 0));
+        _maxAgeMs = maxAgeMs;
+        _metrics = metrics;
+        _clock = clock;
+    }
+
+    /**
+     * Creates a cache that holds nothing, so stale serving never succeeds.
+     *
+     * @return A disabled cache
+     */
+    static TriviaStaleQuestionCache disabled() {
+        return new TriviaStaleQuestionCache(0, 0L, TriviaPipelineMetrics.noop(), System::currentTimeMillis);
+    }
+
+    /**
+     * Remembers a freshly fetched question.
+     *
+     * @param question      The question
+     * @param correctAnswer Its correct answer
+     */
+    void offer(QuestionDTO question, String correctAnswer) {
+        int capacity = _entries.length();
+        if (capacity == 0) {
+            return;
+        }
+        int index = (int) (_writes.getAndIncrement() % capacity);
+        _entries.set(index, new Entry(new ParsedQuestion(question, correctAnswer), _clock.getAsLong()));
+    }
+
+    /**
+     * Takes copies of distinct cached questions that are still recent enough.
+     * Starts at a random position, so players served during the same outage get different mixes.
+     *
+     * @param amount The number of questions wanted
+     * @return Copies with fresh IDs, possibly fewer than requested
+     */
+    List<ParsedQuestion> take(int amount) {
+        int capacity = _entries.length();
+        List<ParsedQuestion> taken = new ArrayList<>(Math.min(amount, capacity));
+        if (capacity == 0) {
+            return taken;
+        }
+        long oldest = _clock.getAsLong() - _maxAgeMs;
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int i = 0; i < capacity && taken.size() < amount; i++) {
+            Entry entry = _entries.get((start + i) % capacity);
+            if (entry != null && entry.fetchedAt() >= oldest) {
+                taken.add(entry.question().reissue());
+            }
+        }
+        if (taken.size() == amount) {
+            _metrics.recordStaleQuestions(amount);
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,433 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.model.ParsedQuestion;
+import com.quadexercise.quad.store.AnswerHandoffReader;
+import com.quadexercise.quad.store.AnswerHandoffWriter;
+import com.quadexercise.quad.utils.QuestionIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service handing the state of this process to a new process replacing it on the same host,
+ * so a rolling restart loses neither the pooled questions nor the answers of questions handed out.
+ * Once up, every process listens on a Unix domain socket. A new process connects to it while starting,
+ * before it takes traffic, and the old process sends its stored answers, then its rate-limit schedule
+ * and pooled questions, in a compact binary form. From then on the old process calls the API no more,
+ * so the two together keep to the rate limit, and it passes on every answer it still registers until it stops.
+ * The new process confirms once it is up and then takes over the socket; if it stops before that,
+ * the old process takes its schedule and questions back.
+ */
+@Service
+public class TriviaStateHandoffService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriviaStateHandoffService.class);
+    private static final int MAGIC = 0x51484E44;
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MAX_STRING_BYTES = 64 * 1024;
+    private static final byte STARTED = 1;
+
+    private final TriviaRateLimitService _rateLimitService;
+    private final TriviaAnswerService _answerService;
+    private final boolean _enabled;
+    private final Path _socketPath;
+    private final long _timeoutMs;
+
+    // Questions taken over from the previous process until the pool takes them, guarded by this
+    private final List<ParsedQuestion> _takenOverQuestions = new ArrayList<>();
+    private volatile TriviaQuestionPoolService _questionPool;
+    // Previous process, passing on the answers it still registers
+    private volatile SocketChannel _predecessor;
+    // Process that took over from this one, and the answers passed on to it
+    private volatile SocketChannel _successor;
+    private volatile AnswerHandoffWriter _successorAnswers;
+    private volatile ServerSocketChannel _server;
+
+    /**
+     * Creates the state handoff.
+     *
+     * @param rateLimitService The rate limiter whose schedule is handed over
+     * @param answerService    The answer service whose stored answers are handed over
+     * @param enabled          Whether to take over from a previous process and hand over to the next
+     * @param socketPath       The Unix domain socket, the same for every process on the host
+     * @param timeoutMs        Time allowed for receiving the state of the previous process,
+     *                         and for the next process to start once this one's state is handed to it
+     */
+    @Autowired
+    public TriviaStateHandoffService(
+            TriviaRateLimitService rateLimitService,
+            TriviaAnswerService answerService,
+            @Value("${trivia.handoff.enabled:false}") boolean enabled,
+            @Value("${trivia.handoff.socket:data/handoff.sock}") String socketPath,
+            @Value("${trivia.handoff.timeout-ms:10000}") long timeoutMs) {
+        _rateLimitService = rateLimitService;
+        _answerService = answerService;
+        _enabled = enabled;
+        _socketPath = Path.of(socketPath);
+        _timeoutMs = Math.max(timeoutMs, 1L);
+    }
+
+    /**
+     * Creates a handoff that never takes over or hands over any state.
+     *
+     * @return A disabled handoff
+     */
+    static TriviaStateHandoffService disabled() {
+        return new TriviaStateHandoffService(null, null, false, "", 0L);
+    }
+
+    /**
+     * Takes over the state of the process currently listening on the socket, if there is one.
+     * Runs while the application starts, before it takes traffic or the pool starts refilling.
+     */
+    @PostConstruct
+    public void start() {
+        if (_enabled && Files.exists(_socketPath)) {
+            takeOver();
+        }
+    }
+
+    /**
+     * Confirms to the previous process that this one is up, and listens for the next process.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ready() {
+        if (!_enabled) {
+            return;
+        }
+        SocketChannel predecessor = _predecessor;
+        if (predecessor != null) {
+            try {
+                predecessor.write(ByteBuffer.wrap(new byte[]{STARTED}));
+            } catch (IOException e) {
+                LOGGER.warn("Could not confirm the takeover to the previous process: {}", e.toString());
+            }
+        }
+        listen();
+    }
+
+    /**
+     * Stops listening, and ends the answers passed on to a process that took over from this one.
+     */
+    @PreDestroy
+    public void stop() {
+        ServerSocketChannel server = _server;
+        if (server != null) {
+            closeQuietly(server);
+            // Once handed over, the socket file belongs to the new process
+            if (_successor == null) {
+                try {
+                    Files.deleteIfExists(_socketPath);
+                } catch (IOException e) {
+                    LOGGER.debug("Could not delete handoff socket {}", _socketPath, e);
+                }
+            }
+        }
+        SocketChannel successor = _successor;
+        if (successor != null) {
+            _answerService.forwardRegisteredAnswers(null);
+            _successorAnswers.finish(_timeoutMs);
+            closeQuietly(successor);
+        }
+        SocketChannel predecessor = _predecessor;
+        if (predecessor != null) {
+            closeQuietly(predecessor);
+        }
+    }
+
+    /**
+     * Gives the pool the questions taken over from the previous process.
+     *
+     * @return The questions, each handed out once
+     */
+    synchronized List<ParsedQuestion> takeOverQuestions() {
+        List<ParsedQuestion> questions = new ArrayList<>(_takenOverQuestions);
+        _takenOverQuestions.clear();
+        return questions;
+    }
+
+    /**
+     * Registers the pool whose questions are handed over to the next process.
+     *
+     * @param questionPool The running question pool
+     */
+    void registerQuestionPool(TriviaQuestionPoolService questionPool) {
+        _questionPool = questionPool;
+    }
+
+    private void takeOver() {
+        SocketChannel predecessor;
+        try {
+            predecessor = SocketChannel.open(UnixDomainSocketAddress.of(_socketPath));
+        } catch (IOException e) {
+            LOGGER.info("No process to take over from at {}: {}", _socketPath, e.toString());
+            return;
+        }
+        long start = System.nanoTime();
+        // Reads from a channel can't time out, but closing the channel ends them
+        CompletableFuture<Void> timeout = CompletableFuture.runAsync(() -> closeQuietly(predecessor),
+                CompletableFuture.delayedExecutor(_timeoutMs, TimeUnit.MILLISECONDS));
+        try {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(predecessor), BUFFER_BYTES));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a trivia state handoff");
+            }
+            AnswerHandoffReader answers = new AnswerHandoffReader(_answerService.getAnswerStore());
+            long stored = answers.readStored(in);
+            QuestionIds.advancePast(in.readLong());
+            // Taken over before the pool starts, so nothing here can call the API ahead of the previous schedule
+            _rateLimitService.takeOver(in.readLong(), in.readLong());
+            List<ParsedQuestion> questions = readQuestions(in);
+            timeout.cancel(false);
+
+            synchronized (this) {
+                _takenOverQuestions.addAll(questions);
+            }
+            _predecessor = predecessor;
+            LOGGER.info("Took over {} questions and {} answers from the previous process in {} ms",
+                    questions.size(), stored, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (answers.getSkipped() > 0L) {
+                LOGGER.warn("Skipped {} handed over answers that this answer mode can't keep", answers.getSkipped());
+            }
+            Thread registered = new Thread(() -> readRegisteredAnswers(predecessor, in, answers),
+                    "trivia-handoff-answers");
+            registered.setDaemon(true);
+            registered.start();
+        } catch (IOException e) {
+            timeout.cancel(false);
+            closeQuietly(predecessor);
+            LOGGER.warn("Taking over from the previous process failed, starting without its state: {}", e.toString());
+        }
+    }
+
+    private static void readRegisteredAnswers(
+            SocketChannel predecessor, DataInputStream in, AnswerHandoffReader answers) {
+        try {
+            long stored = answers.readRegistered(in);
+            LOGGER.info("Previous process stopped, after passing on {} more answers", stored);
+        } catch (IOException e) {
+            if (predecessor.isOpen()) {
+                LOGGER.warn("Lost the previous process while it passed on answers: {}", e.toString());
+            }
+        } finally {
+            closeQuietly(predecessor);
+        }
+    }
+
+    private void listen() {
+        ServerSocketChannel server;
+        try {
+            Path directory = _socketPath.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            // Left by the previous process, or by one that stopped without cleaning up
+            Files.deleteIfExists(_socketPath);
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(_socketPath));
+        } catch (IOException e) {
+            LOGGER.warn("Can't listen for a process taking over at {}: {}", _socketPath, e.toString());
+            return;
+        }
+        _server = server;
+        Thread acceptor = new Thread(() -> acceptSuccessor(server), "trivia-handoff");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptSuccessor(ServerSocketChannel server) {
+        while (server.isOpen()) {
+            SocketChannel successor;
+            try {
+                successor = server.accept();
+            } catch (IOException e) {
+                if (server.isOpen()) {
+                    LOGGER.warn("Stopped listening for a process taking over: {}", e.toString());
+                }
+                return;
+            }
+            if (handOver(successor)) {
+                closeQuietly(server);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands the state of this process over to a new process and waits for it to start.
+     *
+     * @param successor The connection from the new process
+     * @return Whether the new process took over; if not, this process serves on with its state
+     */
+    boolean handOver(SocketChannel successor) {
+        long start = System.nanoTime();
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(successor), BUFFER_BYTES));
+        AnswerHandoffWriter answers = new AnswerHandoffWriter(_answerService.getAnswerStore(), out);
+        TriviaQuestionPoolService questionPool = _questionPool;
+        long nextFreeSlot = 0L;
+        List<ParsedQuestion> questions = null;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            // Passing on starts first, so every answer is either among the stored ones or passed on
+            _answerService.forwardRegisteredAnswers(answers);
+            long stored = answers.writeStored();
+            // This process serves on until here; answers registered meanwhile stay queued until
+            // forwarding starts, so none of them comes between the stored answers and the rest of the state
+            nextFreeSlot = _rateLimitService.handOver();
+            questions = questionPool != null ? questionPool.handOver() : List.of();
+            out.writeLong(QuestionIds.next());
+            out.writeLong(nextFreeSlot);
+            out.writeLong(_rateLimitService.getCurrentIntervalMs());
+            writeQuestions(out, questions);
+            out.flush();
+            answers.startForwarding();
+            LOGGER.info("Handed {} questions and {} answers to a new process in {} ms, waiting for it to start",
+                    questions.size(), stored, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            // A new process that hangs while starting must not keep this one from serving
+            CompletableFuture<Void> timeout = CompletableFuture.runAsync(() -> closeQuietly(successor),
+                    CompletableFuture.delayedExecutor(_timeoutMs, TimeUnit.MILLISECONDS));
+            ByteBuffer started = ByteBuffer.allocate(1);
+            int read;
+            try {
+                read = successor.read(started);
+            } catch (AsynchronousCloseException e) {
+                read = -1;
+            }
+            // Cancelling fails once the connection was closed, even if the confirmation just came in
+            if (!timeout.cancel(false)) {
+                throw new InterruptedIOException("New process did not start within " + _timeoutMs + " ms");
+            }
+            if (read != 1 || started.get(0) != STARTED) {
+                throw new EOFException("New process closed the connection before it started");
+            }
+            _successorAnswers = answers;
+            _successor = successor;
+            LOGGER.info("New process started, leaving the trivia API to it");
+            return true;
+        } catch (IOException e) {
+            _answerService.forwardRegisteredAnswers(null);
+            answers.finish(0L);
+            closeQuietly(successor);
+            if (questions != null) {
+                _rateLimitService.resume(nextFreeSlot);
+                if (questionPool != null) {
+                    questionPool.resume(questions);
+                }
+            }
+            LOGGER.warn("Handing over to a new process failed, serving on: {}", e.toString());
+            return false;
+        }
+    }
+
+    private static void writeQuestions(DataOutputStream out, List<ParsedQuestion> questions) throws IOException {
+        out.writeInt(questions.size());
+        for (ParsedQuestion parsedQuestion : questions) {
+            QuestionDTO question = parsedQuestion.getQuestion();
+            writeString(out, question.getId());
+            writeString(out, question.getCategory());
+            writeString(out, question.getType());
+            writeString(out, question.getDifficulty());
+            writeString(out, question.getQuestion());
+            List<String> answers = question.getAnswers();
+            out.writeInt(answers == null ? -1 : answers.size());
+            if (answers != null) {
+                for (String answer : answers) {
+                    writeString(out, answer);
+                }
+            }
+            writeString(out, parsedQuestion.getCorrectAnswer());
+        }
+    }
+
+    private static List<ParsedQuestion> readQuestions(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid question count in handoff: " + count);
+        }
+        List<ParsedQuestion> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            QuestionDTO question = new QuestionDTO();
+            question.setId(readString(in));
+            question.setCategory(readString(in));
+            question.setType(readString(in));
+            question.setDifficulty(readString(in));
+            question.setQuestion(readString(in));
+            int answerCount = in.readInt();
+            if (answerCount >= 0) {
+                List<String> answers = new ArrayList<>();
+                for (int j = 0; j < answerCount; j++) {
+                    answers.add(readString(in));
+                }
+                question.setAnswers(answers);
+            }
+            questions.add(new ParsedQuestion(question, readString(in)));
+        }
+        return questions;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length in handoff: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close handoff connection", e);
+        }
+    }
+}
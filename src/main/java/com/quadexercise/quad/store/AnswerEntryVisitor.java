@@ -0,0 +1,20 @@
+package com.quadexercise.quad.store;
+
+import java.io.IOException;
+
+/**
+ * Receives stored answers one at a time, when writing them to disk or reading them back.
+ */
+@FunctionalInterface
+interface AnswerEntryVisitor {
+
+    /**
+     * Handles one stored answer.
+     *
+     * @param questionId The numeric ID of the question
+     * @param answer     The correct answer
+     * @param expiresAt  Time in milliseconds at which the answer expires
+     * @throws IOException if the answer can't be written
+     */
+    void visit(long questionId, String answer, long expiresAt) throws IOException;
+}
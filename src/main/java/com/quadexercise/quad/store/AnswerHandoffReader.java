@@ -0,0 +1,184 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.interfaces.IAnswerStore;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Reads the answers handed off by the process this one takes over from, as written by
+ * {@link AnswerHandoffWriter}, into this process's store. Answers keep their original expiry.
+ * Answers the store can't keep are skipped: answers sent as text can't be graded by position,
+ * answer positions can't be graded as text, and shared stores and tokens need none.
+ * A durable store keeps them in memory only; they are logged by the previous process.
+ */
+public final class AnswerHandoffReader {
+
+    // At most one of the two is set
+    private final BoundedAnswerStore _answers;
+    private final AnswerIndexStore _indexes;
+    private final LongSupplier _clock;
+    private final List<String> _answerTable = new ArrayList<>();
+    private final byte[] _block = new byte[AnswerHandoffWriter.MAX_BLOCK_BYTES];
+    private long _skipped;
+
+    /**
+     * Creates a reader storing into the given store.
+     *
+     * @param store This process's store, null in token mode
+     */
+    public AnswerHandoffReader(IAnswerStore store) {
+        this(store, System::currentTimeMillis);
+    }
+
+    AnswerHandoffReader(IAnswerStore store, LongSupplier clock) {
+        _answers = AnswerHandoffWriter.textStore(store);
+        _indexes = store instanceof AnswerIndexStore indexes ? indexes : null;
+        _clock = clock;
+    }
+
+    /**
+     * Reads the stored answers, up to the empty block that ends them.
+     *
+     * @param in The stream from the previous process
+     * @return The number of answers stored
+     * @throws IOException if the stream fails, ends early or is damaged
+     */
+    public long readStored(DataInputStream in) throws IOException {
+        long stored = 0L;
+        while (true) {
+            int length = readLength(in);
+            if (length < 0) {
+                throw new EOFException("Answer handoff ended before its last block");
+            }
+            if (length == 0) {
+                return stored;
+            }
+            stored += readBlock(in, length);
+        }
+    }
+
+    /**
+     * Reads the answers registered by the previous process after it sent its stored ones,
+     * until it closes the stream.
+     *
+     * @param in The stream from the previous process, after {@link #readStored(DataInputStream)}
+     * @return The number of answers stored
+     * @throws IOException if the stream fails or is damaged
+     */
+    public long readRegistered(DataInputStream in) throws IOException {
+        long stored = 0L;
+        while (true) {
+            int length = readLength(in);
+            if (length < 0) {
+                return stored;
+            }
+            if (length == 0) {
+                throw new IOException("Unexpected empty block in handed off answers");
+            }
+            stored += readBlock(in, length);
+        }
+    }
+
+    /**
+     * Gets the number of answers skipped because the store can't keep them.
+     *
+     * @return Skipped answers, expired ones not included
+     */
+    public long getSkipped() {
+        return _skipped;
+    }
+
+    /**
+     * Reads the length of the next block.
+     *
+     * @return The length, or -1 if the stream ended before the block
+     */
+    private static int readLength(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return -1;
+        }
+        int length = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedShort();
+        if (length < 0 || length > AnswerHandoffWriter.MAX_BLOCK_BYTES) {
+            throw new IOException("Invalid block length in handed off answers: " + length);
+        }
+        return length;
+    }
+
+    private long readBlock(DataInputStream in, int length) throws IOException {
+        in.readFully(_block, 0, length);
+        ByteBuffer block = ByteBuffer.wrap(_block, 0, length);
+        long stored = 0L;
+        long now = _clock.getAsLong();
+        try {
+            while (block.hasRemaining()) {
+                byte type = block.get();
+                switch (type) {
+                    case AnswerHandoffWriter.ANSWER -> _answerTable.add(readAnswer(block));
+                    case AnswerHandoffWriter.ENTRY -> {
+                        if (storeEntry(block.getLong(), block.getLong(), block.getInt(), now)) {
+                            stored++;
+                        }
+                    }
+                    case AnswerHandoffWriter.INDEX_ENTRY -> {
+                        if (storeIndexEntry(block.getLong(), block.get())) {
+                            stored++;
+                        }
+                    }
+                    default -> throw new IOException("Unknown record type in handed off answers: " + type);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated record in handed off answers", e);
+        }
+        return stored;
+    }
+
+    private static String readAnswer(ByteBuffer block) throws IOException {
+        int length = block.getInt();
+        if (length < 0 || length > block.remaining()) {
+            throw new IOException("Invalid answer length in handed off answers: " + length);
+        }
+        String answer = new String(block.array(), block.position(), length, StandardCharsets.UTF_8);
+        block.position(block.position() + length);
+        return answer;
+    }
+
+    private boolean storeEntry(long questionId, long expiresAt, int number, long now) throws IOException {
+        if (number < 0 || number >= _answerTable.size()) {
+            throw new IOException("Handed off answers refer to unknown answer " + number);
+        }
+        if (expiresAt <= now) {
+            return false;
+        }
+        if (_answers == null) {
+            _skipped++;
+            return false;
+        }
+        _answers.put(questionId, _answerTable.get(number), expiresAt);
+        return true;
+    }
+
+    private boolean storeIndexEntry(long questionId, int correctIndex) {
+        if (_indexes == null) {
+            _skipped++;
+            return false;
+        }
+        try {
+            _indexes.put(questionId, correctIndex);
+        } catch (IllegalArgumentException e) {
+            _skipped++;
+            return false;
+        }
+        // An expired entry is stored but can't be graded, since its expiry follows from the ID
+        return true;
+    }
+}
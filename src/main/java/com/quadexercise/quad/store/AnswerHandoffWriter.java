@@ -0,0 +1,265 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes the answers kept in this process to a process taking over from it, as read by {@link AnswerHandoffReader}.
+ * First come the stored answers, ended by an empty block, then every answer registered afterwards,
+ * until the stream is closed. Records are sent in length-prefixed blocks, so the stream is used
+ * once per block rather than once per field. Answers kept as text are numbered the first time
+ * they are sent and referred to by number after that, like the answer table of a snapshot.
+ * Stores that keep their answers in process memory are handed off, durable ones included, as the new process
+ * only logs to the durable directory once this one releases it. Shared stores keep theirs in a table
+ * both processes use, and token mode keeps none; for those only the empty block is sent.
+ */
+public final class AnswerHandoffWriter {
+
+    // Adds an answer to the table: length and UTF-8 bytes
+    static final byte ANSWER = 1;
+    // Question ID, expiry time and answer number
+    static final byte ENTRY = 2;
+    // Question ID and index of the correct answer
+    static final byte INDEX_ENTRY = 3;
+    static final int MAX_ANSWER_BYTES = 64 * 1024;
+    static final int MAX_BLOCK_BYTES = 256 * 1024;
+    static final int MAX_QUEUED_ANSWERS = 64 * 1024;
+
+    private static final int ENTRY_BYTES = 1 + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 1 + Long.BYTES + 1;
+    private static final long POLL_MS = 100L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnswerHandoffWriter.class);
+
+    // At most one of the two is set
+    private final BoundedAnswerStore _answers;
+    private final AnswerIndexStore _indexes;
+    private final LongSupplier _clock;
+    // Used by the handing over thread until forwarding starts, by the forwarding thread after that
+    private final DataOutputStream _out;
+    private final ByteBuffer _block = ByteBuffer.allocate(MAX_BLOCK_BYTES);
+    private final Map<String, Integer> _answerNumbers = new HashMap<>();
+    private final BlockingQueue<Registered> _registered = new LinkedBlockingQueue<>(MAX_QUEUED_ANSWERS);
+    private final AtomicBoolean _failed = new AtomicBoolean();
+    private volatile boolean _finishing;
+    private volatile Thread _forwarder;
+
+    /**
+     * Creates a writer for the answers of a store.
+     *
+     * @param store The store to hand off, null in token mode
+     * @param out   The stream to the process taking over
+     */
+    public AnswerHandoffWriter(IAnswerStore store, DataOutputStream out) {
+        this(store, out, System::currentTimeMillis);
+    }
+
+    AnswerHandoffWriter(IAnswerStore store, DataOutputStream out, LongSupplier clock) {
+        _answers = textStore(store);
+        _indexes = store instanceof AnswerIndexStore indexes ? indexes : null;
+        _out = out;
+        _clock = clock;
+    }
+
+    /**
+     * Gets the answers of a store that keeps them as text in process memory.
+     *
+     * @return The answers, or null if the store keeps them otherwise
+     */
+    static BoundedAnswerStore textStore(IAnswerStore store) {
+        if (store instanceof BoundedAnswerStore answers) {
+            return answers;
+        }
+        if (store instanceof DurableAnswerStore durable) {
+            return durable.answers();
+        }
+        return store instanceof ReplicatedAnswerStore replicated ? replicated.answers() : null;
+    }
+
+    /**
+     * Writes every stored answer that has not expired, followed by an empty block.
+     * Answers registered meanwhile are queued until forwarding starts.
+     *
+     * @return The number of answers written
+     * @throws IOException if the stream fails
+     */
+    public long writeStored() throws IOException {
+        long[] written = new long[1];
+        if (_answers != null) {
+            _answers.forEachEntry((questionId, answer, expiresAt) -> {
+                if (putEntry(questionId, answer, expiresAt)) {
+                    written[0]++;
+                }
+            });
+        } else if (_indexes != null) {
+            _indexes.forEachEntry((questionId, correctIndex) -> {
+                putIndexEntry(questionId, correctIndex);
+                written[0]++;
+            });
+        }
+        writeBlock();
+        _out.writeInt(0);
+        _out.flush();
+        return written[0];
+    }
+
+    /**
+     * Queues an answer registered after the stored answers were written, to be passed on once forwarding starts.
+     * A failed stream or a full queue is logged once and ignores later answers,
+     * so registering never fails or waits because of it.
+     *
+     * @param questionId    The numeric ID of the question
+     * @param question      The question as handed out
+     * @param correctAnswer The correct answer
+     */
+    public void writeRegistered(long questionId, QuestionDTO question, String correctAnswer) {
+        if (_finishing || _failed.get() || _answers == null && _indexes == null) {
+            return;
+        }
+        Registered answer;
+        if (_answers != null) {
+            answer = new Registered(questionId, correctAnswer, _clock.getAsLong() + _answers.getTtlMs(), -1);
+        } else {
+            int correctIndex = question.getAnswers().indexOf(correctAnswer);
+            if (correctIndex < 0 || correctIndex > Byte.MAX_VALUE) {
+                return;
+            }
+            answer = new Registered(questionId, null, 0L, correctIndex);
+        }
+        if (!_registered.offer(answer)) {
+            fail("more than " + MAX_QUEUED_ANSWERS + " answers are waiting to be sent");
+        }
+    }
+
+    /**
+     * Starts passing on queued and later registered answers from a thread of its own.
+     * Call once the rest of the state is written, so no answer comes between the stored answers and that state.
+     */
+    public void startForwarding() {
+        Thread forwarder = new Thread(this::forward, "trivia-handoff-forward");
+        forwarder.setDaemon(true);
+        _forwarder = forwarder;
+        forwarder.start();
+    }
+
+    /**
+     * Stops taking registered answers, and waits for the ones already queued to be passed on.
+     *
+     * @param timeoutMs How long to wait at most, 0 to not wait
+     */
+    public void finish(long timeoutMs) {
+        _finishing = true;
+        Thread forwarder = _forwarder;
+        if (forwarder == null || timeoutMs <= 0L) {
+            return;
+        }
+        try {
+            forwarder.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the answers queued so far in as few blocks as they fit in.
+     *
+     * @return The number of answers written
+     * @throws IOException if the stream fails
+     */
+    int forwardQueued() throws IOException {
+        int written = 0;
+        Registered answer;
+        while ((answer = _registered.poll()) != null) {
+            put(answer);
+            written++;
+        }
+        writeBlock();
+        _out.flush();
+        return written;
+    }
+
+    private void forward() {
+        try {
+            while (!_failed.get() && (!_finishing || !_registered.isEmpty())) {
+                Registered first = _registered.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    put(first);
+                    forwardQueued();
+                }
+            }
+        } catch (IOException e) {
+            fail(e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(String reason) {
+        if (_failed.compareAndSet(false, true)) {
+            _registered.clear();
+            LOGGER.warn("Stopped passing answers on to the new process: {}", reason);
+        }
+    }
+
+    private void put(Registered answer) throws IOException {
+        if (answer.answer() != null) {
+            putEntry(answer.questionId(), answer.answer(), answer.expiresAt());
+        } else {
+            putIndexEntry(answer.questionId(), answer.correctIndex());
+        }
+    }
+
+    private boolean putEntry(long questionId, String answer, long expiresAt) throws IOException {
+        Integer number = _answerNumbers.get(answer);
+        if (number == null) {
+            byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_ANSWER_BYTES) {
+                return false;
+            }
+            number = _answerNumbers.size();
+            _answerNumbers.put(answer, number);
+            ensureRemaining(1 + Integer.BYTES + bytes.length);
+            _block.put(ANSWER).putInt(bytes.length).put(bytes);
+        }
+        ensureRemaining(ENTRY_BYTES);
+        _block.put(ENTRY).putLong(questionId).putLong(expiresAt).putInt(number);
+        return true;
+    }
+
+    private void putIndexEntry(long questionId, int correctIndex) throws IOException {
+        ensureRemaining(INDEX_ENTRY_BYTES);
+        _block.put(INDEX_ENTRY).putLong(questionId).put((byte) correctIndex);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (_block.remaining() < bytes) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (_block.position() == 0) {
+            return;
+        }
+        _out.writeInt(_block.position());
+        _out.write(_block.array(), 0, _block.position());
+        _block.clear();
+    }
+
+    // A registered answer waiting to be sent; answer is null for an answer index
+    private record Registered(long questionId, String answer, long expiresAt, int correctIndex) {
+    }
+}
@@ -0,0 +1,371 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.UnsupportedAnswerException;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.jfr.AnswerEvictionEvent;
+import com.quadexercise.quad.utils.QuestionIds;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Compact store of question IDs to the index of the correct answer.
+ * Entries live in primitive open-addressing tables (a long key and a byte value
+ * per slot), split into segments that each have their own StampedLock. Reads are
+ * optimistic and only fall back to a read lock if a writer got in the way.
+ * No expiry time is stored: it is derived from the creation time embedded in the ID.
+ * A full segment first drops expired entries and then the oldest eighth.
+ */
+public class AnswerIndexStore implements IAnswerStore {
+
+    private static final long EMPTY = 0L;
+    private static final String STORE_NAME = "index";
+    private static final int MAX_SEGMENTS = 64;
+    private static final int ENTRIES_PER_SEGMENT_HINT = 4096;
+    private static final double LOAD_FACTOR = 0.75;
+
+    private final Segment[] _segments;
+    private final int _segmentShift;
+    private final long _ttlMs;
+    private final LongSupplier _clock;
+
+    private final LongAdder _evictions = new LongAdder();
+    private final LongAdder _expirations = new LongAdder();
+
+    public AnswerIndexStore(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, segmentsFor(maxEntries), System::currentTimeMillis);
+    }
+
+    AnswerIndexStore(int maxEntries, long ttlMs, int segments, LongSupplier clock) {
+        int segmentCount = Integer.highestOneBit(Math.max(segments, 1));
+        int perSegment = Math.max((Math.max(maxEntries, 1) + segmentCount - 1) / segmentCount, 1);
+        _segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            _segments[i] = new Segment(perSegment);
+        }
+        _segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+        _ttlMs = Math.max(ttlMs, 1L);
+        _clock = clock;
+    }
+
+    private static int segmentsFor(int maxEntries) {
+        int wanted = Math.max(maxEntries / ENTRIES_PER_SEGMENT_HINT, 1);
+        return Math.min(Integer.highestOneBit(wanted), MAX_SEGMENTS);
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private Segment segmentFor(long hash) {
+        return _segments.length == 1 ? _segments[0] : _segments[(int) (hash >>> _segmentShift)];
+    }
+
+    private boolean isExpired(long questionId, long now) {
+        return now >= QuestionIds.timestampOf(questionId) + _ttlMs;
+    }
+
+    /**
+     * Gets the index of the correct answer.
+     *
+     * @param questionId The numeric ID of the question
+     * @return The index, or -1 if the question is unknown or expired
+     */
+    public int get(long questionId) {
+        if (questionId == EMPTY) {
+            return -1;
+        }
+        long hash = mix(questionId);
+        int index = segmentFor(hash).get(questionId, hash);
+        if (index >= 0 && isExpired(questionId, _clock.getAsLong())) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Stores the index of the correct answer.
+     *
+     * @param questionId   The numeric ID of the question
+     * @param correctIndex The index of the correct answer, 0 to 127
+     * @throws IllegalArgumentException if the ID is 0 or the index is out of range
+     */
+    public void put(long questionId, int correctIndex) {
+        if (questionId == EMPTY || correctIndex < 0 || correctIndex > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot store answer index %d for question %d", correctIndex, questionId));
+        }
+        long hash = mix(questionId);
+        segmentFor(hash).put(questionId, hash, (byte) correctIndex, this);
+    }
+
+    /**
+     * Stores the correct answer of a question by its index. A question whose correct answer is
+     * not among its first 128 answers can't be stored and is skipped, so it can't be graded later.
+     */
+    @Override
+    public void put(long questionId, QuestionDTO question, String correctAnswer) {
+        int correctIndex = question.getAnswers().indexOf(correctAnswer);
+        if (correctIndex < 0 || correctIndex > Byte.MAX_VALUE) {
+            return;
+        }
+        put(questionId, correctIndex);
+    }
+
+    /**
+     * Grades an answer by its index. Answers sent as text are refused, as the text of
+     * the correct answer is not stored and can't be compared exactly.
+     *
+     * @throws UnsupportedAnswerException if the answer has text but no index
+     */
+    @Override
+    public AnswerResultDTO check(long questionId, AnswerDTO answer) {
+        if (answer.getSelectedIndex() == null && answer.getSelectedAnswer() != null) {
+            throw new UnsupportedAnswerException(
+                    "Answers must be sent as selectedIndex while trivia.answers.mode is index");
+        }
+        int correctIndex = get(questionId);
+        if (correctIndex < 0) {
+            return null;
+        }
+        AnswerResultDTO result = new AnswerResultDTO();
+        result.setCorrect(answer.getSelectedIndex() != null && answer.getSelectedIndex() == correctIndex);
+        result.setCorrectIndex(correctIndex);
+        return result;
+    }
+
+    /**
+     * Visits every entry that has not expired. Each segment is copied under its read lock
+     * and visited after, so writers are only held up for the copy.
+     *
+     * @param visitor Receives each question ID with the index of its correct answer
+     * @throws IOException if the visitor fails
+     */
+    void forEachEntry(AnswerIndexVisitor visitor) throws IOException {
+        long now = _clock.getAsLong();
+        for (Segment segment : _segments) {
+            long[] keys;
+            byte[] values;
+            long stamp = segment._lock.readLock();
+            try {
+                keys = segment._keys.clone();
+                values = segment._values.clone();
+            } finally {
+                segment._lock.unlockRead(stamp);
+            }
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && !isExpired(keys[slot], now)) {
+                    visitor.visit(keys[slot], values[slot]);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : _segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return _segments.length * _segments[0]._maxSize;
+    }
+
+    public long getTtlMs() {
+        return _ttlMs;
+    }
+
+    public long getEvictions() {
+        return _evictions.sum();
+    }
+
+    public long getExpirations() {
+        return _expirations.sum();
+    }
+
+    @Override
+    public AnswerStoreStatsDTO getStats() {
+        AnswerStoreStatsDTO stats = new AnswerStoreStatsDTO();
+        stats.setSize(size());
+        stats.setMaxEntries(getMaxEntries());
+        stats.setTtlMs(_ttlMs);
+        stats.setEvictions(getEvictions());
+        stats.setExpirations(getExpirations());
+        return stats;
+    }
+
+    /**
+     * One linear-probing table. Keys and values are parallel arrays and the table
+     * never grows: it is sized up front so the configured entries fit at the load factor.
+     */
+    private static final class Segment {
+        private final StampedLock _lock = new StampedLock();
+        private final int _maxSize;
+        private long[] _keys;
+        private byte[] _values;
+        private int _size;
+
+        private Segment(int maxSize) {
+            _maxSize = maxSize;
+            int capacity = (int) Math.ceil(maxSize / LOAD_FACTOR);
+            _keys = new long[Math.max(capacity, maxSize + 1)];
+            _values = new byte[_keys.length];
+        }
+
+        private static int slotFor(long hash, int capacity) {
+            // Maps the low 32 hash bits onto [0, capacity) without a division
+            return (int) (((hash & 0xFFFFFFFFL) * capacity) >>> 32);
+        }
+
+        private int get(long key, long hash) {
+            long stamp = _lock.tryOptimisticRead();
+            int value = probe(_keys, _values, key, hash);
+            if (!_lock.validate(stamp)) {
+                stamp = _lock.readLock();
+                try {
+                    value = probe(_keys, _values, key, hash);
+                } finally {
+                    _lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Looks up a key. Probing is bounded by the table length, so a torn
+         * optimistic read can return a wrong answer but never loop forever.
+         */
+        private static int probe(long[] keys, byte[] values, long key, long hash) {
+            int capacity = keys.length;
+            int slot = slotFor(hash, capacity);
+            for (int i = 0; i < capacity; i++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return values[slot];
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                if (++slot == capacity) {
+                    slot = 0;
+                }
+            }
+            return -1;
+        }
+
+        private void put(long key, long hash, byte value, AnswerIndexStore store) {
+            long stamp = _lock.writeLock();
+            try {
+                if (_size >= _maxSize && probe(_keys, _values, key, hash) < 0) {
+                    compact(store);
+                }
+                insert(_keys, _values, key, hash, value);
+            } finally {
+                _lock.unlockWrite(stamp);
+            }
+        }
+
+        private void insert(long[] keys, byte[] values, long key, long hash, byte value) {
+            int capacity = keys.length;
+            int slot = slotFor(hash, capacity);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                if (++slot == capacity) {
+                    slot = 0;
+                }
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                _size++;
+            }
+            values[slot] = value;
+        }
+
+        /**
+         * Rebuilds the table without expired entries, and without the oldest
+         * eighth of the remaining ones if expiry alone does not free enough room.
+         * Readers keep probing the old arrays until the new ones are published.
+         */
+        private void compact(AnswerIndexStore store) {
+            AnswerEvictionEvent event = new AnswerEvictionEvent();
+            event.begin();
+            long now = store._clock.getAsLong();
+            long[] live = new long[_size];
+            int liveCount = 0;
+            int expired = 0;
+            for (long key : _keys) {
+                if (key == EMPTY) {
+                    continue;
+                }
+                if (store.isExpired(key, now)) {
+                    expired++;
+                } else {
+                    live[liveCount++] = key;
+                }
+            }
+
+            // Keys grow with their creation time, so the smallest are the oldest
+            long oldestKept = Long.MIN_VALUE;
+            int target = _maxSize - Math.max(_maxSize / 8, 1);
+            if (liveCount > target) {
+                long[] sorted = Arrays.copyOf(live, liveCount);
+                Arrays.sort(sorted);
+                oldestKept = sorted[liveCount - target];
+            }
+
+            long[] oldKeys = _keys;
+            byte[] oldValues = _values;
+            long[] keys = new long[oldKeys.length];
+            byte[] values = new byte[oldValues.length];
+            _size = 0;
+            int evicted = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                long key = oldKeys[slot];
+                if (key == EMPTY || store.isExpired(key, now)) {
+                    continue;
+                }
+                if (key < oldestKept) {
+                    evicted++;
+                    continue;
+                }
+                insert(keys, values, key, mix(key), oldValues[slot]);
+            }
+            _keys = keys;
+            _values = values;
+
+            store._expirations.add(expired);
+            store._evictions.add(evicted);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.store = STORE_NAME;
+                event.expired = expired;
+                event.evicted = evicted;
+                event.commit();
+            }
+        }
+
+        private int size() {
+            long stamp = _lock.tryOptimisticRead();
+            int size = _size;
+            if (!_lock.validate(stamp)) {
+                stamp = _lock.readLock();
+                try {
+                    size = _size;
+                } finally {
+                    _lock.unlockRead(stamp);
+                }
+            }
+            return size;
+        }
+    }
+}
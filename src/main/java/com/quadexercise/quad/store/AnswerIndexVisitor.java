@@ -0,0 +1,19 @@
+package com.quadexercise.quad.store;
+
+import java.io.IOException;
+
+/**
+ * Receives the entries of an answer index store one at a time.
+ */
+@FunctionalInterface
+interface AnswerIndexVisitor {
+
+    /**
+     * Handles one stored answer index.
+     *
+     * @param questionId   The numeric ID of the question
+     * @param correctIndex The index of the correct answer
+     * @throws IOException if the entry can't be written
+     */
+    void visit(long questionId, int correctIndex) throws IOException;
+}
@@ -0,0 +1,177 @@
+package com.quadexercise.quad.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for compacted answer snapshots.
+ * A snapshot is a header, fixed-width entries (question ID, expiry time, answer number)
+ * and a table of the distinct answers, which repeat a lot across questions.
+ * Fixed-width entries let recovery memory-map the file and read it without parsing,
+ * and every answer string is created once, however many questions share it.
+ */
+enum AnswerSnapshot {
+    ;
+
+    private static final int MAGIC = 0x51414E53;
+    private static final int VERSION = 1;
+    // Magic, version, entry count, answer table offset and answer count
+    private static final int HEADER_BYTES = 28;
+    private static final int ENTRY_BYTES = 20;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MAX_WINDOW_ENTRIES = (1 << 30) / ENTRY_BYTES;
+
+    /**
+     * Writes the entries of a store to a snapshot, replacing the file only once it is complete and on disk.
+     *
+     * @param path    The snapshot file
+     * @param answers The store to write
+     * @return The number of entries written
+     * @throws IOException if the snapshot can't be written
+     */
+    static long write(Path path, BoundedAnswerStore answers) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<String, Integer> answerNumbers = new HashMap<>();
+        List<String> answerTable = new ArrayList<>();
+        long[] entries = new long[1];
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            // The header is written last, once the counts are known
+            buffer.position(HEADER_BYTES);
+            answers.forEachEntry((questionId, answer, expiresAt) -> {
+                Integer number = answerNumbers.get(answer);
+                if (number == null) {
+                    number = answerTable.size();
+                    answerNumbers.put(answer, number);
+                    answerTable.add(answer);
+                }
+                ensureRemaining(channel, buffer, ENTRY_BYTES);
+                buffer.putLong(questionId).putLong(expiresAt).putInt(number);
+                entries[0]++;
+            });
+            for (String answer : answerTable) {
+                byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(channel, buffer, Integer.BYTES + bytes.length);
+                buffer.putInt(bytes.length).put(bytes);
+            }
+            drain(channel, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(entries[0])
+                    .putLong(HEADER_BYTES + entries[0] * ENTRY_BYTES)
+                    .putInt(answerTable.size())
+                    .flip();
+            channel.write(header, 0L);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return entries[0];
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads the number of entries in a snapshot from its header.
+     *
+     * @param path The snapshot file
+     * @return The number of entries, or 0 if the file is not a readable snapshot
+     */
+    static int countEntries(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return 0;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, HEADER_BYTES);
+            long entries = header.getInt(0) == MAGIC ? header.getLong(8) : 0L;
+            return (int) Math.max(Math.min(entries, Integer.MAX_VALUE), 0L);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads a snapshot by memory-mapping it.
+     *
+     * @param path    The snapshot file
+     * @param visitor Receives each entry
+     * @return The number of entries read
+     * @throws IOException if the file can't be read or is not a valid snapshot
+     */
+    static long read(Path path, AnswerEntryVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Answer snapshot too short: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, HEADER_BYTES);
+            long entries = header.getLong(8);
+            long tableOffset = header.getLong(16);
+            int answerCount = header.getInt(24);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || entries < 0L || answerCount < 0
+                    || tableOffset != HEADER_BYTES + entries * ENTRY_BYTES || tableOffset > size) {
+                throw new IOException("Not a valid answer snapshot: " + path);
+            }
+
+            String[] answerTable = readAnswerTable(channel.map(
+                    FileChannel.MapMode.READ_ONLY, tableOffset, size - tableOffset), answerCount, path);
+            long position = HEADER_BYTES;
+            for (long remaining = entries; remaining > 0L; ) {
+                int windowEntries = (int) Math.min(remaining, MAX_WINDOW_ENTRIES);
+                MappedByteBuffer window = channel.map(
+                        FileChannel.MapMode.READ_ONLY, position, (long) windowEntries * ENTRY_BYTES);
+                for (int i = 0; i < windowEntries; i++) {
+                    long questionId = window.getLong();
+                    long expiresAt = window.getLong();
+                    int number = window.getInt();
+                    if (number < 0 || number >= answerCount) {
+                        throw new IOException("Answer snapshot refers to unknown answer " + number + ": " + path);
+                    }
+                    visitor.visit(questionId, answerTable[number], expiresAt);
+                }
+                position += (long) windowEntries * ENTRY_BYTES;
+                remaining -= windowEntries;
+            }
+            return entries;
+        }
+    }
+
+    private static String[] readAnswerTable(ByteBuffer table, int answerCount, Path path) throws IOException {
+        String[] answers = new String[answerCount];
+        for (int i = 0; i < answerCount; i++) {
+            int length = table.remaining() >= Integer.BYTES ? table.getInt() : -1;
+            if (length < 0 || length > table.remaining()) {
+                throw new IOException("Answer snapshot table is damaged: " + path);
+            }
+            byte[] bytes = new byte[length];
+            table.get(bytes);
+            answers[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return answers;
+    }
+}
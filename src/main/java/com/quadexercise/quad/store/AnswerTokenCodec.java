@@ -0,0 +1,181 @@
+package com.quadexercise.quad.store;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Encodes a question's correct answer into a self-contained question ID.
+ * The token is the expiry time and a random nonce in the clear, followed by the
+ * correct answer encrypted with AES-GCM. The GCM tag authenticates the whole token,
+ * so any node sharing the secret can grade an answer without server-side state,
+ * while players can neither read the answer nor extend the expiry.
+ */
+public class AnswerTokenCodec {
+
+    private static final byte VERSION = 1;
+    private static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final int HEADER_BYTES = 1 + Long.BYTES + NONCE_BYTES;
+    private static final int MIN_TOKEN_BYTES = HEADER_BYTES + TAG_BITS / Byte.SIZE;
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int CIPHER_POOL_SIZE = 64;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec _key;
+    private final long _ttlMs;
+    private final LongSupplier _clock;
+    private final SecureRandom _random = new SecureRandom();
+    // Cipher lookup costs several times more than a decrypt, so instances are reused.
+    // A shared pool rather than a ThreadLocal, so short-lived virtual threads benefit too
+    private final BlockingQueue<Cipher> _ciphers = new ArrayBlockingQueue<>(CIPHER_POOL_SIZE);
+
+    private final LongAdder _issued = new LongAdder();
+    private final LongAdder _rejected = new LongAdder();
+    private final LongAdder _expired = new LongAdder();
+
+    public AnswerTokenCodec(byte[] secret, long ttlMs) {
+        this(secret, ttlMs, System::currentTimeMillis);
+    }
+
+    AnswerTokenCodec(byte[] secret, long ttlMs, LongSupplier clock) {
+        _key = new SecretKeySpec(deriveKey(secret), "AES");
+        _ttlMs = Math.max(ttlMs, 1L);
+        _clock = clock;
+    }
+
+    private static Cipher createCipher() {
+        try {
+            return Cipher.getInstance(CIPHER);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM is not available", e);
+        }
+    }
+
+    private Cipher acquireCipher() {
+        Cipher cipher = _ciphers.poll();
+        return cipher != null ? cipher : createCipher();
+    }
+
+    private void releaseCipher(Cipher cipher) {
+        // Dropped when the pool is full; init() resets any state left by a failed operation
+        _ciphers.offer(cipher);
+    }
+
+    private static byte[] deriveKey(byte[] secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Creates a token carrying the correct answer.
+     *
+     * @param correctAnswer The correct answer for the question
+     * @return URL-safe token usable as a question ID
+     */
+    public String encode(String correctAnswer) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        _random.nextBytes(nonce);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .put(VERSION)
+                .putLong(_clock.getAsLong() + _ttlMs)
+                .put(nonce);
+
+        Cipher cipher = acquireCipher();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, _key, new GCMParameterSpec(TAG_BITS, nonce));
+            cipher.updateAAD(header.array());
+            byte[] plaintext = correctAnswer.getBytes(StandardCharsets.UTF_8);
+
+            byte[] token = new byte[HEADER_BYTES + cipher.getOutputSize(plaintext.length)];
+            System.arraycopy(header.array(), 0, token, 0, HEADER_BYTES);
+            cipher.doFinal(plaintext, 0, plaintext.length, token, HEADER_BYTES);
+
+            _issued.increment();
+            return ENCODER.encodeToString(token);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create answer token", e);
+        } finally {
+            releaseCipher(cipher);
+        }
+    }
+
+    /**
+     * Verifies a token and extracts the correct answer.
+     *
+     * @param token The question ID received from a player
+     * @return The correct answer, or null if the token is malformed, forged or expired
+     */
+    public String decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = token == null ? null : DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            bytes = null;
+        }
+        if (bytes == null || bytes.length < MIN_TOKEN_BYTES || bytes[0] != VERSION) {
+            _rejected.increment();
+            return null;
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(bytes, 0, HEADER_BYTES);
+        header.get();
+        long expiresAt = header.getLong();
+
+        Cipher cipher = acquireCipher();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, _key,
+                    new GCMParameterSpec(TAG_BITS, bytes, 1 + Long.BYTES, NONCE_BYTES));
+            cipher.updateAAD(bytes, 0, HEADER_BYTES);
+            byte[] plaintext = cipher.doFinal(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+
+            // Only trust the expiry once the tag has proven it untouched
+            if (_clock.getAsLong() >= expiresAt) {
+                _expired.increment();
+                return null;
+            }
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (AEADBadTagException e) {
+            _rejected.increment();
+            return null;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to verify answer token", e);
+        } finally {
+            releaseCipher(cipher);
+        }
+    }
+
+    public long getTtlMs() {
+        return _ttlMs;
+    }
+
+    public long getIssued() {
+        return _issued.sum();
+    }
+
+    public long getRejected() {
+        return _rejected.sum();
+    }
+
+    public long getExpired() {
+        return _expired.sum();
+    }
+}
@@ -0,0 +1,201 @@
+package com.quadexercise.quad.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One segment of the answer write-ahead log. Records are appended in batches, each
+ * batch followed by a single fsync, and a segment is never appended to once closed.
+ * Every record carries its length and a CRC32C of its body, so a record torn by a
+ * crash ends the replay of its segment instead of being read as an answer.
+ */
+final class AnswerWriteAheadLog implements Closeable {
+
+    // Length and checksum of the body
+    private static final int HEADER_BYTES = 8;
+    // Question ID and expiry time, followed by the answer
+    private static final int FIXED_BODY_BYTES = 16;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private final FileChannel _channel;
+    private final ByteBuffer _buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    private AnswerWriteAheadLog(FileChannel channel) {
+        _channel = channel;
+    }
+
+    /**
+     * Creates a new, empty segment.
+     *
+     * @param path The segment file, which must not exist yet
+     * @return The segment, ready for appending
+     * @throws IOException if the file can't be created
+     */
+    static AnswerWriteAheadLog create(Path path) throws IOException {
+        return new AnswerWriteAheadLog(FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Encodes a stored answer as a log record.
+     * Done by the caller, so the log writer only copies bytes.
+     *
+     * @param questionId The numeric ID of the question
+     * @param answer     The correct answer
+     * @param expiresAt  Time in milliseconds at which the answer expires
+     * @return The record, header included
+     */
+    static byte[] encode(long questionId, String answer, long expiresAt) {
+        byte[] answerBytes = answer.getBytes(StandardCharsets.UTF_8);
+        int bodyBytes = FIXED_BODY_BYTES + answerBytes.length;
+        if (bodyBytes > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Answer too long to log: " + answerBytes.length + " bytes");
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyBytes);
+        record.putInt(bodyBytes)
+                .putInt(0)
+                .putLong(questionId)
+                .putLong(expiresAt)
+                .put(answerBytes);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_BYTES, bodyBytes);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Appends a batch of records and forces them to disk with a single fsync.
+     *
+     * @param records Records made by {@link #encode(long, String, long)}
+     * @throws IOException if the records can't be written or forced
+     */
+    void append(List<byte[]> records) throws IOException {
+        for (byte[] record : records) {
+            if (_buffer.remaining() < record.length) {
+                drain();
+            }
+            if (record.length > _buffer.capacity()) {
+                ByteBuffer wrapped = ByteBuffer.wrap(record);
+                while (wrapped.hasRemaining()) {
+                    _channel.write(wrapped);
+                }
+            } else {
+                _buffer.put(record);
+            }
+        }
+        drain();
+        _channel.force(false);
+    }
+
+    private void drain() throws IOException {
+        _buffer.flip();
+        while (_buffer.hasRemaining()) {
+            _channel.write(_buffer);
+        }
+        _buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        _channel.close();
+    }
+
+    /**
+     * Replays the records of a segment by memory-mapping it.
+     * Stops at the first incomplete or damaged record, which can only be the tail
+     * a crash cut short, since nothing is appended to a segment after a failed write.
+     *
+     * @param path    The segment file
+     * @param visitor Receives each record
+     * @return The number of records replayed
+     * @throws IOException if the file can't be read
+     */
+    static long replay(Path path, AnswerEntryVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0L;
+            long replayed = 0L;
+            CRC32C crc = new CRC32C();
+            while (position < size) {
+                MappedByteBuffer window = channel.map(
+                        FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, MAX_WINDOW_BYTES));
+                int start = 0;
+                while (true) {
+                    int end = readRecord(window, start, crc, visitor);
+                    if (end < 0) {
+                        break;
+                    }
+                    start = end;
+                    replayed++;
+                }
+                // A record that is cut off by the window end is read again from the next window
+                if (start == 0 || position + window.limit() == size && start < window.limit()) {
+                    return replayed;
+                }
+                position += start;
+            }
+            return replayed;
+        }
+    }
+
+    /**
+     * Decodes records made by {@link #encode(long, String, long)} that were sent as one buffer.
+     * Unlike a replayed segment, a buffer has no tail a crash can tear, so a bad record fails the whole read.
+     *
+     * @param records The concatenated records, read from position 0 to the limit
+     * @param visitor Receives each record
+     * @return The number of records decoded
+     * @throws IOException if a record is incomplete or damaged
+     */
+    static int decode(ByteBuffer records, AnswerEntryVisitor visitor) throws IOException {
+        CRC32C crc = new CRC32C();
+        int start = 0;
+        int decoded = 0;
+        while (start < records.limit()) {
+            int end = readRecord(records, start, crc, visitor);
+            if (end < 0) {
+                throw new IOException("Damaged answer record at offset " + start);
+            }
+            start = end;
+            decoded++;
+        }
+        return decoded;
+    }
+
+    /**
+     * Reads the record starting at the given offset of a window.
+     *
+     * @return The offset after the record, or -1 if the window holds no complete, intact record there
+     */
+    private static int readRecord(ByteBuffer window, int start, CRC32C crc, AnswerEntryVisitor visitor)
+            throws IOException {
+        if (window.limit() - start < HEADER_BYTES + FIXED_BODY_BYTES) {
+            return -1;
+        }
+        int bodyBytes = window.getInt(start);
+        if (bodyBytes < FIXED_BODY_BYTES || bodyBytes > MAX_BODY_BYTES
+                || window.limit() - start - HEADER_BYTES < bodyBytes) {
+            return -1;
+        }
+        int bodyStart = start + HEADER_BYTES;
+        crc.reset();
+        crc.update(window.slice(bodyStart, bodyBytes));
+        if ((int) crc.getValue() != window.getInt(start + Integer.BYTES)) {
+            return -1;
+        }
+        byte[] answerBytes = new byte[bodyBytes - FIXED_BODY_BYTES];
+        window.get(bodyStart + FIXED_BODY_BYTES, answerBytes);
+        visitor.visit(window.getLong(bodyStart), new String(answerBytes, StandardCharsets.UTF_8),
+                window.getLong(bodyStart + Long.BYTES));
+        return bodyStart + bodyBytes;
+    }
+}
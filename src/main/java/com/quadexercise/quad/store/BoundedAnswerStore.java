@@ -0,0 +1,442 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.jfr.AnswerEvictionEvent;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, concurrent store of question IDs to correct answers, keyed by the numeric question ID.
+ * Entries expire after a fixed time to live, and once the store is full the
+ * least recently useful entry is evicted using the CLOCK (second chance) policy.
+ * Entries are found through a primitive open-addressing table keyed by the long ID, so lookups box nothing.
+ * Reads are optimistic and only fall back to a read lock if a writer got in the way; a hit only sets
+ * the entry's reference bit. Writes are serialized by the same StampedLock, which also guards the clock hand.
+ */
+public class BoundedAnswerStore implements IAnswerStore {
+
+    private static final String STORE_NAME = "store";
+    private static final int MIN_TABLE_ENTRIES = 1024;
+    private static final double LOAD_FACTOR = 0.75;
+
+    private final int _maxEntries;
+    private final long _ttlMs;
+    private final LongSupplier _clock;
+    private final StampedLock _lock = new StampedLock();
+
+    // Lookup table, replaced when it grows; only written while holding the write lock
+    private Table _table;
+    private int _size;
+
+    // Clock ring, only touched while holding the write lock
+    private final Entry[] _ring;
+    private int _ringSize;
+    private int _hand;
+
+    private final LongAdder _evictions = new LongAdder();
+    private final LongAdder _expirations = new LongAdder();
+
+    public BoundedAnswerStore(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    BoundedAnswerStore(int maxEntries, long ttlMs, LongSupplier clock) {
+        this(maxEntries, ttlMs, clock, 0);
+    }
+
+    /**
+     * Creates a store sized up front for the entries it is about to be filled with,
+     * so restoring them doesn't keep growing the table.
+     *
+     * @param expectedEntries Number of entries about to be stored
+     */
+    BoundedAnswerStore(int maxEntries, long ttlMs, LongSupplier clock, int expectedEntries) {
+        _maxEntries = Math.max(maxEntries, 1);
+        _ttlMs = Math.max(ttlMs, 1L);
+        _clock = clock;
+        _table = new Table(capacityFor(Math.min(_maxEntries, Math.max(expectedEntries, MIN_TABLE_ENTRIES))));
+        _ring = new Entry[_maxEntries];
+    }
+
+    /**
+     * Gets the correct answer for a question.
+     *
+     * @param questionId The ID of the question
+     * @return The correct answer, or null if unknown or expired
+     */
+    public String get(long questionId) {
+        Entry entry = find(questionId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(_clock.getAsLong())) {
+            long stamp = _lock.writeLock();
+            try {
+                if (remove(entry)) {
+                    _expirations.increment();
+                }
+            } finally {
+                _lock.unlockWrite(stamp);
+            }
+            return null;
+        }
+        if (!entry._referenced) {
+            entry._referenced = true;
+        }
+        return entry._answer;
+    }
+
+    /**
+     * Stores the correct answer for a question, evicting an older entry if the store is full.
+     *
+     * @param questionId    The ID of the question
+     * @param correctAnswer The correct answer for the question
+     */
+    public void put(long questionId, String correctAnswer) {
+        put(questionId, correctAnswer, _clock.getAsLong() + _ttlMs);
+    }
+
+    /**
+     * Stores the correct answer for a question with a given expiry time.
+     * Used to keep the expiry of answers that are persisted or restored.
+     *
+     * @param questionId    The ID of the question
+     * @param correctAnswer The correct answer for the question
+     * @param expiresAt     Time in milliseconds at which the answer expires
+     */
+    void put(long questionId, String correctAnswer, long expiresAt) {
+        Entry entry = new Entry(questionId, correctAnswer, expiresAt);
+        long stamp = _lock.writeLock();
+        try {
+            Entry previous = _table.probe(questionId);
+            int slot = previous != null && _ring[previous._slot] == previous
+                    ? previous._slot
+                    : claimSlot();
+            entry._slot = slot;
+            _ring[slot] = entry;
+            insert(entry);
+        } finally {
+            _lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void put(long questionId, QuestionDTO question, String correctAnswer) {
+        put(questionId, correctAnswer);
+    }
+
+    @Override
+    public AnswerResultDTO check(long questionId, AnswerDTO answer) {
+        String correctAnswer = get(questionId);
+        if (correctAnswer == null) {
+            return null;
+        }
+        AnswerResultDTO result = new AnswerResultDTO();
+        result.setCorrect(Objects.equals(correctAnswer, answer.getSelectedAnswer()));
+        result.setCorrectAnswer(correctAnswer);
+        return result;
+    }
+
+    /**
+     * Finds a free ring slot, sweeping the clock hand over occupied ones if needed.
+     * Expired or already removed entries are reused first; entries that were read
+     * since the last sweep get a second chance before being evicted.
+     */
+    private int claimSlot() {
+        if (_ringSize < _maxEntries) {
+            return _ringSize++;
+        }
+
+        AnswerEvictionEvent event = new AnswerEvictionEvent();
+        event.begin();
+        long now = _clock.getAsLong();
+        while (true) {
+            int slot = _hand;
+            _hand = (_hand + 1) % _maxEntries;
+
+            Entry candidate = _ring[slot];
+            if (_table.probe(candidate._questionId) != candidate) {
+                return slot;
+            }
+            if (candidate.isExpired(now)) {
+                remove(candidate);
+                _expirations.increment();
+                commitEvictionEvent(event, 1, 0);
+                return slot;
+            }
+            if (candidate._referenced) {
+                candidate._referenced = false;
+                continue;
+            }
+            remove(candidate);
+            _evictions.increment();
+            commitEvictionEvent(event, 0, 1);
+            return slot;
+        }
+    }
+
+    private Entry find(long questionId) {
+        long stamp = _lock.tryOptimisticRead();
+        Entry entry = _table.probe(questionId);
+        if (!_lock.validate(stamp)) {
+            stamp = _lock.readLock();
+            try {
+                entry = _table.probe(questionId);
+            } finally {
+                _lock.unlockRead(stamp);
+            }
+        }
+        return entry;
+    }
+
+    // Called with the write lock held
+    private void insert(Entry entry) {
+        if (_table.replace(entry)) {
+            return;
+        }
+        if (_size + 1 > _table._values.length * LOAD_FACTOR) {
+            grow();
+        }
+        _table.insert(entry);
+        _size++;
+    }
+
+    // Called with the write lock held
+    private boolean remove(Entry entry) {
+        if (!_table.remove(entry)) {
+            return false;
+        }
+        _size--;
+        return true;
+    }
+
+    /**
+     * Moves the entries to a table twice the size, up to the size that fits the maximum entries.
+     * Readers keep probing the old table until the new one is published.
+     */
+    private void grow() {
+        int capacity = Math.min(_table._values.length * 2, capacityFor(_maxEntries));
+        if (capacity <= _table._values.length) {
+            return;
+        }
+        Table table = new Table(capacity);
+        for (Entry entry : _table._values) {
+            if (entry != null) {
+                table.insert(entry);
+            }
+        }
+        _table = table;
+    }
+
+    private static int capacityFor(int entries) {
+        return Math.max((int) Math.ceil(entries / LOAD_FACTOR), entries + 1);
+    }
+
+    /**
+     * Visits every entry that has not expired. The table is copied under the read lock
+     * and visited after, so writers are only held up for the copy.
+     *
+     * @param visitor Receives each entry with its expiry time
+     * @throws IOException if the visitor fails
+     */
+    void forEachEntry(AnswerEntryVisitor visitor) throws IOException {
+        Entry[] entries;
+        long stamp = _lock.readLock();
+        try {
+            entries = _table._values.clone();
+        } finally {
+            _lock.unlockRead(stamp);
+        }
+        long now = _clock.getAsLong();
+        for (Entry entry : entries) {
+            if (entry != null && !entry.isExpired(now)) {
+                visitor.visit(entry._questionId, entry._answer, entry._expiresAt);
+            }
+        }
+    }
+
+    private static void commitEvictionEvent(AnswerEvictionEvent event, int expired, int evicted) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.store = STORE_NAME;
+            event.expired = expired;
+            event.evicted = evicted;
+            event.commit();
+        }
+    }
+
+    public int size() {
+        long stamp = _lock.tryOptimisticRead();
+        int size = _size;
+        if (!_lock.validate(stamp)) {
+            stamp = _lock.readLock();
+            try {
+                size = _size;
+            } finally {
+                _lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return _maxEntries;
+    }
+
+    public long getTtlMs() {
+        return _ttlMs;
+    }
+
+    public long getEvictions() {
+        return _evictions.sum();
+    }
+
+    public long getExpirations() {
+        return _expirations.sum();
+    }
+
+    @Override
+    public AnswerStoreStatsDTO getStats() {
+        AnswerStoreStatsDTO stats = new AnswerStoreStatsDTO();
+        stats.setSize(size());
+        stats.setMaxEntries(_maxEntries);
+        stats.setTtlMs(_ttlMs);
+        stats.setEvictions(getEvictions());
+        stats.setExpirations(getExpirations());
+        return stats;
+    }
+
+    /**
+     * Linear-probing table of question IDs to entries. Keys and entries are parallel arrays;
+     * a slot without an entry is free, so any ID can be stored. Removal shifts the entries after
+     * the removed one back instead of leaving a marker, so lookups never probe past deleted slots.
+     */
+    private static final class Table {
+        private final long[] _keys;
+        private final Entry[] _values;
+
+        private Table(int capacity) {
+            _keys = new long[capacity];
+            _values = new Entry[capacity];
+        }
+
+        private static long mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 29);
+        }
+
+        private int homeSlot(long key) {
+            // Maps the low 32 hash bits onto [0, capacity) without a division
+            return (int) (((mix(key) & 0xFFFFFFFFL) * _keys.length) >>> 32);
+        }
+
+        /**
+         * Looks up a key. Probing is bounded by the table length, so a torn
+         * optimistic read can return a wrong entry but never loop forever.
+         */
+        private Entry probe(long key) {
+            int capacity = _keys.length;
+            int slot = homeSlot(key);
+            for (int i = 0; i < capacity; i++) {
+                Entry entry = _values[slot];
+                if (entry == null) {
+                    return null;
+                }
+                if (_keys[slot] == key) {
+                    return entry;
+                }
+                if (++slot == capacity) {
+                    slot = 0;
+                }
+            }
+            return null;
+        }
+
+        private int slotOf(long key) {
+            int capacity = _keys.length;
+            int slot = homeSlot(key);
+            while (_values[slot] != null) {
+                if (_keys[slot] == key) {
+                    return slot;
+                }
+                if (++slot == capacity) {
+                    slot = 0;
+                }
+            }
+            return -1 - slot;
+        }
+
+        private boolean replace(Entry entry) {
+            int slot = slotOf(entry._questionId);
+            if (slot < 0) {
+                return false;
+            }
+            _values[slot] = entry;
+            return true;
+        }
+
+        // The key must not be in the table yet
+        private void insert(Entry entry) {
+            int slot = -1 - slotOf(entry._questionId);
+            _keys[slot] = entry._questionId;
+            _values[slot] = entry;
+        }
+
+        private boolean remove(Entry entry) {
+            int slot = slotOf(entry._questionId);
+            if (slot < 0 || _values[slot] != entry) {
+                return false;
+            }
+            int capacity = _keys.length;
+            int free = slot;
+            int next = slot;
+            while (true) {
+                if (++next == capacity) {
+                    next = 0;
+                }
+                if (_values[next] == null) {
+                    break;
+                }
+                int home = homeSlot(_keys[next]);
+                // An entry stays put if its home lies cyclically after the free slot, up to its own slot
+                boolean staysPut = free <= next ? free < home && home <= next : free < home || home <= next;
+                if (!staysPut) {
+                    _keys[free] = _keys[next];
+                    _values[free] = _values[next];
+                    free = next;
+                }
+            }
+            _values[free] = null;
+            return true;
+        }
+    }
+
+    /**
+     * A stored answer with its expiry time and CLOCK reference bit.
+     */
+    private static final class Entry {
+        private final long _questionId;
+        private final String _answer;
+        private final long _expiresAt;
+        private volatile boolean _referenced;
+        private int _slot;
+
+        private Entry(long questionId, String answer, long expiresAt) {
+            _questionId = questionId;
+            _answer = answer;
+            _expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= _expiresAt;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded answer store that survives restarts. Answers are kept in a {@link BoundedAnswerStore}
+ * and every registration is appended to a write-ahead log before it returns. Registrations
+ * that arrive while the log is being forced are group-committed: they are written together
+ * and made durable with a single fsync. Periodically the log moves on to a new segment and
+ * the store is compacted into a snapshot, after which the older segments are deleted.
+ * On startup the latest snapshot is memory-mapped and the segments after it are replayed.
+ * Answers keep their original expiry time on disk, so expired answers are never restored.
+ * One process at a time uses the directory. A process started while another still holds it, as while
+ * taking over from it, keeps its answers in memory and logs them once the other one releases the directory,
+ * after recovering what that one logged.
+ */
+public class DurableAnswerStore implements IAnswerStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurableAnswerStore.class);
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String FILE_PREFIX = "answers-";
+    private static final String LOCK_FILE = "store.lock";
+    private static final long LOCK_POLL_MS = 100L;
+
+    private final BoundedAnswerStore _answers;
+    private final Path _directory;
+    private final long _ttlMs;
+    private final LongSupplier _clock;
+    // Locked while this store uses the directory, closed with the store
+    private final FileChannel _lockChannel;
+
+    // Records waiting for the log writer and the sequence numbers of appended and durable records
+    private final Lock _queueLock = new ReentrantLock();
+    private final Condition _queued = _queueLock.newCondition();
+    private final Condition _written = _queueLock.newCondition();
+    private List<byte[]> _queue = new ArrayList<>();
+    private long _appended;
+    private long _durable;
+    private long _snapshotted;
+    private boolean _closed;
+    private boolean _failed;
+    // Until another process releases the directory; records are queued but not waited for
+    private boolean _waitingForDirectory;
+
+    // Current segment, swapped by compaction while no batch is being written; null while waiting for the directory
+    private final Lock _segmentLock = new ReentrantLock();
+    private AnswerWriteAheadLog _segment;
+    private long _generation;
+
+    private final Thread _writer;
+    private final ScheduledExecutorService _snapshotExecutor;
+
+    /**
+     * Creates a durable store, recovering the answers persisted in its directory.
+     *
+     * @param maxEntries         Maximum number of answers kept
+     * @param ttlMs              Time after which an answer expires
+     * @param directory          Directory holding the log segments and snapshots
+     * @param snapshotIntervalMs Time between compactions; 0 only compacts on close
+     * @throws UncheckedIOException if the directory can't be used
+     */
+    public DurableAnswerStore(int maxEntries, long ttlMs, Path directory, long snapshotIntervalMs) {
+        this(maxEntries, ttlMs, directory, snapshotIntervalMs, System::currentTimeMillis);
+    }
+
+    DurableAnswerStore(int maxEntries, long ttlMs, Path directory, long snapshotIntervalMs, LongSupplier clock) {
+        _directory = directory;
+        _clock = clock;
+        try {
+            Files.createDirectories(directory);
+            _lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (tryLock(_lockChannel)) {
+                StoreFiles files = StoreFiles.scan(directory);
+                _answers = new BoundedAnswerStore(maxEntries, ttlMs, clock, files.expectedEntries());
+                recover(files);
+                _segment = AnswerWriteAheadLog.create(segmentPath(_generation));
+            } else {
+                _answers = new BoundedAnswerStore(maxEntries, ttlMs, clock);
+                _waitingForDirectory = true;
+                LOGGER.info("Answer store in {} is in use by another process, logging answers once it is released",
+                        directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open answer store in " + directory, e);
+        }
+        _ttlMs = _answers.getTtlMs();
+
+        _writer = new Thread(this::writeLoop, "trivia-answers-wal");
+        _writer.setDaemon(true);
+        _writer.start();
+        _snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trivia-answers-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (snapshotIntervalMs > 0L) {
+            _snapshotExecutor.scheduleWithFixedDelay(
+                    this::snapshot, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Snapshots and log segments found in the store directory, by generation.
+     * Snapshot N holds everything logged in segments before N.
+     */
+    private record StoreFiles(TreeMap<Long, Path> snapshots, TreeMap<Long, Path> segments) {
+
+        static StoreFiles scan(Path directory) throws IOException {
+            StoreFiles files = new StoreFiles(new TreeMap<>(), new TreeMap<>());
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+                for (Path path : paths) {
+                    String name = path.getFileName().toString();
+                    if (name.endsWith(SNAPSHOT_SUFFIX)) {
+                        files.snapshots().put(generationOf(name, SNAPSHOT_SUFFIX), path);
+                    } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                        files.segments().put(generationOf(name, SEGMENT_SUFFIX), path);
+                    } else {
+                        // Snapshot that was still being written
+                        Files.delete(path);
+                    }
+                }
+            }
+            return files;
+        }
+
+        int expectedEntries() {
+            return snapshots.isEmpty() ? 0 : AnswerSnapshot.countEntries(snapshots.lastEntry().getValue());
+        }
+
+        long lastGeneration() {
+            return Math.max(snapshots.isEmpty() ? 0L : snapshots.lastKey(),
+                    segments.isEmpty() ? 0L : segments.lastKey());
+        }
+    }
+
+    /**
+     * Loads the latest readable snapshot, replays the segments written after it
+     * and removes files that snapshot made obsolete.
+     */
+    private void recover(StoreFiles files) throws IOException {
+        TreeMap<Long, Path> snapshots = files.snapshots();
+        long start = System.nanoTime();
+        long now = _clock.getAsLong();
+        long[] restored = new long[1];
+        AnswerEntryVisitor restore = (questionId, answer, expiresAt) -> {
+            if (expiresAt > now) {
+                _answers.put(questionId, answer, expiresAt);
+                restored[0]++;
+            }
+        };
+        long snapshotGeneration = 0L;
+        for (Long generation : snapshots.descendingKeySet()) {
+            try {
+                AnswerSnapshot.read(snapshots.get(generation), restore);
+                snapshotGeneration = generation;
+                break;
+            } catch (IOException e) {
+                // Whatever it restored is still valid; the segments before it are gone, so fall back to older files
+                LOGGER.error("Skipping unreadable answer snapshot {}", snapshots.get(generation), e);
+            }
+        }
+        for (Path segment : files.segments().tailMap(snapshotGeneration).values()) {
+            AnswerWriteAheadLog.replay(segment, restore);
+        }
+        LOGGER.info("Recovered {} answers from {} in {} ms", restored[0], _directory,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        _generation = files.lastGeneration() + 1L;
+        deleteGenerationsBefore(snapshotGeneration);
+    }
+
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            // Held by another store in this JVM
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the process holding the directory to release it, then recovers what that process logged
+     * and opens a new segment. Answers registered meanwhile are still queued and logged first.
+     *
+     * @return Whether the directory is in use; if not, answers are only kept in memory
+     */
+    private boolean awaitDirectory() {
+        if (_segment != null) {
+            return true;
+        }
+        try {
+            while (!tryLock(_lockChannel)) {
+                _queueLock.lock();
+                try {
+                    if (_closed) {
+                        LOGGER.warn("Answer store closed before {} was released, {} answers were not logged",
+                                _directory, _queue.size());
+                        stopLogging();
+                        return false;
+                    }
+                } finally {
+                    _queueLock.unlock();
+                }
+                Thread.sleep(LOCK_POLL_MS);
+            }
+            recover(StoreFiles.scan(_directory));
+            AnswerWriteAheadLog segment = AnswerWriteAheadLog.create(segmentPath(_generation));
+            _segmentLock.lock();
+            try {
+                _segment = segment;
+            } finally {
+                _segmentLock.unlock();
+            }
+            _queueLock.lock();
+            try {
+                _waitingForDirectory = false;
+            } finally {
+                _queueLock.unlock();
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Failed to open the answer store in {}, answers are no longer persisted", _directory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        _queueLock.lock();
+        try {
+            stopLogging();
+        } finally {
+            _queueLock.unlock();
+        }
+        return false;
+    }
+
+    // Called with the queue lock held
+    private void stopLogging() {
+        _failed = true;
+        _queue.clear();
+        _durable = _appended;
+        _written.signalAll();
+    }
+
+    private static long generationOf(String name, String suffix) throws IOException {
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected file in answer store: " + name, e);
+        }
+    }
+
+    /**
+     * Deletes the segments and snapshots of older generations, which a snapshot has made obsolete.
+     */
+    private void deleteGenerationsBefore(long generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(_directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String suffix = name.endsWith(SNAPSHOT_SUFFIX) ? SNAPSHOT_SUFFIX : SEGMENT_SUFFIX;
+                if (name.endsWith(suffix) && generationOf(name, suffix) < generation) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long generation) {
+        return _directory.resolve(FILE_PREFIX + generation + SEGMENT_SUFFIX);
+    }
+
+    private Path snapshotPath(long generation) {
+        return _directory.resolve(FILE_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Stores the correct answer of a question and returns once it is in the log on disk.
+     * If the log can't be written the answer is still stored, but only in memory.
+     * While another process holds the directory it returns at once, and the answer is logged later.
+     */
+    @Override
+    public void put(long questionId, QuestionDTO question, String correctAnswer) {
+        long expiresAt = _clock.getAsLong() + _ttlMs;
+        _answers.put(questionId, correctAnswer, expiresAt);
+        byte[] record = AnswerWriteAheadLog.encode(questionId, correctAnswer, expiresAt);
+        _queueLock.lock();
+        try {
+            if (_closed || _failed) {
+                return;
+            }
+            _queue.add(record);
+            long sequence = ++_appended;
+            _queued.signal();
+            while (!_waitingForDirectory && _durable < sequence) {
+                _written.awaitUninterruptibly();
+            }
+        } finally {
+            _queueLock.unlock();
+        }
+    }
+
+    /**
+     * Writes queued records in batches until the store is closed and the queue is drained.
+     * Records queued while a batch is being forced make up the next batch.
+     */
+    private void writeLoop() {
+        if (!awaitDirectory()) {
+            return;
+        }
+        List<byte[]> batch = new ArrayList<>();
+        while (true) {
+            long sequence;
+            _queueLock.lock();
+            try {
+                while (_queue.isEmpty() && !_closed) {
+                    _queued.awaitUninterruptibly();
+                }
+                if (_queue.isEmpty()) {
+                    return;
+                }
+                List<byte[]> queued = _queue;
+                _queue = batch;
+                batch = queued;
+                sequence = _appended;
+            } finally {
+                _queueLock.unlock();
+            }
+
+            boolean written = writeBatch(batch);
+            batch.clear();
+
+            _queueLock.lock();
+            try {
+                _durable = sequence;
+                _written.signalAll();
+                if (!written) {
+                    stopLogging();
+                }
+            } finally {
+                _queueLock.unlock();
+            }
+        }
+    }
+
+    private boolean writeBatch(List<byte[]> batch) {
+        _segmentLock.lock();
+        try {
+            _segment.append(batch);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Failed to write the answer log, answers are no longer persisted", e);
+            return false;
+        } finally {
+            _segmentLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts the store into a snapshot if anything was stored since the last one.
+     * The log first moves on to a new segment; everything in the older segments was
+     * stored in memory before that, so the snapshot covers them and they can be deleted.
+     */
+    synchronized void snapshot() {
+        long appended;
+        _queueLock.lock();
+        try {
+            if (_failed || _waitingForDirectory || _appended == _snapshotted) {
+                return;
+            }
+            appended = _appended;
+        } finally {
+            _queueLock.unlock();
+        }
+
+        long start = System.nanoTime();
+        try {
+            long generation;
+            _segmentLock.lock();
+            try {
+                generation = _generation + 1L;
+                AnswerWriteAheadLog next = AnswerWriteAheadLog.create(segmentPath(generation));
+                _segment.close();
+                _segment = next;
+                _generation = generation;
+            } finally {
+                _segmentLock.unlock();
+            }
+            long entries = AnswerSnapshot.write(snapshotPath(generation), _answers);
+            deleteGenerationsBefore(generation);
+            _queueLock.lock();
+            try {
+                _snapshotted = appended;
+            } finally {
+                _queueLock.unlock();
+            }
+            LOGGER.debug("Wrote answer snapshot {} with {} answers in {} ms", generation, entries,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write answer snapshot, keeping the log", e);
+        }
+    }
+
+    /**
+     * Stops the log writer once every queued record is durable and writes a final snapshot,
+     * so the next start has no log to replay. Releases the directory to the next process.
+     */
+    public void close() {
+        close(true);
+    }
+
+    /**
+     * Closes the store the way a crash leaves it: the log is kept as written, without a final snapshot.
+     */
+    void closeWithoutSnapshot() {
+        close(false);
+    }
+
+    private void close(boolean compact) {
+        _snapshotExecutor.shutdownNow();
+        _queueLock.lock();
+        try {
+            if (_closed) {
+                return;
+            }
+            _closed = true;
+            _queued.signal();
+        } finally {
+            _queueLock.unlock();
+        }
+        try {
+            _writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (compact) {
+            snapshot();
+        }
+        _segmentLock.lock();
+        try {
+            if (_segment != null) {
+                _segment.close();
+                // Nothing to replay, so don't leave an empty segment behind for every restart
+                Path segment = segmentPath(_generation);
+                if (compact && Files.size(segment) == 0L) {
+                    Files.delete(segment);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close the answer log", e);
+        } finally {
+            _segmentLock.unlock();
+        }
+        try {
+            _lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to release the answer store in {}", _directory, e);
+        }
+    }
+
+    /**
+     * Gets the answers kept in memory, to hand them to a process taking over from this one.
+     *
+     * @return The answers kept by this store
+     */
+    BoundedAnswerStore answers() {
+        return _answers;
+    }
+
+    @Override
+    public AnswerResultDTO check(long questionId, AnswerDTO answer) {
+        return _answers.check(questionId, answer);
+    }
+
+    @Override
+    public AnswerStoreStatsDTO getStats() {
+        return _answers.getStats();
+    }
+}
@@ -0,0 +1,374 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Answer store that keeps every answer locally and pushes the answers registered here to the
+ * other nodes of a cluster, so any node can grade a question handed out by any other.
+ * Registering never waits for the network: answers queue per peer and a sender thread posts them
+ * in batches, encoded as answer log records, to each peer's replication endpoint.
+ * A peer that can't be reached keeps its queue, up to a limit past which the oldest answers are dropped.
+ * Expiry times travel with the answers, so node clocks are expected to be roughly in sync.
+ */
+public class ReplicatedAnswerStore implements IAnswerStore {
+
+    public static final String REPLICATION_PATH = "/internal/answers";
+    public static final String SECRET_HEADER = "X-Trivia-Replication-Secret";
+
+    static final String REPLICATION_LAG = "trivia.answers.replication.lag";
+    static final String REPLICATION_BACKLOG = "trivia.answers.replication.backlog";
+    static final String REPLICATION_FAILURES = "trivia.answers.replication.failures";
+    static final String REPLICATION_DROPPED = "trivia.answers.replication.dropped";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicatedAnswerStore.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5L);
+    private static final long CLOSE_TIMEOUT_MS = 5_000L;
+
+    private final BoundedAnswerStore _answers;
+    private final long _ttlMs;
+    private final LongSupplier _clock;
+    private final String _secret;
+    private final List<Peer> _peers;
+    private final int _batchSize;
+    private final int _maxBacklog;
+    private final HttpClient _client;
+    private final ScheduledExecutorService _sender;
+    private final Timer _lag;
+    private final Counter _failures;
+    private final Counter _dropped;
+
+    /**
+     * Creates a replicated store and starts pushing to its peers.
+     *
+     * @param maxEntries Maximum number of answers kept, registered here or replicated from peers
+     * @param ttlMs      Time after which an answer expires
+     * @param peers      Base URLs of the other nodes, such as http://host:8080
+     * @param secret     Secret shared by the nodes, required on replication requests
+     * @param batchSize  Maximum number of answers sent to a peer in one request
+     * @param intervalMs Time between pushes while there is less than a full batch queued
+     * @param maxBacklog Answers queued per peer before the oldest are dropped
+     * @param registry   Registry for the replication lag, backlog and failure meters
+     * @throws IllegalArgumentException if the secret is blank or a peer URL is invalid
+     */
+    public ReplicatedAnswerStore(int maxEntries, long ttlMs, List<String> peers, String secret,
+                                 int batchSize, long intervalMs, int maxBacklog, MeterRegistry registry) {
+        this(maxEntries, ttlMs, peers, secret, batchSize, intervalMs, maxBacklog, registry, System::currentTimeMillis);
+    }
+
+    ReplicatedAnswerStore(int maxEntries, long ttlMs, List<String> peers, String secret,
+                          int batchSize, long intervalMs, int maxBacklog, MeterRegistry registry,
+                          LongSupplier clock) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Answer replication needs a secret shared by the nodes");
+        }
+        _answers = new BoundedAnswerStore(maxEntries, ttlMs, clock);
+        _ttlMs = _answers.getTtlMs();
+        _clock = clock;
+        _secret = secret;
+        _peers = peers.stream()
+                .map(peer -> new Peer(URI.create(stripTrailingSlash(peer) + REPLICATION_PATH)))
+                .toList();
+        _batchSize = Math.max(batchSize, 1);
+        _maxBacklog = Math.max(maxBacklog, _batchSize);
+        _client = HttpClient.newBuilder()
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        _lag = Timer.builder(REPLICATION_LAG)
+                .description("Time from registering an answer until a peer acknowledged it")
+                .register(registry);
+        _failures = Counter.builder(REPLICATION_FAILURES)
+                .description("Answer batches a peer did not accept; they are sent again")
+                .register(registry);
+        _dropped = Counter.builder(REPLICATION_DROPPED)
+                .description("Answers never sent to a peer because its backlog was full")
+                .register(registry);
+        Gauge.builder(REPLICATION_BACKLOG, this::backlog)
+                .description("Answers waiting to be sent to peers, summed over peers")
+                .register(registry);
+
+        _sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trivia-answers-replication");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(intervalMs, 1L);
+        _sender.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static String stripTrailingSlash(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * An answer waiting to be sent, with the time it was registered for the lag metric.
+     */
+    private record PendingAnswer(byte[] record, long registeredNanos) {
+    }
+
+    /**
+     * Answers queued for one peer. At most one batch per peer is in flight, so a peer
+     * receives answers in the order they were registered, also after a retry.
+     */
+    private static final class Peer {
+
+        private final URI _uri;
+        // Guarded by this
+        private final Deque<PendingAnswer> _backlog = new ArrayDeque<>();
+        private boolean _sending;
+        private boolean _failing;
+
+        Peer(URI uri) {
+            _uri = uri;
+        }
+
+        URI uri() {
+            return _uri;
+        }
+
+        /**
+         * @return Whether the oldest queued answer was dropped to make room
+         */
+        synchronized boolean enqueue(PendingAnswer answer, int maxBacklog) {
+            boolean dropped = _backlog.size() >= maxBacklog;
+            if (dropped) {
+                _backlog.pollFirst();
+            }
+            _backlog.addLast(answer);
+            return dropped;
+        }
+
+        /**
+         * @return The oldest queued answers, or nothing if there are none or a batch is in flight
+         */
+        synchronized List<PendingAnswer> takeBatch(int batchSize) {
+            if (_sending || _backlog.isEmpty()) {
+                return List.of();
+            }
+            _sending = true;
+            List<PendingAnswer> batch = new ArrayList<>(Math.min(batchSize, _backlog.size()));
+            while (batch.size() < batchSize && !_backlog.isEmpty()) {
+                batch.add(_backlog.pollFirst());
+            }
+            return batch;
+        }
+
+        /**
+         * Ends the batch in flight, putting its answers back in front if it was not accepted.
+         *
+         * @return The number of answers dropped because the backlog filled up meanwhile
+         */
+        synchronized int finishBatch(List<PendingAnswer> unsent, int maxBacklog) {
+            _sending = false;
+            for (int i = unsent.size() - 1; i >= 0; i--) {
+                if (_backlog.size() >= maxBacklog) {
+                    return i + 1;
+                }
+                _backlog.addFirst(unsent.get(i));
+            }
+            return 0;
+        }
+
+        /**
+         * @return Whether this changed the peer's state, so only transitions are logged
+         */
+        synchronized boolean markFailing(boolean failing) {
+            boolean changed = _failing != failing;
+            _failing = failing;
+            return changed;
+        }
+
+        synchronized int size() {
+            return _backlog.size();
+        }
+    }
+
+    /**
+     * Stores the correct answer of a question and queues it for every peer.
+     */
+    @Override
+    public void put(long questionId, QuestionDTO question, String correctAnswer) {
+        long expiresAt = _clock.getAsLong() + _ttlMs;
+        _answers.put(questionId, correctAnswer, expiresAt);
+        if (_peers.isEmpty()) {
+            return;
+        }
+        PendingAnswer pending = new PendingAnswer(
+                AnswerWriteAheadLog.encode(questionId, correctAnswer, expiresAt), System.nanoTime());
+        for (Peer peer : _peers) {
+            if (peer.enqueue(pending, _maxBacklog)) {
+                _dropped.increment();
+            }
+        }
+    }
+
+    private void flush() {
+        for (Peer peer : _peers) {
+            send(peer);
+        }
+    }
+
+    /**
+     * Posts the next batch queued for a peer, followed by the batches after it while the peer
+     * keeps accepting them, so a backlog drains without waiting for the next interval.
+     *
+     * @return Completes when the peer has no batch in flight or the last one failed
+     */
+    private CompletableFuture<Void> send(Peer peer) {
+        List<PendingAnswer> batch = peer.takeBatch(_batchSize);
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = HttpRequest.newBuilder(peer.uri())
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/octet-stream")
+                .header(SECRET_HEADER, _secret)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encodeBatch(batch)))
+                .build();
+        return _client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    boolean accepted = failure == null && response.statusCode() / 100 == 2;
+                    if (accepted) {
+                        _lag.record(System.nanoTime() - batch.get(0).registeredNanos(), TimeUnit.NANOSECONDS);
+                        peer.finishBatch(List.of(), _maxBacklog);
+                        if (peer.markFailing(false)) {
+                            LOGGER.info("Replicating answers to {} again", peer.uri());
+                        }
+                    } else {
+                        _failures.increment();
+                        _dropped.increment(peer.finishBatch(batch, _maxBacklog));
+                        if (peer.markFailing(true)) {
+                            LOGGER.warn("Failed to replicate answers to {}, retrying: {}", peer.uri(),
+                                    failure != null ? failure.toString() : "HTTP " + response.statusCode());
+                        }
+                    }
+                    return accepted;
+                })
+                .thenCompose(accepted -> accepted ? send(peer) : CompletableFuture.completedFuture(null));
+    }
+
+    private static byte[] encodeBatch(List<PendingAnswer> batch) {
+        int bytes = 0;
+        for (PendingAnswer answer : batch) {
+            bytes += answer.record().length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(bytes);
+        for (PendingAnswer answer : batch) {
+            body.put(answer.record());
+        }
+        return body.array();
+    }
+
+    /**
+     * Checks the secret sent with a replication request, in constant time.
+     *
+     * @param secret The secret header of the request, possibly null
+     * @return Whether the request comes from a node of this cluster
+     */
+    public boolean isAuthorized(String secret) {
+        return secret != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), _secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stores a batch of answers replicated from a peer, keeping their original expiry.
+     * Answers are not passed on, since every node pushes its own answers to all others.
+     *
+     * @param batch Answer log records as sent by a peer
+     * @return The number of answers in the batch
+     * @throws IOException if the batch is damaged; the answers before the damage are stored
+     */
+    public int apply(byte[] batch) throws IOException {
+        long now = _clock.getAsLong();
+        return AnswerWriteAheadLog.decode(ByteBuffer.wrap(batch), (questionId, answer, expiresAt) -> {
+            if (expiresAt > now) {
+                _answers.put(questionId, answer, expiresAt);
+            }
+        });
+    }
+
+    /**
+     * Gets the local copy of the answers, for storing answers without passing them on to the peers.
+     *
+     * @return The answers kept on this node
+     */
+    BoundedAnswerStore answers() {
+        return _answers;
+    }
+
+    /**
+     * Gets the number of answers waiting to be sent, summed over peers.
+     *
+     * @return Queued answers, a batch in flight not included
+     */
+    public int backlog() {
+        int backlog = 0;
+        for (Peer peer : _peers) {
+            backlog += peer.size();
+        }
+        return backlog;
+    }
+
+    /**
+     * Stops the sender after one last attempt to push what is queued, waiting for it only briefly.
+     */
+    public void close() {
+        _sender.shutdownNow();
+        CompletableFuture<?>[] sends = _peers.stream()
+                .map(this::send)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.debug("Answer replication did not finish before shutdown", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int backlog = backlog();
+        if (backlog > 0) {
+            LOGGER.warn("Shutting down with {} answers not replicated to peers", backlog);
+        }
+    }
+
+    @Override
+    public AnswerResultDTO check(long questionId, AnswerDTO answer) {
+        return _answers.check(questionId, answer);
+    }
+
+    @Override
+    public AnswerStoreStatsDTO getStats() {
+        return _answers.getStats();
+    }
+}
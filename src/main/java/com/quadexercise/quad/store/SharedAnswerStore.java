@@ -0,0 +1,306 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Answer store in a memory-mapped file, shared by every process on the host that maps it,
+ * so an answer registered by one process can be graded by any other without a network hop.
+ * The file is an off-heap open-addressing table of fixed-size slots with linear probing.
+ * Each slot is guarded by a sequence number, updated with compare-and-set through a
+ * {@link VarHandle}: a writer makes it odd while it rewrites the slot and even again after,
+ * and a reader retries if the sequence moved while it was reading. Slots are never emptied,
+ * only overwritten, so probe chains stay intact. A new answer takes the first empty,
+ * expired or same-question slot within a bounded probe window, or else evicts the
+ * answer in that window that expires first.
+ * A process that dies in the middle of writing a slot leaves that slot unusable.
+ */
+public class SharedAnswerStore implements IAnswerStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedAnswerStore.class);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int MAGIC = 0x51415348;
+    private static final int VERSION = 1;
+    // Magic, version, slot count and slot size, then the shared eviction and expiry counters
+    private static final int HEADER_BYTES = 64;
+    private static final int EVICTIONS_OFFSET = 16;
+    private static final int EXPIRATIONS_OFFSET = 24;
+
+    // Sequence, question ID, expiry time and answer length, then the answer itself
+    static final int SLOT_BYTES = 256;
+    private static final int KEY_OFFSET = 8;
+    private static final int EXPIRY_OFFSET = 16;
+    private static final int LENGTH_OFFSET = 24;
+    private static final int ANSWER_OFFSET = 28;
+    static final int MAX_ANSWER_BYTES = SLOT_BYTES - ANSWER_OFFSET;
+
+    private static final int MAX_PROBES = 32;
+    private static final int MAX_SLOTS = 1 << 22;
+    private static final int READ_ATTEMPTS = 16;
+    private static final int WRITE_ATTEMPTS = 1_000;
+
+    private final MappedByteBuffer _table;
+    private final int _slotMask;
+    private final int _maxEntries;
+    private final long _ttlMs;
+    private final LongSupplier _clock;
+
+    /**
+     * Opens the shared table, creating it if this is the first process to use it.
+     *
+     * @param maxEntries Number of answers the table is sized for, at half its slots;
+     *                   an existing table keeps the size it was created with
+     * @param ttlMs      Time after which an answer expires
+     * @param path       The table file, the same for every process that should share answers
+     * @throws UncheckedIOException if the file can't be opened or is not an answer table
+     */
+    public SharedAnswerStore(int maxEntries, long ttlMs, Path path) {
+        this(maxEntries, ttlMs, path, System::currentTimeMillis);
+    }
+
+    SharedAnswerStore(int maxEntries, long ttlMs, Path path, LongSupplier clock) {
+        _ttlMs = Math.max(ttlMs, 1L);
+        _clock = clock;
+        try {
+            _table = mapTable(path, slotsFor(maxEntries));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open shared answer table " + path, e);
+        }
+        int slots = _table.getInt(8);
+        _slotMask = slots - 1;
+        _maxEntries = slots / 2;
+        if (slots != slotsFor(maxEntries)) {
+            LOGGER.warn("Shared answer table {} holds {} answers, not the configured {}", path, _maxEntries, maxEntries);
+        }
+    }
+
+    private static int slotsFor(int maxEntries) {
+        long wanted = Math.max(maxEntries, 1) * 2L;
+        return (int) Math.min(Long.highestOneBit(wanted - 1L) << 1, MAX_SLOTS);
+    }
+
+    /**
+     * Maps the table file, holding a file lock while checking or writing its header
+     * so processes starting together agree on one layout.
+     */
+    private static MappedByteBuffer mapTable(Path path, int slots) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0L);
+            if (header.getInt(0) != MAGIC) {
+                // New file, or one whose creator died before finishing the header
+                long size = HEADER_BYTES + (long) slots * SLOT_BYTES;
+                channel.truncate(0L);
+                channel.write(ByteBuffer.allocate(1), size - 1L);
+                header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(slots)
+                        .putInt(SLOT_BYTES)
+                        .position(0);
+                channel.write(header, 0L);
+            } else if (header.getInt(4) != VERSION || header.getInt(12) != SLOT_BYTES
+                    || Integer.bitCount(header.getInt(8)) != 1 || header.getInt(8) > MAX_SLOTS
+                    || channel.size() < HEADER_BYTES + (long) header.getInt(8) * SLOT_BYTES) {
+                throw new IOException("Not a compatible answer table: " + path);
+            } else {
+                slots = header.getInt(8);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER_BYTES + (long) slots * SLOT_BYTES);
+        }
+    }
+
+    private int homeSlot(long questionId) {
+        // Node bits are lowest in question IDs, so mix before masking
+        long hash = questionId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & _slotMask;
+    }
+
+    private static int offsetOf(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    /**
+     * Gets the correct answer for a question.
+     *
+     * @param questionId The ID of the question
+     * @return The correct answer, or null if unknown or expired
+     */
+    public String get(long questionId) {
+        int home = homeSlot(questionId);
+        long now = _clock.getAsLong();
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int offset = offsetOf((home + probe) & _slotMask);
+            for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+                long sequence = (long) LONGS.getAcquire(_table, offset);
+                if (sequence == 0L) {
+                    // Never written, so the question is not further down the chain either
+                    return null;
+                }
+                if ((sequence & 1L) != 0L) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if ((long) LONGS.getOpaque(_table, offset + KEY_OFFSET) != questionId) {
+                    break;
+                }
+                long expiresAt = (long) LONGS.getOpaque(_table, offset + EXPIRY_OFFSET);
+                int length = Math.min(Math.max(_table.getInt(offset + LENGTH_OFFSET), 0), MAX_ANSWER_BYTES);
+                byte[] answer = new byte[length];
+                _table.get(offset + ANSWER_OFFSET, answer);
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.getOpaque(_table, offset) == sequence) {
+                    return now < expiresAt ? new String(answer, StandardCharsets.UTF_8) : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the correct answer for a question, evicting the answer that expires first
+     * within the probe window if it is full.
+     *
+     * @param questionId    The ID of the question
+     * @param correctAnswer The correct answer for the question
+     * @throws IllegalArgumentException if the answer doesn't fit in a slot
+     */
+    public void put(long questionId, String correctAnswer) {
+        byte[] answer = correctAnswer.getBytes(StandardCharsets.UTF_8);
+        if (answer.length > MAX_ANSWER_BYTES) {
+            throw new IllegalArgumentException("Answer too long for the shared table: " + answer.length + " bytes");
+        }
+        int home = homeSlot(questionId);
+        for (int attempt = 0; attempt < WRITE_ATTEMPTS; attempt++) {
+            long now = _clock.getAsLong();
+            int victim = -1;
+            long victimSequence = 0L;
+            long victimExpiry = Long.MAX_VALUE;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int offset = offsetOf((home + probe) & _slotMask);
+                long sequence = (long) LONGS.getAcquire(_table, offset);
+                if ((sequence & 1L) != 0L) {
+                    continue;
+                }
+                long key = (long) LONGS.getOpaque(_table, offset + KEY_OFFSET);
+                long expiresAt = (long) LONGS.getOpaque(_table, offset + EXPIRY_OFFSET);
+                if (sequence == 0L || key == questionId || now >= expiresAt) {
+                    if (write(offset, sequence, questionId, now + _ttlMs, answer)) {
+                        if (sequence != 0L && key != questionId) {
+                            LONGS.getAndAdd(_table, EXPIRATIONS_OFFSET, 1L);
+                        }
+                        return;
+                    }
+                    // Another process took the slot first; look at it again
+                    probe--;
+                    continue;
+                }
+                if (expiresAt < victimExpiry) {
+                    victim = offset;
+                    victimSequence = sequence;
+                    victimExpiry = expiresAt;
+                }
+            }
+            if (victim >= 0 && write(victim, victimSequence, questionId, now + _ttlMs, answer)) {
+                LONGS.getAndAdd(_table, EVICTIONS_OFFSET, 1L);
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        // Only possible if every slot in the window stays mid-write, e.g. left so by crashed processes
+        LOGGER.warn("No free slot in the shared answer table for question {}", questionId);
+    }
+
+    /**
+     * Claims a slot by moving its sequence from the even value it was read with to odd,
+     * fills it and publishes it with the next even sequence.
+     *
+     * @return False if the slot changed since it was read
+     */
+    private boolean write(int offset, long sequence, long questionId, long expiresAt, byte[] answer) {
+        if (!LONGS.compareAndSet(_table, offset, sequence, sequence + 1L)) {
+            return false;
+        }
+        LONGS.setOpaque(_table, offset + KEY_OFFSET, questionId);
+        LONGS.setOpaque(_table, offset + EXPIRY_OFFSET, expiresAt);
+        _table.putInt(offset + LENGTH_OFFSET, answer.length);
+        _table.put(offset + ANSWER_OFFSET, answer);
+        LONGS.setRelease(_table, offset, sequence + 2L);
+        return true;
+    }
+
+    @Override
+    public void put(long questionId, QuestionDTO question, String correctAnswer) {
+        put(questionId, correctAnswer);
+    }
+
+    @Override
+    public AnswerResultDTO check(long questionId, AnswerDTO answer) {
+        String correctAnswer = get(questionId);
+        if (correctAnswer == null) {
+            return null;
+        }
+        AnswerResultDTO result = new AnswerResultDTO();
+        result.setCorrect(Objects.equals(correctAnswer, answer.getSelectedAnswer()));
+        result.setCorrectAnswer(correctAnswer);
+        return result;
+    }
+
+    /**
+     * Counts the answers in the table that have not expired, across all processes.
+     * Scans every slot, so it is meant for statistics rather than the request path.
+     *
+     * @return The number of live answers
+     */
+    public int size() {
+        long now = _clock.getAsLong();
+        int size = 0;
+        for (int slot = 0; slot <= _slotMask; slot++) {
+            int offset = offsetOf(slot);
+            if ((long) LONGS.getAcquire(_table, offset) != 0L
+                    && now < (long) LONGS.getOpaque(_table, offset + EXPIRY_OFFSET)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public AnswerStoreStatsDTO getStats() {
+        AnswerStoreStatsDTO stats = new AnswerStoreStatsDTO();
+        stats.setSize(size());
+        stats.setMaxEntries(_maxEntries);
+        stats.setTtlMs(_ttlMs);
+        stats.setEvictions((long) LONGS.getVolatile(_table, EVICTIONS_OFFSET));
+        stats.setExpirations((long) LONGS.getVolatile(_table, EXPIRATIONS_OFFSET));
+        return stats;
+    }
+}
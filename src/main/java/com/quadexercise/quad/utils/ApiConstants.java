@@ -12,13 +12,26 @@ public enum ApiConstants {
     public static final String ERROR_SERVICE_UNAVAILABLE = "Service temporarily unavailable";
     public static final String ERROR_FETCH_TRIVIA = "Failed to fetch trivia";
     public static final String ERROR_PARSING_DATA = "Error parsing trivia data from provider";
+    public static final String ERROR_DEADLINE_EXCEEDED = "Request deadline exceeded";
     public static final String ERROR_FORMAT = "{\"error\": \"%s\"}\"";
     public static final String RATE_LIMIT_INTERRUPTED = "error.rate.limit.interrupted";
 
     // API constants
     public static final long RATE_LIMIT_MS = 5000L;
+    public static final long MAX_BACKOFF_MS = 60_000L;
+    // A slot leaving the upstream call less time than this before the deadline is not worth taking
+    public static final long MIN_UPSTREAM_BUDGET_MS = 500L;
+    // Deadline for question requests that don't send a timeout header
+    public static final long DEFAULT_DEADLINE_MS = 15_000L;
+    public static final int MAX_BATCH_SIZE = 50;
     public static final String TRIVIA_API_HOST = "opentdb.com";
+    public static final String TRIVIA_API_BASE_URL = "https://" + TRIVIA_API_HOST;
     public static final String TRIVIA_API_PATH = "/api.php";
     public static final String PARAM_AMOUNT = "amount";
+    // Milliseconds the client is willing to wait for its response
+    public static final String HEADER_REQUEST_TIMEOUT = "X-Request-Timeout-Ms";
+    public static final String FIELD_RESPONSE_CODE = "response_code";
+    public static final int RESPONSE_CODE_SUCCESS = 0;
+    public static final int RESPONSE_CODE_RATE_LIMIT = 5;
     public static final String CONTENT_TYPE_UTF8 = ";charset=UTF-8";
 }
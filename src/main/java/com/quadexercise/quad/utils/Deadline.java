@@ -0,0 +1,78 @@
+package com.quadexercise.quad.utils;
+
+/**
+ * Time by which a client wants its response, taken from its request timeout header or the
+ * endpoint's default. Carried with a question request, so the rate limiter can drop callers
+ * whose slot comes too late and upstream calls only get the time that is left.
+ */
+public final class Deadline {
+
+    // Used when no deadline applies, so callers never need a null check
+    private static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private final long _epochMillis;
+
+    private Deadline(long epochMillis) {
+        _epochMillis = epochMillis;
+    }
+
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a deadline at the given time.
+     *
+     * @param epochMillis Time in milliseconds since the epoch
+     * @return The deadline
+     */
+    public static Deadline at(long epochMillis) {
+        return epochMillis == Long.MAX_VALUE ? NONE : new Deadline(epochMillis);
+    }
+
+    /**
+     * Creates a deadline the given time from now.
+     *
+     * @param timeoutMs Time left in milliseconds
+     * @return The deadline
+     */
+    public static Deadline after(long timeoutMs) {
+        long now = System.currentTimeMillis();
+        return at(timeoutMs >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeoutMs);
+    }
+
+    /**
+     * Resolves a request's deadline from the timeout it asked for, or else the endpoint's default.
+     *
+     * @param requestedTimeoutMs Timeout from the request header, or null if it sent none
+     * @param defaultTimeoutMs   The endpoint's default; 0 means no deadline
+     * @return The deadline
+     */
+    public static Deadline fromRequest(Long requestedTimeoutMs, long defaultTimeoutMs) {
+        long timeoutMs = requestedTimeoutMs != null && requestedTimeoutMs > 0L ? requestedTimeoutMs : defaultTimeoutMs;
+        return timeoutMs > 0L ? after(timeoutMs) : NONE;
+    }
+
+    public long getEpochMillis() {
+        return _epochMillis;
+    }
+
+    public boolean isBounded() {
+        return _epochMillis != Long.MAX_VALUE;
+    }
+
+    /**
+     * Gets the time left at the given moment.
+     *
+     * @param now The current time in milliseconds
+     * @return Milliseconds left, 0 once passed, or Long.MAX_VALUE without a deadline
+     */
+    public long remainingMillis(long now) {
+        return isBounded() ? Math.max(_epochMillis - now, 0L) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return isBounded() ? "Deadline[" + _epochMillis + "]" : "Deadline[none]";
+    }
+}
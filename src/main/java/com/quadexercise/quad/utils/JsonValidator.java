@@ -1,7 +1,9 @@
 package com.quadexercise.quad.utils;
 
 import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.quadexercise.quad.exceptions.TriviaParseException;
+import com.quadexercise.quad.exceptions.TriviaResponseCodeException;
 
 /**
  * Utility class for validating JSON structures.
@@ -20,8 +22,48 @@ public enum JsonValidator {
      */
     public static void validateField(TreeNode node, String field) {
         if (node.get(field) == null) {
-            throw new TriviaParseException(
-                    String.format("Missing required field (%s) in trivia question", field));
+            throw missingField(field);
+        }
+    }
+
+    /**
+     * Creates the exception reported when a trivia question lacks a required field.
+     *
+     * @param field The missing field name
+     * @return Exception describing the missing field
+     */
+    public static TriviaParseException missingField(String field) {
+        return new TriviaParseException(
+                String.format("Missing required field (%s) in trivia question", field));
+    }
+
+    /**
+     * Creates the exception reported when a response has no results field.
+     *
+     * @return Exception describing the missing results field
+     */
+    public static TriviaParseException missingResults() {
+        return new TriviaParseException("required field (results) not found in trivia response");
+    }
+
+    /**
+     * Creates the exception reported when the results field is not an array.
+     *
+     * @return Exception describing the invalid results field
+     */
+    public static TriviaParseException resultsNotArray() {
+        return new TriviaParseException("field (results) is not an array in trivia response");
+    }
+
+    /**
+     * Validates the response_code the trivia API reports alongside its results.
+     *
+     * @param responseCode The reported code
+     * @throws TriviaResponseCodeException if the code is anything but success
+     */
+    public static void validateResponseCode(int responseCode) {
+        if (responseCode != ApiConstants.RESPONSE_CODE_SUCCESS) {
+            throw new TriviaResponseCodeException(responseCode);
         }
     }
 
@@ -45,15 +87,20 @@ public enum JsonValidator {
      * Validates that a full trivia API response has the expected structure.
      *
      * @param root The root JsonNode of the API response
-     * @throws TriviaParseException if the response structure is invalid
+     * @throws TriviaParseException        if the response structure is invalid
+     * @throws TriviaResponseCodeException if the API reported an error or rate limit
      */
     public static void validateTriviaResponse(TreeNode root) {
+        if (root.get(ApiConstants.FIELD_RESPONSE_CODE) instanceof JsonNode responseCode && responseCode.isInt()) {
+            validateResponseCode(responseCode.intValue());
+        }
+
         if (root.get("results") == null) {
-            throw new TriviaParseException("required field (results) not found in trivia response");
+            throw missingResults();
         }
 
         if (!root.get("results").isArray()) {
-            throw new TriviaParseException("field (results) is not an array in trivia response");
+            throw resultsNotArray();
         }
     }
 }
@@ -0,0 +1,157 @@
+package com.quadexercise.quad.utils;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Utility class for generating compact question IDs.
+ * An ID is a positive 64-bit value laid out as milliseconds since 2024-01-01 (41 bits),
+ * a per-millisecond sequence (12 bits) and a node number (10 bits). The node bits are
+ * lowest, so an ID is normally produced by one atomic add and a sequence overflow simply
+ * borrows from the next millisecond instead of colliding. When the counter has fallen
+ * behind the clock it is moved forward, so the embedded time stays close to real time.
+ * IDs are rendered as 11 URL-safe base64 characters.
+ */
+public enum QuestionIds {
+    ;
+
+    public static final int ENCODED_LENGTH = 11;
+
+    private static final long EPOCH_MS = 1_704_067_200_000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIME_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1L;
+    private static final long INCREMENT = 1L << NODE_BITS;
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+
+    private static final int NODE = resolveNode();
+    private static final AtomicLong NEXT =
+            new AtomicLong((System.currentTimeMillis() - EPOCH_MS) << TIME_SHIFT | NODE);
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    /**
+     * Reads the node number from the trivia.node-id system property or the
+     * TRIVIA_NODE_ID environment variable, falling back to a random node.
+     */
+    private static int resolveNode() {
+        String configured = System.getProperty("trivia.node-id", System.getenv("TRIVIA_NODE_ID"));
+        if (configured != null && !configured.isBlank()) {
+            return (int) (Long.parseLong(configured.trim()) & NODE_MASK);
+        }
+        return new SecureRandom().nextInt(1 << NODE_BITS);
+    }
+
+    /**
+     * Generates the next question ID for this node.
+     *
+     * @return A unique positive ID
+     */
+    public static long next() {
+        long id = NEXT.getAndAdd(INCREMENT);
+        long floor = (System.currentTimeMillis() - EPOCH_MS) << TIME_SHIFT | NODE;
+        if (id >= floor) {
+            return id;
+        }
+
+        // Counter lags the clock, move it up to now; every ID handed out so far is below floor
+        while (true) {
+            long current = NEXT.get();
+            if (current > floor) {
+                return NEXT.getAndAdd(INCREMENT);
+            }
+            if (NEXT.compareAndSet(current, floor + INCREMENT)) {
+                return floor;
+            }
+        }
+    }
+
+    /**
+     * Moves the counter past an ID issued by another process, such as the one this process took over from,
+     * so that IDs issued here sort after it and can't repeat it even if both processes have the same node.
+     *
+     * @param id The ID issued elsewhere
+     */
+    public static void advancePast(long id) {
+        NEXT.accumulateAndGet(((id >>> NODE_BITS) + 1L) << NODE_BITS | NODE, Math::max);
+    }
+
+    /**
+     * Generates the next question ID rendered as a string.
+     *
+     * @return An 11 character URL-safe ID
+     */
+    public static String nextString() {
+        return encode(next());
+    }
+
+    /**
+     * Renders an ID as 11 URL-safe base64 characters, most significant bits first.
+     *
+     * @param id The ID to render
+     * @return The encoded ID
+     */
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        long remaining = id;
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (remaining & 63L)];
+            remaining >>>= 6;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Parses an ID rendered by {@link #encode(long)}.
+     *
+     * @param encoded The encoded ID
+     * @return The ID
+     * @throws IllegalArgumentException if the string is not a valid encoded ID
+     */
+    public static long decode(String encoded) {
+        if (encoded == null || encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Invalid question ID: " + encoded);
+        }
+        // The first character only carries the top 4 bits
+        long id = 0L;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = encoded.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0 || (i == 0 && value >= 16)) {
+                throw new IllegalArgumentException("Invalid question ID: " + encoded);
+            }
+            id = (id << 6) | value;
+        }
+        return id;
+    }
+
+    /**
+     * Gets the node number embedded in an ID.
+     *
+     * @param id The ID
+     * @return The node number
+     */
+    public static int nodeOf(long id) {
+        return (int) (id & NODE_MASK);
+    }
+
+    /**
+     * Gets the approximate creation time embedded in an ID.
+     *
+     * @param id The ID
+     * @return Epoch milliseconds at which the ID was generated
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIME_SHIFT) + EPOCH_MS;
+    }
+}
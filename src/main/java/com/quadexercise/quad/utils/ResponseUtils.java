@@ -1,8 +1,16 @@
 package com.quadexercise.quad.utils;
 
+import com.quadexercise.quad.exceptions.TriviaCircuitOpenException;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
+import com.quadexercise.quad.exceptions.TriviaParseException;
+import com.quadexercise.quad.exceptions.TriviaResponseCodeException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.concurrent.CompletionException;
+
 /**
  * Utility class for creating standardized HTTP responses.
  * Consolidates response creation logic to improve consistency and reduce duplication.
@@ -21,6 +29,20 @@ public enum ResponseUtils {
                         ApiConstants.ERROR_SERVICE_UNAVAILABLE));
     }
 
+    /**
+     * Create a response indicating that the service is temporarily unavailable,
+     * telling the client when to try again.
+     *
+     * @param retryAfterSeconds Seconds the client should wait before retrying
+     * @return ResponseEntity with 503 status, a Retry-After header and appropriate error message
+     */
+    public static ResponseEntity<Object> createUnavailableResponse(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(String.format(ApiConstants.ERROR_FORMAT,
+                        ApiConstants.ERROR_SERVICE_UNAVAILABLE));
+    }
+
     /**
      * Create a response for internal server errors.
      *
@@ -53,6 +75,17 @@ public enum ResponseUtils {
                         ApiConstants.ERROR_PARSING_DATA));
     }
 
+    /**
+     * Create a response for requests that could not be answered before their deadline.
+     *
+     * @return ResponseEntity with 504 status and appropriate error message
+     */
+    public static ResponseEntity<Object> createGatewayTimeoutResponse() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(String.format(ApiConstants.ERROR_FORMAT,
+                        ApiConstants.ERROR_DEADLINE_EXCEEDED));
+    }
+
     /**
      * Create a response for client request errors with a custom message.
      *
@@ -63,4 +96,44 @@ public enum ResponseUtils {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(String.format(ApiConstants.ERROR_FORMAT, message));
     }
+
+    /**
+     * Create a response for requests that clash with an operation already in progress.
+     *
+     * @param message Custom error message to include in the response
+     * @return ResponseEntity with 409 status and the provided error message
+     */
+    public static ResponseEntity<Object> createConflictResponse(String message) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(String.format(ApiConstants.ERROR_FORMAT, message));
+    }
+
+    /**
+     * Create the response for a question request that failed, e.g. 503 with Retry-After when
+     * admission control turned it away, or 504 when its deadline passed.
+     *
+     * @param failure Why the questions could not be served, possibly wrapped in a CompletionException
+     * @return ResponseEntity with the status matching the failure and appropriate error message
+     */
+    public static ResponseEntity<Object> createQuestionsErrorResponse(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof TriviaOverloadedException overloaded) {
+            return createUnavailableResponse(overloaded.getRetryAfterSeconds());
+        }
+        if (cause instanceof TriviaDeadlineExceededException) {
+            return createGatewayTimeoutResponse();
+        }
+        if (cause instanceof IllegalStateException || cause instanceof TriviaCircuitOpenException) {
+            return createUnavailableResponse();
+        }
+        if (cause instanceof TriviaResponseCodeException responseCode) {
+            return responseCode.isRateLimited() ? createUnavailableResponse() : createBadGatewayResponse();
+        }
+        if (cause instanceof TriviaParseException) {
+            return createBadGatewayResponse();
+        }
+        return createErrorResponse();
+    }
 }
@@ -0,0 +1,157 @@
+package com.quadexercise.quad.utils;
+
+/**
+ * Per-request stage durations for the Server-Timing response header.
+ * One instance belongs to one request and is only written by whichever thread is
+ * currently working on that request, handing over through future completion, so
+ * it needs no synchronization. Durations are accumulated in a fixed array and the
+ * header is only formatted once, when the response is written.
+ */
+public final class ServerTiming {
+
+    /**
+     * The stages reported in the header, in reporting order.
+     */
+    public enum Stage {
+        RATE_LIMIT("rateLimit"),
+        FETCH("fetchTrivia"),
+        PARSE("parseQuestions"),
+        REGISTER("registerAnswers"),
+        GRADE("gradeAnswers"),
+        RENDER("render");
+
+        private final String _metricName;
+
+        Stage(String metricName) {
+            _metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return _metricName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final long NANOS_PER_TENTH_MS = 100_000L;
+    // Returned when no request is bound, so callers never need a null check
+    private static final ServerTiming DISABLED = new ServerTiming(false);
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final boolean _enabled;
+    private final long _startNanos;
+    private final long[] _stageNanos = new long[STAGES.length];
+    private int _recorded;
+    private long _renderStartNanos;
+
+    public ServerTiming() {
+        this(true);
+    }
+
+    private ServerTiming(boolean enabled) {
+        _enabled = enabled;
+        _startNanos = enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Gets the timing bound to the current thread.
+     *
+     * @return The bound timing, or a disabled instance that ignores all recording
+     */
+    public static ServerTiming current() {
+        ServerTiming timing = CURRENT.get();
+        return timing != null ? timing : DISABLED;
+    }
+
+    /**
+     * Binds a timing to the current thread while it works on the timing's request.
+     *
+     * @param timing The request's timing
+     */
+    public static void bind(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    /**
+     * Adds time spent in a stage.
+     *
+     * @param stage The stage
+     * @param nanos The time spent, ignored if negative
+     */
+    public void add(Stage stage, long nanos) {
+        if (!_enabled || nanos < 0L) {
+            return;
+        }
+        _stageNanos[stage.ordinal()] += nanos;
+        _recorded |= 1 << stage.ordinal();
+    }
+
+    /**
+     * Adds every stage recorded by another timing, e.g. one shared by a batch of requests.
+     *
+     * @param other The timing to copy from
+     */
+    public void addAll(ServerTiming other) {
+        for (Stage stage : STAGES) {
+            if ((other._recorded & 1 << stage.ordinal()) != 0) {
+                add(stage, other._stageNanos[stage.ordinal()]);
+            }
+        }
+    }
+
+    public long getNanos(Stage stage) {
+        return _stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * Marks the moment the handler result starts being written out.
+     * Only the first mark counts, so a later, coarser hook can't shorten the stage.
+     */
+    public void markRenderStart() {
+        if (_enabled && _renderStartNanos == 0L) {
+            _renderStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the render stage as the time since {@link #markRenderStart()}, if it was marked.
+     */
+    public void endRender() {
+        if (_renderStartNanos != 0L) {
+            add(Stage.RENDER, System.nanoTime() - _renderStartNanos);
+            _renderStartNanos = 0L;
+        }
+    }
+
+    /**
+     * Formats the recorded stages and the total time since this timing was created.
+     *
+     * @return Header value such as "rateLimit;dur=4999.8, fetchTrivia;dur=120.4, total;dur=5124.0"
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder(128);
+        for (Stage stage : STAGES) {
+            if ((_recorded & 1 << stage.ordinal()) != 0) {
+                appendMetric(header, stage.getMetricName(), _stageNanos[stage.ordinal()]);
+            }
+        }
+        appendMetric(header, "total", System.nanoTime() - _startNanos);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        // Milliseconds with one decimal, without going through String.format
+        long tenths = nanos / NANOS_PER_TENTH_MS;
+        header.append(name).append(";dur=").append(tenths / 10L).append('.').append(tenths % 10L);
+    }
+}
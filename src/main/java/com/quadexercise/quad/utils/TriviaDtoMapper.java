@@ -28,24 +28,49 @@ public enum TriviaDtoMapper {
     (JsonNode resultNode, Map<? super String, ? super String> questionAnswers) {
         JsonValidator.validateResultNode(resultNode);
 
+        return createQuestionDto(
+                resultNode.get("category").asText(),
+                resultNode.get("type").asText(),
+                resultNode.get("difficulty").asText(),
+                resultNode.get("question").asText(),
+                resultNode.get("correct_answer").asText(),
+                getIncorrectAnswersFromNode(resultNode),
+                questionAnswers);
+    }
+
+    /**
+     * Creates a QuestionDTO from already extracted question fields.
+     *
+     * @param category         The question category
+     * @param type             The question type
+     * @param difficulty       The question difficulty
+     * @param question         The question text
+     * @param correctAnswer    The correct answer
+     * @param incorrectAnswers The incorrect answers
+     * @param questionAnswers  Map to store question ID to correct answer mappings
+     * @return A fully populated QuestionDTO
+     */
+    public static QuestionDTO createQuestionDto(
+            String category,
+            String type,
+            String difficulty,
+            String question,
+            String correctAnswer,
+            List<String> incorrectAnswers,
+            Map<? super String, ? super String> questionAnswers) {
         QuestionDTO questionDTO = new QuestionDTO();
 
         // Set question properties
-        questionDTO.setCategory(resultNode.get("category").asText());
-        questionDTO.setType(resultNode.get("type").asText());
-        questionDTO.setDifficulty(resultNode.get("difficulty").asText());
-        questionDTO.setQuestion(resultNode.get("question").asText());
-
-        // Get correct answer and prepare all answers
-        String correctAnswer = resultNode.get("correct_answer").asText();
-
-        // Get incorrect answers
-        List<String> incorrectAnswers = getIncorrectAnswersFromNode(resultNode);
+        questionDTO.setCategory(category);
+        questionDTO.setType(type);
+        questionDTO.setDifficulty(difficulty);
+        questionDTO.setQuestion(question);
 
         // Add all answers and shuffle
-        List<String> allAnswers = new ArrayList<>(incorrectAnswers);
+        List<String> allAnswers = new ArrayList<>(incorrectAnswers.size() + 1);
+        allAnswers.addAll(incorrectAnswers);
         allAnswers.add(correctAnswer);
-        allAnswers = shuffleAnswers(allAnswers);
+        Collections.shuffle(allAnswers);
         questionDTO.setAnswers(allAnswers);
 
         // Store the correct answer mapped to the question ID
@@ -67,16 +92,4 @@ public enum TriviaDtoMapper {
                 .map(JsonNode::asText)
                 .toList();
     }
-
-    /**
-     * Shuffles a list of answers to randomize their order.
-     *
-     * @param answers List of answers to shuffle
-     * @return New list with shuffled answers
-     */
-    private static List<String> shuffleAnswers(List<String> answers) {
-        List<String> shuffled = new ArrayList<>(answers);
-        Collections.shuffle(shuffled);
-        return shuffled;
-    }
 }
@@ -0,0 +1,166 @@
+package com.quadexercise.quad.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaParseException;
+import com.quadexercise.quad.exceptions.TriviaResponseCodeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for reading trivia API responses in a single streaming pass.
+ * Builds question objects directly from parser tokens instead of an intermediate tree,
+ * applying the same validation rules as {@link JsonValidator}.
+ */
+@SuppressWarnings("DuplicateStringLiteralInspection")
+public enum TriviaJsonStreamReader {
+    ;
+
+    private static final String[] REQUIRED_FIELDS = {
+            "category", "type", "difficulty", "question", "correct_answer", "incorrect_answers"
+    };
+    private static final int CATEGORY = 0;
+    private static final int TYPE = 1;
+    private static final int DIFFICULTY = 2;
+    private static final int QUESTION = 3;
+    private static final int CORRECT_ANSWER = 4;
+    private static final int INCORRECT_ANSWERS = 5;
+    private static final int ALL_FIELDS = (1 << REQUIRED_FIELDS.length) - 1;
+
+    /**
+     * Reads a full trivia API response and creates a QuestionDTO per result.
+     *
+     * @param parser          Parser positioned before the root token
+     * @param questionAnswers Map to store question ID to correct answer mappings
+     * @return List of parsed QuestionDTO objects
+     * @throws IOException          if the underlying JSON is malformed or can't be read
+     * @throws TriviaParseException        if the response structure is invalid
+     * @throws TriviaResponseCodeException if the API reported an error or rate limit
+     */
+    public static List<QuestionDTO> readQuestions(
+            JsonParser parser,
+            Map<? super String, ? super String> questionAnswers) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw JsonValidator.missingResults();
+        }
+
+        List<QuestionDTO> questions = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("results".equals(field)) {
+                if (value != JsonToken.START_ARRAY) {
+                    throw JsonValidator.resultsNotArray();
+                }
+                questions = readResults(parser, questionAnswers);
+            } else if (ApiConstants.FIELD_RESPONSE_CODE.equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                // opentdb sends the code first, so an error or rate limit stops before any results are read
+                JsonValidator.validateResponseCode(parser.getIntValue());
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (questions == null) {
+            throw JsonValidator.missingResults();
+        }
+        return questions;
+    }
+
+    private static List<QuestionDTO> readResults(
+            JsonParser parser,
+            Map<? super String, ? super String> questionAnswers) throws IOException {
+        List<QuestionDTO> questions = new ArrayList<>(ApiConstants.MAX_BATCH_SIZE);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw JsonValidator.missingField(REQUIRED_FIELDS[CATEGORY]);
+            }
+            questions.add(readResult(parser, questionAnswers));
+        }
+        return questions;
+    }
+
+    private static QuestionDTO readResult(
+            JsonParser parser,
+            Map<? super String, ? super String> questionAnswers) throws IOException {
+        String[] values = new String[INCORRECT_ANSWERS];
+        List<String> incorrectAnswers = List.of();
+        int present = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int index = fieldIndex(parser.currentName());
+            JsonToken value = parser.nextToken();
+            if (index == INCORRECT_ANSWERS) {
+                incorrectAnswers = readTextValues(parser, value);
+                present |= 1 << index;
+            } else if (0 <= index) {
+                values[index] = readText(parser, value);
+                present |= 1 << index;
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (present != ALL_FIELDS) {
+            for (int i = 0; i < REQUIRED_FIELDS.length; i++) {
+                if ((present & (1 << i)) == 0) {
+                    throw JsonValidator.missingField(REQUIRED_FIELDS[i]);
+                }
+            }
+        }
+
+        return TriviaDtoMapper.createQuestionDto(
+                values[CATEGORY],
+                values[TYPE],
+                values[DIFFICULTY],
+                values[QUESTION],
+                values[CORRECT_ANSWER],
+                incorrectAnswers,
+                questionAnswers);
+    }
+
+    private static int fieldIndex(String field) {
+        for (int i = 0; i < REQUIRED_FIELDS.length; i++) {
+            if (REQUIRED_FIELDS[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a value as text the same way JsonNode.asText does:
+     * scalars become their text and containers become an empty string.
+     */
+    private static String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Reads the elements of an array or the values of an object as text.
+     * Any scalar yields an empty list.
+     */
+    private static List<String> readTextValues(JsonParser parser, JsonToken value) throws IOException {
+        if (!value.isStructStart()) {
+            return List.of();
+        }
+        List<String> texts = new ArrayList<>(3);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT) {
+            if (token == JsonToken.FIELD_NAME) {
+                continue;
+            }
+            texts.add(readText(parser, token));
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,55 @@
+package com.quadexercise.quad.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Utility class for creating virtual-thread executors when the runtime supports them.
+ * The code base targets Java 17, so the Java 21 factory is looked up reflectively
+ * and callers fall back to platform threads on older runtimes.
+ */
+public enum VirtualThreads {
+    ;
+
+    private static final MethodHandle NEW_EXECUTOR = findExecutorFactory();
+
+    private static MethodHandle findExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     *
+     * @return true on Java 21 or newer
+     */
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @return A virtual-thread-per-task executor
+     * @throws IllegalStateException if the runtime does not support virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads require Java 21 or newer");
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
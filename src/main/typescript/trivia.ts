@@ -2,12 +2,14 @@
 interface Answer {
     questionId: string;
     selectedAnswer: string;
+    selectedIndex: number;
 }
 
 interface AnswerResult {
     questionId: string;
     correct: boolean;
-    correctAnswer: string;
+    correctAnswer: string | null;
+    correctIndex: number | null;
 }
 
 document.addEventListener('DOMContentLoaded', function () {
@@ -35,7 +37,8 @@ document.addEventListener('DOMContentLoaded', function () {
             if (selectedOption) {
                 answers.push({
                     questionId: questionId,
-                    selectedAnswer: selectedOption.value
+                    selectedAnswer: selectedOption.value,
+                    selectedIndex: Number(selectedOption.dataset.index)
                 });
             } else {
                 allAnswered = false;
@@ -66,6 +69,16 @@ document.addEventListener('DOMContentLoaded', function () {
                 return response.json();
             })
             .then((results: AnswerResult[]) => {
+                // Servers that only keep the answer index leave the text for us to fill in
+                results.forEach(result => {
+                    if (result.correctAnswer == null && result.correctIndex != null) {
+                        const correctOption = document.querySelector(
+                            `input[name="question-${result.questionId}"][data-index="${result.correctIndex}"]`
+                        ) as HTMLInputElement | null;
+                        result.correctAnswer = correctOption?.value ?? '';
+                    }
+                });
+
                 // Store results in sessionStorage for the results page
                 sessionStorage.setItem('triviaResults', JSON.stringify(results));
                 window.location.href = '/results';
@@ -0,0 +1,182 @@
+package com.quadexercise.quad.client;
+
+import com.quadexercise.quad.dto.UpstreamMetricsDTO;
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPOutputStream;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class JdkHttpTriviaUpstreamClientTest {
+
+    private HttpServer _server;
+    private UpstreamClientMetrics _metrics;
+    private JdkHttpTriviaUpstreamClient _client;
+    private String _baseUrl;
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        _server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        _server.createContext("/plain", exchange -> {
+            byte[] body = VALID_QUESTION_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        _server.createContext("/gzip", exchange -> {
+            byte[] body = gzip(VALID_QUESTION_JSON);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        _server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        _server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(LARGE_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        _server.createContext("/stall", exchange -> {
+            byte[] body = VALID_QUESTION_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body, 0, body.length / 2);
+            exchange.getResponseBody().flush();
+            try {
+                Thread.sleep(LARGE_DELAY_MS * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        _server.start();
+        _baseUrl = "http://localhost:" + _server.getAddress().getPort();
+
+        _metrics = new UpstreamClientMetrics("jdk");
+        _client = new JdkHttpTriviaUpstreamClient(
+                Duration.ofMillis(LARGE_DELAY_MS),
+                Duration.ofMillis(SMALL_DELAY_MS * 3L),
+                Duration.ofMillis(LARGE_DELAY_MS),
+                _metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        _server.stop(0);
+    }
+
+    @Test
+    void testFetch_ReturnsBodyAndRecordsPhases() {
+        // Act
+        String body = _client.fetch(_baseUrl + "/plain").join();
+
+        // Assert
+        assertEquals(VALID_QUESTION_JSON, body);
+        UpstreamMetricsDTO snapshot = _metrics.getSnapshot();
+        assertEquals(1L, snapshot.getRequests());
+        assertEquals(0L, snapshot.getFailures());
+        assertTrue(0L < snapshot.getBytesReceived());
+        assertTrue(0.0 < snapshot.getMeanTotalMs());
+    }
+
+    @Test
+    void testFetch_DecodesGzipBody() {
+        // Act
+        String body = _client.fetch(_baseUrl + "/gzip").join();
+
+        // Assert
+        assertEquals(VALID_QUESTION_JSON, body);
+    }
+
+    @Test
+    void testFetchStream_DecodesGzipBody() throws IOException {
+        // Act
+        try (InputStream stream = _client.fetchStream(_baseUrl + "/gzip").join()) {
+
+            // Assert
+            assertEquals(VALID_QUESTION_JSON, new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testFetchStream_RecordsBodyAsItIsRead() throws IOException {
+        // Act
+        try (InputStream stream = _client.fetchStream(_baseUrl + "/plain").join()) {
+            stream.readAllBytes();
+        }
+
+        // Assert
+        UpstreamMetricsDTO snapshot = _metrics.getSnapshot();
+        assertEquals(1L, snapshot.getRequests());
+        assertEquals(0L, snapshot.getFailures());
+        assertEquals(VALID_QUESTION_JSON.getBytes(StandardCharsets.UTF_8).length, snapshot.getBytesReceived());
+    }
+
+    @Test
+    void testFetchStream_StalledBodyFailsAtDeadline() throws IOException {
+        // Arrange
+        long start = System.nanoTime();
+
+        // Act
+        try (InputStream stream = _client.fetchStream(_baseUrl + "/stall").join()) {
+            assertThrows(IOException.class, stream::readAllBytes);
+        }
+
+        // Assert
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(LARGE_DELAY_MS * 2L).toNanos(),
+                "Body read should stop at the total deadline");
+        UpstreamMetricsDTO snapshot = _metrics.getSnapshot();
+        assertEquals(1L, snapshot.getFailures());
+        assertEquals(1L, snapshot.getTimeouts());
+    }
+
+    @Test
+    void testFetch_NonSuccessStatusFails() {
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> _client.fetch(_baseUrl + "/error").join());
+
+        // Assert
+        assertInstanceOf(TriviaUpstreamException.class, exception.getCause());
+        assertEquals(1L, _metrics.getSnapshot().getFailures());
+    }
+
+    @Test
+    void testFetch_ReadDeadlineIsEnforced() {
+        // Act
+        assertThrows(CompletionException.class, () -> _client.fetch(_baseUrl + "/slow").join());
+
+        // Assert
+        UpstreamMetricsDTO snapshot = _metrics.getSnapshot();
+        assertEquals(1L, snapshot.getFailures());
+        assertEquals(1L, snapshot.getTimeouts());
+    }
+}
@@ -0,0 +1,55 @@
+package com.quadexercise.quad.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestTemplateTriviaUpstreamClientTest {
+
+    @Mock
+    private RestTemplate _restTemplate;
+
+    @Test
+    void testFetch_ReturnsCompletedFuture() {
+        // Arrange
+        UpstreamClientMetrics metrics = new UpstreamClientMetrics("resttemplate");
+        RestTemplateTriviaUpstreamClient client = new RestTemplateTriviaUpstreamClient(_restTemplate, metrics);
+        when(_restTemplate.getForObject(EXPECTED_API_URL, String.class)).thenReturn(EMPTY_RESPONSE);
+
+        // Act
+        CompletableFuture<String> result = client.fetch(EXPECTED_API_URL);
+
+        // Assert
+        assertTrue(result.isDone());
+        assertEquals(EMPTY_RESPONSE, result.join());
+        assertEquals(1L, metrics.getSnapshot().getRequests());
+    }
+
+    @Test
+    void testFetch_FailureCompletesExceptionally() {
+        // Arrange
+        UpstreamClientMetrics metrics = new UpstreamClientMetrics("resttemplate");
+        RestTemplateTriviaUpstreamClient client = new RestTemplateTriviaUpstreamClient(_restTemplate, metrics);
+        when(_restTemplate.getForObject(EXPECTED_API_URL, String.class))
+                .thenThrow(new RestClientException("API Error"));
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> client.fetch(EXPECTED_API_URL).join());
+
+        // Assert
+        assertInstanceOf(RestClientException.class, exception.getCause());
+        assertEquals(1L, metrics.getSnapshot().getFailures());
+    }
+}
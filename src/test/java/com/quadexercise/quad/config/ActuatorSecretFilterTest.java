@@ -0,0 +1,86 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.controller.AdminController;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class ActuatorSecretFilterTest {
+
+    private static final String ADMIN_SECRET = "admin-secret";
+    private static final String PROMETHEUS_PATH = "/admin/prometheus";
+
+    private static MockFilterChain filter(String secret, MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        new ActuatorSecretFilter("/admin", secret).doFilter(request, response, chain);
+        return chain;
+    }
+
+    @Test
+    void testPrometheus_DisabledWithoutConfiguredSecret() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PROMETHEUS_PATH);
+        request.addHeader(AdminController.SECRET_HEADER, ADMIN_SECRET);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        MockFilterChain chain = filter("", request, response);
+
+        // Assert
+        assertEquals(404, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testPrometheus_RefusesWrongSecret() throws Exception {
+        // Arrange
+        MockHttpServletRequest wrong = new MockHttpServletRequest("GET", PROMETHEUS_PATH);
+        wrong.addHeader(AdminController.SECRET_HEADER, "guess");
+        MockHttpServletResponse wrongResponse = new MockHttpServletResponse();
+        MockHttpServletRequest missing = new MockHttpServletRequest("GET", PROMETHEUS_PATH);
+        MockHttpServletResponse missingResponse = new MockHttpServletResponse();
+
+        // Act
+        MockFilterChain wrongChain = filter(ADMIN_SECRET, wrong, wrongResponse);
+        MockFilterChain missingChain = filter(ADMIN_SECRET, missing, missingResponse);
+
+        // Assert
+        assertEquals(403, wrongResponse.getStatus());
+        assertNull(wrongChain.getRequest());
+        assertEquals(403, missingResponse.getStatus());
+        assertNull(missingChain.getRequest());
+    }
+
+    @Test
+    void testPrometheus_ServedWithSecret() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PROMETHEUS_PATH);
+        request.addHeader(AdminController.SECRET_HEADER, ADMIN_SECRET);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        MockFilterChain chain = filter(ADMIN_SECRET, request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void testTriviaEndpoints_PassWithoutSecret() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/questions");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        MockFilterChain chain = filter(ADMIN_SECRET, request, response);
+
+        // Assert
+        assertSame(request, chain.getRequest());
+    }
+}
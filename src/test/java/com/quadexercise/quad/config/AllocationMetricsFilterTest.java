@@ -0,0 +1,108 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.controller.TriviaController;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.ITriviaService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class AllocationMetricsFilterTest {
+
+    @Mock
+    private ITriviaService _triviaService;
+
+    private MeterRegistry _registry;
+
+    @BeforeEach
+    void setUp() {
+        _registry = new SimpleMeterRegistry();
+    }
+
+    private MockMvc createMockMvc(boolean enabled) {
+        return MockMvcBuilders
+                .standaloneSetup(new TriviaController(_triviaService))
+                .addFilters(new AllocationMetricsFilter(enabled, _registry))
+                .build();
+    }
+
+    @Test
+    void testCheckAnswers_RecordsAllocatedBytes() throws Exception {
+        // Arrange
+        when(_triviaService.checkAnswers(anyCollection())).thenReturn(List.of(new AnswerResultDTO()));
+
+        // Act
+        createMockMvc(true).perform(post("/checkanswers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk());
+
+        // Assert
+        DistributionSummary summary = allocated("/checkanswers");
+        assertEquals(1L, summary.count());
+        assertTrue(summary.totalAmount() > 0.0);
+    }
+
+    @Test
+    void testGetQuestions_RecordsAsyncRequestOnce() throws Exception {
+        // Arrange
+        CompletableFuture<List<QuestionDTO>> questions = new CompletableFuture<>();
+        when(_triviaService.getQuestionsAsync(eq(5), any())).thenReturn(questions);
+        MockMvc mockMvc = createMockMvc(true);
+        MvcResult result = mockMvc.perform(get("/questions"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        questions.complete(List.of(new QuestionDTO()));
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        // Assert
+        assertEquals(1L, allocated("/questions").count());
+    }
+
+    @Test
+    void testCheckAnswers_NoMetricsWhenDisabled() throws Exception {
+        // Arrange
+        when(_triviaService.checkAnswers(anyCollection())).thenReturn(List.of());
+
+        // Act
+        createMockMvc(false).perform(post("/checkanswers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertNull(_registry.find(AllocationMetricsFilter.ALLOCATED_BYTES).summary());
+    }
+
+    private DistributionSummary allocated(String uri) {
+        return _registry.find(AllocationMetricsFilter.ALLOCATED_BYTES).tag("uri", uri).summary();
+    }
+}
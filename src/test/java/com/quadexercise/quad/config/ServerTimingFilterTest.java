@@ -0,0 +1,101 @@
+package com.quadexercise.quad.config;
+
+import com.quadexercise.quad.controller.TriviaController;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.ITriviaService;
+import com.quadexercise.quad.utils.ServerTiming;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class ServerTimingFilterTest {
+
+    @Mock
+    private ITriviaService _triviaService;
+
+    private MockMvc createMockMvc(boolean enabled) {
+        return MockMvcBuilders
+                .standaloneSetup(new TriviaController(_triviaService))
+                .setControllerAdvice(new ServerTimingBodyAdvice())
+                .addFilters(new ServerTimingFilter(enabled))
+                .build();
+    }
+
+    @Test
+    void testCheckAnswers_ReportsStagesRecordedOnTheRequestThread() throws Exception {
+        // Arrange
+        when(_triviaService.checkAnswers(anyCollection())).thenAnswer(invocation -> {
+            ServerTiming.current().add(ServerTiming.Stage.GRADE, 1_500_000L);
+            return List.of(new AnswerResultDTO());
+        });
+
+        // Act & Assert
+        createMockMvc(true).perform(post("/checkanswers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("gradeAnswers;dur=1.5")))
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("render;dur=")))
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("total;dur=")));
+    }
+
+    @Test
+    void testGetQuestions_ReportsStagesRecordedByThePipeline() throws Exception {
+        // Arrange
+        CompletableFuture<List<QuestionDTO>> questions = new CompletableFuture<>();
+        ServerTiming[] requestTiming = new ServerTiming[1];
+        when(_triviaService.getQuestionsAsync(eq(5), any())).thenAnswer(invocation -> {
+            requestTiming[0] = ServerTiming.current();
+            return questions;
+        });
+        MockMvc mockMvc = createMockMvc(true);
+        MvcResult result = mockMvc.perform(get("/questions"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act, recording as the pipeline does once the upstream call completes
+        requestTiming[0].add(ServerTiming.Stage.FETCH, 120_000_000L);
+        questions.complete(List.of());
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("fetchTrivia;dur=120.0")));
+    }
+
+    @Test
+    void testCheckAnswers_NoHeaderWhenDisabled() throws Exception {
+        // Arrange
+        when(_triviaService.checkAnswers(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        createMockMvc(false).perform(post("/checkanswers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.HEADER));
+    }
+}
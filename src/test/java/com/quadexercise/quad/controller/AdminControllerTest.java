@@ -0,0 +1,98 @@
+package com.quadexercise.quad.controller;
+
+import com.quadexercise.quad.client.UpstreamClientMetrics;
+import com.quadexercise.quad.dto.AnswerStoreStatsDTO;
+import com.quadexercise.quad.dto.QuestionPoolStatsDTO;
+import com.quadexercise.quad.service.JfrRecordingService;
+import com.quadexercise.quad.service.TriviaAnswerService;
+import com.quadexercise.quad.service.TriviaQuestionPoolService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    private static final String ADMIN_SECRET = "admin-secret";
+
+    @Mock
+    private TriviaQuestionPoolService _questionPool;
+
+    @Mock
+    private UpstreamClientMetrics _upstreamMetrics;
+
+    @Mock
+    private TriviaAnswerService _answerService;
+
+    @Mock
+    private JfrRecordingService _jfrRecordingService;
+
+    private AdminController createController(String secret) {
+        return new AdminController(_questionPool, _upstreamMetrics, _answerService, _jfrRecordingService, secret);
+    }
+
+    @Test
+    void testGetPoolStats_DisabledWithoutConfiguredSecret() {
+        // Arrange
+        AdminController controller = createController("");
+
+        // Act
+        ResponseEntity<QuestionPoolStatsDTO> response = controller.getPoolStats(ADMIN_SECRET);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(_questionPool);
+    }
+
+    @Test
+    void testGetAnswerStoreStats_RefusesWrongSecret() {
+        // Arrange
+        AdminController controller = createController(ADMIN_SECRET);
+
+        // Act
+        ResponseEntity<AnswerStoreStatsDTO> wrong = controller.getAnswerStoreStats("guess");
+        ResponseEntity<AnswerStoreStatsDTO> missing = controller.getAnswerStoreStats(null);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, wrong.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, missing.getStatusCode());
+        verifyNoInteractions(_answerService);
+    }
+
+    @Test
+    void testGetAnswerStoreStats_ServedWithSecret() {
+        // Arrange
+        AnswerStoreStatsDTO stats = new AnswerStoreStatsDTO();
+        when(_answerService.getStats()).thenReturn(stats);
+        AdminController controller = createController(ADMIN_SECRET);
+
+        // Act
+        ResponseEntity<AnswerStoreStatsDTO> response = controller.getAnswerStoreStats(ADMIN_SECRET);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void testCaptureJfr_RefusedWithoutSecretStartsNoRecording() {
+        // Arrange
+        AdminController controller = createController(ADMIN_SECRET);
+
+        // Act
+        DeferredResult<ResponseEntity<Object>> result = controller.captureJfr(null, 300L, "profile");
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, ((ResponseEntity<?>) result.getResult()).getStatusCode());
+        verifyNoInteractions(_jfrRecordingService);
+    }
+}
@@ -5,36 +5,54 @@ import com.quadexercise.quad.dto.AnswerDTO;
 import com.quadexercise.quad.dto.AnswerResultDTO;
 import com.quadexercise.quad.dto.QuestionDTO;
 import com.quadexercise.quad.exceptions.QuestionNotFoundException;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
 import com.quadexercise.quad.exceptions.TriviaParseException;
 import com.quadexercise.quad.exceptions.TriviaServiceException;
+import com.quadexercise.quad.exceptions.UnsupportedAnswerException;
 import com.quadexercise.quad.interfaces.ITriviaService;
+import com.quadexercise.quad.utils.ApiConstants;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.quadexercise.quad.testutilities.TestConstants.*;
 import static com.quadexercise.quad.testutilities.TestDataFactory.*;
 import static java.lang.Thread.interrupted;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SuppressWarnings("DuplicateStringLiteralInspection")
@@ -44,7 +62,6 @@ class TriviaControllerTest {
     @Mock
     private ITriviaService _triviaService;
 
-    @InjectMocks
     private TriviaController _triviaController;
 
     private MockMvc _mockMvc;
@@ -52,22 +69,30 @@ class TriviaControllerTest {
 
     @BeforeEach
     void setUp() {
+        _triviaController = new TriviaController(_triviaService);
         _mockMvc = MockMvcBuilders
                 .standaloneSetup(_triviaController)
                 .build();
         _objectMapper = new ObjectMapper();
     }
 
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = _mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return _mockMvc.perform(asyncDispatch(result));
+    }
+
     // Questions endpoint tests
 
     @Test
     void testGetQuestions_ReturnsQuestionsList() throws Exception {
         // Arrange
         List<QuestionDTO> questions = createMockQuestions();
-        when(_triviaService.getQuestions(5)).thenReturn(questions);
+        when(_triviaService.getQuestionsAsync(eq(5), any())).thenReturn(CompletableFuture.completedFuture(questions));
 
         // Act & Assert
-        _mockMvc.perform(get("/questions"))
+        performAsync(get("/questions"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
@@ -76,20 +101,21 @@ class TriviaControllerTest {
     void testGetQuestions_AcceptsCustomAmount() throws Exception {
         // Arrange
         List<QuestionDTO> questions = createMockQuestions();
-        when(_triviaService.getQuestions(10)).thenReturn(questions);
+        when(_triviaService.getQuestionsAsync(eq(10), any())).thenReturn(CompletableFuture.completedFuture(questions));
 
         // Act & Assert
-        _mockMvc.perform(get("/questions").param("amount", "10"))
+        performAsync(get("/questions").param("amount", "10"))
                 .andExpect(status().isOk());
     }
 
     @Test
     void testGetQuestions_HandlesParseException() throws Exception {
         // Arrange
-        when(_triviaService.getQuestions(anyInt())).thenThrow(new TriviaParseException("Parse error"));
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TriviaParseException("Parse error")));
 
         // Act & Assert
-        _mockMvc.perform(get("/questions"))
+        performAsync(get("/questions"))
                 .andExpect(status().isBadGateway())
                 .andExpect(content().json(ERROR_PARSING_DATA));
     }
@@ -97,11 +123,23 @@ class TriviaControllerTest {
     @Test
     void testGetQuestions_HandlesRuntimeException() throws Exception {
         // Arrange
-        when(_triviaService.getQuestions(anyInt()))
-                .thenThrow(new RuntimeException("Unexpected error"));
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Unexpected error")));
 
         // Act & Assert
-        _mockMvc.perform(get("/questions"))
+        performAsync(get("/questions"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().json(ERROR_FETCH_TRIVIA));
+    }
+
+    @Test
+    void testGetQuestions_HandlesExceptionThrownBeforeFetching() throws Exception {
+        // Arrange
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenThrow(new IllegalArgumentException("Amount must be greater than zero"));
+
+        // Act & Assert
+        performAsync(get("/questions").param("amount", "0"))
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().json(ERROR_FETCH_TRIVIA));
     }
@@ -109,31 +147,110 @@ class TriviaControllerTest {
     @Test
     void testGetQuestions_HandlesInterruption() throws Exception {
         // Arrange
-        when(_triviaService.getQuestions(anyInt()))
-                .thenThrow(new IllegalStateException("Interrupted"));
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new CompletionException(new IllegalStateException("Interrupted"))));
 
         // Act & Assert
-        _mockMvc.perform(get("/questions"))
+        performAsync(get("/questions"))
                 .andExpect(status().is(HttpStatus.SERVICE_UNAVAILABLE.value()))
                 .andExpect(content().json(ERROR_SERVICE_UNAVAILABLE));
 
-        // Check thread interrupt status
-        assertTrue(interrupted(), "Thread should be interrupted");
+        // The failure is mapped on whichever thread completes the future, which must not be interrupted
+        assertFalse(interrupted(), "Thread should not be interrupted");
+    }
+
+    @Test
+    void testGetQuestions_OverloadedSetsRetryAfter() throws Exception {
+        // Arrange
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new TriviaOverloadedException("Concurrency limit of 20 reached", 3L)));
+
+        // Act & Assert
+        performAsync(get("/questions"))
+                .andExpect(status().is(HttpStatus.SERVICE_UNAVAILABLE.value()))
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(content().json(ERROR_SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void testGetQuestions_DeadlineExceededIsGatewayTimeout() throws Exception {
+        // Arrange
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new TriviaDeadlineExceededException("Slot comes too late")));
+
+        // Act & Assert
+        performAsync(get("/questions"))
+                .andExpect(status().is(HttpStatus.GATEWAY_TIMEOUT.value()))
+                .andExpect(content().json(ERROR_DEADLINE_EXCEEDED));
+    }
+
+    @Test
+    void testGetQuestions_PassesRequestTimeoutAsDeadline() throws Exception {
+        // Arrange
+        when(_triviaService.getQuestionsAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new ArrayList<>(0)));
+        long before = System.currentTimeMillis();
+
+        // Act
+        performAsync(get("/questions").header(ApiConstants.HEADER_REQUEST_TIMEOUT, "2000"))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(_triviaService).getQuestionsAsync(eq(5), argThat(deadline ->
+                deadline.isBounded() && deadline.getEpochMillis() - before <= 2_000L + LARGE_DELAY_MS));
     }
 
     @Test
     void testGetQuestions_DirectCall() {
         // Arrange
         List<QuestionDTO> mockQuestions = new ArrayList<>(0);
-        when(_triviaService.getQuestions(10)).thenReturn(mockQuestions);
+        when(_triviaService.getQuestionsAsync(eq(10), any())).thenReturn(CompletableFuture.completedFuture(mockQuestions));
 
         // Act
-        ResponseEntity<Object> response = _triviaController.getQuestions(10);
+        ResponseEntity<?> response = (ResponseEntity<?>) _triviaController.getQuestions(10, null).getResult();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mockQuestions, response.getBody());
-        verify(_triviaService).getQuestions(10);
+        verify(_triviaService).getQuestionsAsync(eq(10), any());
+    }
+
+    @Test
+    void testGetQuestions_RespondsWhenQuestionsArriveLater() {
+        // Arrange
+        CompletableFuture<List<QuestionDTO>> pending = new CompletableFuture<>();
+        when(_triviaService.getQuestionsAsync(eq(DEFAULT_QUESTION_AMOUNT), any())).thenReturn(pending);
+
+        // Act
+        DeferredResult<ResponseEntity<Object>> response = _triviaController.getQuestions(DEFAULT_QUESTION_AMOUNT, null);
+        boolean doneBeforeQuestions = response.hasResult();
+        pending.complete(createMockQuestions());
+
+        // Assert
+        assertFalse(doneBeforeQuestions, "Controller should return before the questions are available");
+        assertEquals(HttpStatus.OK, ((ResponseEntity<?>) response.getResult()).getStatusCode());
+    }
+
+    @Test
+    void testGetQuestions_RequestTimeoutCancelsQuestions() throws Exception {
+        // Arrange
+        CompletableFuture<List<QuestionDTO>> pending = new CompletableFuture<>();
+        when(_triviaService.getQuestionsAsync(anyInt(), any())).thenReturn(pending);
+        MvcResult result = _mockMvc.perform(get("/questions"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+
+        // Act
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(null);
+        }
+
+        // Assert
+        assertTrue(pending.isCancelled(), "Questions should be given up with the request");
     }
 
     // Check answers endpoint tests
@@ -173,6 +290,22 @@ class TriviaControllerTest {
                 .andExpect(content().json("{\"error\": \"Invalid question ID: invalid-id\"}"));
     }
 
+    @Test
+    void testCheckAnswers_RefusesAnswersTheStoreCannotGrade() throws Exception {
+        // Arrange
+        List<AnswerDTO> answers = createTestAnswers();
+
+        when(_triviaService.checkAnswers(any()))
+                .thenThrow(new UnsupportedAnswerException("Answers must be sent as selectedIndex"));
+
+        // Act & Assert
+        _mockMvc.perform(post("/checkanswers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(_objectMapper.writeValueAsString(answers)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\": \"Answers must be sent as selectedIndex\"}"));
+    }
+
     @Test
     void testCheckAnswers_HandlesTriviaServiceException() throws Exception {
         // Arrange
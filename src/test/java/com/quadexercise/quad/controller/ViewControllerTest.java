@@ -1,24 +1,31 @@
 package com.quadexercise.quad.controller;
 
 import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
 import com.quadexercise.quad.interfaces.ITriviaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.quadexercise.quad.testutilities.TestConstants.*;
 import static com.quadexercise.quad.testutilities.TestDataFactory.createMockQuestions;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,13 +39,13 @@ class ViewControllerTest {
     @Mock
     private Model _model;
 
-    @InjectMocks
     private ViewController _viewController;
 
     private MockMvc _mockMvc;
 
     @BeforeEach
     void setUp() {
+        _viewController = new ViewController(_triviaService);
         _mockMvc = MockMvcBuilders
                 .standaloneSetup(_viewController)
                 .build();
@@ -60,30 +67,74 @@ class ViewControllerTest {
         // Arrange
         List<QuestionDTO> mockQuestions = createMockQuestions();
         int customAmount = 3;
-        when(_triviaService.getQuestions(customAmount)).thenReturn(mockQuestions);
+        when(_triviaService.getQuestionsAsync(eq(customAmount), any())).thenReturn(CompletableFuture.completedFuture(mockQuestions));
 
-        // Act & Assert
-        _mockMvc.perform(get(PLAY_PATH).param("amount", String.valueOf(customAmount)))
+        // Act
+        MvcResult result = _mockMvc.perform(get(PLAY_PATH).param("amount", String.valueOf(customAmount)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        _mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(view().name(TRIVIA_TEMPLATE))
                 .andExpect(model().attributeExists(QUESTIONS_ATTR))
                 .andExpect(model().attribute(QUESTIONS_ATTR, mockQuestions));
 
-        verify(_triviaService).getQuestions(customAmount);
+        verify(_triviaService).getQuestionsAsync(eq(customAmount), any());
     }
 
     @Test
     void testPlayEndpoint_UsesDefaultAmount_WhenNotSpecified() throws Exception {
         // Arrange
         List<QuestionDTO> mockQuestions = createMockQuestions();
-        when(_triviaService.getQuestions(DEFAULT_QUESTION_AMOUNT)).thenReturn(mockQuestions);
+        when(_triviaService.getQuestionsAsync(eq(DEFAULT_QUESTION_AMOUNT), any()))
+                .thenReturn(CompletableFuture.completedFuture(mockQuestions));
 
-        // Act & Assert
-        _mockMvc.perform(get(PLAY_PATH))
+        // Act
+        MvcResult result = _mockMvc.perform(get(PLAY_PATH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        _mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(view().name(TRIVIA_TEMPLATE));
 
-        verify(_triviaService).getQuestions(DEFAULT_QUESTION_AMOUNT);
+        verify(_triviaService).getQuestionsAsync(eq(DEFAULT_QUESTION_AMOUNT), any());
+    }
+
+    @Test
+    void testPlayEndpoint_OverloadedAnswers503WithRetryAfter() throws Exception {
+        // Arrange
+        when(_triviaService.getQuestionsAsync(eq(DEFAULT_QUESTION_AMOUNT), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TriviaOverloadedException("Too busy", 7L)));
+
+        // Act
+        MvcResult result = _mockMvc.perform(get(PLAY_PATH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        _mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+    }
+
+    @Test
+    void testPlayEndpoint_DeadlineExceededAnswers504() throws Exception {
+        // Arrange
+        when(_triviaService.getQuestionsAsync(eq(DEFAULT_QUESTION_AMOUNT), any())).thenReturn(
+                CompletableFuture.failedFuture(new TriviaDeadlineExceededException("Rate-limit slot comes too late")));
+
+        // Act
+        MvcResult result = _mockMvc.perform(get(PLAY_PATH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        _mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout());
     }
 
     @Test
@@ -100,10 +151,11 @@ class ViewControllerTest {
     void testPlayTriviaMethod_ReturnsCorrectViewAndAddsQuestions() {
         // Arrange
         List<QuestionDTO> mockQuestions = createMockQuestions();
-        when(_triviaService.getQuestions(DEFAULT_QUESTION_AMOUNT)).thenReturn(mockQuestions);
+        when(_triviaService.getQuestionsAsync(eq(DEFAULT_QUESTION_AMOUNT), any()))
+                .thenReturn(CompletableFuture.completedFuture(mockQuestions));
 
         // Act
-        String viewName = _viewController.playTrivia(DEFAULT_QUESTION_AMOUNT, _model);
+        Object viewName = _viewController.playTrivia(DEFAULT_QUESTION_AMOUNT, null, _model).getResult();
 
         // Assert
         assertEquals(TRIVIA_TEMPLATE, viewName);
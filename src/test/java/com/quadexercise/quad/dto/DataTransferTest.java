@@ -1,10 +1,10 @@
 package com.quadexercise.quad.dto;
 
+import com.quadexercise.quad.utils.QuestionIds;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 import static com.quadexercise.quad.testutilities.TestConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -115,7 +115,8 @@ class DataTransferTest {
         // Assert
         assertNotNull(id);
         assertFalse(id.isEmpty());
-        assertDoesNotThrow(() -> UUID.fromString(id), "ID should be a valid UUID");
+        assertEquals(QuestionIds.ENCODED_LENGTH, id.length());
+        assertDoesNotThrow(() -> QuestionIds.decode(id), "ID should be a valid compact question ID");
     }
 
     @Test
@@ -4,7 +4,10 @@ import org.junit.jupiter.api.Test;
 
 import static com.quadexercise.quad.testutilities.TestConstants.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ExceptionTest {
 
@@ -73,6 +76,44 @@ class ExceptionTest {
         assertEquals(cause, exception.getCause());
     }
 
+    @Test
+    void testTriviaResponseCodeException_KnowsRateLimit() {
+        // Act
+        TriviaResponseCodeException rateLimited = new TriviaResponseCodeException(5);
+        TriviaResponseCodeException noResults = new TriviaResponseCodeException(1);
+
+        // Assert
+        assertEquals(5, rateLimited.getResponseCode());
+        assertEquals("Trivia API returned response code 5", rateLimited.getMessage());
+        assertTrue(rateLimited.isRateLimited());
+        assertFalse(noResults.isRateLimited());
+        assertInstanceOf(TriviaUpstreamException.class, rateLimited);
+    }
+
+    @Test
+    void testTriviaCircuitOpenException_WithMessage() {
+        // Act
+        TriviaCircuitOpenException exception = new TriviaCircuitOpenException(SERVICE_ERROR_MESSAGE);
+
+        // Assert
+        assertEquals(SERVICE_ERROR_MESSAGE, exception.getMessage());
+        assertInstanceOf(TriviaServiceException.class, exception);
+    }
+
+    @Test
+    void testTriviaDeadlineExceededException_WithMessageAndCause() {
+        // Arrange
+        Throwable cause = new RuntimeException("timed out");
+
+        // Act
+        TriviaDeadlineExceededException exception = new TriviaDeadlineExceededException(SERVICE_ERROR_MESSAGE, cause);
+
+        // Assert
+        assertEquals(SERVICE_ERROR_MESSAGE, exception.getMessage());
+        assertSame(cause, exception.getCause());
+        assertInstanceOf(TriviaServiceException.class, exception);
+    }
+
     @Test
     void testExceptionHierarchy_VerifiesInheritance() {
         // Arrange
@@ -0,0 +1,170 @@
+package com.quadexercise.quad.integration;
+
+import com.quadexercise.quad.Application;
+import com.quadexercise.quad.controller.AdminController;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.store.ReplicatedAnswerStore;
+import com.quadexercise.quad.utils.QuestionIds;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.quadexercise.quad.testutilities.TestConstants.TEST_CORRECT_ANSWER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts several application instances on localhost ports, replicating answers to each other.
+ */
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class AnswerReplicationIntegrationTest {
+
+    private static final int NODES = 3;
+    private static final long REPLICATION_TIMEOUT_MS = 10_000L;
+    private static final long POLL_INTERVAL_MS = 20L;
+    private static final String ADMIN_SECRET = "test-admin-secret";
+
+    private final HttpClient _client = HttpClient.newHttpClient();
+    private final List<ConfigurableApplicationContext> _nodes = new ArrayList<>();
+    private final List<Integer> _ports = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        _nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    private void startNodes() throws IOException {
+        for (int i = 0; i < NODES; i++) {
+            _ports.add(freePort());
+        }
+        for (int port : _ports) {
+            String peers = _ports.stream()
+                    .filter(peer -> peer != port)
+                    .map(peer -> "http://localhost:" + peer)
+                    .collect(Collectors.joining(","));
+            _nodes.add(new SpringApplicationBuilder(Application.class)
+                    .properties(
+                            "server.port=" + port,
+                            "trivia.pool.enabled=false",
+                            "trivia.answers.mode=replicated",
+                            "trivia.answers.replication.peers=" + peers,
+                            "trivia.answers.replication.secret=test-secret",
+                            "trivia.answers.replication.interval-ms=10",
+                            "trivia.admin.secret=" + ADMIN_SECRET)
+                    .run());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private HttpResponse<String> checkAnswer(int port, String questionId) throws IOException, InterruptedException {
+        String body = "[{\"questionId\":\"" + questionId + "\",\"selectedAnswer\":\"" + TEST_CORRECT_ANSWER + "\"}]";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/checkanswers"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return _client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> awaitGraded(int port, String questionId) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + REPLICATION_TIMEOUT_MS;
+        HttpResponse<String> response = checkAnswer(port, questionId);
+        while (response.statusCode() != 200 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_INTERVAL_MS);
+            response = checkAnswer(port, questionId);
+        }
+        return response;
+    }
+
+    /**
+     * Waits until a node has seen the given number of batches acknowledged, since a peer can
+     * grade an answer just before its acknowledgement reaches the sending node.
+     */
+    private static Timer awaitAcknowledged(ConfigurableApplicationContext node, long batches)
+            throws InterruptedException {
+        Timer lag = node.getBean(MeterRegistry.class).find("trivia.answers.replication.lag").timer();
+        long deadline = System.currentTimeMillis() + REPLICATION_TIMEOUT_MS;
+        while (lag != null && lag.count() < batches && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        return lag;
+    }
+
+    private String scrape(int port) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/admin/prometheus"))
+                .header(AdminController.SECRET_HEADER, ADMIN_SECRET)
+                .GET()
+                .build();
+        return _client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Test
+    void testReplication_AnyNodeGradesQuestionsRegisteredOnAnother() throws IOException, InterruptedException {
+        // Arrange
+        startNodes();
+        List<String> questionIds = new ArrayList<>();
+        for (ConfigurableApplicationContext node : _nodes) {
+            long questionId = QuestionIds.next();
+            node.getBean(IAnswerStore.class).put(questionId, new QuestionDTO(), TEST_CORRECT_ANSWER);
+            questionIds.add(QuestionIds.encode(questionId));
+        }
+
+        // Act
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        for (int port : _ports) {
+            for (String questionId : questionIds) {
+                responses.add(awaitGraded(port, questionId));
+            }
+        }
+
+        // Assert
+        for (HttpResponse<String> response : responses) {
+            assertEquals(200, response.statusCode(), response.body());
+            assertTrue(response.body().contains("\"correct\":true"), response.body());
+        }
+        for (int i = 0; i < NODES; i++) {
+            ConfigurableApplicationContext node = _nodes.get(i);
+            Timer lag = awaitAcknowledged(node, NODES - 1L);
+            assertNotNull(lag, "Replication lag should be measured");
+            assertEquals(NODES - 1L, lag.count(), "Every peer should have acknowledged one batch");
+            assertEquals(0, ((ReplicatedAnswerStore) node.getBean(IAnswerStore.class)).backlog());
+            assertTrue(scrape(_ports.get(i)).contains("trivia_answers_replication_lag_seconds_count"),
+                    "Replication lag should be scraped from /admin/prometheus");
+        }
+    }
+
+    @Test
+    void testReplication_RejectsBatchWithoutSecret() throws IOException, InterruptedException {
+        // Arrange
+        startNodes();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + _ports.get(0) + ReplicatedAnswerStore.REPLICATION_PATH))
+                .header("Content-Type", "application/octet-stream")
+                .header(ReplicatedAnswerStore.SECRET_HEADER, "wrong-secret")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[0]))
+                .build();
+
+        // Act
+        HttpResponse<String> response = _client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(403, response.statusCode());
+    }
+}
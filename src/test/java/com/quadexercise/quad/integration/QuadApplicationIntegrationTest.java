@@ -17,7 +17,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest(classes = Application.class)
+// The pool would otherwise refill from the real trivia API as soon as the context starts
+@SpringBootTest(classes = Application.class, properties = "trivia.pool.enabled=false")
 @AutoConfigureMockMvc
 class QuadApplicationIntegrationTest {
 
@@ -12,7 +12,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SuppressWarnings("DuplicateStringLiteralInspection")
-@SpringBootTest(classes = Application.class)
+// The pool would otherwise refill from the real trivia API as soon as the context starts
+@SpringBootTest(classes = Application.class, properties = "trivia.pool.enabled=false")
 @AutoConfigureMockMvc
 class StaticResourcesTest {
 
@@ -0,0 +1,141 @@
+package com.quadexercise.quad.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class FileRateLimitCoordinatorTest {
+
+    private static final int PROCESSES = 3;
+    private static final int LEASES_PER_PROCESS = 50;
+    private static final int SLOTS_PER_LEASE = 2;
+    private static final long INTERVAL_MS = 10L;
+    private static final long PROCESS_TIMEOUT_SECONDS = 60L;
+
+    @TempDir
+    private Path _directory;
+
+    private final List<FileRateLimitCoordinator> _coordinators = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (FileRateLimitCoordinator coordinator : _coordinators) {
+            coordinator.close();
+        }
+    }
+
+    private FileRateLimitCoordinator openCoordinator() {
+        FileRateLimitCoordinator coordinator = new FileRateLimitCoordinator(_directory.resolve("ratelimit.lease"));
+        _coordinators.add(coordinator);
+        return coordinator;
+    }
+
+    @Test
+    void testReserve_ContinuesScheduleOfAnotherInstance() throws IOException {
+        // Arrange
+        FileRateLimitCoordinator first = openCoordinator();
+        FileRateLimitCoordinator second = openCoordinator();
+
+        // Act
+        long firstSlot = first.reserve(LARGE_DELAY_MS, SMALL_DELAY_MS, 2);
+        long secondSlot = second.reserve(LARGE_DELAY_MS, SMALL_DELAY_MS, 1);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS, firstSlot);
+        assertEquals(LARGE_DELAY_MS + SMALL_DELAY_MS * 2L, secondSlot);
+    }
+
+    @Test
+    void testReserve_IdleScheduleStartsNow() throws IOException {
+        // Arrange
+        FileRateLimitCoordinator coordinator = openCoordinator();
+        coordinator.reserve(0L, SMALL_DELAY_MS, 1);
+
+        // Act
+        long slot = coordinator.reserve(LARGE_DELAY_MS, SMALL_DELAY_MS, 1);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS, slot);
+    }
+
+    @Test
+    void testPushBack_MovesScheduleOutForEveryInstance() throws IOException {
+        // Arrange
+        FileRateLimitCoordinator limited = openCoordinator();
+        FileRateLimitCoordinator other = openCoordinator();
+
+        // Act
+        limited.pushBack(0L, LARGE_DELAY_MS);
+        long slot = other.reserve(0L, SMALL_DELAY_MS, 1);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS, slot);
+    }
+
+    @Test
+    void testProcesses_ShareOneSchedule() throws IOException, InterruptedException {
+        // Arrange
+        Path leaseFile = _directory.resolve("shared.lease");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < PROCESSES; i++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    Worker.class.getName(), leaseFile.toString())
+                    .redirectErrorStream(true)
+                    .start());
+        }
+        List<Long> slots = new ArrayList<>();
+        for (Process process : processes) {
+            assertTrue(process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS), "Worker process timed out");
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            assertEquals(0, process.exitValue(), output);
+            String[] lines = output.split("\\R");
+            for (String slot : lines[lines.length - 1].split(" ")) {
+                slots.add(Long.parseLong(slot));
+            }
+        }
+
+        // Assert
+        assertEquals(PROCESSES * LEASES_PER_PROCESS * SLOTS_PER_LEASE, slots.size());
+        slots.sort(null);
+        for (int i = 1; i < slots.size(); i++) {
+            assertTrue(slots.get(i) - slots.get(i - 1) >= INTERVAL_MS,
+                    "Slots of different processes should never be closer than the interval");
+        }
+    }
+
+    /**
+     * Runs in a separate JVM: leases slots from the shared schedule and prints every slot it got.
+     */
+    static final class Worker {
+
+        private Worker() {
+        }
+
+        public static void main(String[] args) throws IOException {
+            StringBuilder slots = new StringBuilder();
+            try (FileRateLimitCoordinator coordinator = new FileRateLimitCoordinator(Path.of(args[0]))) {
+                for (int lease = 0; lease < LEASES_PER_PROCESS; lease++) {
+                    long first = coordinator.reserve(System.currentTimeMillis(), INTERVAL_MS, SLOTS_PER_LEASE);
+                    for (int i = 0; i < SLOTS_PER_LEASE; i++) {
+                        slots.append(first + i * INTERVAL_MS).append(' ');
+                    }
+                }
+            }
+            System.out.println(slots.toString().trim());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.jfr.RateLimitWaitEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class JfrRecordingServiceTest {
+
+    @Test
+    void testCapture_ReturnsRecordingWithTriviaEvents() throws Exception {
+        // Arrange
+        JfrRecordingService recordingService = new JfrRecordingService(5L);
+        CompletableFuture<byte[]> capture = recordingService.capture(1L, JfrRecordingService.SETTINGS_NONE);
+        RateLimitWaitEvent event = new RateLimitWaitEvent();
+        event.begin();
+        event.requestedWait = 10L;
+        event.commit();
+
+        // Act
+        byte[] recording = capture.join();
+
+        // Assert
+        Path file = Files.write(Files.createTempFile("capture-", ".jfr"), recording);
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(recorded ->
+                    "com.quadexercise.quad.RateLimitWait".equals(recorded.getEventType().getName())
+                            && recorded.getLong("requestedWait") == 10L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testCapture_RejectsSecondCaptureWhileRunning() {
+        // Arrange
+        JfrRecordingService recordingService = new JfrRecordingService(5L);
+        CompletableFuture<byte[]> capture = recordingService.capture(1L, JfrRecordingService.SETTINGS_NONE);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> recordingService.capture(1L, JfrRecordingService.SETTINGS_NONE));
+        capture.join();
+    }
+
+    @Test
+    void testCapture_RejectsUnknownSettings() {
+        // Arrange
+        JfrRecordingService recordingService = new JfrRecordingService(5L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> recordingService.capture(1L, "unknown"));
+        // The failed attempt must not block later captures
+        assertNotNull(recordingService.capture(1L, JfrRecordingService.SETTINGS_NONE).join());
+    }
+}
@@ -0,0 +1,135 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class TriviaAdmissionServiceTest {
+
+    private static final long MAX_WAIT_MS = 15_000L;
+    private static final int INITIAL_LIMIT = 20;
+
+    @Mock
+    private TriviaRateLimitService _rateLimitService;
+
+    private TriviaAdmissionService _admission;
+
+    @BeforeEach
+    void setUp() {
+        _admission = new TriviaAdmissionService(
+                _rateLimitService, true, MAX_WAIT_MS, INITIAL_LIMIT, 1, 100, TriviaPipelineMetrics.noop());
+    }
+
+    /**
+     * Admits as many requests as the limit allows, then releases them all with the same latency.
+     */
+    private void runAtLimit(long latencyMs) {
+        int limit = _admission.getLimit();
+        long[] admitted = new long[limit];
+        for (int i = 0; i < limit; i++) {
+            admitted[i] = _admission.admit() - TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        }
+        for (long admittedNanos : admitted) {
+            _admission.release(admittedNanos, true);
+        }
+    }
+
+    @Test
+    void testAdmit_RejectsWhenWaitExceedsBudget() {
+        // Arrange
+        when(_rateLimitService.estimateWaitMs()).thenReturn(MAX_WAIT_MS + 2_500L);
+
+        // Act
+        TriviaOverloadedException exception = assertThrows(TriviaOverloadedException.class, _admission::admit);
+
+        // Assert
+        assertEquals(3L, exception.getRetryAfterSeconds());
+        assertEquals(0, _admission.getInFlight());
+    }
+
+    @Test
+    void testAdmit_RejectsAtLimitUntilReleased() {
+        // Arrange
+        when(_rateLimitService.getCurrentIntervalMs()).thenReturn(5_000L);
+        long first = _admission.admit();
+        for (int i = 1; i < INITIAL_LIMIT; i++) {
+            _admission.admit();
+        }
+
+        // Act
+        TriviaOverloadedException exception = assertThrows(TriviaOverloadedException.class, _admission::admit);
+        _admission.release(first, false);
+
+        // Assert
+        assertEquals(5L, exception.getRetryAfterSeconds());
+        assertEquals(INITIAL_LIMIT - 1, _admission.getInFlight());
+        assertDoesNotThrow(_admission::admit);
+    }
+
+    @Test
+    void testRelease_GrowsLimitWhileLatencyIsStable() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            runAtLimit(10L);
+        }
+
+        // Assert
+        assertTrue(_admission.getLimit() > INITIAL_LIMIT, "Limit should grow while latency is stable");
+        assertEquals(0, _admission.getInFlight());
+    }
+
+    @Test
+    void testRelease_ShrinksLimitWhenLatencyRises() {
+        // Arrange
+        runAtLimit(10L);
+        int stableLimit = _admission.getLimit();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            runAtLimit(1_000L);
+        }
+
+        // Assert
+        assertTrue(_admission.getLimit() < stableLimit, "Limit should shrink as latency rises");
+    }
+
+    @Test
+    void testRelease_IgnoresLatencyOfFailedRequests() {
+        // Arrange
+        runAtLimit(10L);
+        int stableLimit = _admission.getLimit();
+
+        // Act
+        for (int i = 0; i < stableLimit; i++) {
+            long admitted = _admission.admit();
+            _admission.release(admitted - TimeUnit.SECONDS.toNanos(5L), false);
+        }
+
+        // Assert
+        assertEquals(stableLimit, _admission.getLimit());
+    }
+
+    @Test
+    void testDisabled_AdmitsEverything() {
+        // Arrange
+        TriviaAdmissionService admission = TriviaAdmissionService.disabled();
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            admission.admit();
+        }
+
+        // Assert
+        assertEquals(0, admission.getInFlight());
+    }
+}
@@ -0,0 +1,143 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.QuestionNotFoundException;
+import com.quadexercise.quad.store.DurableAnswerStore;
+import com.quadexercise.quad.store.SharedAnswerStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class TriviaAnswerServiceTest {
+
+    private static final String TOKEN_SECRET = "shared-secret";
+
+    private static TriviaAnswerService createTokenService() {
+        return new TriviaAnswerService(TriviaAnswerService.MODE_TOKEN, 1, LARGE_DELAY_MS, TOKEN_SECRET);
+    }
+
+    private static AnswerDTO createAnswer(String questionId, String selectedAnswer) {
+        AnswerDTO answer = new AnswerDTO();
+        answer.setQuestionId(questionId);
+        answer.setSelectedAnswer(selectedAnswer);
+        return answer;
+    }
+
+    @Test
+    void testCheckAnswer_StoreModeKeepsQuestionId() {
+        // Arrange
+        TriviaAnswerService answerService = new TriviaAnswerService();
+        QuestionDTO question = new QuestionDTO();
+        String originalId = question.getId();
+
+        // Act
+        answerService.registerQuestion(question, TEST_CORRECT_ANSWER);
+        AnswerResultDTO result = answerService.checkAnswer(createAnswer(originalId, TEST_CORRECT_ANSWER));
+
+        // Assert
+        assertEquals(originalId, question.getId());
+        assertTrue(result.isCorrect());
+        assertEquals(1, answerService.getStats().getSize());
+    }
+
+    @Test
+    void testCheckAnswer_TokenModeGradesOnAnotherInstance() {
+        // Arrange
+        QuestionDTO question = new QuestionDTO();
+        createTokenService().registerQuestion(question, TEST_CORRECT_ANSWER);
+        TriviaAnswerService otherNode = createTokenService();
+
+        // Act
+        AnswerResultDTO result = otherNode.checkAnswer(createAnswer(question.getId(), TEST_INCORRECT_ANSWERS().get(0)));
+
+        // Assert
+        assertFalse(result.isCorrect());
+        assertEquals(TEST_CORRECT_ANSWER, result.getCorrectAnswer());
+        assertEquals(question.getId(), result.getQuestionId());
+        assertEquals(0, otherNode.getStats().getSize());
+    }
+
+    @Test
+    void testCheckAnswer_TokenModeRejectsUnknownId() {
+        // Arrange
+        TriviaAnswerService answerService = createTokenService();
+
+        // Act & Assert
+        assertThrows(QuestionNotFoundException.class,
+                () -> answerService.checkAnswer(createAnswer(TEST_QUESTION_ID, TEST_CORRECT_ANSWER)));
+        assertEquals(1L, answerService.getStats().getTokensRejected());
+    }
+
+    @Test
+    void testCheckAnswer_IndexModeGradesBySelectedIndex() {
+        // Arrange
+        TriviaAnswerService answerService = new TriviaAnswerService(
+                TriviaAnswerService.MODE_INDEX, DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, "");
+        QuestionDTO question = new QuestionDTO();
+        question.setAnswers(List.of(TEST_INCORRECT_ANSWERS().get(0), TEST_CORRECT_ANSWER));
+        answerService.registerQuestion(question, TEST_CORRECT_ANSWER);
+        AnswerDTO answer = createAnswer(question.getId(), TEST_CORRECT_ANSWER);
+        answer.setSelectedIndex(1);
+
+        // Act
+        AnswerResultDTO result = answerService.checkAnswer(answer);
+
+        // Assert
+        assertTrue(result.isCorrect());
+        assertEquals(1, result.getCorrectIndex());
+        assertEquals(question.getId(), result.getQuestionId());
+        assertEquals(TriviaAnswerService.MODE_INDEX, answerService.getStats().getMode());
+    }
+
+    @Test
+    void testCheckAnswer_DurableModeGradesAfterRestart(@TempDir Path directory) {
+        // Arrange
+        DurableAnswerStore storeBeforeRestart = new DurableAnswerStore(
+                DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, directory, 0L);
+        TriviaAnswerService beforeRestart = new TriviaAnswerService(
+                TriviaAnswerService.MODE_DURABLE, storeBeforeRestart, TriviaPipelineMetrics.noop());
+        QuestionDTO question = new QuestionDTO();
+        beforeRestart.registerQuestion(question, TEST_CORRECT_ANSWER);
+        storeBeforeRestart.close();
+        DurableAnswerStore storeAfterRestart = new DurableAnswerStore(
+                DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, directory, 0L);
+        TriviaAnswerService afterRestart = new TriviaAnswerService(
+                TriviaAnswerService.MODE_DURABLE, storeAfterRestart, TriviaPipelineMetrics.noop());
+
+        // Act
+        AnswerResultDTO result = afterRestart.checkAnswer(createAnswer(question.getId(), TEST_CORRECT_ANSWER));
+        storeAfterRestart.close();
+
+        // Assert
+        assertTrue(result.isCorrect());
+        assertEquals(TriviaAnswerService.MODE_DURABLE, afterRestart.getStats().getMode());
+    }
+
+    @Test
+    void testCheckAnswer_SharedModeGradesOnAnotherInstance(@TempDir Path directory) {
+        // Arrange
+        Path table = directory.resolve("answers.table");
+        TriviaAnswerService registering = new TriviaAnswerService(TriviaAnswerService.MODE_SHARED,
+                new SharedAnswerStore(DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, table), TriviaPipelineMetrics.noop());
+        TriviaAnswerService grading = new TriviaAnswerService(TriviaAnswerService.MODE_SHARED,
+                new SharedAnswerStore(DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, table), TriviaPipelineMetrics.noop());
+        QuestionDTO question = new QuestionDTO();
+        registering.registerQuestion(question, TEST_CORRECT_ANSWER);
+
+        // Act
+        AnswerResultDTO result = grading.checkAnswer(createAnswer(question.getId(), TEST_CORRECT_ANSWER));
+
+        // Assert
+        assertTrue(result.isCorrect());
+        assertEquals(1, grading.getStats().getSize());
+        assertEquals(TriviaAnswerService.MODE_SHARED, grading.getStats().getMode());
+    }
+}
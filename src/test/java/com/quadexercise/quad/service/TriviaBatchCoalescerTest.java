@@ -0,0 +1,326 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaParseException;
+import com.quadexercise.quad.utils.Deadline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class TriviaBatchCoalescerTest {
+
+    private static final int CALLERS = 10;
+
+    @Mock
+    private TriviaFetchService _fetchService;
+
+    @Mock
+    private TriviaParsingService _parsingService;
+
+    @Mock
+    private TriviaAnswerService _answerService;
+
+    @Mock
+    private MessageService _messageService;
+
+    private TriviaRateLimitService _rateLimitService;
+    private TriviaBatchCoalescer _batchCoalescer;
+
+    private static List<QuestionDTO> createQuestions(int count, Map<? super String, ? super String> answers) {
+        List<QuestionDTO> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QuestionDTO question = new QuestionDTO();
+            answers.put(question.getId(), TEST_CORRECT_ANSWER);
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    private static InputStream createResponseStream() {
+        return new ByteArrayInputStream(VALID_QUESTION_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void setUp() {
+        _rateLimitService = new TriviaRateLimitService(_messageService, LARGE_DELAY_MS);
+        _batchCoalescer = new TriviaBatchCoalescer(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _messageService);
+    }
+
+    @Test
+    void testGetQuestions_SingleCallerFetchesItsOwnAmount() {
+        // Arrange
+        when(_fetchService.fetchTriviaStream(eq(DEFAULT_QUESTION_AMOUNT), any())).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenAnswer(invocation -> createQuestions(DEFAULT_QUESTION_AMOUNT, invocation.getArgument(1)));
+
+        // Act
+        List<QuestionDTO> questions = _batchCoalescer.getQuestions(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, questions.size());
+        verify(_answerService, times(DEFAULT_QUESTION_AMOUNT)).registerQuestion(any(), eq(TEST_CORRECT_ANSWER));
+    }
+
+    @Test
+    void testGetQuestions_ConcurrentCallersShareOneUpstreamBatch() throws Exception {
+        // Arrange
+        int total = CALLERS * DEFAULT_QUESTION_AMOUNT;
+        when(_fetchService.fetchTriviaStream(eq(total), any())).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenAnswer(invocation -> createQuestions(total, invocation.getArgument(1)));
+
+        // Occupy the current slot so the first caller has to wait and others can join
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<QuestionDTO>>> futures = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return _batchCoalescer.getQuestions(DEFAULT_QUESTION_AMOUNT);
+            }));
+        }
+
+        // Act
+        start.countDown();
+        Set<String> questionIds = new HashSet<>(total);
+        for (Future<List<QuestionDTO>> future : futures) {
+            List<QuestionDTO> slice = future.get(RATE_LIMIT_MS, TimeUnit.MILLISECONDS);
+            assertEquals(DEFAULT_QUESTION_AMOUNT, slice.size());
+            slice.forEach(question -> questionIds.add(question.getId()));
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(total, questionIds.size(), "Each caller should get a disjoint slice");
+        verify(_fetchService, times(1)).fetchTriviaStream(eq(total), any());
+        verify(_answerService, times(total)).registerQuestion(any(), eq(TEST_CORRECT_ANSWER));
+    }
+
+    @Test
+    void testGetQuestions_ShortUpstreamResponseYieldsShortSlices() {
+        // Arrange
+        when(_fetchService.fetchTriviaStream(eq(DEFAULT_QUESTION_AMOUNT), any())).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenAnswer(invocation -> createQuestions(2, invocation.getArgument(1)));
+
+        // Act
+        List<QuestionDTO> questions = _batchCoalescer.getQuestions(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertEquals(2, questions.size());
+    }
+
+    @Test
+    void testGetQuestionsAsync_JoinerRefetchesQuestionsMissingFromShortResponse() {
+        // Arrange
+        int returned = DEFAULT_QUESTION_AMOUNT + 2;
+        int missing = DEFAULT_QUESTION_AMOUNT - 2;
+        when(_fetchService.fetchTriviaAsync(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(returned, invocation.getArgument(1)))
+                .thenAnswer(invocation -> createQuestions(missing, invocation.getArgument(1)));
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+
+        // Act
+        CompletableFuture<List<QuestionDTO>> leader = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+        CompletableFuture<List<QuestionDTO>> joiner = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, leader.join().size());
+        assertEquals(DEFAULT_QUESTION_AMOUNT, joiner.join().size(), "Joiner should fetch the questions its slice lacked");
+        verify(_fetchService).fetchTriviaAsync(eq(DEFAULT_QUESTION_AMOUNT * 2), any());
+        verify(_fetchService).fetchTriviaAsync(eq(missing), any());
+    }
+
+    @Test
+    void testGetQuestions_PropagatesParseFailure() {
+        // Arrange
+        when(_fetchService.fetchTriviaStream(anyInt(), any())).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenThrow(new TriviaParseException(PARSE_ERROR_MESSAGE));
+
+        // Act & Assert
+        assertThrows(TriviaParseException.class, () -> _batchCoalescer.getQuestions(DEFAULT_QUESTION_AMOUNT));
+        verifyNoInteractions(_answerService);
+    }
+
+    @Test
+    void testGetQuestions_FullBatchRequestBypassesCoalescing() {
+        // Arrange
+        int amount = 50;
+        when(_fetchService.fetchTriviaStream(eq(amount), any())).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenAnswer(invocation -> createQuestions(amount, invocation.getArgument(1)));
+
+        // Act
+        List<QuestionDTO> questions = _batchCoalescer.getQuestions(amount);
+
+        // Assert
+        assertEquals(amount, questions.size());
+    }
+
+    @Test
+    void testGetQuestionsAsync_CallersShareBatchWithoutBlocking() {
+        // Arrange
+        int total = CALLERS * DEFAULT_QUESTION_AMOUNT;
+        when(_fetchService.fetchTriviaAsync(eq(total), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(total, invocation.getArgument(1)));
+
+        // Occupy the current slot so the batch stays open while the callers join
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+
+        // Act
+        List<CompletableFuture<List<QuestionDTO>>> futures = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(_batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT));
+        }
+        boolean anyDone = futures.stream().anyMatch(CompletableFuture::isDone);
+
+        // Assert
+        assertFalse(anyDone, "Callers should not wait for the rate-limit slot");
+        Set<String> questionIds = new HashSet<>(total);
+        for (CompletableFuture<List<QuestionDTO>> future : futures) {
+            List<QuestionDTO> slice = future.join();
+            assertEquals(DEFAULT_QUESTION_AMOUNT, slice.size());
+            slice.forEach(question -> questionIds.add(question.getId()));
+        }
+        assertEquals(total, questionIds.size(), "Each caller should get a disjoint slice");
+        verify(_fetchService, times(1)).fetchTriviaAsync(eq(total), any());
+        verify(_answerService, times(total)).registerQuestion(any(), eq(TEST_CORRECT_ANSWER));
+    }
+
+    @Test
+    void testGetQuestionsAsync_PropagatesFetchFailureToAllCallers() {
+        // Arrange
+        when(_fetchService.fetchTriviaAsync(anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TriviaParseException(PARSE_ERROR_MESSAGE)));
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+
+        // Act
+        CompletableFuture<List<QuestionDTO>> leader = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+        CompletableFuture<List<QuestionDTO>> joiner = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertInstanceOf(TriviaParseException.class, assertThrows(CompletionException.class, leader::join).getCause());
+        assertInstanceOf(TriviaParseException.class, assertThrows(CompletionException.class, joiner::join).getCause());
+        verifyNoInteractions(_answerService);
+    }
+
+    @Test
+    void testGetQuestions_JoinerStopsWaitingAtItsDeadline() {
+        // Arrange
+        int total = DEFAULT_QUESTION_AMOUNT * 2;
+        when(_fetchService.fetchTriviaAsync(eq(total), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(total, invocation.getArgument(1)));
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+        CompletableFuture<List<QuestionDTO>> leader = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+        long start = System.currentTimeMillis();
+
+        // Act
+        assertThrows(TriviaDeadlineExceededException.class,
+                () -> _batchCoalescer.getQuestions(DEFAULT_QUESTION_AMOUNT, Deadline.after(SMALL_DELAY_MS)));
+
+        // Assert
+        assertTrue(System.currentTimeMillis() - start < LARGE_DELAY_MS, "Joiner should not wait for the slot");
+        assertEquals(DEFAULT_QUESTION_AMOUNT, leader.join().size());
+    }
+
+    @Test
+    void testGetQuestionsAsync_CallerThatCannotJoinLeavesBatchDeadline() {
+        // Arrange
+        int leaderAmount = 45;
+        int otherAmount = 10;
+        when(_fetchService.fetchTriviaAsync(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(leaderAmount, invocation.getArgument(1)));
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+
+        // Act
+        CompletableFuture<List<QuestionDTO>> leader =
+                _batchCoalescer.getQuestionsAsync(leaderAmount, Deadline.after(RATE_LIMIT_MS));
+        CompletableFuture<List<QuestionDTO>> other = _batchCoalescer.getQuestionsAsync(otherAmount, Deadline.none());
+        leader.join();
+        other.join();
+
+        // Assert
+        verify(_fetchService).fetchTriviaAsync(eq(leaderAmount), argThat(Deadline::isBounded));
+        verify(_fetchService).fetchTriviaAsync(eq(otherAmount), argThat(deadline -> !deadline.isBounded()));
+    }
+
+    @Test
+    void testGetQuestionsAsync_CallerFailsAtItsDeadline() {
+        // Arrange
+        int total = DEFAULT_QUESTION_AMOUNT * 2;
+        when(_fetchService.fetchTriviaAsync(eq(total), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(total, invocation.getArgument(1)));
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+        CompletableFuture<List<QuestionDTO>> leader = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Act
+        CompletableFuture<List<QuestionDTO>> joiner =
+                _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT, Deadline.after(SMALL_DELAY_MS));
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, joiner::join);
+        assertInstanceOf(TriviaDeadlineExceededException.class, exception.getCause());
+        assertFalse(leader.isDone(), "Joiner should fail before the batch's slot");
+        assertEquals(DEFAULT_QUESTION_AMOUNT, leader.join().size());
+    }
+
+    @Test
+    void testGetQuestionsAsync_CancellingLastCallerHandsBackSlot() {
+        // Arrange
+        long now = _rateLimitService.getCurrentTimeMillis();
+        _rateLimitService.reserveSlot(now);
+        CompletableFuture<List<QuestionDTO>> questions = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Act
+        questions.cancel(false);
+
+        // Assert
+        assertTrue(_rateLimitService.reserveSlot(now) < now + LARGE_DELAY_MS * 2L,
+                "Slot of the abandoned batch should be handed back");
+        verify(_fetchService, after(LARGE_DELAY_MS + SMALL_DELAY_MS).never()).fetchTriviaAsync(anyInt(), any());
+    }
+
+    @Test
+    void testGetQuestionsAsync_BatchGoesOnWhileAnyCallerWaits() {
+        // Arrange
+        int total = DEFAULT_QUESTION_AMOUNT * 2;
+        when(_fetchService.fetchTriviaAsync(eq(total), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(total, invocation.getArgument(1)));
+        _rateLimitService.reserveSlot(_rateLimitService.getCurrentTimeMillis());
+        CompletableFuture<List<QuestionDTO>> leader = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+        CompletableFuture<List<QuestionDTO>> joiner = _batchCoalescer.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Act
+        leader.cancel(false);
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, joiner.join().size());
+        verify(_fetchService).fetchTriviaAsync(eq(total), any());
+    }
+}
@@ -0,0 +1,207 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaCircuitOpenException;
+import com.quadexercise.quad.exceptions.TriviaResponseCodeException;
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class TriviaCircuitBreakerTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 30_000L;
+    private static final long SLOW_CALL_MS = 50L;
+
+    @Mock
+    private TriviaFetchService _fetchService;
+
+    @Mock
+    private TriviaParsingService _parsingService;
+
+    private final long[] _now = {1_000_000L};
+    private TriviaRateLimitService _rateLimitService;
+    private TriviaCircuitBreaker _circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        _rateLimitService = new TriviaRateLimitService(new MessageService(new StaticMessageSource()), 0L);
+        _circuitBreaker = new TriviaCircuitBreaker(_rateLimitService, true, FAILURE_THRESHOLD,
+                SLOW_CALL_MS, OPEN_MS, TriviaPipelineMetrics.noop(), () -> _now[0]);
+    }
+
+    private void failCall(RuntimeException failure) {
+        assertThrows(failure.getClass(), () -> _circuitBreaker.call(() -> {
+            throw failure;
+        }));
+    }
+
+    @Test
+    void testCall_OpensAfterConsecutiveFailuresAndRefusesCalls() {
+        // Arrange
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            failCall(new TriviaUpstreamException("HTTP 503", 503));
+        }
+
+        // Act & Assert
+        assertEquals(TriviaCircuitBreaker.State.OPEN, _circuitBreaker.getState());
+        assertFalse(_circuitBreaker.allowsRequest());
+        assertThrows(TriviaCircuitOpenException.class, () -> _circuitBreaker.call(() -> 1));
+    }
+
+    @Test
+    void testCallAsync_TimeoutsCountAsFailures() {
+        // Act
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            _circuitBreaker.callAsync(() -> CompletableFuture.failedFuture(new TimeoutException()));
+        }
+
+        // Assert
+        assertEquals(TriviaCircuitBreaker.State.OPEN, _circuitBreaker.getState());
+    }
+
+    @Test
+    void testCall_SuccessResetsConsecutiveFailures() {
+        // Arrange
+        failCall(new TriviaUpstreamException("HTTP 503", 503));
+        failCall(new TriviaUpstreamException("HTTP 503", 503));
+
+        // Act
+        _circuitBreaker.call(() -> 1);
+        failCall(new TriviaUpstreamException("HTTP 503", 503));
+
+        // Assert
+        assertEquals(TriviaCircuitBreaker.State.CLOSED, _circuitBreaker.getState());
+    }
+
+    @Test
+    void testCall_SlowCallsCountAsFailures() {
+        // Act
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            _circuitBreaker.call(() -> {
+                sleep(SLOW_CALL_MS * 2L);
+                return 1;
+            });
+        }
+
+        // Assert
+        assertEquals(TriviaCircuitBreaker.State.OPEN, _circuitBreaker.getState());
+    }
+
+    @Test
+    void testCall_ProbeAfterOpenTimeClosesOrReopens() {
+        // Arrange
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            failCall(new TriviaUpstreamException("HTTP 503", 503));
+        }
+        _now[0] += OPEN_MS;
+
+        // Act & Assert: a failed probe reopens the circuit for another open time
+        assertTrue(_circuitBreaker.allowsRequest());
+        failCall(new TriviaUpstreamException("HTTP 503", 503));
+        assertEquals(TriviaCircuitBreaker.State.OPEN, _circuitBreaker.getState());
+        assertFalse(_circuitBreaker.allowsRequest());
+
+        // Act & Assert: a successful probe closes it
+        _now[0] += OPEN_MS;
+        assertEquals(1, _circuitBreaker.call(() -> 1));
+        assertEquals(TriviaCircuitBreaker.State.CLOSED, _circuitBreaker.getState());
+    }
+
+    @Test
+    void testCallAsync_OnlyOneProbeAtATime() {
+        // Arrange
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            failCall(new TriviaUpstreamException("HTTP 503", 503));
+        }
+        _now[0] += OPEN_MS;
+        CompletableFuture<Integer> probe = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<Integer> first = _circuitBreaker.callAsync(() -> probe);
+        CompletableFuture<Integer> second = _circuitBreaker.callAsync(() -> CompletableFuture.completedFuture(2));
+
+        // Assert
+        assertEquals(TriviaCircuitBreaker.State.HALF_OPEN, _circuitBreaker.getState());
+        assertTrue(second.isCompletedExceptionally());
+        probe.complete(1);
+        assertEquals(1, first.join());
+        assertEquals(TriviaCircuitBreaker.State.CLOSED, _circuitBreaker.getState());
+    }
+
+    @Test
+    void testCall_RateLimitResponseBacksOffAndOtherCodesDoNotTrip() {
+        // Arrange
+        _rateLimitService = new TriviaRateLimitService(new MessageService(new StaticMessageSource()), SMALL_DELAY_MS);
+        _circuitBreaker = new TriviaCircuitBreaker(_rateLimitService, true, FAILURE_THRESHOLD,
+                SLOW_CALL_MS, OPEN_MS, TriviaPipelineMetrics.noop(), () -> _now[0]);
+
+        // Act
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            failCall(new TriviaResponseCodeException(1));
+        }
+        failCall(new TriviaResponseCodeException(5));
+
+        // Assert
+        assertEquals(TriviaCircuitBreaker.State.CLOSED, _circuitBreaker.getState());
+        assertEquals(SMALL_DELAY_MS * 2L, _rateLimitService.getCurrentIntervalMs());
+
+        // A success halves the backed-off interval again
+        _circuitBreaker.call(() -> 1);
+        assertEquals(SMALL_DELAY_MS, _rateLimitService.getCurrentIntervalMs());
+    }
+
+    @Test
+    void testGetQuestions_ServesStaleQuestionsWhileOpen() {
+        // Arrange
+        TriviaStaleQuestionCache staleQuestions = new TriviaStaleQuestionCache(
+                10, OPEN_MS, TriviaPipelineMetrics.noop(), () -> _now[0]);
+        QuestionDTO fetched = new QuestionDTO();
+        fetched.setQuestion(TEST_QUESTION);
+        fetched.setAnswers(List.of(TEST_CORRECT_ANSWER));
+        staleQuestions.offer(fetched, TEST_CORRECT_ANSWER);
+        TriviaAnswerService answerService = new TriviaAnswerService();
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, answerService, _rateLimitService,
+                TriviaQuestionPoolService.disabled(), _circuitBreaker, staleQuestions,
+                TriviaAdmissionService.disabled(), new MessageService(new StaticMessageSource()));
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            failCall(new TriviaUpstreamException("HTTP 503", 503));
+        }
+
+        // Act
+        List<QuestionDTO> questions = triviaService.getQuestionsAsync(1).join();
+
+        // Assert
+        assertEquals(1, questions.size());
+        assertEquals(TEST_QUESTION, questions.get(0).getQuestion());
+        assertNotEquals(fetched.getId(), questions.get(0).getId());
+        verify(_fetchService, never()).fetchTriviaAsync(anyInt(), any());
+        assertThrows(TriviaCircuitOpenException.class, () -> triviaService.getQuestions(2));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.interfaces.ITriviaUpstreamClient;
+import com.quadexercise.quad.utils.Deadline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class TriviaFetchServiceTest {
+
+    @Mock
+    private ITriviaUpstreamClient _upstreamClient;
+
+    @Test
+    void testFetchTrivia_UsesOpenTriviaDatabaseByDefault() {
+        // Arrange
+        when(_upstreamClient.fetch(anyString())).thenReturn(CompletableFuture.completedFuture(EMPTY_RESPONSE));
+        TriviaFetchService fetchService = new TriviaFetchService(_upstreamClient);
+
+        // Act
+        String response = fetchService.fetchTrivia(1);
+
+        // Assert
+        assertEquals(EMPTY_RESPONSE, response);
+        verify(_upstreamClient).fetch(EXPECTED_API_URL);
+    }
+
+    @Test
+    void testFetchTrivia_UsesConfiguredBaseUrl() {
+        // Arrange
+        when(_upstreamClient.fetch(anyString())).thenReturn(CompletableFuture.completedFuture(EMPTY_RESPONSE));
+        TriviaFetchService fetchService = new TriviaFetchService(_upstreamClient, "http://127.0.0.1:8089");
+
+        // Act
+        fetchService.fetchTriviaAsync(DEFAULT_QUESTION_AMOUNT).join();
+
+        // Assert
+        verify(_upstreamClient).fetch("http://127.0.0.1:8089/api.php?amount=" + DEFAULT_QUESTION_AMOUNT);
+    }
+
+    @Test
+    void testFetchTriviaAsync_GivesUpstreamOnlyTheTimeLeft() {
+        // Arrange
+        when(_upstreamClient.fetch(anyString(), any(Duration.class)))
+                .thenReturn(CompletableFuture.completedFuture(EMPTY_RESPONSE));
+        TriviaFetchService fetchService = new TriviaFetchService(_upstreamClient);
+
+        // Act
+        String response = fetchService.fetchTriviaAsync(1, Deadline.after(LARGE_DELAY_MS)).join();
+
+        // Assert
+        assertEquals(EMPTY_RESPONSE, response);
+        verify(_upstreamClient).fetch(eq(EXPECTED_API_URL),
+                argThat(timeout -> !timeout.isNegative() && timeout.toMillis() <= LARGE_DELAY_MS));
+    }
+
+    @Test
+    void testFetchTriviaAsync_TimeoutAtDeadlineIsReportedAsDeadlineExceeded() {
+        // Arrange
+        when(_upstreamClient.fetch(anyString(), any(Duration.class)))
+                .thenReturn(CompletableFuture.failedFuture(new HttpTimeoutException("request timed out")));
+        TriviaFetchService fetchService = new TriviaFetchService(_upstreamClient);
+
+        // Act
+        CompletableFuture<String> response = fetchService.fetchTriviaAsync(1, Deadline.after(SMALL_DELAY_MS));
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, response::join);
+        assertInstanceOf(TriviaDeadlineExceededException.class, exception.getCause());
+        assertInstanceOf(HttpTimeoutException.class, exception.getCause().getCause());
+    }
+}
@@ -0,0 +1,165 @@
+package com.quadexercise.quad.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.TriviaParseException;
+import com.quadexercise.quad.exceptions.TriviaResponseCodeException;
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class TriviaParsingServiceTest {
+
+    private TriviaParsingService _parsingService;
+
+    private static InputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void setUp() {
+        _parsingService = new TriviaParsingService(new ObjectMapper());
+    }
+
+    @Test
+    void testParseQuestionsFromStream_BuildsQuestionsAndAnswers() {
+        // Arrange
+        Map<String, String> answers = new HashMap<>();
+
+        // Act
+        List<QuestionDTO> questions = _parsingService.parseQuestionsFromStream(
+                toStream(VALID_QUESTION_JSON), answers);
+
+        // Assert
+        assertEquals(1, questions.size());
+        QuestionDTO question = questions.get(0);
+        assertEquals(TEST_CATEGORY, question.getCategory());
+        assertEquals(TEST_TYPE, question.getType());
+        assertEquals(TEST_DIFFICULTY, question.getDifficulty());
+        assertEquals(TEST_QUESTION, question.getQuestion());
+        assertEquals(4, question.getAnswers().size());
+        assertTrue(question.getAnswers().containsAll(TEST_INCORRECT_ANSWERS()));
+        assertEquals(TEST_CORRECT_ANSWER, answers.get(question.getId()));
+    }
+
+    @Test
+    void testParseQuestionsFromStream_IgnoresUnknownFieldsInAnyOrder() {
+        // Arrange
+        String json = "{\"results\":[{\"incorrect_answers\":[\"B\"],\"extra\":{\"nested\":[1,2]}," +
+                "\"correct_answer\":\"A\",\"question\":\"Q\",\"difficulty\":\"easy\"," +
+                "\"type\":\"boolean\",\"category\":\"C\"}],\"response_code\":0}";
+        Map<String, String> answers = new HashMap<>();
+
+        // Act
+        List<QuestionDTO> questions = _parsingService.parseQuestionsFromStream(toStream(json), answers);
+
+        // Assert
+        assertEquals(1, questions.size());
+        assertEquals("Q", questions.get(0).getQuestion());
+        assertEquals("A", answers.get(questions.get(0).getId()));
+    }
+
+    @Test
+    void testParseQuestionsFromStream_RateLimitResponseCodeThrows() {
+        // Arrange
+        String json = "{\"response_code\":5,\"results\":[]}";
+
+        // Act & Assert
+        TriviaResponseCodeException exception = assertThrows(TriviaResponseCodeException.class,
+                () -> _parsingService.parseQuestionsFromStream(toStream(json), new HashMap<>()));
+        assertEquals(5, exception.getResponseCode());
+        assertTrue(exception.isRateLimited());
+    }
+
+    @Test
+    void testParseQuestionsFromResponse_NoResultsResponseCodeThrows() {
+        // Arrange
+        String json = "{\"response_code\":1,\"results\":[]}";
+
+        // Act & Assert
+        TriviaResponseCodeException exception = assertThrows(TriviaResponseCodeException.class,
+                () -> _parsingService.parseQuestionsFromResponse(json, new HashMap<>()));
+        assertFalse(exception.isRateLimited());
+    }
+
+    @Test
+    void testParseQuestionsFromStream_EmptyResultsYieldNoQuestions() {
+        // Act
+        List<QuestionDTO> questions = _parsingService.parseQuestionsFromStream(
+                toStream(EMPTY_RESPONSE), new HashMap<>());
+
+        // Assert
+        assertTrue(questions.isEmpty());
+    }
+
+    @Test
+    void testParseQuestionsFromStream_MissingResultsKeepsMessage() {
+        // Act & Assert
+        TriviaParseException exception = assertThrows(TriviaParseException.class,
+                () -> _parsingService.parseQuestionsFromStream(toStream(EMPTY_JSON_RESPONSE), new HashMap<>()));
+        assertEquals("required field (results) not found in trivia response", exception.getMessage());
+    }
+
+    @Test
+    void testParseQuestionsFromStream_MalformedJsonThrowsParseException() {
+        // Act & Assert
+        TriviaParseException exception = assertThrows(TriviaParseException.class,
+                () -> _parsingService.parseQuestionsFromStream(toStream("{\"results\":[{"), new HashMap<>()));
+        assertNotNull(exception.getCause());
+    }
+
+    @Test
+    void testParseQuestionsFromStream_UnreadableStreamThrowsUpstreamException() {
+        // Arrange
+        InputStream stream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new HttpTimeoutException("Trivia API response body not received before the deadline");
+            }
+        };
+
+        // Act & Assert
+        TriviaUpstreamException exception = assertThrows(TriviaUpstreamException.class,
+                () -> _parsingService.parseQuestionsFromStream(stream, new HashMap<>()));
+        assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void testParseQuestionsFromStream_ClosesStream() {
+        // Arrange
+        boolean[] closed = new boolean[1];
+        InputStream stream = new ByteArrayInputStream(VALID_QUESTION_JSON.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        };
+
+        // Act
+        _parsingService.parseQuestionsFromStream(stream, new HashMap<>());
+
+        // Assert
+        assertTrue(closed[0], "Parser should close the upstream stream");
+    }
+
+    @Test
+    void testParseQuestionsFromResponse_NullBodyThrowsParseException() {
+        // Act & Assert
+        assertThrows(TriviaParseException.class,
+                () -> _parsingService.parseQuestionsFromResponse(null, new HashMap<>()));
+    }
+}
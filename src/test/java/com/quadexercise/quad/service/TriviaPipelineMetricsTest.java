@@ -0,0 +1,102 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.QuestionNotFoundException;
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class TriviaPipelineMetricsTest {
+
+    private static final String WRONG_ANSWER = "Oxygen";
+
+    private MeterRegistry _registry;
+    private TriviaPipelineMetrics _metrics;
+
+    @BeforeEach
+    void setUp() {
+        _registry = new SimpleMeterRegistry();
+        _metrics = new TriviaPipelineMetrics(_registry);
+    }
+
+    @Test
+    void testCheckAnswer_CountsCorrectIncorrectAndNotFound() {
+        // Arrange
+        TriviaAnswerService answerService = new TriviaAnswerService(
+                TriviaAnswerService.MODE_STORE, 10, LARGE_DELAY_MS, "", _metrics);
+        QuestionDTO question = new QuestionDTO();
+        question.setAnswers(List.of(TEST_CORRECT_ANSWER, WRONG_ANSWER));
+        answerService.registerQuestion(question, TEST_CORRECT_ANSWER);
+        AnswerDTO right = new AnswerDTO();
+        right.setQuestionId(question.getId());
+        right.setSelectedAnswer(TEST_CORRECT_ANSWER);
+        AnswerDTO wrong = new AnswerDTO();
+        wrong.setQuestionId(question.getId());
+        wrong.setSelectedAnswer(WRONG_ANSWER);
+        AnswerDTO unknown = new AnswerDTO();
+        unknown.setQuestionId("missing");
+
+        // Act
+        answerService.checkAnswer(right);
+        answerService.checkAnswer(wrong);
+        assertThrows(QuestionNotFoundException.class, () -> answerService.checkAnswer(unknown));
+
+        // Assert
+        assertEquals(1.0, answerChecks("correct"));
+        assertEquals(1.0, answerChecks("incorrect"));
+        assertEquals(1.0, answerChecks("not_found"));
+        assertEquals(1.0, _registry.find(TriviaPipelineMetrics.ANSWER_STORE_SIZE).gauge().value());
+    }
+
+    @Test
+    void testRecordUpstream_TagsByHttpStatus() {
+        // Arrange
+        Throwable serverError = new CompletionException(new TriviaUpstreamException("HTTP 503", 503));
+
+        // Act
+        _metrics.recordUpstream(TimeUnit.MILLISECONDS.toNanos(80L), null);
+        _metrics.recordUpstream(TimeUnit.MILLISECONDS.toNanos(20L), serverError);
+
+        // Assert
+        assertEquals(1L, upstreamRequests("2xx"));
+        assertEquals(1L, upstreamRequests("503"));
+    }
+
+    @Test
+    void testRateLimit_RecordsWaitAndQueueDepth() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(
+                new MessageService(new StaticMessageSource()), LARGE_DELAY_MS, _metrics);
+        long now = rateLimitService.getCurrentTimeMillis();
+
+        // Act
+        rateLimitService.reserveSlot(now);
+        rateLimitService.rateLimitAsync(() -> CompletableFuture.completedFuture(1));
+
+        // Assert
+        assertEquals(1L, _registry.find(TriviaPipelineMetrics.RATE_LIMIT_WAIT).timer().count());
+        assertEquals(2.0, _registry.find(TriviaPipelineMetrics.RATE_LIMIT_QUEUE).gauge().value());
+    }
+
+    private double answerChecks(String result) {
+        return _registry.find(TriviaPipelineMetrics.ANSWER_CHECKS).tag("result", result).counter().count();
+    }
+
+    private long upstreamRequests(String status) {
+        return _registry.find(TriviaPipelineMetrics.UPSTREAM_REQUESTS).tag("status", status).timer().count();
+    }
+}
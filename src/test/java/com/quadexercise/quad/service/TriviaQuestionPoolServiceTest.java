@@ -0,0 +1,297 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.dto.QuestionPoolStatsDTO;
+import com.quadexercise.quad.exceptions.TriviaUpstreamException;
+import com.quadexercise.quad.model.ParsedQuestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"DuplicateStringLiteralInspection", "unchecked"})
+@ExtendWith(MockitoExtension.class)
+class TriviaQuestionPoolServiceTest {
+
+    private static final int POOL_CAPACITY = 60;
+    private static final int BATCH_SIZE = 50;
+
+    @Mock
+    private TriviaFetchService _fetchService;
+
+    @Mock
+    private TriviaParsingService _parsingService;
+
+    @Mock
+    private TriviaRateLimitService _rateLimitService;
+
+    @Mock
+    private TriviaAnswerService _answerService;
+
+    @Mock
+    private MessageService _messageService;
+
+    private TriviaQuestionPoolService _questionPool;
+
+    private static List<QuestionDTO> createQuestions(int count, Map<? super String, ? super String> answers) {
+        List<QuestionDTO> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QuestionDTO question = new QuestionDTO();
+            question.setQuestion(TEST_QUESTION);
+            question.setAnswers(List.of(TEST_CORRECT_ANSWER));
+            answers.put(question.getId(), TEST_CORRECT_ANSWER);
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    private static InputStream createResponseStream() {
+        return new ByteArrayInputStream(VALID_QUESTION_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void setUp() {
+        _questionPool = new TriviaQuestionPoolService(
+                _fetchService, _parsingService, _rateLimitService, true, POOL_CAPACITY, 1000L);
+    }
+
+    private void setupUpstreamBatch() {
+        when(_rateLimitService.rateLimit(any())).thenAnswer(invocation ->
+                ((Supplier<Object>) invocation.getArgument(0)).get());
+        when(_fetchService.fetchTriviaStream(BATCH_SIZE)).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenAnswer(invocation -> createQuestions(BATCH_SIZE, invocation.getArgument(1)));
+    }
+
+    @Test
+    void testRefill_FetchesFullBatchThroughRateLimiter() {
+        // Arrange
+        setupUpstreamBatch();
+
+        // Act
+        _questionPool.refill();
+
+        // Assert
+        QuestionPoolStatsDTO stats = _questionPool.getStats();
+        assertEquals(BATCH_SIZE, stats.getDepth());
+        assertEquals(BATCH_SIZE, stats.getRefilledQuestions());
+        assertEquals(1L, stats.getRefillBatches());
+        verify(_rateLimitService).rateLimit(any());
+        verify(_fetchService).fetchTriviaStream(BATCH_SIZE);
+    }
+
+    @Test
+    void testRefill_SkipsWhenNoRoomForFullBatch() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+
+        // Act
+        _questionPool.refill();
+
+        // Assert
+        verify(_fetchService, times(1)).fetchTriviaStream(anyInt());
+        assertEquals(BATCH_SIZE, _questionPool.getStats().getDepth());
+    }
+
+    @Test
+    void testRefill_CountsFailuresWithoutThrowing() {
+        // Arrange
+        when(_rateLimitService.rateLimit(any())).thenThrow(new IllegalStateException("Interrupted"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> _questionPool.refill());
+        assertEquals(1L, _questionPool.getStats().getRefillFailures());
+        assertEquals(0, _questionPool.getStats().getDepth());
+    }
+
+    @Test
+    void testTake_CountsHitsAndMisses() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+
+        // Act
+        List<ParsedQuestion> hit = _questionPool.take(DEFAULT_QUESTION_AMOUNT);
+        List<ParsedQuestion> miss = _questionPool.take(BATCH_SIZE);
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, hit.size());
+        assertEquals(BATCH_SIZE - DEFAULT_QUESTION_AMOUNT, miss.size());
+        assertEquals(TEST_CORRECT_ANSWER, hit.get(0).getCorrectAnswer());
+        QuestionPoolStatsDTO stats = _questionPool.getStats();
+        assertEquals(1L, stats.getHits());
+        assertEquals(1L, stats.getMisses());
+        assertEquals(0, stats.getDepth());
+    }
+
+    @Test
+    void testTake_DisabledPoolReturnsNothing() {
+        // Arrange
+        TriviaQuestionPoolService disabledPool = TriviaQuestionPoolService.disabled();
+
+        // Act
+        List<ParsedQuestion> taken = disabledPool.take(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertTrue(taken.isEmpty());
+        assertFalse(disabledPool.getStats().isEnabled());
+        assertEquals(0L, disabledPool.getStats().getMisses());
+    }
+
+    @Test
+    void testHandOver_GivesUpPooledQuestionsUntilResumed() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+
+        // Act
+        List<ParsedQuestion> handedOver = _questionPool.handOver();
+
+        // Assert
+        assertEquals(BATCH_SIZE, handedOver.size());
+        assertTrue(_questionPool.take(DEFAULT_QUESTION_AMOUNT).isEmpty());
+        _questionPool.resume(handedOver);
+        try {
+            assertEquals(DEFAULT_QUESTION_AMOUNT, _questionPool.take(DEFAULT_QUESTION_AMOUNT).size());
+        } finally {
+            _questionPool.stop();
+        }
+    }
+
+    @Test
+    void testGetQuestions_ServedFromPoolAndRegistersAnswers() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _questionPool, _messageService);
+
+        // Act
+        List<QuestionDTO> questions = triviaService.getQuestions(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, questions.size());
+        verify(_answerService, times(DEFAULT_QUESTION_AMOUNT))
+                .registerQuestion(any(), eq(TEST_CORRECT_ANSWER));
+        verify(_fetchService, times(1)).fetchTriviaStream(anyInt());
+    }
+
+    @Test
+    void testGetQuestions_FallsBackToDirectFetchForShortfall() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+        _questionPool.take(BATCH_SIZE - 2);
+        when(_rateLimitService.rateLimit(any(), any())).thenAnswer(invocation ->
+                ((Supplier<Object>) invocation.getArgument(1)).get());
+        when(_fetchService.fetchTriviaStream(eq(3), any())).thenAnswer(invocation -> createResponseStream());
+        when(_parsingService.parseQuestionsFromStream(any(), any()))
+                .thenAnswer(invocation -> createQuestions(3, invocation.getArgument(1)));
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _questionPool, _messageService);
+
+        // Act
+        List<QuestionDTO> questions = triviaService.getQuestions(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, questions.size());
+        verify(_fetchService).fetchTriviaStream(eq(3), any());
+    }
+
+    @Test
+    void testGetQuestionsAsync_CompletesImmediatelyWhenPoolCoversRequest() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _questionPool, _messageService);
+
+        // Act
+        CompletableFuture<List<QuestionDTO>> questions = triviaService.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertTrue(questions.isDone());
+        assertEquals(DEFAULT_QUESTION_AMOUNT, questions.join().size());
+        verify(_rateLimitService, never()).rateLimitAsync(any(), any());
+    }
+
+    @Test
+    void testGetQuestionsAsync_FetchesShortfallWithoutBlocking() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+        _questionPool.take(BATCH_SIZE - 2);
+        when(_rateLimitService.rateLimitAsync(any(), any())).thenAnswer(invocation ->
+                ((Supplier<CompletableFuture<List<QuestionDTO>>>) invocation.getArgument(1)).get());
+        when(_fetchService.fetchTriviaAsync(eq(3), any())).thenReturn(CompletableFuture.completedFuture(VALID_QUESTION_JSON));
+        when(_parsingService.parseQuestionsFromResponse(any(), any()))
+                .thenAnswer(invocation -> createQuestions(3, invocation.getArgument(1)));
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _questionPool, _messageService);
+
+        // Act
+        List<QuestionDTO> questions = triviaService.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT).join();
+
+        // Assert
+        assertEquals(DEFAULT_QUESTION_AMOUNT, questions.size());
+        verify(_fetchService).fetchTriviaAsync(eq(3), any());
+        verify(_answerService, times(DEFAULT_QUESTION_AMOUNT))
+                .registerQuestion(any(), eq(TEST_CORRECT_ANSWER));
+    }
+
+    @Test
+    void testGetQuestions_GivesPooledQuestionsBackWhenFetchFails() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+        _questionPool.take(BATCH_SIZE - 2);
+        when(_rateLimitService.rateLimit(any(), any()))
+                .thenThrow(new TriviaUpstreamException("Trivia API returned HTTP 500", 500));
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _questionPool, _messageService);
+
+        // Act
+        assertThrows(TriviaUpstreamException.class, () -> triviaService.getQuestions(DEFAULT_QUESTION_AMOUNT));
+
+        // Assert
+        assertEquals(2, _questionPool.getStats().getDepth());
+        verify(_answerService, never()).registerQuestion(any(), any());
+    }
+
+    @Test
+    void testGetQuestionsAsync_GivesPooledQuestionsBackWhenFetchFails() {
+        // Arrange
+        setupUpstreamBatch();
+        _questionPool.refill();
+        _questionPool.take(BATCH_SIZE - 2);
+        when(_rateLimitService.rateLimitAsync(any(), any())).thenReturn(
+                CompletableFuture.failedFuture(new TriviaUpstreamException("Trivia API returned HTTP 500", 500)));
+        TriviaServiceImpl triviaService = new TriviaServiceImpl(
+                _fetchService, _parsingService, _answerService, _rateLimitService, _questionPool, _messageService);
+
+        // Act
+        CompletableFuture<List<QuestionDTO>> questions = triviaService.getQuestionsAsync(DEFAULT_QUESTION_AMOUNT);
+
+        // Assert
+        assertThrows(CompletionException.class, questions::join);
+        assertEquals(2, _questionPool.getStats().getDepth());
+        verify(_answerService, never()).registerQuestion(any(), any());
+    }
+}
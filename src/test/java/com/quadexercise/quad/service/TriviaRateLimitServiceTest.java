@@ -0,0 +1,436 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.exceptions.TriviaDeadlineExceededException;
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
+import com.quadexercise.quad.interfaces.IRateLimitCoordinator;
+import com.quadexercise.quad.ratelimit.InMemoryRateLimitCoordinator;
+import com.quadexercise.quad.utils.ApiConstants;
+import com.quadexercise.quad.utils.Deadline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TriviaRateLimitServiceTest {
+
+    private static final int LEASE_BATCH_SIZE = 4;
+
+    @Mock
+    private MessageService _messageService;
+
+    private TriviaRateLimitService createSharedLimiter(IRateLimitCoordinator coordinator) {
+        return new TriviaRateLimitService(_messageService, SMALL_DELAY_MS, ApiConstants.MAX_BACKOFF_MS,
+                Optional.of(coordinator), LEASE_BATCH_SIZE, LARGE_DELAY_MS, TriviaPipelineMetrics.noop());
+    }
+
+    @Test
+    void testReserveSlot_HandsOutSlotsInOrderSpacedByInterval() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS);
+
+        // Act
+        long first = rateLimitService.reserveSlot(LARGE_DELAY_MS);
+        long second = rateLimitService.reserveSlot(LARGE_DELAY_MS);
+        long third = rateLimitService.reserveSlot(LARGE_DELAY_MS);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS, first);
+        assertEquals(LARGE_DELAY_MS + SMALL_DELAY_MS, second);
+        assertEquals(LARGE_DELAY_MS + SMALL_DELAY_MS * 2L, third);
+    }
+
+    @Test
+    void testReserveSlot_IdleLimiterStartsImmediately() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS);
+        rateLimitService.reserveSlot(0L);
+
+        // Act
+        long slot = rateLimitService.reserveSlot(LARGE_DELAY_MS);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS, slot);
+    }
+
+    @Test
+    void testGetIntervalMs_DefaultsToApiRateLimit() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService);
+
+        // Act & Assert
+        assertEquals(RATE_LIMIT_MS, rateLimitService.getIntervalMs());
+    }
+
+    @Test
+    void testReserveSlot_ConcurrentCallersGetDistinctSlots() throws InterruptedException {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS);
+        int callers = 16;
+        long[] slots = new long[callers];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    slots[index] = rateLimitService.reserveSlot(0L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Act
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(LARGE_DELAY_MS);
+        }
+
+        // Assert
+        long distinct = Arrays.stream(slots).distinct().count();
+        assertEquals(callers, distinct, "Every caller should get its own slot");
+        for (long slot : slots) {
+            assertEquals(0L, slot % SMALL_DELAY_MS, "Slots should be spaced by the interval");
+        }
+    }
+
+    @Test
+    void testRateLimit_OperationRunsOutsideCriticalSection() throws InterruptedException {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, 0L);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Thread first = new Thread(() -> rateLimitService.rateLimit(() -> {
+            firstRunning.countDown();
+            try {
+                return releaseFirst.await(LARGE_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        first.start();
+        firstRunning.await(LARGE_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        // Act
+        String result = rateLimitService.rateLimit(() -> TEST_MESSAGE);
+
+        // Assert
+        assertEquals(TEST_MESSAGE, result, "Second operation should not wait for the first to finish");
+        releaseFirst.countDown();
+        first.join(LARGE_DELAY_MS);
+    }
+
+    @Test
+    void testRateLimit_WaitsForReservedSlot() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS * 3L);
+        rateLimitService.rateLimit(() -> TEST_MESSAGE);
+
+        // Act
+        long start = System.currentTimeMillis();
+        rateLimitService.rateLimit(() -> TEST_MESSAGE);
+        long duration = System.currentTimeMillis() - start;
+
+        // Assert
+        assertTrue(SMALL_DELAY_MS * 2L <= duration,
+                String.format("Second call should wait for its slot, waited %d ms", duration));
+    }
+
+    @Test
+    void testRateLimit_NextSlotStartsIntervalAfterCallEnded() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = spy(new TriviaRateLimitService(_messageService, SMALL_DELAY_MS));
+        long callEnd = LARGE_DELAY_MS + RATE_LIMIT_MS;
+        doReturn(LARGE_DELAY_MS, callEnd).when(rateLimitService).getCurrentTimeMillis();
+        rateLimitService.rateLimit(() -> TEST_MESSAGE);
+
+        // Act
+        long slot = rateLimitService.reserveSlot(callEnd);
+
+        // Assert
+        assertEquals(callEnd + SMALL_DELAY_MS, slot, "Next call should start an interval after the previous one ended");
+    }
+
+    @Test
+    void testRateLimitAsync_ReturnsBeforeReservedSlot() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS * 3L);
+        rateLimitService.rateLimit(() -> TEST_MESSAGE);
+
+        // Act
+        long start = System.currentTimeMillis();
+        CompletableFuture<String> result = rateLimitService.rateLimitAsync(
+                () -> CompletableFuture.completedFuture(TEST_MESSAGE));
+        long returnedAfter = System.currentTimeMillis() - start;
+        boolean doneImmediately = result.isDone();
+
+        // Assert
+        assertFalse(doneImmediately, "Operation should be scheduled for the reserved slot");
+        assertTrue(returnedAfter < SMALL_DELAY_MS, "Caller should not wait for the slot");
+        assertEquals(TEST_MESSAGE, result.join());
+        long duration = System.currentTimeMillis() - start;
+        assertTrue(SMALL_DELAY_MS * 2L <= duration,
+                String.format("Operation should start at its slot, started after %d ms", duration));
+    }
+
+    @Test
+    void testRateLimitAsync_PropagatesOperationFailure() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, 0L);
+
+        // Act
+        CompletableFuture<String> result = rateLimitService.rateLimitAsync(() -> {
+            throw new IllegalStateException(TEST_MESSAGE);
+        });
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void testReserveSlot_RefusesSlotTooCloseToDeadline() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, LARGE_DELAY_MS);
+        rateLimitService.reserveSlot(0L);
+
+        // Act & Assert
+        assertThrows(TriviaDeadlineExceededException.class,
+                () -> rateLimitService.reserveSlot(0L, Deadline.at(LARGE_DELAY_MS + SMALL_DELAY_MS)));
+        assertEquals(LARGE_DELAY_MS, rateLimitService.reserveSlot(0L), "A refused caller should reserve nothing");
+    }
+
+    @Test
+    void testReturnSlot_LatestSlotGoesToNextCaller() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, LARGE_DELAY_MS);
+        rateLimitService.reserveSlot(0L);
+        long abandoned = rateLimitService.reserveSlot(0L);
+
+        // Act
+        rateLimitService.returnSlot(abandoned);
+        long next = rateLimitService.reserveSlot(0L);
+
+        // Assert
+        assertEquals(abandoned, next);
+    }
+
+    @Test
+    void testReturnSlot_EarlierSlotGoesToNextCaller() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, LARGE_DELAY_MS);
+        // Returned slots are only kept while they lie in the future
+        long now = System.currentTimeMillis() + LARGE_DELAY_MS * 60L;
+        rateLimitService.reserveSlot(now);
+        long abandoned = rateLimitService.reserveSlot(now);
+        long last = rateLimitService.reserveSlot(now);
+
+        // Act
+        rateLimitService.returnSlot(abandoned);
+        long next = rateLimitService.reserveSlot(now);
+        long afterNext = rateLimitService.reserveSlot(now);
+
+        // Assert
+        assertEquals(abandoned, next);
+        assertEquals(last + LARGE_DELAY_MS, afterNext);
+    }
+
+    @Test
+    void testRateLimitAsync_CancelledBeforeSlotHandsSlotBack() throws InterruptedException {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS * 3L);
+        rateLimitService.rateLimit(() -> TEST_MESSAGE);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> abandoned = rateLimitService.rateLimitAsync(Deadline.none(), () -> {
+            ran.set(true);
+            return CompletableFuture.completedFuture(TEST_MESSAGE);
+        });
+        long waitWithAbandoned = rateLimitService.estimateWaitMs();
+
+        // Act
+        abandoned.cancel(false);
+
+        // Assert
+        assertTrue(rateLimitService.estimateWaitMs() < waitWithAbandoned, "The slot should be free again");
+        TimeUnit.MILLISECONDS.sleep(SMALL_DELAY_MS * 5L);
+        assertFalse(ran.get(), "An abandoned operation should never start");
+    }
+
+    @Test
+    void testRateLimitAsync_FailsWithoutWaitingWhenSlotIsPastDeadline() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, LARGE_DELAY_MS);
+        rateLimitService.rateLimit(() -> TEST_MESSAGE);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // Act
+        CompletableFuture<String> result = rateLimitService.rateLimitAsync(Deadline.after(SMALL_DELAY_MS), () -> {
+            ran.set(true);
+            return CompletableFuture.completedFuture(TEST_MESSAGE);
+        });
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TriviaDeadlineExceededException.class, exception.getCause());
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void testReserveSlot_InstancesSharingScheduleGetSeparateSlots() {
+        // Arrange
+        InMemoryRateLimitCoordinator coordinator = new InMemoryRateLimitCoordinator();
+        TriviaRateLimitService first = createSharedLimiter(coordinator);
+        TriviaRateLimitService second = createSharedLimiter(coordinator);
+        long now = System.currentTimeMillis() + LARGE_DELAY_MS * 60L;
+
+        // Act
+        List<Long> slots = new ArrayList<>();
+        for (int i = 0; i < LEASE_BATCH_SIZE * 3; i++) {
+            slots.add(first.reserveSlot(now));
+            slots.add(second.reserveSlot(now));
+        }
+
+        // Assert
+        slots.sort(null);
+        for (int i = 1; i < slots.size(); i++) {
+            assertTrue(slots.get(i) - slots.get(i - 1) >= SMALL_DELAY_MS,
+                    "Slots of different instances should never be closer than the interval: " + slots);
+        }
+    }
+
+    @Test
+    void testReserveSlot_LeasesBatchOnlyWhileCallersWait() throws IOException {
+        // Arrange
+        IRateLimitCoordinator coordinator = spy(new InMemoryRateLimitCoordinator());
+        TriviaRateLimitService rateLimitService = createSharedLimiter(coordinator);
+        long now = System.currentTimeMillis() + LARGE_DELAY_MS * 60L;
+
+        // Act
+        for (int i = 0; i <= LEASE_BATCH_SIZE; i++) {
+            rateLimitService.reserveSlot(now);
+        }
+
+        // Assert
+        verify(coordinator).reserve(now, SMALL_DELAY_MS, 1);
+        verify(coordinator).reserve(now, SMALL_DELAY_MS, LEASE_BATCH_SIZE);
+        verifyNoMoreInteractions(coordinator);
+    }
+
+    @Test
+    void testReserveSlot_FallsBackToLocalScheduleWhenCoordinationFails() throws IOException {
+        // Arrange
+        IRateLimitCoordinator coordinator = mock(IRateLimitCoordinator.class);
+        when(coordinator.reserve(anyLong(), anyLong(), anyInt())).thenThrow(new IOException(TEST_MESSAGE));
+        TriviaRateLimitService rateLimitService = createSharedLimiter(coordinator);
+
+        // Act
+        long first = rateLimitService.reserveSlot(LARGE_DELAY_MS);
+        long second = rateLimitService.reserveSlot(LARGE_DELAY_MS);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS, first);
+        assertEquals(LARGE_DELAY_MS + SMALL_DELAY_MS, second);
+        verify(coordinator, times(1)).reserve(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testReserveSlot_UsesLocalScheduleWhileAnotherCallerLeases() throws Exception {
+        // Arrange
+        CountDownLatch leasing = new CountDownLatch(1);
+        CountDownLatch releaseLease = new CountDownLatch(1);
+        IRateLimitCoordinator coordinator = spy(new InMemoryRateLimitCoordinator());
+        doAnswer(invocation -> {
+            leasing.countDown();
+            releaseLease.await(LARGE_DELAY_MS, TimeUnit.MILLISECONDS);
+            return invocation.callRealMethod();
+        }).when(coordinator).reserve(anyLong(), anyLong(), anyInt());
+        TriviaRateLimitService rateLimitService = createSharedLimiter(coordinator);
+        CompletableFuture<Long> leased = CompletableFuture.supplyAsync(
+                () -> rateLimitService.reserveSlot(System.currentTimeMillis()));
+        leasing.await(LARGE_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        // Act
+        long start = System.currentTimeMillis();
+        rateLimitService.reserveSlot(start);
+        long waited = System.currentTimeMillis() - start;
+        releaseLease.countDown();
+
+        // Assert
+        assertTrue(waited < SMALL_DELAY_MS, String.format("Caller should not wait for the lease, waited %d ms", waited));
+        assertNotNull(leased.get(LARGE_DELAY_MS, TimeUnit.MILLISECONDS));
+        verify(coordinator, times(1)).reserve(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testBackOff_MovesSharedScheduleOutForOtherInstances() {
+        // Arrange
+        InMemoryRateLimitCoordinator coordinator = new InMemoryRateLimitCoordinator();
+        TriviaRateLimitService limited = createSharedLimiter(coordinator);
+        TriviaRateLimitService other = createSharedLimiter(coordinator);
+        long before = System.currentTimeMillis();
+
+        // Act
+        limited.backOff();
+        long slot = other.reserveSlot(System.currentTimeMillis());
+
+        // Assert
+        assertTrue(slot >= before + SMALL_DELAY_MS * 2L,
+                String.format("Other instance should wait out the backoff, slot in %d ms", slot - before));
+    }
+
+    @Test
+    void testTakeOver_GoesOnWithScheduleOfPreviousProcess() {
+        // Arrange
+        TriviaRateLimitService previous = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS);
+        previous.reserveSlot(LARGE_DELAY_MS);
+        previous.reserveSlot(LARGE_DELAY_MS);
+        TriviaRateLimitService next = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS);
+
+        // Act
+        next.takeOver(previous.handOver(), RATE_LIMIT_MS);
+        long slot = next.reserveSlot(LARGE_DELAY_MS);
+
+        // Assert
+        assertEquals(LARGE_DELAY_MS + SMALL_DELAY_MS * 2L, slot);
+        assertEquals(RATE_LIMIT_MS, next.getCurrentIntervalMs(), "A backed-off interval should be kept");
+    }
+
+    @Test
+    void testHandOver_RefusesSlotsUntilResumed() {
+        // Arrange
+        TriviaRateLimitService rateLimitService = new TriviaRateLimitService(_messageService, SMALL_DELAY_MS);
+        rateLimitService.reserveSlot(LARGE_DELAY_MS);
+
+        // Act
+        long nextFreeSlot = rateLimitService.handOver();
+
+        // Assert
+        assertThrows(TriviaOverloadedException.class, () -> rateLimitService.reserveSlot(LARGE_DELAY_MS));
+        assertEquals(0L, rateLimitService.getQueueDepth());
+        rateLimitService.resume(nextFreeSlot);
+        assertEquals(LARGE_DELAY_MS + SMALL_DELAY_MS, rateLimitService.reserveSlot(LARGE_DELAY_MS));
+    }
+}
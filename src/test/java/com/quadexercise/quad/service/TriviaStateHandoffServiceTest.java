@@ -0,0 +1,218 @@
+package com.quadexercise.quad.service;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.QuestionNotFoundException;
+import com.quadexercise.quad.exceptions.TriviaOverloadedException;
+import com.quadexercise.quad.model.ParsedQuestion;
+import com.quadexercise.quad.store.DurableAnswerStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+@ExtendWith(MockitoExtension.class)
+class TriviaStateHandoffServiceTest {
+
+    private static final long HANDOFF_TIMEOUT_MS = 10_000L;
+    private static final long POLL_INTERVAL_MS = 10L;
+
+    @TempDir
+    private Path _directory;
+
+    @Mock
+    private TriviaQuestionPoolService _questionPool;
+
+    private final List<TriviaStateHandoffService> _handoffs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        _handoffs.forEach(TriviaStateHandoffService::stop);
+    }
+
+    private TriviaStateHandoffService createHandoff(TriviaRateLimitService rateLimitService,
+                                                    TriviaAnswerService answerService) {
+        return createHandoff(rateLimitService, answerService, HANDOFF_TIMEOUT_MS);
+    }
+
+    private TriviaStateHandoffService createHandoff(TriviaRateLimitService rateLimitService,
+                                                    TriviaAnswerService answerService, long timeoutMs) {
+        TriviaStateHandoffService handoff = new TriviaStateHandoffService(rateLimitService, answerService,
+                true, _directory.resolve("handoff.sock").toString(), timeoutMs);
+        _handoffs.add(handoff);
+        return handoff;
+    }
+
+    private static QuestionDTO registerQuestion(TriviaAnswerService answerService) {
+        QuestionDTO question = new QuestionDTO();
+        question.setQuestion(TEST_QUESTION);
+        question.setAnswers(List.of(TEST_CORRECT_ANSWER, TEST_INCORRECT_ANSWERS().get(0)));
+        answerService.registerQuestion(question, TEST_CORRECT_ANSWER);
+        return question;
+    }
+
+    private static boolean isGraded(TriviaAnswerService answerService, QuestionDTO question) {
+        AnswerDTO answer = new AnswerDTO();
+        answer.setQuestionId(question.getId());
+        answer.setSelectedAnswer(TEST_CORRECT_ANSWER);
+        try {
+            return answerService.checkAnswer(answer).isCorrect();
+        } catch (QuestionNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean awaitGraded(TriviaAnswerService answerService, QuestionDTO question)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + HANDOFF_TIMEOUT_MS;
+        while (!isGraded(answerService, question) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        return isGraded(answerService, question);
+    }
+
+    @Test
+    void testStart_TakesOverStateOfPreviousProcess() throws InterruptedException {
+        // Arrange
+        TriviaRateLimitService oldRateLimit = new TriviaRateLimitService(null, LARGE_DELAY_MS);
+        TriviaAnswerService oldAnswers = new TriviaAnswerService();
+        QuestionDTO stored = registerQuestion(oldAnswers);
+        long now = System.currentTimeMillis();
+        oldRateLimit.reserveSlot(now);
+        oldRateLimit.reserveSlot(now);
+        ParsedQuestion pooled = new ParsedQuestion(registerQuestion(oldAnswers), TEST_CORRECT_ANSWER);
+        when(_questionPool.handOver()).thenReturn(List.of(pooled));
+        TriviaStateHandoffService old = createHandoff(oldRateLimit, oldAnswers);
+        old.registerQuestionPool(_questionPool);
+        old.ready();
+        TriviaRateLimitService newRateLimit = new TriviaRateLimitService(null, LARGE_DELAY_MS);
+        TriviaAnswerService newAnswers = new TriviaAnswerService();
+        TriviaStateHandoffService taking = createHandoff(newRateLimit, newAnswers);
+
+        // Act
+        taking.start();
+        taking.ready();
+        QuestionDTO late = registerQuestion(oldAnswers);
+
+        // Assert
+        assertTrue(isGraded(newAnswers, stored));
+        List<ParsedQuestion> questions = taking.takeOverQuestions();
+        assertEquals(1, questions.size());
+        assertEquals(pooled.getQuestion().getQuestion(), questions.get(0).getQuestion().getQuestion());
+        assertEquals(TEST_CORRECT_ANSWER, questions.get(0).getCorrectAnswer());
+        assertTrue(newRateLimit.reserveSlot(System.currentTimeMillis()) >= now + LARGE_DELAY_MS * 2L,
+                "New process should go on with the schedule of the previous one");
+        assertThrows(TriviaOverloadedException.class, () -> oldRateLimit.reserveSlot(System.currentTimeMillis()));
+        assertTrue(awaitGraded(newAnswers, late), "Answers registered after the handoff should be passed on");
+        verify(_questionPool, never()).resume(any());
+    }
+
+    @Test
+    void testStart_TakesOverAnswersOfDurableProcess() throws InterruptedException {
+        // Arrange
+        Path answerDirectory = _directory.resolve("answers");
+        DurableAnswerStore oldStore = new DurableAnswerStore(DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, answerDirectory, 0L);
+        TriviaAnswerService oldAnswers = new TriviaAnswerService(
+                TriviaAnswerService.MODE_DURABLE, oldStore, TriviaPipelineMetrics.noop());
+        QuestionDTO stored = registerQuestion(oldAnswers);
+        TriviaStateHandoffService old = createHandoff(new TriviaRateLimitService(null, SMALL_DELAY_MS), oldAnswers);
+        old.ready();
+        DurableAnswerStore newStore = new DurableAnswerStore(DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, answerDirectory, 0L);
+        TriviaAnswerService newAnswers = new TriviaAnswerService(
+                TriviaAnswerService.MODE_DURABLE, newStore, TriviaPipelineMetrics.noop());
+        TriviaStateHandoffService taking = createHandoff(new TriviaRateLimitService(null, SMALL_DELAY_MS), newAnswers);
+
+        // Act
+        taking.start();
+        taking.ready();
+        QuestionDTO late = registerQuestion(oldAnswers);
+        boolean lateGraded = awaitGraded(newAnswers, late);
+        old.stop();
+        oldStore.close();
+        newStore.close();
+        DurableAnswerStore restartedStore = new DurableAnswerStore(
+                DEFAULT_QUESTION_AMOUNT, LARGE_DELAY_MS, answerDirectory, 0L);
+        TriviaAnswerService restarted = new TriviaAnswerService(
+                TriviaAnswerService.MODE_DURABLE, restartedStore, TriviaPipelineMetrics.noop());
+
+        // Assert
+        assertTrue(isGraded(newAnswers, stored));
+        assertTrue(lateGraded, "Answers registered after the handoff should be passed on in durable mode too");
+        assertTrue(isGraded(restarted, stored));
+        assertTrue(isGraded(restarted, late), "Answers logged after the handoff should survive a restart");
+        restartedStore.close();
+    }
+
+    @Test
+    void testHandOver_ResumesWhenNewProcessStopsBeforeStarting() throws InterruptedException {
+        // Arrange
+        TriviaRateLimitService oldRateLimit = new TriviaRateLimitService(null, SMALL_DELAY_MS);
+        TriviaAnswerService oldAnswers = new TriviaAnswerService();
+        List<ParsedQuestion> pooled = List.of(new ParsedQuestion(registerQuestion(oldAnswers), TEST_CORRECT_ANSWER));
+        when(_questionPool.handOver()).thenReturn(pooled);
+        TriviaStateHandoffService old = createHandoff(oldRateLimit, oldAnswers);
+        old.registerQuestionPool(_questionPool);
+        old.ready();
+        TriviaStateHandoffService taking = createHandoff(
+                new TriviaRateLimitService(null, SMALL_DELAY_MS), new TriviaAnswerService());
+        taking.start();
+
+        // Act
+        taking.stop();
+
+        // Assert
+        verify(_questionPool, timeout(HANDOFF_TIMEOUT_MS)).resume(pooled);
+        assertDoesNotThrow(() -> oldRateLimit.reserveSlot(System.currentTimeMillis()));
+        assertTrue(Files.exists(_directory.resolve("handoff.sock")), "Previous process should keep listening");
+    }
+
+    @Test
+    void testHandOver_ResumesWhenNewProcessDoesNotStartInTime() throws IOException {
+        // Arrange
+        TriviaRateLimitService oldRateLimit = new TriviaRateLimitService(null, SMALL_DELAY_MS);
+        TriviaAnswerService oldAnswers = new TriviaAnswerService();
+        List<ParsedQuestion> pooled = List.of(new ParsedQuestion(registerQuestion(oldAnswers), TEST_CORRECT_ANSWER));
+        when(_questionPool.handOver()).thenReturn(pooled);
+        TriviaStateHandoffService old = createHandoff(oldRateLimit, oldAnswers, SMALL_DELAY_MS);
+        old.registerQuestionPool(_questionPool);
+        old.ready();
+
+        // Act
+        try (SocketChannel ignored = SocketChannel.open(UnixDomainSocketAddress.of(_directory.resolve("handoff.sock")))) {
+
+            // Assert
+            verify(_questionPool, timeout(HANDOFF_TIMEOUT_MS)).resume(pooled);
+        }
+        assertDoesNotThrow(() -> oldRateLimit.reserveSlot(System.currentTimeMillis()));
+    }
+
+    @Test
+    void testStart_WithoutPreviousProcessStartsEmpty() {
+        // Arrange
+        TriviaAnswerService answerService = new TriviaAnswerService();
+        TriviaStateHandoffService handoff = createHandoff(
+                new TriviaRateLimitService(null, SMALL_DELAY_MS), answerService);
+
+        // Act
+        handoff.start();
+
+        // Assert
+        assertTrue(handoff.takeOverQuestions().isEmpty());
+        assertEquals(0, answerService.getStats().getSize());
+    }
+}
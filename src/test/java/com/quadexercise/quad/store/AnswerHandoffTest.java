@@ -0,0 +1,221 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.interfaces.IAnswerStore;
+import com.quadexercise.quad.utils.QuestionIds;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class AnswerHandoffTest {
+
+    private static final long QUESTION_ID = 42L;
+    private static final long OTHER_ID = 43L;
+    private static final long THIRD_ID = 44L;
+    private static final int MAX_ENTRIES = 10;
+    private static final String OTHER_ANSWER = "Oxygen";
+
+    private final AtomicLong _now = new AtomicLong(LARGE_DELAY_MS);
+    private final ByteArrayOutputStream _bytes = new ByteArrayOutputStream();
+
+    private BoundedAnswerStore createTextStore() {
+        return new BoundedAnswerStore(MAX_ENTRIES, LARGE_DELAY_MS, _now::get);
+    }
+
+    private AnswerHandoffWriter createWriter(IAnswerStore store) {
+        return new AnswerHandoffWriter(store, new DataOutputStream(_bytes), _now::get);
+    }
+
+    private DataInputStream handedOff() {
+        return new DataInputStream(new ByteArrayInputStream(_bytes.toByteArray()));
+    }
+
+    private static QuestionDTO createQuestion() {
+        QuestionDTO question = new QuestionDTO();
+        question.setQuestion(TEST_QUESTION);
+        List<String> answers = new ArrayList<>(TEST_INCORRECT_ANSWERS());
+        answers.add(1, TEST_CORRECT_ANSWER);
+        question.setAnswers(answers);
+        return question;
+    }
+
+    @Test
+    void testReadStored_RestoresAnswersWithTheirExpiry() throws IOException {
+        // Arrange
+        BoundedAnswerStore source = createTextStore();
+        source.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+        source.put(OTHER_ID, OTHER_ANSWER);
+        _now.addAndGet(SMALL_DELAY_MS);
+        source.put(THIRD_ID, TEST_CORRECT_ANSWER);
+        BoundedAnswerStore target = createTextStore();
+
+        // Act
+        long written = createWriter(source).writeStored();
+        long stored = new AnswerHandoffReader(target, _now::get).readStored(handedOff());
+
+        // Assert
+        assertEquals(3L, written);
+        assertEquals(3L, stored);
+        assertEquals(TEST_CORRECT_ANSWER, target.get(QUESTION_ID));
+        assertEquals(OTHER_ANSWER, target.get(OTHER_ID));
+        assertEquals(TEST_CORRECT_ANSWER, target.get(THIRD_ID));
+        _now.addAndGet(LARGE_DELAY_MS - SMALL_DELAY_MS);
+        assertNull(target.get(QUESTION_ID), "Handed off answers should keep their original expiry");
+        assertEquals(TEST_CORRECT_ANSWER, target.get(THIRD_ID));
+    }
+
+    @Test
+    void testWriteStored_LeavesOutExpiredAnswers() throws IOException {
+        // Arrange
+        BoundedAnswerStore source = createTextStore();
+        source.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+        _now.addAndGet(LARGE_DELAY_MS);
+        BoundedAnswerStore target = createTextStore();
+
+        // Act
+        long written = createWriter(source).writeStored();
+        long stored = new AnswerHandoffReader(target, _now::get).readStored(handedOff());
+
+        // Assert
+        assertEquals(0L, written);
+        assertEquals(0L, stored);
+        assertEquals(0, target.size());
+    }
+
+    @Test
+    void testReadRegistered_StoresAnswersPassedOnAfterStoredOnes() throws IOException {
+        // Arrange
+        BoundedAnswerStore source = createTextStore();
+        source.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+        AnswerHandoffWriter writer = createWriter(source);
+        writer.writeStored();
+        writer.writeRegistered(OTHER_ID, createQuestion(), TEST_CORRECT_ANSWER);
+        writer.writeRegistered(THIRD_ID, createQuestion(), OTHER_ANSWER);
+        writer.forwardQueued();
+        BoundedAnswerStore target = createTextStore();
+        AnswerHandoffReader reader = new AnswerHandoffReader(target, _now::get);
+        DataInputStream in = handedOff();
+
+        // Act
+        long stored = reader.readStored(in);
+        long registered = reader.readRegistered(in);
+
+        // Assert
+        assertEquals(1L, stored);
+        assertEquals(2L, registered);
+        assertEquals(TEST_CORRECT_ANSWER, target.get(OTHER_ID));
+        assertEquals(OTHER_ANSWER, target.get(THIRD_ID));
+    }
+
+    @Test
+    void testWriteRegistered_LeavesStreamToForwardingThread() throws IOException {
+        // Arrange
+        BoundedAnswerStore source = createTextStore();
+        AnswerHandoffWriter writer = createWriter(source);
+        writer.writeStored();
+        int storedBytes = _bytes.size();
+
+        // Act
+        writer.writeRegistered(QUESTION_ID, createQuestion(), TEST_CORRECT_ANSWER);
+        int queuedBytes = _bytes.size();
+        writer.startForwarding();
+        writer.finish(LARGE_DELAY_MS);
+
+        // Assert
+        assertEquals(storedBytes, queuedBytes);
+        BoundedAnswerStore target = createTextStore();
+        AnswerHandoffReader reader = new AnswerHandoffReader(target, _now::get);
+        DataInputStream in = handedOff();
+        reader.readStored(in);
+        assertEquals(1L, reader.readRegistered(in));
+        assertEquals(TEST_CORRECT_ANSWER, target.get(QUESTION_ID));
+    }
+
+    @Test
+    void testReadStored_RestoresAnswerIndexes() throws IOException {
+        // Arrange
+        AnswerIndexStore source = new AnswerIndexStore(MAX_ENTRIES, RATE_LIMIT_MS);
+        long questionId = QuestionIds.next();
+        source.put(questionId, createQuestion(), TEST_CORRECT_ANSWER);
+        AnswerIndexStore target = new AnswerIndexStore(MAX_ENTRIES, RATE_LIMIT_MS);
+        AnswerHandoffWriter writer = createWriter(source);
+        writer.writeStored();
+        long registeredId = QuestionIds.next();
+        writer.writeRegistered(registeredId, createQuestion(), OTHER_ANSWER);
+        writer.forwardQueued();
+        AnswerHandoffReader reader = new AnswerHandoffReader(target);
+        DataInputStream in = handedOff();
+
+        // Act
+        long stored = reader.readStored(in);
+        long registered = reader.readRegistered(in);
+
+        // Assert
+        assertEquals(1L, stored);
+        assertEquals(1L, registered);
+        assertEquals(1, target.get(questionId));
+        assertEquals(2, target.get(registeredId));
+    }
+
+    @Test
+    void testReadStored_SkipsAnswersTheStoreCantKeep() throws IOException {
+        // Arrange
+        BoundedAnswerStore source = createTextStore();
+        source.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+        source.put(OTHER_ID, OTHER_ANSWER);
+        AnswerIndexStore target = new AnswerIndexStore(MAX_ENTRIES, RATE_LIMIT_MS);
+        createWriter(source).writeStored();
+        AnswerHandoffReader reader = new AnswerHandoffReader(target, _now::get);
+
+        // Act
+        long stored = reader.readStored(handedOff());
+
+        // Assert
+        assertEquals(0L, stored);
+        assertEquals(2L, reader.getSkipped());
+        assertEquals(0, target.size());
+    }
+
+    @Test
+    void testWriteStored_SendsOnlyEmptyBlockForStoreWithoutAnswersInMemory() throws IOException {
+        // Arrange
+        AnswerHandoffWriter writer = createWriter(null);
+
+        // Act
+        long written = writer.writeStored();
+        writer.writeRegistered(QUESTION_ID, createQuestion(), TEST_CORRECT_ANSWER);
+        writer.forwardQueued();
+
+        // Assert
+        assertEquals(0L, written);
+        assertEquals(Integer.BYTES, _bytes.size());
+        assertEquals(0L, new AnswerHandoffReader(createTextStore(), _now::get).readStored(handedOff()));
+    }
+
+    @Test
+    void testReadStored_FailsWhenHandoffEndsEarly() throws IOException {
+        // Arrange
+        BoundedAnswerStore source = createTextStore();
+        source.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+        createWriter(source).writeStored();
+        byte[] truncated = Arrays.copyOf(_bytes.toByteArray(), _bytes.size() - Integer.BYTES);
+        AnswerHandoffReader reader = new AnswerHandoffReader(createTextStore(), _now::get);
+
+        // Act & Assert
+        assertThrows(EOFException.class,
+                () -> reader.readStored(new DataInputStream(new ByteArrayInputStream(truncated))));
+    }
+}
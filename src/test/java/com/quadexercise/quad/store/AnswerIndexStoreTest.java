@@ -0,0 +1,217 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import com.quadexercise.quad.dto.QuestionDTO;
+import com.quadexercise.quad.exceptions.UnsupportedAnswerException;
+import com.quadexercise.quad.utils.QuestionIds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class AnswerIndexStoreTest {
+
+    private final AtomicLong _now = new AtomicLong(System.currentTimeMillis());
+
+    private AnswerIndexStore createStore(int maxEntries, int segments) {
+        return new AnswerIndexStore(maxEntries, RATE_LIMIT_MS, segments, _now::get);
+    }
+
+    @Test
+    void testGet_ReturnsStoredIndex() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+        long questionId = QuestionIds.next();
+
+        // Act
+        store.put(questionId, 3);
+
+        // Assert
+        assertEquals(3, store.get(questionId));
+        assertEquals(-1, store.get(QuestionIds.next()));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testPut_OverwriteKeepsSingleEntry() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+        long questionId = QuestionIds.next();
+        store.put(questionId, 1);
+
+        // Act
+        store.put(questionId, 2);
+
+        // Assert
+        assertEquals(2, store.get(questionId));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testPut_RejectsIndexOutsideByteRange() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.put(QuestionIds.next(), -1));
+        assertThrows(IllegalArgumentException.class, () -> store.put(QuestionIds.next(), 128));
+        assertThrows(IllegalArgumentException.class, () -> store.put(0L, 1));
+    }
+
+    @Test
+    void testGet_ExpiresByTimeEmbeddedInId() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+        long questionId = QuestionIds.next();
+        store.put(questionId, 1);
+
+        // Act
+        _now.set(QuestionIds.timestampOf(questionId) + RATE_LIMIT_MS);
+
+        // Assert
+        assertEquals(-1, store.get(questionId));
+    }
+
+    @Test
+    void testPut_FullSegmentDropsExpiredThenOldest() {
+        // Arrange
+        int maxEntries = 16;
+        AnswerIndexStore store = createStore(maxEntries, 1);
+        List<Long> ids = new ArrayList<>(maxEntries + 1);
+        for (int i = 0; i < maxEntries + 1; i++) {
+            ids.add(QuestionIds.next());
+        }
+        for (int i = 0; i < maxEntries; i++) {
+            store.put(ids.get(i), 0);
+        }
+
+        // Act
+        store.put(ids.get(maxEntries), 1);
+
+        // Assert
+        assertEquals(maxEntries / 8, store.getEvictions());
+        assertEquals(-1, store.get(ids.get(0)), "Oldest entry should be evicted first");
+        assertEquals(0, store.get(ids.get(maxEntries - 1)));
+        assertEquals(1, store.get(ids.get(maxEntries)));
+        assertEquals(maxEntries - maxEntries / 8 + 1, store.size());
+    }
+
+    @Test
+    void testCheck_GradesBySelectedIndex() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+        QuestionDTO question = new QuestionDTO();
+        question.setAnswers(List.of("Oxygen", TEST_CORRECT_ANSWER, "Hydrogen"));
+        long questionId = QuestionIds.decode(question.getId());
+        store.put(questionId, question, TEST_CORRECT_ANSWER);
+
+        AnswerDTO right = new AnswerDTO();
+        right.setSelectedIndex(1);
+        AnswerDTO wrong = new AnswerDTO();
+        wrong.setSelectedIndex(2);
+
+        // Act
+        AnswerResultDTO rightResult = store.check(questionId, right);
+        AnswerResultDTO wrongResult = store.check(questionId, wrong);
+
+        // Assert
+        assertTrue(rightResult.isCorrect());
+        assertEquals(1, rightResult.getCorrectIndex());
+        assertFalse(wrongResult.isCorrect());
+        assertNull(store.check(QuestionIds.next(), right));
+    }
+
+    @Test
+    void testCheck_RefusesAnswersSentAsText() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+        QuestionDTO question = new QuestionDTO();
+        question.setAnswers(List.of("Oxygen", TEST_CORRECT_ANSWER, "Hydrogen"));
+        long questionId = QuestionIds.decode(question.getId());
+        store.put(questionId, question, TEST_CORRECT_ANSWER);
+
+        // Act & Assert
+        for (String selected : List.of("Oxygen", TEST_CORRECT_ANSWER, "Hydrogen", "Made up")) {
+            AnswerDTO answer = new AnswerDTO();
+            answer.setSelectedAnswer(selected);
+            assertThrows(UnsupportedAnswerException.class, () -> store.check(questionId, answer), selected);
+        }
+        assertFalse(store.check(questionId, new AnswerDTO()).isCorrect(), "An unanswered question is wrong");
+    }
+
+    @Test
+    void testPut_SkipsQuestionWithoutItsCorrectAnswer() {
+        // Arrange
+        AnswerIndexStore store = createStore(16, 1);
+        QuestionDTO question = new QuestionDTO();
+        question.setAnswers(List.of("Oxygen", "Hydrogen"));
+        long questionId = QuestionIds.decode(question.getId());
+
+        // Act
+        assertDoesNotThrow(() -> store.put(questionId, question, TEST_CORRECT_ANSWER));
+
+        // Assert
+        assertEquals(-1, store.get(questionId));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testGet_ConcurrentReadersSeeEveryWrite() throws InterruptedException {
+        // Arrange
+        int entries = 20_000;
+        AnswerIndexStore store = createStore(entries * 2, 8);
+        long[] ids = new long[entries];
+        for (int i = 0; i < entries; i++) {
+            ids[i] = QuestionIds.next();
+        }
+        AtomicBoolean mismatch = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < entries; i++) {
+                store.put(ids[i], i % 4);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            awaitQuietly(start);
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < entries; i++) {
+                    int index = store.get(ids[i]);
+                    if (index != -1 && index != i % 4) {
+                        mismatch.set(true);
+                    }
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+
+        // Act
+        start.countDown();
+        writer.join(RATE_LIMIT_MS);
+        reader.join(RATE_LIMIT_MS);
+
+        // Assert
+        assertFalse(mismatch.get(), "Readers should never see a wrong index");
+        assertEquals(entries, store.size());
+        for (int i = 0; i < entries; i++) {
+            assertEquals(i % 4, store.get(ids[i]));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
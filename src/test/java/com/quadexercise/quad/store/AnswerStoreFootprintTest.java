@@ -0,0 +1,51 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.utils.QuestionIds;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the retained heap of the answer stores with JOL.
+ * The baseline is the original map of UUID strings to parsed answer strings.
+ */
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class AnswerStoreFootprintTest {
+
+    // 16 segments of 3072 entries each, which fill their tables to exactly the load factor
+    private static final int SEGMENTS = 16;
+    private static final int ENTRIES = SEGMENTS * 3072;
+
+    private static double bytesPerEntry(Object root, int entries) {
+        return (double) GraphLayout.parseInstance(root).totalSize() / entries;
+    }
+
+    @Test
+    void testIndexStore_UsesAnOrderOfMagnitudeLessHeapThanStringMap() {
+        // Arrange
+        Map<String, String> baseline = new HashMap<>(0);
+        AnswerIndexStore indexStore = new AnswerIndexStore(
+                ENTRIES, LARGE_DELAY_MS * 3_600L, SEGMENTS, System::currentTimeMillis);
+
+        // Act
+        for (int i = 0; i < ENTRIES; i++) {
+            // Every parsed response carried its own copy of the answer text
+            baseline.put(UUID.randomUUID().toString(), TEST_CORRECT_ANSWER + i);
+            indexStore.put(QuestionIds.next(), i & 3);
+        }
+        double baselineBytes = bytesPerEntry(baseline, ENTRIES);
+        // Uneven hashing can make a segment evict early, so count what was actually kept
+        double indexBytes = bytesPerEntry(indexStore, indexStore.size());
+
+        // Assert
+        assertTrue(indexBytes * 10.0 <= baselineBytes,
+                String.format("Index store should need 10x less heap: %.1f vs %.1f bytes/entry",
+                        indexBytes, baselineBytes));
+    }
+}
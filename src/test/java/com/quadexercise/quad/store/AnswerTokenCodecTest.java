@@ -0,0 +1,95 @@
+package com.quadexercise.quad.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class AnswerTokenCodecTest {
+
+    private static final byte[] SECRET = "test-secret".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong _now = new AtomicLong(LARGE_DELAY_MS);
+
+    private AnswerTokenCodec createCodec(byte[] secret) {
+        return new AnswerTokenCodec(secret, LARGE_DELAY_MS, _now::get);
+    }
+
+    @Test
+    void testDecode_RoundTripsCorrectAnswer() {
+        // Arrange
+        AnswerTokenCodec codec = createCodec(SECRET);
+
+        // Act
+        String token = codec.encode(TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertEquals(TEST_CORRECT_ANSWER, codec.decode(token));
+        assertFalse(token.contains(TEST_CORRECT_ANSWER), "Token should not reveal the answer");
+        assertEquals(1L, codec.getIssued());
+    }
+
+    @Test
+    void testDecode_OtherNodeWithSameSecretAccepts() {
+        // Arrange
+        String token = createCodec(SECRET).encode(TEST_CORRECT_ANSWER);
+
+        // Act & Assert
+        assertEquals(TEST_CORRECT_ANSWER, createCodec(SECRET.clone()).decode(token));
+    }
+
+    @Test
+    void testDecode_RejectsTokenFromDifferentSecret() {
+        // Arrange
+        String token = createCodec("other-secret".getBytes(StandardCharsets.UTF_8)).encode(TEST_CORRECT_ANSWER);
+        AnswerTokenCodec codec = createCodec(SECRET);
+
+        // Act & Assert
+        assertNull(codec.decode(token));
+        assertEquals(1L, codec.getRejected());
+    }
+
+    @Test
+    void testDecode_RejectsTamperedExpiry() {
+        // Arrange
+        AnswerTokenCodec codec = createCodec(SECRET);
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(TEST_CORRECT_ANSWER));
+        bytes[1] ^= 0x7F;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // Act & Assert
+        assertNull(codec.decode(tampered));
+        assertEquals(1L, codec.getRejected());
+    }
+
+    @Test
+    void testDecode_RejectsExpiredToken() {
+        // Arrange
+        AnswerTokenCodec codec = createCodec(SECRET);
+        String token = codec.encode(TEST_CORRECT_ANSWER);
+
+        // Act
+        _now.addAndGet(LARGE_DELAY_MS);
+
+        // Assert
+        assertNull(codec.decode(token));
+        assertEquals(1L, codec.getExpired());
+    }
+
+    @Test
+    void testDecode_RejectsMalformedIds() {
+        // Arrange
+        AnswerTokenCodec codec = createCodec(SECRET);
+
+        // Act & Assert
+        assertNull(codec.decode(null));
+        assertNull(codec.decode(TEST_QUESTION_ID));
+        assertNull(codec.decode("not base64!"));
+        assertEquals(3L, codec.getRejected());
+    }
+}
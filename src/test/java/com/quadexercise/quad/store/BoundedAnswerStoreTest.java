@@ -0,0 +1,143 @@
+package com.quadexercise.quad.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class BoundedAnswerStoreTest {
+
+    private static final long QUESTION_ID = 42L;
+    private static final long UNKNOWN_ID = 7L;
+
+    private final AtomicLong _now = new AtomicLong(LARGE_DELAY_MS);
+
+    private BoundedAnswerStore createStore(int maxEntries) {
+        return new BoundedAnswerStore(maxEntries, LARGE_DELAY_MS, _now::get);
+    }
+
+    @Test
+    void testGet_ReturnsStoredAnswer() {
+        // Arrange
+        BoundedAnswerStore store = createStore(10);
+        store.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+
+        // Act & Assert
+        assertEquals(TEST_CORRECT_ANSWER, store.get(QUESTION_ID));
+        assertNull(store.get(UNKNOWN_ID));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testGet_ExpiredEntryIsRemovedAndCounted() {
+        // Arrange
+        BoundedAnswerStore store = createStore(10);
+        store.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+
+        // Act
+        _now.addAndGet(LARGE_DELAY_MS);
+
+        // Assert
+        assertNull(store.get(QUESTION_ID));
+        assertEquals(0, store.size());
+        assertEquals(1L, store.getExpirations());
+    }
+
+    @Test
+    void testPut_EvictsUnreferencedEntryWhenFull() {
+        // Arrange
+        BoundedAnswerStore store = createStore(3);
+        store.put(1L, TEST_CORRECT_ANSWER);
+        store.put(2L, TEST_CORRECT_ANSWER);
+        store.put(3L, TEST_CORRECT_ANSWER);
+        store.get(1L);
+
+        // Act
+        store.put(4L, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertEquals(3, store.size());
+        assertEquals(1L, store.getEvictions());
+        assertNotNull(store.get(1L), "Recently read entry should get a second chance");
+        assertNull(store.get(2L));
+        assertNotNull(store.get(4L));
+    }
+
+    @Test
+    void testPut_ReusesExpiredSlotBeforeEvicting() {
+        // Arrange
+        BoundedAnswerStore store = createStore(2);
+        store.put(1L, TEST_CORRECT_ANSWER);
+        _now.addAndGet(SMALL_DELAY_MS);
+        store.put(2L, TEST_CORRECT_ANSWER);
+        _now.addAndGet(LARGE_DELAY_MS - SMALL_DELAY_MS);
+
+        // Act
+        store.put(3L, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertEquals(0L, store.getEvictions());
+        assertEquals(1L, store.getExpirations());
+        assertNotNull(store.get(2L));
+        assertNotNull(store.get(3L));
+    }
+
+    @Test
+    void testPut_OverwriteKeepsSingleEntry() {
+        // Arrange
+        BoundedAnswerStore store = createStore(2);
+        store.put(QUESTION_ID, TEST_INCORRECT_ANSWERS().get(0));
+
+        // Act
+        store.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals(TEST_CORRECT_ANSWER, store.get(QUESTION_ID));
+    }
+
+    @Test
+    void testPut_ConcurrentWritersNeverExceedCapacity() throws InterruptedException {
+        // Arrange
+        int maxEntries = 64;
+        int writers = 8;
+        int writesPerWriter = 1_000;
+        BoundedAnswerStore store = createStore(maxEntries);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(writers);
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < writesPerWriter; i++) {
+                    long id = (long) writer * writesPerWriter + i;
+                    store.put(id, TEST_CORRECT_ANSWER);
+                    store.get(id);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Act
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(RATE_LIMIT_MS);
+        }
+
+        // Assert
+        assertEquals(maxEntries, store.size());
+        assertEquals((long) writers * writesPerWriter - maxEntries, store.getEvictions());
+    }
+}
@@ -0,0 +1,188 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class DurableAnswerStoreTest {
+
+    private static final long QUESTION_ID = 42L;
+    private static final long OTHER_ID = 43L;
+    private static final long THIRD_ID = 44L;
+    private static final int MAX_ENTRIES = 10;
+
+    @TempDir
+    private Path _directory;
+
+    private final AtomicLong _now = new AtomicLong(LARGE_DELAY_MS);
+    private final List<DurableAnswerStore> _stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        _stores.forEach(DurableAnswerStore::close);
+    }
+
+    private DurableAnswerStore openStore() {
+        DurableAnswerStore store = new DurableAnswerStore(MAX_ENTRIES, LARGE_DELAY_MS, _directory, 0L, _now::get);
+        _stores.add(store);
+        return store;
+    }
+
+    private static AnswerResultDTO check(DurableAnswerStore store, long questionId) {
+        AnswerDTO answer = new AnswerDTO();
+        answer.setSelectedAnswer(TEST_CORRECT_ANSWER);
+        return store.check(questionId, answer);
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(_directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    void testRecover_RestoresAnswersFromSnapshotAfterClose() throws IOException {
+        // Arrange
+        DurableAnswerStore store = openStore();
+        store.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        store.close();
+
+        // Act
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertTrue(check(recovered, QUESTION_ID).isCorrect());
+        assertEquals(1, recovered.getStats().getSize());
+        assertEquals(List.of("answers-2.snap", "answers-3.wal", "store.lock"), fileNames(),
+                "Snapshot should replace the log it covers");
+    }
+
+    @Test
+    void testRecover_ReplaysLogWithoutSnapshot() {
+        // Arrange
+        DurableAnswerStore crashed = openStore();
+        crashed.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        crashed.closeWithoutSnapshot();
+
+        // Act
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertTrue(check(recovered, QUESTION_ID).isCorrect());
+    }
+
+    @Test
+    void testRecover_ReplaysLogWrittenAfterSnapshot() {
+        // Arrange
+        DurableAnswerStore crashed = openStore();
+        crashed.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        crashed.snapshot();
+        crashed.put(OTHER_ID, null, TEST_CORRECT_ANSWER);
+        crashed.closeWithoutSnapshot();
+
+        // Act
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertNotNull(check(recovered, QUESTION_ID));
+        assertNotNull(check(recovered, OTHER_ID));
+    }
+
+    @Test
+    void testRecover_KeepsOriginalExpiry() {
+        // Arrange
+        DurableAnswerStore store = openStore();
+        store.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        _now.addAndGet(SMALL_DELAY_MS);
+        store.put(OTHER_ID, null, TEST_CORRECT_ANSWER);
+        store.close();
+
+        // Act
+        _now.addAndGet(LARGE_DELAY_MS - SMALL_DELAY_MS);
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertNull(check(recovered, QUESTION_ID), "Expired answer should not be restored");
+        assertNotNull(check(recovered, OTHER_ID));
+        _now.addAndGet(SMALL_DELAY_MS);
+        assertNull(check(recovered, OTHER_ID), "Restored answer should expire at its original time");
+    }
+
+    @Test
+    void testRecover_IgnoresTornLogTail() throws IOException {
+        // Arrange
+        DurableAnswerStore crashed = openStore();
+        crashed.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        crashed.put(OTHER_ID, null, TEST_CORRECT_ANSWER);
+        crashed.closeWithoutSnapshot();
+        Path segment = _directory.resolve("answers-1.wal");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1L);
+        }
+
+        // Act
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertNotNull(check(recovered, QUESTION_ID));
+        assertNull(check(recovered, OTHER_ID), "Torn record should not be restored");
+    }
+
+    @Test
+    void testRecover_EvictsBeyondMaxEntries() {
+        // Arrange
+        DurableAnswerStore store = openStore();
+        for (long id = 1L; id <= MAX_ENTRIES * 2L; id++) {
+            store.put(id, null, TEST_CORRECT_ANSWER);
+        }
+        store.close();
+
+        // Act
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertEquals(MAX_ENTRIES, recovered.getStats().getSize());
+        assertNotNull(check(recovered, MAX_ENTRIES * 2L));
+    }
+
+    @Test
+    void testOpen_LogsOnceOtherStoreReleasesDirectory() throws InterruptedException {
+        // Arrange
+        DurableAnswerStore previous = openStore();
+        previous.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        DurableAnswerStore taking = openStore();
+        taking.put(OTHER_ID, null, TEST_CORRECT_ANSWER);
+
+        // Act
+        previous.put(THIRD_ID, null, TEST_CORRECT_ANSWER);
+        previous.close();
+        long deadline = System.currentTimeMillis() + RATE_LIMIT_MS;
+        while (check(taking, QUESTION_ID) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(SMALL_DELAY_MS);
+        }
+        taking.close();
+        DurableAnswerStore recovered = openStore();
+
+        // Assert
+        assertNotNull(check(taking, THIRD_ID), "Answers logged by the previous store should be recovered");
+        assertNotNull(check(recovered, QUESTION_ID));
+        assertNotNull(check(recovered, OTHER_ID), "Answers stored while waiting should be logged");
+        assertNotNull(check(recovered, THIRD_ID));
+    }
+}
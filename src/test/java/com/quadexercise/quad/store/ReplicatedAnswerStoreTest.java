@@ -0,0 +1,128 @@
+package com.quadexercise.quad.store;
+
+import com.quadexercise.quad.dto.AnswerDTO;
+import com.quadexercise.quad.dto.AnswerResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class ReplicatedAnswerStoreTest {
+
+    private static final long QUESTION_ID = 42L;
+    private static final long OTHER_ID = 43L;
+    private static final String SECRET = "cluster-secret";
+    // Nothing listens here, so every push fails
+    private static final String UNREACHABLE_PEER = "http://localhost:1";
+    // Pushes only happen on close within a test
+    private static final long PUSH_INTERVAL_MS = TimeUnit.HOURS.toMillis(1L);
+
+    private final AtomicLong _now = new AtomicLong(LARGE_DELAY_MS);
+    private final List<ReplicatedAnswerStore> _stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        _stores.forEach(ReplicatedAnswerStore::close);
+    }
+
+    private ReplicatedAnswerStore openStore(List<String> peers, int maxBacklog) {
+        ReplicatedAnswerStore store = new ReplicatedAnswerStore(10, LARGE_DELAY_MS, peers, SECRET,
+                1, PUSH_INTERVAL_MS, maxBacklog, new SimpleMeterRegistry(), _now::get);
+        _stores.add(store);
+        return store;
+    }
+
+    private static AnswerResultDTO check(ReplicatedAnswerStore store, long questionId) {
+        AnswerDTO answer = new AnswerDTO();
+        answer.setSelectedAnswer(TEST_CORRECT_ANSWER);
+        return store.check(questionId, answer);
+    }
+
+    private static byte[] batch(byte[]... records) {
+        ByteBuffer batch = ByteBuffer.allocate(Arrays.stream(records).mapToInt(record -> record.length).sum());
+        for (byte[] record : records) {
+            batch.put(record);
+        }
+        return batch.array();
+    }
+
+    @Test
+    void testApply_StoresReplicatedAnswersWithTheirExpiry() throws IOException {
+        // Arrange
+        ReplicatedAnswerStore store = openStore(List.of(), 10);
+        byte[] batch = batch(
+                AnswerWriteAheadLog.encode(QUESTION_ID, TEST_CORRECT_ANSWER, _now.get() + SMALL_DELAY_MS),
+                AnswerWriteAheadLog.encode(OTHER_ID, TEST_CORRECT_ANSWER, _now.get() - 1L));
+
+        // Act
+        int applied = store.apply(batch);
+
+        // Assert
+        assertEquals(2, applied);
+        assertTrue(check(store, QUESTION_ID).isCorrect());
+        assertNull(check(store, OTHER_ID), "Answer that expired on the way should not be stored");
+        _now.addAndGet(SMALL_DELAY_MS);
+        assertNull(check(store, QUESTION_ID), "Replicated answer should expire at its original time");
+    }
+
+    @Test
+    void testApply_RejectsDamagedBatch() {
+        // Arrange
+        ReplicatedAnswerStore store = openStore(List.of(), 10);
+        byte[] record = AnswerWriteAheadLog.encode(QUESTION_ID, TEST_CORRECT_ANSWER, LARGE_DELAY_MS * 2L);
+        byte[] truncated = Arrays.copyOf(record, record.length - 1);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> store.apply(truncated));
+        assertNull(check(store, QUESTION_ID));
+    }
+
+    @Test
+    void testIsAuthorized_RequiresSharedSecret() {
+        // Arrange
+        ReplicatedAnswerStore store = openStore(List.of(), 10);
+
+        // Act & Assert
+        assertTrue(store.isAuthorized(SECRET));
+        assertFalse(store.isAuthorized("other-secret"));
+        assertFalse(store.isAuthorized(null));
+    }
+
+    @Test
+    void testConstructor_RejectsBlankSecret() {
+        // Arrange
+        List<String> peers = List.of();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ReplicatedAnswerStore(
+                10, LARGE_DELAY_MS, peers, " ", 1, PUSH_INTERVAL_MS, 10, registry));
+    }
+
+    @Test
+    void testPut_GradesLocallyAndKeepsBacklogForUnreachablePeer() {
+        // Arrange
+        ReplicatedAnswerStore store = openStore(List.of(UNREACHABLE_PEER), 2);
+
+        // Act
+        store.put(QUESTION_ID, null, TEST_CORRECT_ANSWER);
+        store.put(OTHER_ID, null, TEST_CORRECT_ANSWER);
+        store.put(OTHER_ID + 1L, null, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertTrue(check(store, QUESTION_ID).isCorrect());
+        assertEquals(3, store.getStats().getSize());
+        assertEquals(2, store.backlog(), "Backlog should drop the oldest answers beyond its limit");
+    }
+}
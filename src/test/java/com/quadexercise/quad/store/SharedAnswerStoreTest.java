@@ -0,0 +1,213 @@
+package com.quadexercise.quad.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class SharedAnswerStoreTest {
+
+    private static final long QUESTION_ID = 42L;
+    private static final long UNKNOWN_ID = 7L;
+    private static final int PROCESSES = 3;
+    private static final int ANSWERS_PER_PROCESS = 20_000;
+    private static final long PROCESS_TIMEOUT_SECONDS = 60L;
+
+    @TempDir
+    private Path _directory;
+
+    private final AtomicLong _now = new AtomicLong(LARGE_DELAY_MS);
+
+    private SharedAnswerStore openStore(int maxEntries) {
+        return new SharedAnswerStore(maxEntries, LARGE_DELAY_MS, _directory.resolve("answers.table"), _now::get);
+    }
+
+    @Test
+    void testGet_ReturnsAnswerStoredThroughAnotherMapping() {
+        // Arrange
+        SharedAnswerStore writer = openStore(10);
+        SharedAnswerStore reader = openStore(10);
+
+        // Act
+        writer.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertEquals(TEST_CORRECT_ANSWER, reader.get(QUESTION_ID));
+        assertNull(reader.get(UNKNOWN_ID));
+        assertEquals(1, reader.getStats().getSize());
+    }
+
+    @Test
+    void testGet_ExpiredAnswerIsNotReturned() {
+        // Arrange
+        SharedAnswerStore store = openStore(10);
+        store.put(QUESTION_ID, TEST_CORRECT_ANSWER);
+
+        // Act
+        _now.addAndGet(LARGE_DELAY_MS);
+
+        // Assert
+        assertNull(store.get(QUESTION_ID));
+        assertEquals(0, store.getStats().getSize());
+    }
+
+    @Test
+    void testPut_ReusesExpiredSlotsAndCountsThem() {
+        // Arrange
+        SharedAnswerStore store = openStore(1);
+        store.put(1L, TEST_CORRECT_ANSWER);
+        store.put(2L, TEST_CORRECT_ANSWER);
+        _now.addAndGet(LARGE_DELAY_MS);
+
+        // Act
+        store.put(3L, TEST_CORRECT_ANSWER);
+        store.put(4L, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertEquals(2, store.getStats().getSize());
+        assertEquals(2L, store.getStats().getExpirations());
+        assertEquals(0L, store.getStats().getEvictions());
+    }
+
+    @Test
+    void testPut_EvictsAnswerExpiringFirstWhenFull() {
+        // Arrange
+        SharedAnswerStore store = openStore(1);
+        store.put(1L, TEST_CORRECT_ANSWER);
+        _now.addAndGet(SMALL_DELAY_MS);
+        store.put(2L, TEST_CORRECT_ANSWER);
+
+        // Act
+        store.put(3L, TEST_CORRECT_ANSWER);
+
+        // Assert
+        assertNull(store.get(1L));
+        assertEquals(TEST_CORRECT_ANSWER, store.get(2L));
+        assertEquals(TEST_CORRECT_ANSWER, store.get(3L));
+        assertEquals(1L, store.getStats().getEvictions());
+    }
+
+    @Test
+    void testPut_RejectsAnswerLongerThanSlot() {
+        // Arrange
+        SharedAnswerStore store = openStore(10);
+        String answer = "x".repeat(SharedAnswerStore.MAX_ANSWER_BYTES + 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.put(QUESTION_ID, answer));
+    }
+
+    @Test
+    void testOpen_KeepsSizeOfExistingTable() {
+        // Arrange
+        openStore(10).put(QUESTION_ID, TEST_CORRECT_ANSWER);
+
+        // Act
+        SharedAnswerStore reopened = openStore(1_000);
+
+        // Assert
+        assertEquals(TEST_CORRECT_ANSWER, reopened.get(QUESTION_ID));
+        assertEquals(16, reopened.getStats().getMaxEntries());
+    }
+
+    @Test
+    void testProcesses_GradeAnswersRegisteredByEachOther() throws IOException, InterruptedException {
+        // Arrange
+        Path table = _directory.resolve("shared.table");
+        runProcesses(Worker.REGISTER, table);
+
+        // Act
+        List<String> results = runProcesses(Worker.GRADE, table);
+
+        // Assert
+        long graded = 0L;
+        long nanos = 0L;
+        for (String result : results) {
+            String[] fields = result.split(" ");
+            assertEquals("0", fields[2], "Every answer should be found by every process: " + result);
+            graded += Long.parseLong(fields[0]);
+            nanos = Math.max(nanos, Long.parseLong(fields[1]));
+        }
+        assertEquals((long) PROCESSES * PROCESSES * ANSWERS_PER_PROCESS, graded);
+        System.out.printf("%d processes graded %d answers at %.0f per second%n",
+                PROCESSES, graded, graded / (nanos / 1e9));
+    }
+
+    private static List<String> runProcesses(String mode, Path table) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    Worker.class.getName(), mode, table.toString(), Integer.toString(i))
+                    .redirectErrorStream(true)
+                    .start());
+        }
+        List<String> results = new ArrayList<>();
+        for (Process process : processes) {
+            assertTrue(process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS), "Worker process timed out");
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            assertEquals(0, process.exitValue(), output);
+            String[] lines = output.split("\\R");
+            results.add(lines[lines.length - 1]);
+        }
+        return results;
+    }
+
+    private static long questionId(int process, int answer) {
+        return (process + 1L) * 1_000_000L + answer;
+    }
+
+    private static String answerFor(long questionId) {
+        return "Answer " + questionId;
+    }
+
+    /**
+     * Runs in a separate JVM: registers this process's answers, or grades the answers of all processes.
+     * Prints the operations done, the time taken in nanoseconds and the answers not found.
+     */
+    static final class Worker {
+
+        static final String REGISTER = "register";
+        static final String GRADE = "grade";
+
+        private Worker() {
+        }
+
+        public static void main(String[] args) {
+            SharedAnswerStore store = new SharedAnswerStore(
+                    PROCESSES * ANSWERS_PER_PROCESS, TimeUnit.HOURS.toMillis(1L), Path.of(args[1]));
+            int process = Integer.parseInt(args[2]);
+            long operations = 0L;
+            long missing = 0L;
+            long start = System.nanoTime();
+            if (REGISTER.equals(args[0])) {
+                for (int answer = 0; answer < ANSWERS_PER_PROCESS; answer++) {
+                    long questionId = questionId(process, answer);
+                    store.put(questionId, answerFor(questionId));
+                    operations++;
+                }
+            } else {
+                for (int owner = 0; owner < PROCESSES; owner++) {
+                    for (int answer = 0; answer < ANSWERS_PER_PROCESS; answer++) {
+                        long questionId = questionId(owner, answer);
+                        if (!answerFor(questionId).equals(store.get(questionId))) {
+                            missing++;
+                        }
+                        operations++;
+                    }
+                }
+            }
+            System.out.println(operations + " " + (System.nanoTime() - start) + " " + missing);
+        }
+    }
+}
@@ -15,6 +15,7 @@ public enum TestConstants {
     public static final String ERROR_SERVICE_UNAVAILABLE = "{\"error\": \"Service temporarily unavailable\"}";
     public static final String ERROR_FETCH_TRIVIA = "{\"error\": \"Failed to fetch trivia\"}";
     public static final String ERROR_PARSING_DATA = "{\"error\": \"Error parsing trivia data from provider\"}";
+    public static final String ERROR_DEADLINE_EXCEEDED = "{\"error\": \"Request deadline exceeded\"}";
     public static final String PARSE_ERROR_MESSAGE = "Error parsing trivia data";
     public static final String SERVICE_ERROR_MESSAGE = "Service error occurred";
     public static final String ORIGINAL_ERROR = "Original error";
@@ -0,0 +1,61 @@
+package com.quadexercise.quad.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    @Test
+    void testFromRequest_PrefersRequestedTimeout() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        Deadline deadline = Deadline.fromRequest(SMALL_DELAY_MS, LARGE_DELAY_MS);
+
+        // Assert
+        assertTrue(deadline.isBounded());
+        assertTrue(deadline.remainingMillis(before) <= SMALL_DELAY_MS + 1L);
+        assertTrue(deadline.getEpochMillis() >= before + SMALL_DELAY_MS);
+    }
+
+    @Test
+    void testFromRequest_FallsBackToDefaultWithoutUsableHeader() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        Deadline missing = Deadline.fromRequest(null, LARGE_DELAY_MS);
+        Deadline negative = Deadline.fromRequest(-1L, LARGE_DELAY_MS);
+
+        // Assert
+        assertTrue(missing.getEpochMillis() >= before + LARGE_DELAY_MS);
+        assertTrue(negative.getEpochMillis() >= before + LARGE_DELAY_MS);
+    }
+
+    @Test
+    void testFromRequest_ZeroDefaultMeansNoDeadline() {
+        // Act
+        Deadline deadline = Deadline.fromRequest(null, 0L);
+
+        // Assert
+        assertFalse(deadline.isBounded());
+        assertSame(Deadline.none(), deadline);
+        assertEquals(Long.MAX_VALUE, deadline.remainingMillis(System.currentTimeMillis()));
+        assertEquals(Long.MAX_VALUE, deadline.remainingMillis(Long.MAX_VALUE - 1L));
+    }
+
+    @Test
+    void testRemainingMillis_StopsAtZero() {
+        // Arrange
+        Deadline deadline = Deadline.at(LARGE_DELAY_MS);
+
+        // Act & Assert
+        assertEquals(LARGE_DELAY_MS - SMALL_DELAY_MS, deadline.remainingMillis(SMALL_DELAY_MS));
+        assertEquals(0L, deadline.remainingMillis(LARGE_DELAY_MS * 2L));
+        assertEquals(1L, deadline.remainingMillis(LARGE_DELAY_MS - 1L));
+        assertEquals(0L, deadline.remainingMillis(LARGE_DELAY_MS));
+    }
+}
@@ -0,0 +1,110 @@
+package com.quadexercise.quad.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class QuestionIdsTest {
+
+    @Test
+    void testNext_IsPositiveAndIncreasing() {
+        // Act
+        long first = QuestionIds.next();
+        long second = QuestionIds.next();
+
+        // Assert
+        assertTrue(0L < first);
+        assertTrue(first < second);
+        assertEquals(QuestionIds.nodeOf(first), QuestionIds.nodeOf(second));
+    }
+
+    @Test
+    void testTimestampOf_FollowsTheClock() throws InterruptedException {
+        // Arrange
+        QuestionIds.next();
+        Thread.sleep(SMALL_DELAY_MS);
+
+        // Act
+        long before = System.currentTimeMillis();
+        long id = QuestionIds.next();
+
+        // Assert
+        assertTrue(QuestionIds.timestampOf(id) >= before,
+                "ID time should catch up with the clock after an idle period");
+        assertTrue(QuestionIds.timestampOf(id) - before < SMALL_DELAY_MS);
+    }
+
+    @Test
+    void testAdvancePast_IssuesLaterIdsThanAnotherProcess() {
+        // Arrange
+        // A few sequence steps ahead, as issued by a process whose counter ran ahead of the clock
+        long issuedElsewhere = QuestionIds.next() + (5L << 10);
+
+        // Act
+        QuestionIds.advancePast(issuedElsewhere);
+        long id = QuestionIds.next();
+
+        // Assert
+        assertTrue(id > issuedElsewhere);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 63L, 64L, 1_234_567_890_123L, Long.MAX_VALUE})
+    void testDecode_RoundTripsEncodedIds(long id) {
+        // Act
+        String encoded = QuestionIds.encode(id);
+
+        // Assert
+        assertEquals(QuestionIds.ENCODED_LENGTH, encoded.length());
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(id, QuestionIds.decode(encoded));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "short", "AAAAAAAAAAAA", "AAAAAAAAAA*", "_AAAAAAAAAA", "AAAAAAAAAA\u00e9"})
+    void testDecode_RejectsInvalidIds(String encoded) {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> QuestionIds.decode(encoded));
+    }
+
+    @Test
+    void testNext_ConcurrentCallersNeverCollide() throws InterruptedException {
+        // Arrange
+        int threads = 8;
+        int idsPerThread = 10_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet(threads * idsPerThread);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids.add(QuestionIds.next());
+                }
+            });
+            workers[t].start();
+        }
+
+        // Act
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(RATE_LIMIT_MS);
+        }
+
+        // Assert
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+}
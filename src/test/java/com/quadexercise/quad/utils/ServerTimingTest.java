@@ -0,0 +1,72 @@
+package com.quadexercise.quad.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.unbind();
+    }
+
+    @Test
+    void testToHeaderValue_ListsRecordedStagesInOrderWithTotal() {
+        // Arrange
+        ServerTiming timing = new ServerTiming();
+        timing.add(ServerTiming.Stage.PARSE, 2_340_000L);
+        timing.add(ServerTiming.Stage.RATE_LIMIT, 4_999_800_000L);
+
+        // Act
+        String header = timing.toHeaderValue();
+
+        // Assert
+        assertTrue(header.startsWith("rateLimit;dur=4999.8, parseQuestions;dur=2.3, total;dur="), header);
+        assertFalse(header.contains("fetchTrivia"));
+    }
+
+    @Test
+    void testAddAll_AccumulatesStagesFromAnotherTiming() {
+        // Arrange
+        ServerTiming batch = new ServerTiming();
+        batch.add(ServerTiming.Stage.FETCH, 100L);
+        batch.add(ServerTiming.Stage.REGISTER, 20L);
+        ServerTiming member = new ServerTiming();
+        member.add(ServerTiming.Stage.FETCH, 5L);
+
+        // Act
+        member.addAll(batch);
+
+        // Assert
+        assertEquals(105L, member.getNanos(ServerTiming.Stage.FETCH));
+        assertEquals(20L, member.getNanos(ServerTiming.Stage.REGISTER));
+        assertEquals(0L, member.getNanos(ServerTiming.Stage.PARSE));
+    }
+
+    @Test
+    void testCurrent_IgnoresRecordingWhenNothingIsBound() {
+        // Act
+        ServerTiming.current().add(ServerTiming.Stage.FETCH, 100L);
+
+        // Assert
+        assertFalse(ServerTiming.current().isEnabled());
+        assertEquals(0L, ServerTiming.current().getNanos(ServerTiming.Stage.FETCH));
+    }
+
+    @Test
+    void testCurrent_ReturnsBoundTiming() {
+        // Arrange
+        ServerTiming timing = new ServerTiming();
+        ServerTiming.bind(timing);
+
+        // Act
+        ServerTiming.current().add(ServerTiming.Stage.GRADE, 100L);
+
+        // Assert
+        assertSame(timing, ServerTiming.current());
+        assertEquals(100L, timing.getNanos(ServerTiming.Stage.GRADE));
+    }
+}
@@ -0,0 +1,42 @@
+package com.quadexercise.quad.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.quadexercise.quad.testutilities.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("DuplicateStringLiteralInspection")
+class VirtualThreadsTest {
+
+    @Test
+    void testIsSupported_MatchesRuntimeVersion() {
+        // Act
+        boolean supported = VirtualThreads.isSupported();
+
+        // Assert
+        assertEquals(Runtime.version().feature() >= 21, supported);
+    }
+
+    @Test
+    void testNewThreadPerTaskExecutor_RunsTasksWhenSupported() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            // Act & Assert
+            assertThrows(IllegalStateException.class, VirtualThreads::newThreadPerTaskExecutor);
+            return;
+        }
+
+        // Arrange
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+
+        // Act
+        Future<String> result = executor.submit(() -> TEST_MESSAGE);
+
+        // Assert
+        assertEquals(TEST_MESSAGE, result.get(LARGE_DELAY_MS, TimeUnit.MILLISECONDS));
+        executor.shutdown();
+    }
+}